@@ -14,6 +14,7 @@
 
 package org.neo4j.ogm.cypher.compiler;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Map;
 
@@ -49,6 +50,20 @@ public interface CypherCompiler {
      */
     void unrelate(String startNode, String relationshipType, String endNode, Long relId);
 
+    /**
+     * Defines the deletion of the relationships of the given type and direction between an existing node and nodes
+     * with the given label, other than those to the nodes or with the ids given. It is meant for a node some of whose
+     * relationships are not known, so that the relationships it is saved with are all it has afterwards.
+     *
+     * @param nodeId The id of the existing node
+     * @param relationshipType The type of the relationships to delete
+     * @param direction The direction of the relationships from the node
+     * @param label The label of the nodes at the other end, or null for nodes with any label
+     * @param keptNodeIds The ids of the nodes the relationships to which are kept
+     * @param keptRelationshipIds The ids of the relationships that are kept
+     */
+    void unrelateAllBut(Long nodeId, String relationshipType, String direction, String label, Collection<Long> keptNodeIds, Collection<Long> keptRelationshipIds);
+
     /**
      * Returns {@link NodeBuilder} that represents a new node to be created in the database.
      *
@@ -56,6 +71,18 @@ public interface CypherCompiler {
      */
     NodeBuilder newNode();
 
+    /**
+     * Returns a {@link NodeBuilder} that represents a node whose id is not known, to be merged into the database on a
+     * uniquely indexed property. The node is created if no node with the given label has the given value for
+     * the property, and updated otherwise.
+     *
+     * @param label The label that the property is unique for
+     * @param key The name of the uniquely indexed property
+     * @param value The value of the property
+     * @return A {@link NodeBuilder} representing the merged node
+     */
+    NodeBuilder mergedNode(String label, String key, Object value);
+
     /**
      * Returns a {@link NodeBuilder} that represents a node that already exists in the database and matches the given ID.
      *
@@ -37,6 +37,8 @@ public class CypherContext {
 
 
     private final Collection<Object> log = new HashSet<>();
+    private final List<Object> logOrder = new ArrayList<>();
+    private final Map<Object, Long> memos = new IdentityHashMap<>();
 
     private List<ParameterisedStatement> statements;
 
@@ -80,18 +82,50 @@ public class CypherContext {
         return createdObjects.get(cypherName);
     }
 
+    public Collection<Object> getNewObjects() {
+        return createdObjects.values();
+    }
+
     public Collection<MappedRelationship> registeredRelationships() {
         return registeredRelationships;
     }
 
     public void log(Object object) {
-        log.add(object);
+        if (log.add(object)) {
+            logOrder.add(object);
+        }
     }
 
     public Collection<Object> log() {
         return log;
     }
 
+    /**
+     * @param from how many of the logged objects to skip
+     * @return the objects logged after the first ones, in the order they were logged
+     */
+    public List<Object> log(int from) {
+        return logOrder.subList(from, logOrder.size());
+    }
+
+    /**
+     * Records the memo made of an object when it was mapped, so that once saved it is remembered as it was then.
+     *
+     * @param object an object in the log
+     * @param memo its memo, as made by {@link org.neo4j.ogm.mapper.MappingContext#memo(Object)}
+     */
+    public void memo(Object object, Long memo) {
+        memos.put(object, memo);
+    }
+
+    /**
+     * @param object an object in the log
+     * @return the memo recorded for the object, or null if it is to be remembered as it is once saved
+     */
+    public Long memo(Object object) {
+        return memos.get(object);
+    }
+
     /**
      * Invoked when the mapper wishes to mark a set of outgoing relationships to a specific type like (a)-[:T]-&gt;(*) as deleted, prior
      * to possibly re-establishing them individually as it traverses the entity graph.
@@ -0,0 +1,93 @@
+/*
+ * Copyright (c) 2002-2015 "Neo Technology,"
+ * Network Engine for Objects in Lund AB [http://neotechnology.com]
+ *
+ * This product is licensed to you under the Apache License, Version 2.0 (the "License").
+ * You may not use this product except in compliance with the License.
+ *
+ * This product may include a number of subcomponents with
+ * separate copyright notices and license terms. Your use of the source
+ * code for these subcomponents is subject to the terms and
+ * conditions of the subcomponent's license, as noted in the LICENSE file.
+ *
+ */
+
+package org.neo4j.ogm.cypher.compiler;
+
+import java.util.Collection;
+import java.util.Map;
+import java.util.Set;
+
+import org.neo4j.ogm.annotation.Relationship;
+
+/**
+ * Renders Cypher that deletes the relationships of a type between an existing node and nodes with a label, other than
+ * those to the given nodes or with the given ids. It is used for a node whose relationships the mapping context no
+ * longer knows all of, so that those missing from the entity being saved are deleted all the same.
+ */
+class DeletedUnmappedRelationshipsBuilder implements CypherEmitter, Comparable<DeletedUnmappedRelationshipsBuilder> {
+
+    private final String src;
+    private final String type;
+    private final String direction;
+    private final String label;
+    private final String rid;
+    private final String other;
+    private final Collection<Long> keptNodeIds;
+    private final Collection<Long> keptRelationshipIds;
+
+    DeletedUnmappedRelationshipsBuilder(String src, String type, String direction, String label, String rid, String other,
+                                        Collection<Long> keptNodeIds, Collection<Long> keptRelationshipIds) {
+        this.src = src;
+        this.type = type;
+        this.direction = direction;
+        this.label = label;
+        this.rid = rid;
+        this.other = other;
+        this.keptNodeIds = keptNodeIds;
+        this.keptRelationshipIds = keptRelationshipIds;
+    }
+
+    @Override
+    public boolean emit(StringBuilder queryBuilder, Map<String, Object> parameters, Set<String> varStack) {
+
+        if (!varStack.isEmpty()) {
+            queryBuilder.append(" WITH ").append(NodeBuilder.toCsv(varStack));
+        }
+
+        if (!varStack.contains(src)) {
+            queryBuilder.append(" MATCH (").append(src).append(")");
+            queryBuilder.append(" WHERE id(").append(src).append(")={").append(src).append("}");
+            parameters.put(src, Long.parseLong(src.substring(1)));
+            varStack.add(src);
+        }
+
+        // relationships are written outgoing unless they are incoming, so those are the ones that can be missing
+        boolean incoming = Relationship.INCOMING.equals(direction);
+        queryBuilder.append(" OPTIONAL MATCH (").append(src).append(")");
+        queryBuilder.append(incoming ? "<-[" : "-[");
+        queryBuilder.append(rid).append(":`").append(type).append("`]");
+        queryBuilder.append(incoming ? "-(" : "->(");
+        queryBuilder.append(other);
+        if (label != null) {
+            queryBuilder.append(":`").append(label).append("`");
+        }
+        queryBuilder.append(")");
+
+        queryBuilder.append(" WHERE NOT id(").append(other).append(") IN {").append(rid).append("_nodes}");
+        queryBuilder.append(" AND NOT id(").append(rid).append(") IN {").append(rid).append("_rels}");
+        parameters.put(rid + "_nodes", keptNodeIds);
+        parameters.put(rid + "_rels", keptRelationshipIds);
+
+        // the optional match gives a row for each relationship, which are gathered up again for the clauses after
+        queryBuilder.append(" WITH ").append(NodeBuilder.toCsv(varStack)).append(", collect(").append(rid).append(") AS ").append(rid).append("_all");
+        queryBuilder.append(" FOREACH (").append(rid).append("_r IN ").append(rid).append("_all | DELETE ").append(rid).append("_r)");
+
+        return true;
+    }
+
+    @Override
+    public int compareTo(DeletedUnmappedRelationshipsBuilder o) {
+        return rid.compareTo(o.rid);
+    }
+}
@@ -0,0 +1,85 @@
+/*
+ * Copyright (c) 2002-2015 "Neo Technology,"
+ * Network Engine for Objects in Lund AB [http://neotechnology.com]
+ *
+ * This product is licensed to you under the Apache License, Version 2.0 (the "License").
+ * You may not use this product except in compliance with the License.
+ *
+ * This product may include a number of subcomponents with
+ * separate copyright notices and license terms. Your use of the source
+ * code for these subcomponents is subject to the terms and
+ * conditions of the subcomponent's license, as noted in the LICENSE file.
+ *
+ */
+package org.neo4j.ogm.cypher.compiler;
+
+import java.util.Map;
+import java.util.Set;
+
+import org.neo4j.ogm.entityaccess.EntityAccessStrategy;
+import org.neo4j.ogm.entityaccess.PropertyReader;
+import org.neo4j.ogm.metadata.info.ClassInfo;
+
+/**
+ * Renders Cypher appropriate for a node without a known id that is identified by a uniquely indexed property.
+ * The node is merged on that property, so an existing node with the same key is updated instead of a
+ * duplicate being created.
+ */
+class MergedNodeBuilder extends NodeBuilder {
+
+    private final String label;
+    private final String key;
+    private final Object value;
+
+    MergedNodeBuilder(String variableName, String label, String key, Object value) {
+        super(variableName);
+        this.label = label;
+        this.key = key;
+        this.value = value;
+    }
+
+    @Override
+    public NodeBuilder mapProperties(Object toPersist, ClassInfo classInfo, EntityAccessStrategy objectAccessStrategy) {
+        // null properties are left out, so that merging does not remove what an existing node already has
+        for (PropertyReader propertyReader : objectAccessStrategy.getPropertyReaders(classInfo)) {
+            Object value = propertyReader.read(toPersist);
+            if (value != null) {
+                addProperty(propertyReader.propertyName(), value);
+            }
+        }
+        return this;
+    }
+
+    @Override
+    public boolean emit(StringBuilder queryBuilder, Map<String, Object> parameters, Set<String> varStack) {
+
+        // merges follow the CREATE clause and one another directly, as none of them reads the graph
+        queryBuilder.append(" MERGE (").append(this.reference()).append(":`").append(label).append("` {`")
+                .append(key).append("`:{").append(this.reference()).append("_key}})");
+        parameters.put(this.reference() + "_key", value);
+
+        StringBuilder labels = new StringBuilder();
+        for (String other : this.labels) {
+            if (!other.equals(label)) {
+                labels.append(":`").append(other).append('`');
+            }
+        }
+        if (labels.length() > 0 || !this.props.isEmpty()) {
+            queryBuilder.append(" SET ");
+        }
+        if (labels.length() > 0) {
+            queryBuilder.append(this.reference()).append(labels);
+            if (!this.props.isEmpty()) {
+                queryBuilder.append(", ");
+            }
+        }
+        if (!this.props.isEmpty()) {
+            queryBuilder.append(this.reference()).append("+={").append(this.reference()).append("_props}");
+            parameters.put(this.reference() + "_props", this.props);
+        }
+        varStack.add(this.reference());
+
+        return true;
+    }
+
+}
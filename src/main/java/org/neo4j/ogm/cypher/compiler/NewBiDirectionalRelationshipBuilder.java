@@ -74,7 +74,7 @@ public class NewBiDirectionalRelationshipBuilder extends RelationshipBuilder {
 			varStack.add(endNodeIdentifier);
 		}
 
-		queryBuilder.append(" MERGE (");
+		queryBuilder.append(isProvablyNew() ? " CREATE (" : " MERGE (");
 		queryBuilder.append(startNodeIdentifier);
 		queryBuilder.append(")-[").append(this.reference).append(":`");
 		queryBuilder.append(type);
@@ -82,7 +82,7 @@ public class NewBiDirectionalRelationshipBuilder extends RelationshipBuilder {
 		if (!this.props.isEmpty()) {
 			queryBuilder.append('{');
 
-			// for MERGE, we need properties in this format: name:{_#_props}.name
+			// for MERGE and CREATE, we need properties in this format: name:{_#_props}.name
 			final String propertyVariablePrefix = '{' + this.reference + "_props}.";
 			for (Map.Entry<String, Object> relationshipProperty : this.props.entrySet()) {
 				if (relationshipProperty.getValue() != null) {
@@ -100,7 +100,7 @@ public class NewBiDirectionalRelationshipBuilder extends RelationshipBuilder {
 		queryBuilder.append(")");
 
 		//Create a relation from the end node to start node as well
-		queryBuilder.append(" MERGE (");
+		queryBuilder.append(isProvablyNew() ? " CREATE (" : " MERGE (");
 		queryBuilder.append(endNodeIdentifier);
 		queryBuilder.append(")-[").append(this.otherReference).append(":`");
 		queryBuilder.append(type);
@@ -108,7 +108,7 @@ public class NewBiDirectionalRelationshipBuilder extends RelationshipBuilder {
 		if (!this.props.isEmpty()) {
 			queryBuilder.append('{');
 
-			// for MERGE, we need properties in this format: name:{_#_props}.name
+			// for MERGE and CREATE, we need properties in this format: name:{_#_props}.name
 			final String propertyVariablePrefix = '{' + this.otherReference + "_props}.";
 			for (Map.Entry<String, Object> relationshipProperty : this.props.entrySet()) {
 				if (relationshipProperty.getValue() != null) {
@@ -32,6 +32,11 @@ class NewNodeBuilder extends NodeBuilder {
         super(variableName);
     }
 
+    @Override
+    public boolean isNew() {
+        return true;
+    }
+
     @Override
     public NodeBuilder mapProperties(Object toPersist, ClassInfo classInfo, EntityAccessStrategy objectAccessStrategy) {
         for (PropertyReader propertyReader : objectAccessStrategy.getPropertyReaders(classInfo)) {
@@ -76,7 +76,7 @@ class NewRelationshipBuilder extends RelationshipBuilder {
         }
 
 
-        queryBuilder.append(" MERGE (");
+        queryBuilder.append(isProvablyNew() ? " CREATE (" : " MERGE (");
         queryBuilder.append(startNodeIdentifier);
         queryBuilder.append(")-[").append(this.reference).append(":`");
         queryBuilder.append(type);
@@ -84,7 +84,7 @@ class NewRelationshipBuilder extends RelationshipBuilder {
         if (!this.props.isEmpty()) {
             queryBuilder.append('{');
 
-            // for MERGE, we need properties in this format: name:{_#_props}.name
+            // for MERGE and CREATE, we need properties in this format: name:{_#_props}.name
             final String propertyVariablePrefix = '{' + this.reference + "_props}.";
             boolean firstProperty = true;
             for (Entry<String, Object> relationshipProperty: this.props.entrySet()) {
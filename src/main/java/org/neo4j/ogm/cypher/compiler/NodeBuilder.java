@@ -62,6 +62,26 @@ public abstract class NodeBuilder implements CypherEmitter, Comparable<NodeBuild
 
     public abstract NodeBuilder mapProperties(Object toPersist, ClassInfo classInfo, EntityAccessStrategy objectAccessStrategy);
 
+    /**
+     * Maps the properties of the given object again, in place of those mapped before.
+     *
+     * @param toPersist the object mapped before
+     * @param classInfo its {@link ClassInfo}
+     * @param objectAccessStrategy the {@link EntityAccessStrategy} to read its properties with
+     * @return this {@link NodeBuilder}
+     */
+    public NodeBuilder remapProperties(Object toPersist, ClassInfo classInfo, EntityAccessStrategy objectAccessStrategy) {
+        props.clear();
+        return mapProperties(toPersist, classInfo, objectAccessStrategy);
+    }
+
+    /**
+     * @return true if the node is created by the statement, so that nothing in the graph can be related to it yet
+     */
+    public boolean isNew() {
+        return false;
+    }
+
     @Override
     public String toString() {
         return "(" + cypherReference + ":" + this.labels + " " + this.props + ")";
@@ -33,6 +33,7 @@ public abstract class RelationshipBuilder implements CypherEmitter, Comparable<R
     protected String reference;
     private Boolean singleton = true; // will be false if the relationship can be mapped multiple times between two instances
     private String direction;
+    private boolean provablyNew;
 
     final Map<String, Object> props = new HashMap<>();
 
@@ -82,6 +83,21 @@ public abstract class RelationshipBuilder implements CypherEmitter, Comparable<R
 
     public abstract boolean isNew();
 
+    /**
+     * Marks a new relationship as one that cannot already be in the graph, so that it is created outright
+     * rather than merged. Merging has to look through the relationships between the two nodes, which is
+     * costly on densely connected nodes.
+     *
+     * @param provablyNew true if no such relationship can exist yet
+     */
+    public void setProvablyNew(boolean provablyNew) {
+        this.provablyNew = provablyNew;
+    }
+
+    public boolean isProvablyNew() {
+        return provablyNew;
+    }
+
     public String getReference() {
         return reference;
     }
@@ -14,6 +14,7 @@
 
 package org.neo4j.ogm.cypher.compiler;
 
+import java.util.Collection;
 import java.util.Collections;
 import java.util.HashMap;
 import java.util.Iterator;
@@ -35,7 +36,9 @@ public class SingleStatementCypherCompiler implements CypherCompiler {
     private final IdentifierManager identifiers = new IdentifierManager();
 
     private final Set<CypherEmitter> newNodes = new TreeSet<>();
+    private final Set<CypherEmitter> mergedNodes = new TreeSet<>();
     private final Set<CypherEmitter> updatedNodes = new TreeSet<>();
+    private final Set<CypherEmitter> unmappedRelationships = new TreeSet<>();
     private final Set<CypherEmitter> newRelationships = new TreeSet<>();
     private final Set<CypherEmitter> updatedRelationships = new TreeSet<>();
     private final Set<CypherEmitter> deletedRelationships = new TreeSet<>();
@@ -60,6 +63,12 @@ public class SingleStatementCypherCompiler implements CypherCompiler {
         deletedRelationships.add(new DeletedRelationshipBuilder(relationshipType,startNode, endNode, this.identifiers.nextIdentifier(), relId));
     }
 
+    @Override
+    public void unrelateAllBut(Long nodeId, String relationshipType, String direction, String label, Collection<Long> keptNodeIds, Collection<Long> keptRelationshipIds) {
+        unmappedRelationships.add(new DeletedUnmappedRelationshipsBuilder(identifiers.identifier(nodeId), relationshipType, direction, label,
+                identifiers.nextIdentifier(), identifiers.nextIdentifier(), keptNodeIds, keptRelationshipIds));
+    }
+
     @Override
     public NodeBuilder newNode() {
         NodeBuilder newNode = new NewNodeBuilder(this.identifiers.nextIdentifier());
@@ -67,6 +76,13 @@ public class SingleStatementCypherCompiler implements CypherCompiler {
         return newNode;
     }
 
+    @Override
+    public NodeBuilder mergedNode(String label, String key, Object value) {
+        NodeBuilder mergedNode = new MergedNodeBuilder(this.identifiers.nextIdentifier(), label, key, value);
+        this.mergedNodes.add(mergedNode);
+        return mergedNode;
+    }
+
     @Override
     public NodeBuilder existingNode(Long existingNodeId) {
         NodeBuilder node = new ExistingNodeBuilder(this.identifiers.identifier(existingNodeId));
@@ -119,10 +135,21 @@ public class SingleStatementCypherCompiler implements CypherCompiler {
             }
         }
 
+        for (CypherEmitter emitter : mergedNodes) {
+            NodeBuilder node = (NodeBuilder) emitter;
+            node.emit(queryBuilder, parameters, varStack);
+            newStack.add(node.reference());
+        }
+
         for (CypherEmitter emitter : updatedNodes) {
             emitter.emit(queryBuilder, parameters, varStack);
         }
 
+        // before the new relationships, which are not to be kept
+        for (CypherEmitter emitter : unmappedRelationships) {
+            emitter.emit(queryBuilder, parameters, varStack);
+        }
+
 
         for (Iterator<CypherEmitter> it = this.newRelationships.iterator() ; it.hasNext() ; ) {
             RelationshipBuilder relationshipBuilder = (RelationshipBuilder) it.next();
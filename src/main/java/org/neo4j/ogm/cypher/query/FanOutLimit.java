@@ -0,0 +1,65 @@
+/*
+ * Copyright (c) 2002-2015 "Neo Technology,"
+ * Network Engine for Objects in Lund AB [http://neotechnology.com]
+ *
+ * This product is licensed to you under the Apache License, Version 2.0 (the "License").
+ * You may not use this product except in compliance with the License.
+ *
+ * This product may include a number of subcomponents with
+ * separate copyright notices and license terms. Your use of the source
+ * code for these subcomponents is subject to the terms and
+ * conditions of the subcomponent's license, as noted in the LICENSE file.
+ *
+ */
+package org.neo4j.ogm.cypher.query;
+
+/**
+ * Caps the number of relationships of each type that are loaded for each node when hydrating
+ * an object graph. Relationships beyond the limit are left in the database and the owning
+ * node is flagged as truncated in the mapping context.
+ *
+ * By default the relationships kept are the ones with the lowest ids. An ordering on a
+ * relationship property may be supplied instead.
+ */
+public class FanOutLimit {
+
+    private final int limit;
+    private final String property;
+    private final SortOrder.Direction direction;
+
+    public FanOutLimit(int limit) {
+        this(limit, null, SortOrder.Direction.ASC);
+    }
+
+    public FanOutLimit(int limit, String property, SortOrder.Direction direction) {
+
+        if (limit < 1) {
+            throw new RuntimeException("Fan-out limit must be greater than zero");
+        }
+
+        this.limit = limit;
+        this.property = property;
+        this.direction = direction;
+    }
+
+    public int getLimit() {
+        return limit;
+    }
+
+    /**
+     * @param identifier the cypher identifier of the relationship being ordered
+     * @return the ORDER BY clause that decides which relationships are kept
+     */
+    public String orderBy(String identifier) {
+        StringBuilder sb = new StringBuilder(" ORDER BY ");
+        if (property == null) {
+            sb.append("id(").append(identifier).append(")");
+        } else {
+            sb.append(identifier).append(".`").append(property).append("`");
+        }
+        if (direction == SortOrder.Direction.DESC) {
+            sb.append(" DESC");
+        }
+        return sb.toString();
+    }
+}
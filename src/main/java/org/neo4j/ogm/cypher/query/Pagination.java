@@ -18,6 +18,13 @@ package org.neo4j.ogm.cypher.query;
  */
 public class Pagination {
 
+    /**
+     * The names of the parameters to which the rows to skip and the page size are bound, so that every page of a query
+     * has the same text.
+     */
+    public static final String SKIP = "_skip";
+    public static final String LIMIT = "_limit";
+
     private final Integer index;
     private final Integer size;
 
@@ -35,7 +42,15 @@ public class Pagination {
         this.size = pageSize;
     }
 
+    public int getSkip() {
+        return index * size;
+    }
+
+    public int getLimit() {
+        return size;
+    }
+
     public String toString() {
-        return " SKIP " + (index * size) + " LIMIT " + size;
+        return " SKIP { " + SKIP + " } LIMIT { " + LIMIT + " }";
     }
 }
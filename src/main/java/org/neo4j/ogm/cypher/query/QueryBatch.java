@@ -0,0 +1,77 @@
+/*
+ * Copyright (c) 2002-2015 "Neo Technology,"
+ * Network Engine for Objects in Lund AB [http://neotechnology.com]
+ *
+ * This product is licensed to you under the Apache License, Version 2.0 (the "License").
+ * You may not use this product except in compliance with the License.
+ *
+ * This product may include a number of subcomponents with
+ * separate copyright notices and license terms. Your use of the source
+ * code for these subcomponents is subject to the terms and
+ * conditions of the subcomponent's license, as noted in the LICENSE file.
+ *
+ */
+
+package org.neo4j.ogm.cypher.query;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * A list of independent read queries to be sent to the database in a single request.
+ *
+ * Queries added with a type are returned as domain objects or scalars of that type, as by
+ * {@link org.neo4j.ogm.session.Session#query(Class, String, Map)}. Queries added without a type are
+ * returned as rows, as by {@link org.neo4j.ogm.session.Session#query(String, Map)}.
+ */
+public class QueryBatch {
+
+    private final List<Entry> entries = new ArrayList<>();
+
+    public QueryBatch add(String cypher, Map<String, ?> parameters) {
+        entries.add(new Entry(null, cypher, parameters));
+        return this;
+    }
+
+    public QueryBatch add(Class<?> type, String cypher, Map<String, ?> parameters) {
+        if (type == null || type.equals(Void.class)) {
+            throw new RuntimeException("Supplied type must not be null or void.");
+        }
+        entries.add(new Entry(type, cypher, parameters));
+        return this;
+    }
+
+    public List<Entry> entries() {
+        return entries;
+    }
+
+    public boolean isEmpty() {
+        return entries.isEmpty();
+    }
+
+    public static class Entry {
+
+        private final Class<?> type;
+        private final String cypher;
+        private final Map<String, ?> parameters;
+
+        Entry(Class<?> type, String cypher, Map<String, ?> parameters) {
+            this.type = type;
+            this.cypher = cypher;
+            this.parameters = parameters;
+        }
+
+        public Class<?> getType() {
+            return type;
+        }
+
+        public String getCypher() {
+            return cypher;
+        }
+
+        public Map<String, ?> getParameters() {
+            return parameters;
+        }
+    }
+}
@@ -136,6 +136,13 @@ public class ParameterisedStatement {
 
     protected void addPaging(Pagination page) {
         this.paging = page;
+        if (page != null) {
+            parameters.put(Pagination.SKIP, page.getSkip());
+            parameters.put(Pagination.LIMIT, page.getLimit());
+        } else {
+            parameters.remove(Pagination.SKIP);
+            parameters.remove(Pagination.LIMIT);
+        }
     }
 
     public void addSortOrder(SortOrder sortOrder) {
@@ -49,14 +49,14 @@ public class DefaultEntityAccessStrategy implements EntityAccessStrategy {
     private final Logger logger = LoggerFactory.getLogger(DefaultEntityAccessStrategy.class);
 
     //TODO make these LRU caches with configurable size
-    private static Map<ClassInfo,Map<DirectedRelationship,RelationalReader>> relationalReaderCache = new HashMap<>();
-    private static Map<ClassInfo,Map<DirectedRelationshipForType,RelationalWriter>> relationalWriterCache = new HashMap<>();
-    private static Map<ClassInfo,Map<DirectedRelationshipForType,RelationalWriter>> iterableWriterCache = new HashMap<>();
-    private static Map<ClassInfo, Map<DirectedRelationshipForType,RelationalReader>> iterableReaderCache = new HashMap<>();
-    private static Map<ClassInfo, Map<String, EntityAccess>> propertyWriterCache = new HashMap<>();
-    private static Map<ClassInfo, Map<String, PropertyReader>> propertyReaderCache = new HashMap<>();
-    private static Map<ClassInfo,Collection<PropertyReader>> propertyReaders = new HashMap<>();
-    private static Map<ClassInfo,Collection<RelationalReader>> relationalReaders = new HashMap<>();
+    private static Map<ClassInfo,Map<DirectedRelationship,RelationalReader>> relationalReaderCache = Collections.synchronizedMap(new HashMap<ClassInfo,Map<DirectedRelationship,RelationalReader>>());
+    private static Map<ClassInfo,Map<DirectedRelationshipForType,RelationalWriter>> relationalWriterCache = Collections.synchronizedMap(new HashMap<ClassInfo,Map<DirectedRelationshipForType,RelationalWriter>>());
+    private static Map<ClassInfo,Map<DirectedRelationshipForType,RelationalWriter>> iterableWriterCache = Collections.synchronizedMap(new HashMap<ClassInfo,Map<DirectedRelationshipForType,RelationalWriter>>());
+    private static Map<ClassInfo, Map<DirectedRelationshipForType,RelationalReader>> iterableReaderCache = Collections.synchronizedMap(new HashMap<ClassInfo, Map<DirectedRelationshipForType,RelationalReader>>());
+    private static Map<ClassInfo, Map<String, EntityAccess>> propertyWriterCache = Collections.synchronizedMap(new HashMap<ClassInfo, Map<String, EntityAccess>>());
+    private static Map<ClassInfo, Map<String, PropertyReader>> propertyReaderCache = Collections.synchronizedMap(new HashMap<ClassInfo, Map<String, PropertyReader>>());
+    private static Map<ClassInfo,Collection<PropertyReader>> propertyReaders = Collections.synchronizedMap(new HashMap<ClassInfo,Collection<PropertyReader>>());
+    private static Map<ClassInfo,Collection<RelationalReader>> relationalReaders = Collections.synchronizedMap(new HashMap<ClassInfo,Collection<RelationalReader>>());
 
     private final boolean STRICT_MODE = true; //strict mode for matching readers and writers, will only look for explicit annotations
     private final boolean INFERRED_MODE = false; //inferred mode for matching readers and writers, will infer the relationship type from the getter/setter
@@ -72,7 +72,7 @@ public class DefaultEntityAccessStrategy implements EntityAccessStrategy {
     @Override
     public EntityAccess getPropertyWriter(final ClassInfo classInfo, String propertyName) {
         if(!propertyWriterCache.containsKey(classInfo)) {
-            propertyWriterCache.put(classInfo,new HashMap<String, EntityAccess>());
+            propertyWriterCache.put(classInfo,Collections.synchronizedMap(new HashMap<String, EntityAccess>()));
         }
         if(propertyWriterCache.get(classInfo).containsKey(propertyName)) {
             return propertyWriterCache.get(classInfo).get(propertyName);
@@ -97,7 +97,7 @@ public class DefaultEntityAccessStrategy implements EntityAccessStrategy {
     @Override
     public PropertyReader getPropertyReader(final ClassInfo classInfo, String propertyName) {
         if(!propertyReaderCache.containsKey(classInfo)) {
-            propertyReaderCache.put(classInfo, new HashMap<String, PropertyReader>());
+            propertyReaderCache.put(classInfo, Collections.synchronizedMap(new HashMap<String, PropertyReader>()));
         }
         if(propertyReaderCache.get(classInfo).containsKey(propertyName)) {
             return propertyReaderCache.get(classInfo).get(propertyName);
@@ -143,7 +143,7 @@ public class DefaultEntityAccessStrategy implements EntityAccessStrategy {
 	@Override
 	public RelationalWriter getRelationalWriter(ClassInfo classInfo, String relationshipType, String relationshipDirection, Object scalarValue) {
 		if (!relationalWriterCache.containsKey(classInfo)) {
-			relationalWriterCache.put(classInfo, new HashMap<DirectedRelationshipForType, RelationalWriter>());
+			relationalWriterCache.put(classInfo, Collections.synchronizedMap(new HashMap<DirectedRelationshipForType, RelationalWriter>()));
 		}
 		DirectedRelationshipForType directedRelationship = new DirectedRelationshipForType(relationshipType, relationshipDirection, scalarValue.getClass());
 		if (relationalWriterCache.get(classInfo).containsKey(directedRelationship)) {
@@ -261,7 +261,7 @@ public class DefaultEntityAccessStrategy implements EntityAccessStrategy {
     @Override
     public RelationalReader getRelationalReader(ClassInfo classInfo, String relationshipType, String relationshipDirection) {
         if(!relationalReaderCache.containsKey(classInfo)) {
-            relationalReaderCache.put(classInfo, new HashMap<DirectedRelationship, RelationalReader>());
+            relationalReaderCache.put(classInfo, Collections.synchronizedMap(new HashMap<DirectedRelationship, RelationalReader>()));
         }
         DirectedRelationship directedRelationship = new DirectedRelationship(relationshipType,relationshipDirection);
         if(relationalReaderCache.get(classInfo).containsKey(directedRelationship)) {
@@ -374,7 +374,7 @@ public class DefaultEntityAccessStrategy implements EntityAccessStrategy {
     @Override
     public RelationalWriter getIterableWriter(ClassInfo classInfo, Class<?> parameterType, String relationshipType, String relationshipDirection) {
         if(!iterableWriterCache.containsKey(classInfo)) {
-            iterableWriterCache.put(classInfo, new HashMap<DirectedRelationshipForType, RelationalWriter>());
+            iterableWriterCache.put(classInfo, Collections.synchronizedMap(new HashMap<DirectedRelationshipForType, RelationalWriter>()));
         }
         DirectedRelationshipForType directedRelationshipForType = new DirectedRelationshipForType(relationshipType,relationshipDirection, parameterType);
         if(iterableWriterCache.get(classInfo).containsKey(directedRelationshipForType)) {
@@ -425,7 +425,7 @@ public class DefaultEntityAccessStrategy implements EntityAccessStrategy {
     @Override
     public RelationalReader getIterableReader(ClassInfo classInfo, Class<?> parameterType, String relationshipType, String relationshipDirection) {
         if(!iterableReaderCache.containsKey(classInfo)) {
-            iterableReaderCache.put(classInfo, new HashMap<DirectedRelationshipForType, RelationalReader>());
+            iterableReaderCache.put(classInfo, Collections.synchronizedMap(new HashMap<DirectedRelationshipForType, RelationalReader>()));
         }
         DirectedRelationshipForType directedRelationshipForType = new DirectedRelationshipForType(relationshipType,relationshipDirection, parameterType);
         if(iterableReaderCache.get(classInfo).containsKey(directedRelationshipForType)) {
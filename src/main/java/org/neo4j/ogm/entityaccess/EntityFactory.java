@@ -16,8 +16,8 @@ package org.neo4j.ogm.entityaccess;
 
 import java.lang.reflect.Constructor;
 import java.util.Arrays;
-import java.util.HashMap;
 import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 
 import org.neo4j.ogm.metadata.BaseClassNotFoundException;
 import org.neo4j.ogm.metadata.MappingException;
@@ -34,7 +34,7 @@ import org.neo4j.ogm.model.RelationshipModel;
  */
 public class EntityFactory {
 
-    private final Map<String, String> taxaLeafClass = new HashMap<>();
+    private final Map<String, String> taxaLeafClass = new ConcurrentHashMap<>();
 
     private final MetaData metadata;
 
@@ -0,0 +1,166 @@
+/*
+ * Copyright (c) 2002-2015 "Neo Technology,"
+ * Network Engine for Objects in Lund AB [http://neotechnology.com]
+ *
+ * This product is licensed to you under the Apache License, Version 2.0 (the "License").
+ * You may not use this product except in compliance with the License.
+ *
+ * This product may include a number of subcomponents with
+ * separate copyright notices and license terms. Your use of the source
+ * code for these subcomponents is subject to the terms and
+ * conditions of the subcomponent's license, as noted in the LICENSE file.
+ *
+ */
+package org.neo4j.ogm.mapper;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * An {@link EntityRegister} that keeps its ids as primitive longs in an open-addressing table, so that
+ * registering an entity allocates neither a boxed key nor a map entry. Access is synchronized.
+ *
+ * Removal shifts the entries that follow back into the freed slot rather than leaving a tombstone,
+ * so the table does not degrade when entities are repeatedly registered and purged.
+ */
+public class CompactEntityRegister implements EntityRegister {
+
+    private static final int INITIAL_CAPACITY = 64;
+
+    private long[] keys;
+    private Object[] values;
+    private int size;
+
+    public CompactEntityRegister() {
+        allocate(INITIAL_CAPACITY);
+    }
+
+    @Override
+    public synchronized Object get(Long id) {
+        int slot = find(id);
+        return slot < 0 ? null : values[slot];
+    }
+
+    @Override
+    public synchronized Object putIfAbsent(Long id, Object entity) {
+        int slot = find(id);
+        if (slot >= 0) {
+            return values[slot];
+        }
+        if ((size + 1) * 4 > values.length * 3) {
+            resize(values.length * 2);
+        }
+        insert(id, entity);
+        size++;
+        return null;
+    }
+
+    @Override
+    public synchronized Object remove(Long id) {
+        int slot = find(id);
+        if (slot < 0) {
+            return null;
+        }
+        Object removed = values[slot];
+        shiftBack(slot);
+        size--;
+        return removed;
+    }
+
+    @Override
+    public synchronized boolean containsValue(Object entity) {
+        for (Object value : values) {
+            if (value != null && value.equals(entity)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    @Override
+    public synchronized Collection<Object> values() {
+        List<Object> snapshot = new ArrayList<>(size);
+        for (Object value : values) {
+            if (value != null) {
+                snapshot.add(value);
+            }
+        }
+        return snapshot;
+    }
+
+    @Override
+    public synchronized int size() {
+        return size;
+    }
+
+    @Override
+    public synchronized void clear() {
+        allocate(INITIAL_CAPACITY);
+        size = 0;
+    }
+
+    private void allocate(int capacity) {
+        keys = new long[capacity];
+        values = new Object[capacity];
+    }
+
+    private int find(long id) {
+        int mask = values.length - 1;
+        for (int slot = slotFor(id, mask); values[slot] != null; slot = (slot + 1) & mask) {
+            if (keys[slot] == id) {
+                return slot;
+            }
+        }
+        return -1;
+    }
+
+    private void insert(long id, Object entity) {
+        int mask = values.length - 1;
+        int slot = slotFor(id, mask);
+        while (values[slot] != null) {
+            slot = (slot + 1) & mask;
+        }
+        keys[slot] = id;
+        values[slot] = entity;
+    }
+
+    private void resize(int capacity) {
+        long[] oldKeys = keys;
+        Object[] oldValues = values;
+        allocate(capacity);
+        for (int i = 0; i < oldValues.length; i++) {
+            if (oldValues[i] != null) {
+                insert(oldKeys[i], oldValues[i]);
+            }
+        }
+    }
+
+    // moves back every following entry of the probe sequence that would no longer be reachable once the slot is freed
+    private void shiftBack(int free) {
+        int mask = values.length - 1;
+        int slot = free;
+        while (true) {
+            slot = (slot + 1) & mask;
+            if (values[slot] == null) {
+                break;
+            }
+            int home = slotFor(keys[slot], mask);
+            boolean reachable = free <= slot
+                    ? free < home && home <= slot
+                    : free < home || home <= slot;
+            if (!reachable) {
+                keys[free] = keys[slot];
+                values[free] = values[slot];
+                free = slot;
+            }
+        }
+        keys[free] = 0;
+        values[free] = null;
+    }
+
+    private static int slotFor(long id, int mask) {
+        long h = id * 0x9E3779B97F4A7C15L;
+        return (int) (h ^ (h >>> 32)) & mask;
+    }
+}
@@ -0,0 +1,62 @@
+/*
+ * Copyright (c) 2002-2015 "Neo Technology,"
+ * Network Engine for Objects in Lund AB [http://neotechnology.com]
+ *
+ * This product is licensed to you under the Apache License, Version 2.0 (the "License").
+ * You may not use this product except in compliance with the License.
+ *
+ * This product may include a number of subcomponents with
+ * separate copyright notices and license terms. Your use of the source
+ * code for these subcomponents is subject to the terms and
+ * conditions of the subcomponent's license, as noted in the LICENSE file.
+ *
+ */
+package org.neo4j.ogm.mapper;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * An {@link EntityRegister} backed by a {@link ConcurrentHashMap}. Reads do not block.
+ */
+public class ConcurrentEntityRegister implements EntityRegister {
+
+    private final ConcurrentMap<Long, Object> register = new ConcurrentHashMap<>();
+
+    @Override
+    public Object get(Long id) {
+        return register.get(id);
+    }
+
+    @Override
+    public Object putIfAbsent(Long id, Object entity) {
+        return register.putIfAbsent(id, entity);
+    }
+
+    @Override
+    public Object remove(Long id) {
+        return register.remove(id);
+    }
+
+    @Override
+    public boolean containsValue(Object entity) {
+        return register.containsValue(entity);
+    }
+
+    @Override
+    public Collection<Object> values() {
+        return new ArrayList<>(register.values());
+    }
+
+    @Override
+    public int size() {
+        return register.size();
+    }
+
+    @Override
+    public void clear() {
+        register.clear();
+    }
+}
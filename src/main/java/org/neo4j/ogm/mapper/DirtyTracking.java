@@ -0,0 +1,47 @@
+/*
+ * Copyright (c) 2002-2015 "Neo Technology,"
+ * Network Engine for Objects in Lund AB [http://neotechnology.com]
+ *
+ * This product is licensed to you under the Apache License, Version 2.0 (the "License").
+ * You may not use this product except in compliance with the License.
+ *
+ * This product may include a number of subcomponents with
+ * separate copyright notices and license terms. Your use of the source
+ * code for these subcomponents is subject to the terms and
+ * conditions of the subcomponent's license, as noted in the LICENSE file.
+ *
+ */
+package org.neo4j.ogm.mapper;
+
+/**
+ * Implemented by entities that keep track of changes to their own properties, so that the OGM can ask them
+ * whether they have changed instead of hashing every property on every save.
+ *
+ * An entity would typically set a flag in each of its property setters, whether written by hand or injected by
+ * a build-time or load-time enhancer. Only the properties written to the node or relationship itself matter:
+ * changes to relationships are found by comparing them with those the session has mapped, as they are for
+ * every other entity. Entities that do not implement this interface are compared with a hash of their properties.
+ *
+ * Setters cannot see the elements of a collection or array property being changed in place, so such properties
+ * are still hashed and compared as they would be for any other entity. Only scalar properties are left to the
+ * entity to track.
+ */
+public interface DirtyTracking {
+
+    /**
+     * @return true if any persistent property has been changed since {@link #markClean()} was last called
+     */
+    boolean isDirty();
+
+    /**
+     * Called by the OGM when the entity's properties are known to match the graph, having just been loaded or saved.
+     */
+    void markClean();
+
+    /**
+     * Called by the OGM when the entity's properties may no longer match the graph, for instance because the
+     * transaction that saved them has rolled back.
+     */
+    void markDirty();
+
+}
@@ -14,7 +14,18 @@
 
 package org.neo4j.ogm.mapper;
 
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.IdentityHashMap;
 import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
 
 import org.neo4j.ogm.annotation.Relationship;
 import org.neo4j.ogm.annotation.RelationshipEntity;
@@ -28,6 +39,7 @@ import org.neo4j.ogm.metadata.MappingException;
 import org.neo4j.ogm.metadata.MetaData;
 import org.neo4j.ogm.metadata.info.AnnotationInfo;
 import org.neo4j.ogm.metadata.info.ClassInfo;
+import org.neo4j.ogm.metadata.info.FieldInfo;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -45,6 +57,16 @@ public class EntityGraphMapper implements EntityToGraphMapper {
     private final EntityAccessStrategy entityAccessStrategy;
     private final MappingContext mappingContext;
 
+    // ids of the existing nodes visited by the current mapping request
+    private Deque<Long> visitedNodeIds = new ArrayDeque<>();
+
+    // while entities are being mapped to the one compiler by map(Object, int, CypherCompiler), what each entity
+    // and relationship entity visited was like when it was mapped, so that they can be mapped again
+    private Map<Object, Visit> visits;
+    private Map<Object, Long> relationshipEntityMemos;
+
+    private static final Object NEXT_REFERENCE_TYPE = new Object();
+
     /**
      * Constructs a new {@link EntityGraphMapper} that uses the given {@link MetaData}.
      *
@@ -65,10 +87,165 @@ public class EntityGraphMapper implements EntityToGraphMapper {
     @Override
     public CypherContext map(Object entity, int horizon) {
 
-        if (entity == null) {
-            throw new NullPointerException("Cannot map null object");
+        CypherCompiler compiler = newCompiler();
+
+        mapEntity(root(entity), horizon, compiler);
+        mapMarkedEntities(horizon, compiler);
+        deleteObsoleteRelationships(compiler);
+
+        return compiler.compile();
+    }
+
+    @Override
+    public CypherContext map(Collection<?> entities, int horizon) {
+
+        CypherCompiler compiler = newCompiler();
+
+        for (Object entity : entities) {
+            mapEntity(root(entity), horizon, compiler);
+        }
+        mapMarkedEntities(horizon, compiler);
+        deleteObsoleteRelationships(compiler);
+
+        return compiler.compile();
+    }
+
+    /**
+     * Maps another entity to a compiler begun by {@link #newCompiler()}, so that whatever it shares with the entities
+     * mapped to the compiler before is saved once. Each entity is read as it is when it is mapped, and the
+     * relationships it no longer has are deleted, as {@link #map(Object, int)} does. The relationships the mapping
+     * context holds are taken to be wanted by the entities mapped before.
+     *
+     * @param entity the entity to map
+     * @param horizon the depth it is to be saved to
+     * @param compiler the compiler to map it to
+     */
+    public void map(Object entity, int horizon, CypherCompiler compiler) {
+
+        if (visits == null) {
+            visits = new IdentityHashMap<>();
+            relationshipEntityMemos = new IdentityHashMap<>();
+        }
+
+        // the relationships kept by the entities mapped before are registered again, so that only the ones this
+        // entity no longer has are deleted
+        for (MappedRelationship mappedRelationship : mappingContext.mappedRelationships()) {
+            compiler.context().registerRelationship(mappedRelationship);
+        }
+
+        mapEntity(root(entity), horizon, compiler);
+        mapMarkedEntities(horizon, compiler);
+        deleteObsoleteRelationships(compiler);
+    }
+
+    /**
+     * Maps an entity already mapped to the compiler by {@link #map(Object, int, CypherCompiler)} again, as it is now,
+     * without mapping anything else again, so that it is saved once in its latest state. Only the properties of the
+     * entities it reaches can be mapped again, so this is only done if they still refer to the same entities as
+     * they did when they were mapped, and were mapped at least as deep as the entity is now to be saved.
+     *
+     * @param entity the entity to map again
+     * @param horizon the depth it is to be saved to
+     * @param compiler the compiler it was mapped to
+     * @return the entities whose properties were mapped again, or null if nothing was, because it could not be
+     */
+    public List<Object> remap(Object entity, int horizon, CypherCompiler compiler) {
+
+        if (visits == null) {
+            return null;
+        }
+
+        Map<Object, Integer> reached = new IdentityHashMap<>();
+        List<Object> changed = new ArrayList<>();
+        Deque<Object> entities = new ArrayDeque<>();
+        Deque<Integer> horizons = new ArrayDeque<>();
+        entities.push(root(entity));
+        horizons.push(horizon);
+
+        while (!entities.isEmpty()) {
+            Object reachedEntity = entities.pop();
+            int reachedHorizon = horizons.pop();
+
+            Integer checked = reached.get(reachedEntity);
+            if (checked != null && covers(checked, reachedHorizon)) {
+                continue;
+            }
+            Visit visit = visits.get(reachedEntity);
+            if (visit == null || !covers(visit.horizon, reachedHorizon)) {
+                logger.debug("not mapped as deep as it is now saved: {}", reachedEntity);
+                return null;
+            }
+            if (checked == null && !equal(visit.memo, mappingContext.memo(reachedEntity))) {
+                if (!equal(visit.key, uniqueKey(metaData.classInfo(reachedEntity), reachedEntity))) {
+                    logger.debug("unique key changed: {}", reachedEntity);
+                    return null;
+                }
+                changed.add(reachedEntity);
+            }
+            reached.put(reachedEntity, reachedHorizon);
+
+            if (reachedHorizon != 0) {
+                List<Object> references = references(reachedEntity);
+                if (!sameReferences(visit.references, references)) {
+                    logger.debug("references changed: {}", reachedEntity);
+                    return null;
+                }
+                for (Object reference : references) {
+                    if (reference == NEXT_REFERENCE_TYPE || reference == null) {
+                        continue;
+                    }
+                    if (isRelationshipEntity(reference)) {
+                        if (!equal(relationshipEntityMemos.get(reference), mappingContext.memo(reference))) {
+                            logger.debug("relationship entity changed: {}", reference);
+                            return null;
+                        }
+                        ClassInfo classInfo = metaData.classInfo(reference);
+                        entities.push(getStartEntity(classInfo, reference));
+                        horizons.push(reachedHorizon - 1);
+                        entities.push(getTargetEntity(classInfo, reference));
+                        horizons.push(reachedHorizon - 1);
+                    } else {
+                        entities.push(reference);
+                        horizons.push(reachedHorizon - 1);
+                    }
+                }
+            }
         }
 
+        CypherContext context = compiler.context();
+        for (Object changedEntity : changed) {
+            logger.debug("mapping again: {}", changedEntity);
+            context.log(changedEntity);
+            context.nodeBuilder(changedEntity).remapProperties(changedEntity, metaData.classInfo(changedEntity), entityAccessStrategy);
+            visits.get(changedEntity).memo = mappingContext.memo(changedEntity);
+        }
+        return changed;
+    }
+
+    /**
+     * Finds the unique key the given entity would be saved by merging on, which is the case for a node entity whose
+     * id is not known but whose {@link org.neo4j.ogm.annotation.Index} unique property is set.
+     *
+     * @param entity the domain object to be persisted
+     * @return the value of the entity's unique key, or null if it would not be merged on one
+     */
+    public Object mergeKey(Object entity) {
+        ClassInfo classInfo = metaData.classInfo(entity);
+        if (classInfo == null || isRelationshipEntity(entity) || entityAccessStrategy.getIdentityPropertyReader(classInfo).read(entity) != null) {
+            return null;
+        }
+        return uniqueKey(classInfo, entity);
+    }
+
+    /**
+     * @return a compiler holding the relationships the mapping context knows about, that entities can be mapped to
+     */
+    public CypherCompiler newCompiler() {
+
+        visitedNodeIds = new ArrayDeque<>();
+        visits = null;
+        relationshipEntityMemos = null;
+
         CypherCompiler compiler = new SingleStatementCypherCompiler();
 
         // add all the relationships we know about. This includes the relationships that
@@ -80,6 +257,15 @@ public class EntityGraphMapper implements EntityToGraphMapper {
 
         logger.debug("context initialised with {} relationships", mappingContext.mappedRelationships().size());
 
+        return compiler;
+    }
+
+    private Object root(Object entity) {
+
+        if (entity == null) {
+            throw new NullPointerException("Cannot map null object");
+        }
+
         // if the map request is rooted on a relationship entity, we re-root it on the start node
         if (isRelationshipEntity(entity)) {
             entity = entityAccessStrategy.getStartNodeReader(metaData.classInfo(entity)).read(entity);
@@ -87,13 +273,13 @@ public class EntityGraphMapper implements EntityToGraphMapper {
                 throw new RuntimeException("@StartNode of relationship entity may not be null");
             }
         }
-
-        mapEntity(entity, horizon, compiler);
-        deleteObsoleteRelationships(compiler);
-
-        return compiler.compile();
+        return entity;
     }
 
+    private Object uniqueKey(ClassInfo classInfo, Object entity) {
+        FieldInfo keyField = classInfo.uniqueIndexField();
+        return keyField == null ? null : entityAccessStrategy.getPropertyReader(classInfo, keyField.property()).read(entity);
+    }
 
     /**
      * Detects object references (including from lists) that have been deleted in the domain.
@@ -152,8 +338,14 @@ public class EntityGraphMapper implements EntityToGraphMapper {
         }
 
         NodeBuilder nodeBuilder = getNodeBuilder(compiler, entity);
+        if (nodeBuilder != null && horizon < 0 && isUnchanged(entity, nodeBuilder)) {
+            logger.debug("unchanged, not descending: {}", entity);
+            visited(entity, 0);
+            return nodeBuilder;
+        }
         if (nodeBuilder != null) {
             updateNode(entity, context, nodeBuilder);
+            visited(entity, horizon);
             if (horizon != 0) {
                 mapEntityReferences(entity, nodeBuilder, horizon - 1, compiler);
             } else {
@@ -163,6 +355,140 @@ public class EntityGraphMapper implements EntityToGraphMapper {
         return nodeBuilder;
     }
 
+    /**
+     * Records what an entity mapped by {@link #map(Object, int, CypherCompiler)} was like, so that
+     * {@link #remap(Object, int, CypherCompiler)} can tell whether it has changed since.
+     *
+     * @param entity the domain object being mapped
+     * @param horizon the depth its references are mapped to, or 0 if they are not mapped
+     */
+    private void visited(Object entity, int horizon) {
+        if (visits != null) {
+            visits.put(entity, new Visit(horizon, horizon == 0 ? null : references(entity), mappingContext.memo(entity), uniqueKey(metaData.classInfo(entity), entity)));
+        }
+    }
+
+    // the entities the given one refers to, by type of reference
+    private List<Object> references(Object entity) {
+        List<Object> references = new ArrayList<>();
+        for (RelationalReader reader : entityAccessStrategy.getRelationalReaders(metaData.classInfo(entity))) {
+            references.add(NEXT_REFERENCE_TYPE);
+            Object relatedObject = reader.read(entity);
+            if (relatedObject instanceof Iterable) {
+                for (Object tgtObject : (Iterable<?>) relatedObject) {
+                    references.add(tgtObject);
+                }
+            } else if (relatedObject != null && relatedObject.getClass().isArray()) {
+                references.addAll(Arrays.asList((Object[]) relatedObject));
+            } else {
+                references.add(relatedObject);
+            }
+        }
+        return references;
+    }
+
+    private static boolean sameReferences(List<Object> references, List<Object> others) {
+        if (references == null || references.size() != others.size()) {
+            return false;
+        }
+        for (int i = 0; i < references.size(); i++) {
+            if (references.get(i) != others.get(i)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    // whether mapping to the one horizon reaches at least as deep as the other
+    private static boolean covers(int horizon, int other) {
+        return horizon < 0 || other >= 0 && other <= horizon;
+    }
+
+    private static boolean equal(Object value, Object other) {
+        return value == null ? other == null : value.equals(other);
+    }
+
+    /**
+     * Determines whether an entity can be left out of a save to unlimited depth together with everything it
+     * references, which is when the change journal is in use and the entity exists, was loaded or saved before
+     * and has not been marked as changed since. Whatever it references that has changed is marked as well, and is
+     * mapped by {@link #mapMarkedEntities(int, CypherCompiler)} instead.
+     *
+     * @param entity the domain object being mapped
+     * @param nodeBuilder the {@link NodeBuilder} for the entity's node
+     * @return true if the entity's properties and references need not be mapped
+     */
+    private boolean isUnchanged(Object entity, NodeBuilder nodeBuilder) {
+        return mappingContext.isJournalling()
+                && !nodeBuilder.isNew()
+                && mappingContext.isRemembered(entity)
+                && !mappingContext.isMarkedDirty(entity);
+    }
+
+    /**
+     * Maps the entities marked as changed that a save to unlimited depth would have reached but for the unchanged
+     * entities it skipped. Any marked entity connected by the relationships known to the mapping context to a node
+     * visited so far is mapped as though it were another root, which may in turn connect further marked entities.
+     * New entities are reached from the changed entities that reference them, so only existing ones are looked for.
+     *
+     * @param horizon the depth the save was requested to
+     * @param compiler the {@link CypherCompiler}
+     */
+    private void mapMarkedEntities(int horizon, CypherCompiler compiler) {
+
+        if (horizon >= 0 || !mappingContext.isJournalling()) {
+            return;
+        }
+
+        CypherContext context = compiler.context();
+        Map<Long, Object> pending = new HashMap<>();
+        for (Object entity : mappingContext.markedDirty()) {
+            ClassInfo classInfo = metaData.classInfo(entity);
+            if (classInfo != null && !isRelationshipEntity(entity) && !context.visited(entity)) {
+                Long id = (Long) entityAccessStrategy.getIdentityPropertyReader(classInfo).read(entity);
+                if (id != null) {
+                    pending.put(id, entity);
+                }
+            }
+        }
+
+        if (pending.isEmpty()) {
+            return;
+        }
+
+        Map<Long, List<Long>> neighbours = new HashMap<>();
+        for (MappedRelationship mappedRelationship : mappingContext.mappedRelationships()) {
+            neighbour(neighbours, mappedRelationship.getStartNodeId(), mappedRelationship.getEndNodeId());
+            neighbour(neighbours, mappedRelationship.getEndNodeId(), mappedRelationship.getStartNodeId());
+        }
+
+        Set<Long> reached = new HashSet<>();
+        while (!visitedNodeIds.isEmpty() && !pending.isEmpty()) {
+            Long id = visitedNodeIds.poll();
+            if (!reached.add(id)) {
+                continue;
+            }
+            Object marked = pending.remove(id);
+            if (marked != null && !context.visited(marked)) {
+                logger.debug("mapping marked entity: {}", marked);
+                mapEntity(marked, horizon, compiler);
+            }
+            List<Long> ids = neighbours.get(id);
+            if (ids != null) {
+                visitedNodeIds.addAll(ids);
+            }
+        }
+    }
+
+    private static void neighbour(Map<Long, List<Long>> neighbours, Long id, Long neighbour) {
+        List<Long> ids = neighbours.get(id);
+        if (ids == null) {
+            ids = new ArrayList<>();
+            neighbours.put(id, ids);
+        }
+        ids.add(neighbour);
+    }
+
     /**
      * Creates a new node or updates an existing one in the graph, if it has changed.
      *
@@ -202,10 +528,19 @@ public class EntityGraphMapper implements EntityToGraphMapper {
         Object id = entityAccessStrategy.getIdentityPropertyReader(classInfo).read(entity);
         NodeBuilder nodeBuilder;
         if (id == null) {
-            nodeBuilder = compiler.newNode().addLabels(classInfo.labels());
+            // an entity with a unique key is merged on it, because it may already be in the graph without us knowing its id
+            Object key = uniqueKey(classInfo, entity);
+            if (key != null) {
+                nodeBuilder = compiler.mergedNode(classInfo.neo4jName(), classInfo.uniqueIndexField().property(), key).addLabels(classInfo.labels());
+            } else {
+                nodeBuilder = compiler.newNode().addLabels(classInfo.labels());
+            }
             context.registerNewObject(nodeBuilder.reference(), entity);
         } else {
             nodeBuilder = compiler.existingNode(Long.valueOf(id.toString())).addLabels(classInfo.labels());
+            if (mappingContext.isJournalling()) {
+                visitedNodeIds.add(Long.valueOf(id.toString()));
+            }
         }
         context.visit(entity, nodeBuilder);
         logger.debug("visiting: {}", entity);
@@ -228,6 +563,7 @@ public class EntityGraphMapper implements EntityToGraphMapper {
         logger.debug("mapping references declared by: {} ", entity);
 
         ClassInfo srcInfo = metaData.classInfo(entity);
+        Long srcIdentity = (Long) entityAccessStrategy.getIdentityPropertyReader(srcInfo).read(entity);
 
         for (RelationalReader reader : entityAccessStrategy.getRelationalReaders(srcInfo)) {
 
@@ -239,7 +575,6 @@ public class EntityGraphMapper implements EntityToGraphMapper {
             DirectedRelationship directedRelationship = new DirectedRelationship(relationshipType, relationshipDirection);
 
             CypherContext context=compiler.context();
-            Long srcIdentity = (Long) entityAccessStrategy.getIdentityPropertyReader(srcInfo).read(entity);
 
             logger.debug("mapping reference type: " + relationshipType);
 
@@ -252,6 +587,9 @@ public class EntityGraphMapper implements EntityToGraphMapper {
             }
 
             Object relatedObject = reader.read(entity);
+            if (srcIdentity != null && mappingContext.hasForgottenRelationships(srcIdentity)) {
+                unrelateUnmapped(compiler, srcIdentity, directedRelationship, endNodeType, relatedObject);
+            }
             if (relatedObject != null) {
                 RelationshipNodes relNodes = new RelationshipNodes(entity,relatedObject,startNodeType,endNodeType);
                 relNodes.sourceId = srcIdentity;
@@ -278,6 +616,55 @@ public class EntityGraphMapper implements EntityToGraphMapper {
                 }
             }
         }
+
+        if (srcIdentity != null) {
+            mappingContext.relationshipsSaved(srcIdentity);
+        }
+    }
+
+    /**
+     * Deletes the relationships of a node whose relationships were forgotten by the mapping context, of the given type
+     * and direction to entities of the given type, which are not to the entities now related to the node. Mapping the
+     * entity's references cannot delete them, since the context no longer knows of them.
+     *
+     * @param compiler the {@link CypherCompiler}
+     * @param identity the id of the node
+     * @param directedRelationship the {@link DirectedRelationship} representing the relationships' type and direction
+     * @param endNodeType the class of the entities at the other end of the relationships
+     * @param relatedObject the entity or entities now related to the node, or null if there are none
+     */
+    private void unrelateUnmapped(CypherCompiler compiler, Long identity, DirectedRelationship directedRelationship, Class endNodeType, Object relatedObject) {
+        List<Long> nodeIds = new ArrayList<>();
+        List<Long> relationshipIds = new ArrayList<>();
+        List<Object> targets = new ArrayList<>();
+        if (relatedObject instanceof Iterable) {
+            for (Object tgtObject : (Iterable<?>) relatedObject) {
+                targets.add(tgtObject);
+            }
+        } else if (relatedObject != null && relatedObject.getClass().isArray()) {
+            targets.addAll(Arrays.asList((Object[]) relatedObject));
+        } else if (relatedObject != null) {
+            targets.add(relatedObject);
+        }
+        for (Object target : targets) {
+            ClassInfo targetInfo = target == null ? null : metaData.classInfo(target);
+            Long id = targetInfo == null ? null : (Long) entityAccessStrategy.getIdentityPropertyReader(targetInfo).read(target);
+            if (id != null) {
+                if (isRelationshipEntity(target)) {
+                    relationshipIds.add(id);
+                } else {
+                    nodeIds.add(id);
+                }
+            }
+        }
+        // the nodes at the other end of relationship entities may have any label
+        String label = null;
+        ClassInfo endNodeInfo = metaData.classInfo(endNodeType.getName());
+        if (endNodeInfo != null && !metaData.isRelationshipEntity(endNodeType.getName()) && endNodeInfo.labels().contains(endNodeInfo.neo4jName())) {
+            label = endNodeInfo.neo4jName();
+        }
+        logger.debug("deleting unmapped relationships: ({})-[:{}]-(:{})", identity, directedRelationship.type(), label);
+        compiler.unrelateAllBut(identity, directedRelationship.type(), directedRelationship.direction(), label, nodeIds, relationshipIds);
     }
 
 
@@ -486,6 +873,9 @@ public class EntityGraphMapper implements EntityToGraphMapper {
     private void updateRelationshipEntity(CypherContext context, Object relationshipEntity, RelationshipBuilder relationshipBuilder, ClassInfo relEntityClassInfo) {
 
         context.visitRelationshipEntity(relationshipEntity);
+        if (relationshipEntityMemos != null) {
+            relationshipEntityMemos.put(relationshipEntity, mappingContext.memo(relationshipEntity));
+        }
 
         AnnotationInfo annotation = relEntityClassInfo.annotationsInfo().get(RelationshipEntity.CLASS);
         if (relationshipBuilder.getType() == null) {
@@ -611,10 +1001,13 @@ public class EntityGraphMapper implements EntityToGraphMapper {
     private void updateRelationship(CypherContext context, NodeBuilder srcNodeBuilder, NodeBuilder tgtNodeBuilder, RelationshipBuilder relationshipBuilder, RelationshipNodes relNodes) {
 
         if (relNodes.targetId == null || relNodes.sourceId == null) {
+            // a node merged on its unique key may already be in the graph, along with its relationships
+            relationshipBuilder.setProvablyNew(srcNodeBuilder.isNew() || tgtNodeBuilder.isNew());
             maybeCreateRelationship(context, srcNodeBuilder.reference(), relationshipBuilder, tgtNodeBuilder.reference(), relNodes.sourceType, relNodes.targetType);
         } else {
             MappedRelationship mappedRelationship = createMappedRelationship(relationshipBuilder, relNodes);
             if (!mappingContext.isRegisteredRelationship(mappedRelationship)) {
+                // both nodes exist, and reading them took no locks, so another transaction may have related them
                 maybeCreateRelationship(context, srcNodeBuilder.reference(), relationshipBuilder, tgtNodeBuilder.reference(), relNodes.sourceType, relNodes.targetType);
             } else {
                 logger.debug("context-add: ({})-[{}:{}]->({})", mappedRelationship.getStartNodeId(), relationshipBuilder.getReference(), mappedRelationship.getRelationshipType(), mappedRelationship.getEndNodeId());
@@ -813,4 +1206,23 @@ public class EntityGraphMapper implements EntityToGraphMapper {
         }
     }
 
+    /**
+     * What an entity was like when it was mapped: the depth its references were mapped to, the entities it
+     * referred to, its memo and its unique key.
+     */
+    private static class Visit {
+
+        final int horizon;
+        final List<Object> references;
+        Long memo;
+        final Object key;
+
+        Visit(int horizon, List<Object> references, Long memo, Object key) {
+            this.horizon = horizon;
+            this.references = references;
+            this.memo = memo;
+            this.key = key;
+        }
+    }
+
 }
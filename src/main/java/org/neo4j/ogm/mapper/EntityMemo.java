@@ -14,7 +14,9 @@
 
 package org.neo4j.ogm.mapper;
 
+import java.lang.reflect.Array;
 import java.lang.reflect.Field;
+import java.util.Collection;
 import java.util.Map;
 import java.util.concurrent.ConcurrentHashMap;
 
@@ -39,14 +41,21 @@ public class EntityMemo {
      * @param classInfo metadata about the object
      */
     public void remember(Object object, ClassInfo classInfo) {
-        objectHash.put(object, hash(object, classInfo));
+        if (object instanceof DirtyTracking) {
+            objectHash.put(object, collectionHash(object, classInfo));
+            ((DirtyTracking) object).markClean();
+        } else {
+            objectHash.put(object, hash(object, classInfo));
+        }
     }
 
     /**
      * determines whether the specified has already
      * been memorised. The object must not be null. An object
      * is regarded as memorised if its hash value in the memo hash
-     * is identical to a recalculation of its hash value.
+     * is identical to a recalculation of its hash value, or, if it implements
+     * {@link DirtyTracking}, if it has not been changed since and the hash
+     * of its collection and array properties is the same.
      *
      * @param object the object whose persistable properties we want to check
      * @param classInfo metadata about the object
@@ -58,6 +67,10 @@ public class EntityMemo {
             return false;
         }
 
+        if (object instanceof DirtyTracking) {
+            return !((DirtyTracking) object).isDirty() && collectionHash(object, classInfo) == objectHash.get(object);
+        }
+
         long actual = hash(object, classInfo);
         long expected = objectHash.get(object);
 
@@ -69,6 +82,58 @@ public class EntityMemo {
         objectHash.clear();
     }
 
+    /**
+     * @param object the object whose memo we want
+     * @return the hash the object was last remembered with, or null if it is not remembered
+     */
+    Long hashOf(Object object) {
+        return objectHash.get(object);
+    }
+
+    /**
+     * @param object the object whose memo we want
+     * @param classInfo metadata about the object
+     * @return a hash of all the object's properties as they are now, to be passed to
+     * {@link #remember(Object, ClassInfo, long)} once it has been saved as it is
+     */
+    Long memo(Object object, ClassInfo classInfo) {
+        return hash(object, classInfo);
+    }
+
+    /**
+     * Remembers an object as it was when the given memo was made of it. An object that tracks its own changes is
+     * marked clean if its properties are still as they were then, and dirty if they have changed since.
+     */
+    void remember(Object object, ClassInfo classInfo, long memo) {
+        if (!(object instanceof DirtyTracking)) {
+            objectHash.put(object, memo);
+        } else if (hash(object, classInfo) == memo) {
+            remember(object, classInfo);
+        } else {
+            objectHash.put(object, collectionHash(object, classInfo));
+            ((DirtyTracking) object).markDirty();
+        }
+    }
+
+    /**
+     * Puts back a hash previously obtained from {@link #hashOf(Object)}, forgetting the object if it was null.
+     * An object that tracks its own changes cannot be put back as it was, so it is taken to have changed.
+     */
+    void restore(Object object, Long hash) {
+        if (object instanceof DirtyTracking) {
+            ((DirtyTracking) object).markDirty();
+        }
+        if (hash == null) {
+            objectHash.remove(object);
+        } else {
+            objectHash.put(object, hash);
+        }
+    }
+
+    public void forget(Object object) {
+        objectHash.remove(object);
+    }
+
     public boolean contains(Object o) {
         return objectHash.containsKey(o);
     }
@@ -86,6 +151,29 @@ public class EntityMemo {
         return hash;
     }
 
+    // an entity cannot see the elements of its collections being changed in place, so these are still hashed
+    private static long collectionHash(Object object, ClassInfo classInfo) {
+        long hash = seed;
+        for (FieldInfo fieldInfo : classInfo.propertyFields()) {
+            Field field = classInfo.getField(fieldInfo);
+            Class<?> type = field.getType();
+            if (type.isArray()) {
+                Object value = FieldWriter.read(field, object);
+                if (value != null) {
+                    for (int i = 0, length = Array.getLength(value); i < length; i++) {
+                        hash = hash * 31L + hash(String.valueOf(Array.get(value, i)));
+                    }
+                }
+            } else if (Collection.class.isAssignableFrom(type) || Map.class.isAssignableFrom(type)) {
+                Object value = FieldWriter.read(field, object);
+                if (value != null) {
+                    hash = hash * 31L + hash(value.toString());
+                }
+            }
+        }
+        return hash;
+    }
+
     private static long hash(String string) {
         long h = 1125899906842597L; // prime
         int len = string.length();
@@ -0,0 +1,42 @@
+/*
+ * Copyright (c) 2002-2015 "Neo Technology,"
+ * Network Engine for Objects in Lund AB [http://neotechnology.com]
+ *
+ * This product is licensed to you under the Apache License, Version 2.0 (the "License").
+ * You may not use this product except in compliance with the License.
+ *
+ * This product may include a number of subcomponents with
+ * separate copyright notices and license terms. Your use of the source
+ * code for these subcomponents is subject to the terms and
+ * conditions of the subcomponent's license, as noted in the LICENSE file.
+ *
+ */
+package org.neo4j.ogm.mapper;
+
+import java.util.Collection;
+
+/**
+ * A thread-safe map from graph ids to the domain entities the {@link MappingContext} holds for them.
+ */
+public interface EntityRegister {
+
+    Object get(Long id);
+
+    /**
+     * @return the entity already registered for the id, or null if the given entity was registered
+     */
+    Object putIfAbsent(Long id, Object entity);
+
+    Object remove(Long id);
+
+    boolean containsValue(Object entity);
+
+    /**
+     * @return a snapshot of the registered entities
+     */
+    Collection<Object> values();
+
+    int size();
+
+    void clear();
+}
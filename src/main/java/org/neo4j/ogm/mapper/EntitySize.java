@@ -0,0 +1,94 @@
+/*
+ * Copyright (c) 2002-2015 "Neo Technology,"
+ * Network Engine for Objects in Lund AB [http://neotechnology.com]
+ *
+ * This product is licensed to you under the Apache License, Version 2.0 (the "License").
+ * You may not use this product except in compliance with the License.
+ *
+ * This product may include a number of subcomponents with
+ * separate copyright notices and license terms. Your use of the source
+ * code for these subcomponents is subject to the terms and
+ * conditions of the subcomponent's license, as noted in the LICENSE file.
+ *
+ */
+
+package org.neo4j.ogm.mapper;
+
+import java.lang.reflect.Array;
+import java.util.Collection;
+import java.util.Map;
+
+import org.neo4j.ogm.entityaccess.EntityAccessStrategy;
+import org.neo4j.ogm.entityaccess.PropertyReader;
+import org.neo4j.ogm.metadata.info.ClassInfo;
+
+/**
+ * Estimates the memory a node entity held by the {@link MappingContext} takes up, so that the context can be bounded
+ * by memory as well as by the number of entities. The entity's properties are counted, but not the entities it
+ * refers to, which are counted in their own right. Sizes are those of a 64-bit JVM with compressed references.
+ */
+class EntitySize {
+
+    // the entity's entries in the register, its type buckets, the memo and the usage order
+    private static final long BOOKKEEPING = 160;
+
+    // a relationship mapping, its entry in the register and in the registers of the nodes at either end
+    static final long RELATIONSHIP = 200;
+
+    // the id of a node whose relationships were forgotten, and its entry in the register
+    static final long FORGOTTEN_ID = 56;
+
+    private static final long HEADER = 16;
+    private static final long REFERENCE = 4;
+
+    private EntitySize() {
+    }
+
+    static long estimate(Object entity, ClassInfo classInfo, EntityAccessStrategy entityAccessStrategy) {
+        long size = BOOKKEEPING + HEADER;
+        if (classInfo == null) {
+            return size;
+        }
+        size += REFERENCE * classInfo.fieldsInfo().fields().size();
+        for (PropertyReader propertyReader : entityAccessStrategy.getPropertyReaders(classInfo)) {
+            size += sizeOf(propertyReader.read(entity));
+        }
+        return size;
+    }
+
+    private static long sizeOf(Object value) {
+        if (value == null) {
+            return 0;
+        }
+        if (value instanceof String) {
+            return HEADER + 24 + 2L * ((String) value).length();
+        }
+        if (value instanceof Collection) {
+            long size = HEADER + 32;
+            for (Object element : (Collection<?>) value) {
+                size += REFERENCE + sizeOf(element);
+            }
+            return size;
+        }
+        if (value instanceof Map) {
+            long size = HEADER + 48;
+            for (Map.Entry<?, ?> entry : ((Map<?, ?>) value).entrySet()) {
+                size += 32 + sizeOf(entry.getKey()) + sizeOf(entry.getValue());
+            }
+            return size;
+        }
+        if (value.getClass().isArray()) {
+            int length = Array.getLength(value);
+            if (value.getClass().getComponentType().isPrimitive()) {
+                return HEADER + 8L * length;
+            }
+            long size = HEADER + REFERENCE * length;
+            for (int i = 0; i < length; i++) {
+                size += sizeOf(Array.get(value, i));
+            }
+            return size;
+        }
+        // boxed primitives, dates, enums and other small values
+        return HEADER + 8;
+    }
+}
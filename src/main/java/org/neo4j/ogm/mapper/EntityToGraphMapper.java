@@ -14,6 +14,8 @@
 
 package org.neo4j.ogm.mapper;
 
+import java.util.Collection;
+
 import org.neo4j.ogm.cypher.compiler.CypherContext;
 
 /**
@@ -46,4 +48,16 @@ public interface EntityToGraphMapper {
      */
     CypherContext map(Object entity, int depth);
 
+    /**
+     * Processes the given objects and any of their composite persistent objects to the specified depth and produces
+     * a single set of Cypher queries to persist their state in Neo4j.
+     *
+     * @param entities The "root" nodes of the object graphs to persist
+     * @param depth The number of objects away from each "root" to traverse when looking for objects to map
+     * @return A {@link CypherContext} object containing the statements required to persist the given objects to Neo4j, along
+     *         with a representation of the changes to be made by the Cypher statements never <code>null</code>
+     * @throws NullPointerException if any of the objects is <code>null</code>
+     */
+    CypherContext map(Collection<?> entities, int depth);
+
 }
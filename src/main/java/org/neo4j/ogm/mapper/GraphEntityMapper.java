@@ -16,8 +16,11 @@ package org.neo4j.ogm.mapper;
 
 import java.util.ArrayList;
 import java.util.Collection;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Set;
 import java.util.Map.Entry;
+import java.util.concurrent.RecursiveAction;
 
 import org.neo4j.ogm.annotation.EndNode;
 import org.neo4j.ogm.annotation.Relationship;
@@ -48,12 +51,23 @@ public class GraphEntityMapper implements GraphToEntityMapper<GraphModel> {
 	private final EntityFactory entityFactory;
 	private final MetaData metadata;
 	private final EntityAccessStrategy entityAccessStrategy;
+	private final ParallelHydration parallelHydration;
+
+	// a mapper is used for a single response, in which the same node or relationship may be
+	// presented many times (e.g. once per path). We only want to materialise each one once.
+	private final Set<Long> hydratedNodeIds = new HashSet<>();
+	private final Set<Long> hydratedRelationshipIds = new HashSet<>();
 
 	public GraphEntityMapper(MetaData metaData, MappingContext mappingContext) {
+		this(metaData, mappingContext, null);
+	}
+
+	public GraphEntityMapper(MetaData metaData, MappingContext mappingContext, ParallelHydration parallelHydration) {
 		this.metadata = metaData;
 		this.entityFactory = new EntityFactory(metadata);
 		this.mappingContext = mappingContext;
 		this.entityAccessStrategy = new DefaultEntityAccessStrategy();
+		this.parallelHydration = parallelHydration;
 	}
 
 	@Override
@@ -67,6 +81,72 @@ public class GraphEntityMapper implements GraphToEntityMapper<GraphModel> {
 		List<Long> edgeIds = new ArrayList<>();
 
 		mapEntities(type, graphModel, nodeIds, edgeIds);
+		return results(type, nodeIds, edgeIds);
+	}
+
+	/**
+	 * Maps each of the given models as {@link #map(Class, GraphModel)} would, returning their results in order.
+	 * With parallel hydration, the nodes first presented by any of the models are instantiated and have
+	 * their properties written up front, on several threads if there are enough of them. The relationships
+	 * are then mapped one model at a time on the calling thread, so they are wired up in the same order as
+	 * they would be by mapping the models one by one.
+	 *
+	 * @param type the type of the entities to return
+	 * @param graphModels the models to map, in response order
+	 * @return the entities of the given type found in each model, in order
+	 */
+	public <T> List<T> mapAll(Class<T> type, Iterable<GraphModel> graphModels) {
+
+		List<T> results = new ArrayList<>();
+
+		if (parallelHydration == null) {
+			for (GraphModel graphModel : graphModels) {
+				results.addAll(map(type, graphModel));
+			}
+			return results;
+		}
+
+		List<GraphModel> models = new ArrayList<>();
+		List<NodeModel> newNodes = new ArrayList<>();
+		for (GraphModel graphModel : graphModels) {
+			models.add(graphModel);
+			for (NodeModel node : graphModel.getNodes()) {
+				if (hydratedNodeIds.add(node.getId())) {
+					newNodes.add(node);
+				}
+			}
+		}
+
+		try {
+			if (parallelHydration.appliesTo(newNodes.size())) {
+				parallelHydration.pool().invoke(new NodeHydration(newNodes, 0, newNodes.size(), mappingContext.currentUndoLog()));
+			} else {
+				for (NodeModel node : newNodes) {
+					hydrate(node);
+				}
+			}
+		} catch (Exception e) {
+			throw new MappingException("Error mapping GraphModel to instance of " + type.getName(), e);
+		}
+
+		for (GraphModel graphModel : models) {
+			List<Long> nodeIds = new ArrayList<>();
+			List<Long> edgeIds = new ArrayList<>();
+			for (NodeModel node : graphModel.getNodes()) {
+				nodeIds.add(node.getId());
+			}
+			try {
+				mapRelationships(graphModel, edgeIds);
+			} catch (Exception e) {
+				throw new MappingException("Error mapping GraphModel to instance of " + type.getName(), e);
+			}
+			results.addAll(results(type, nodeIds, edgeIds));
+		}
+
+		return results;
+	}
+
+	private <T> List<T> results(Class<T> type, List<Long> nodeIds, List<Long> edgeIds) {
 		List<T> results = new ArrayList<>();
 
 		for (Long id : nodeIds) {
@@ -101,21 +181,33 @@ public class GraphEntityMapper implements GraphToEntityMapper<GraphModel> {
 	private void mapNodes(GraphModel graphModel, List<Long> nodeIds) {
 
 		for (NodeModel node : graphModel.getNodes()) {
-			Object entity = mappingContext.getNodeEntity(node.getId());
-			try {
-				if (entity == null) {
-					entity = mappingContext.registerNodeEntity(entityFactory.newObject(node), node.getId());
-				}
-				setIdentity(entity, node.getId());
-				setProperties(node, entity);
-				mappingContext.remember(entity);
+			if (!hydratedNodeIds.add(node.getId())) {
+				nodeIds.add(node.getId());
+				continue;
+			}
+			if (hydrate(node)) {
 				nodeIds.add(node.getId());
-			} catch (BaseClassNotFoundException e) {
-				logger.debug(e.getMessage());
 			}
 		}
 	}
 
+	// safe to call from several threads at once, provided each is given different nodes
+	private boolean hydrate(NodeModel node) {
+		Object entity = mappingContext.getNodeEntity(node.getId());
+		try {
+			if (entity == null) {
+				entity = mappingContext.registerNodeEntity(entityFactory.newObject(node), node.getId());
+			}
+			setIdentity(entity, node.getId());
+			setProperties(node, entity);
+			mappingContext.remember(entity);
+			return true;
+		} catch (BaseClassNotFoundException e) {
+			logger.debug(e.getMessage());
+			return false;
+		}
+	}
+
 	private void setIdentity(Object instance, Long id) {
 		ClassInfo classInfo = metadata.classInfo(instance);
 		FieldInfo fieldInfo = classInfo.identityField();
@@ -189,6 +281,10 @@ public class GraphEntityMapper implements GraphToEntityMapper<GraphModel> {
 
 			edgeIds.add(edge.getId());
 
+			if (!hydratedRelationshipIds.add(edge.getId())) {
+				continue;
+			}
+
 			if (source != null && target != null) {
 				// check whether this edge should in fact be handled as a relationship entity
 				ClassInfo relationshipEntityClassInfo = getRelationshipEntity(edge);
@@ -435,4 +531,46 @@ public class GraphEntityMapper implements GraphToEntityMapper<GraphModel> {
 		}
 		return false;
 	}
+
+	/**
+	 * Hydrates a range of distinct nodes, splitting it in two until each part is no bigger than the threshold.
+	 */
+	private class NodeHydration extends RecursiveAction {
+
+		private static final long serialVersionUID = -2381749202615305714L;
+
+		private final List<NodeModel> nodes;
+		private final int from;
+		private final int to;
+		private final UndoLog undoLog;
+
+		/**
+		 * @param undoLog the changes the thread that is mapping the response is recording, which the nodes'
+		 *                registration is recorded with so that it is reverted if that thread's transaction rolls back
+		 */
+		NodeHydration(List<NodeModel> nodes, int from, int to, UndoLog undoLog) {
+			this.nodes = nodes;
+			this.from = from;
+			this.to = to;
+			this.undoLog = undoLog;
+		}
+
+		@Override
+		protected void compute() {
+			if (to - from <= parallelHydration.threshold()) {
+				UndoLog workerUndoLog = mappingContext.suspendUndoLog();
+				mappingContext.resumeUndoLog(undoLog);
+				try {
+					for (int i = from; i < to; i++) {
+						hydrate(nodes.get(i));
+					}
+				} finally {
+					mappingContext.resumeUndoLog(workerUndoLog);
+				}
+			} else {
+				int middle = (from + to) >>> 1;
+				invokeAll(new NodeHydration(nodes, from, middle, undoLog), new NodeHydration(nodes, middle, to, undoLog));
+			}
+		}
+	}
 }
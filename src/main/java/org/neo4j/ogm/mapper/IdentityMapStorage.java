@@ -0,0 +1,61 @@
+/*
+ * Copyright (c) 2002-2015 "Neo Technology,"
+ * Network Engine for Objects in Lund AB [http://neotechnology.com]
+ *
+ * This product is licensed to you under the Apache License, Version 2.0 (the "License").
+ * You may not use this product except in compliance with the License.
+ *
+ * This product may include a number of subcomponents with
+ * separate copyright notices and license terms. Your use of the source
+ * code for these subcomponents is subject to the terms and
+ * conditions of the subcomponent's license, as noted in the LICENSE file.
+ *
+ */
+package org.neo4j.ogm.mapper;
+
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.IdentityHashMap;
+import java.util.Set;
+
+/**
+ * The data structures a {@link MappingContext} uses to hold the entities it has mapped.
+ */
+public enum IdentityMapStorage {
+
+    /**
+     * Hash maps keyed by boxed ids. Lookups do not block. This is the default.
+     */
+    CONCURRENT {
+        @Override
+        public EntityRegister newEntityRegister() {
+            return new ConcurrentEntityRegister();
+        }
+
+        @Override
+        public Set<Object> newTypeBucket() {
+            return Collections.synchronizedSet(new HashSet<>());
+        }
+    },
+
+    /**
+     * Open-addressing tables keyed by primitive ids, and identity-based sets for the entities of each type.
+     * These allocate far less per entity, at the cost of synchronising every access. Suited to sessions
+     * that hold very many entities.
+     */
+    COMPACT {
+        @Override
+        public EntityRegister newEntityRegister() {
+            return new CompactEntityRegister();
+        }
+
+        @Override
+        public Set<Object> newTypeBucket() {
+            return Collections.synchronizedSet(Collections.newSetFromMap(new IdentityHashMap<Object, Boolean>()));
+        }
+    };
+
+    public abstract EntityRegister newEntityRegister();
+
+    public abstract Set<Object> newTypeBucket();
+}
@@ -16,6 +16,7 @@ package org.neo4j.ogm.mapper;
 
 import org.neo4j.ogm.entityaccess.DefaultEntityAccessStrategy;
 import org.neo4j.ogm.entityaccess.EntityAccessStrategy;
+import org.neo4j.ogm.entityaccess.FieldWriter;
 import org.neo4j.ogm.entityaccess.PropertyReader;
 import org.neo4j.ogm.entityaccess.RelationalReader;
 import org.neo4j.ogm.metadata.MetaData;
@@ -24,6 +25,7 @@ import org.neo4j.ogm.metadata.info.ClassInfo;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.lang.reflect.Field;
 import java.util.*;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ConcurrentMap;
@@ -46,29 +48,66 @@ public class MappingContext {
 
     private final Logger logger = LoggerFactory.getLogger(MappingContext.class);
 
-    private final ConcurrentMap<Long, Object> relationshipEntityRegister = new ConcurrentHashMap<>();
-    private final ConcurrentMap<Long, Object> nodeEntityRegister = new ConcurrentHashMap<>();
-    private final Set<MappedRelationship> relationshipRegister =  Collections.newSetFromMap(new ConcurrentHashMap<MappedRelationship, Boolean>());
+    private final EntityRegister relationshipEntityRegister;
+    private final EntityRegister nodeEntityRegister;
+    private final RelationshipRegister relationshipRegister = new RelationshipRegister();
 
     /** register of all mapped entities of a specific type (including supertypes) */
     private final ConcurrentMap<Class<?>, Set<Object>> typeRegister = new ConcurrentHashMap<>();
     private final EntityMemo objectMemo = new EntityMemo();
 
+    // entities marked as changed since they were last remembered, and whether saves may skip the others
+    private final Set<Object> changeJournal = Collections.synchronizedSet(Collections.newSetFromMap(new IdentityHashMap<Object, Boolean>()));
+    private volatile boolean journalling;
+
+    /** register of node ids whose relationships of a given type were only partially loaded */
+    private final ConcurrentMap<Long, Set<String>> truncationRegister = new ConcurrentHashMap<>();
+
+    /** register of node ids whose relationships were forgotten on eviction, and have not been saved since */
+    private final Set<Long> forgottenRelationships = Collections.newSetFromMap(new ConcurrentHashMap<Long, Boolean>());
+
+    /** register of the depth to which, and the time at which, node entities were last loaded by id */
+    private final ConcurrentMap<Long, Hydration> hydrationRegister = new ConcurrentHashMap<>();
+
+    /** node entity ids in least-recently-used order, with their estimated sizes, only kept when node entities are bounded */
+    private Usage usage;
+    private int entityLimit;
+    private long memoryLimit;
+
+    /** the changes made by each thread's open transaction, so that they can be reverted if it rolls back */
+    private final ThreadLocal<UndoLog> undoLogs = new ThreadLocal<>();
+    private volatile long generation;
+
     private final MetaData metaData;
+    private final IdentityMapStorage storage;
     private final EntityAccessStrategy entityAccessStrategy = new DefaultEntityAccessStrategy();
 
     public MappingContext(MetaData metaData) {
+        this(metaData, IdentityMapStorage.CONCURRENT);
+    }
+
+    public MappingContext(MetaData metaData, IdentityMapStorage storage) {
         this.metaData = metaData;
+        this.storage = storage;
+        this.nodeEntityRegister = storage.newEntityRegister();
+        this.relationshipEntityRegister = storage.newEntityRegister();
     }
 
     public Object getNodeEntity(Long id) {
-        return nodeEntityRegister.get(id);
+        Object entity = nodeEntityRegister.get(id);
+        if (entity != null) {
+            touch(id, entity);
+        }
+        return entity;
     }
 
     public Object registerNodeEntity(Object entity, Long id) {
-        nodeEntityRegister.putIfAbsent(id, entity);
+        if (nodeEntityRegister.putIfAbsent(id, entity) == null) {
+            journalNodeRegistered(entity, id);
+        }
         entity = nodeEntityRegister.get(id);
         registerTypes(entity.getClass(), entity);
+        touch(id, entity);
         return entity;
     }
 
@@ -110,11 +149,13 @@ public class MappingContext {
      */
     public void deregister(Object entity, Long id) {
         deregisterTypes(entity.getClass(), entity);
-        nodeEntityRegister.remove(id);
+        removeNodeEntity(id);
+        hydrationRegister.remove(id);
+        untouch(id);
     }
 
     public void replace(Object entity, Long id) {
-        nodeEntityRegister.remove(id);
+        removeNodeEntity(id);
         registerNodeEntity(entity, id);
         remember(entity);
     }
@@ -122,7 +163,7 @@ public class MappingContext {
     public Set<Object> getAll(Class<?> type) {
         Set<Object> objectList = typeRegister.get(type);
         if (objectList == null) {
-            typeRegister.putIfAbsent(type, Collections.synchronizedSet(new HashSet<>()));
+            typeRegister.putIfAbsent(type, storage.newTypeBucket());
             objectList = typeRegister.get(type);
         }
         return objectList;
@@ -130,14 +171,133 @@ public class MappingContext {
 
     // object memorisations
     public void remember(Object entity) {
+        hold(entity);
+        journalMemo(entity);
         objectMemo.remember(entity, metaData.classInfo(entity));
+        changeJournal.remove(entity);
+    }
+
+    /**
+     * @param entity an entity about to be saved
+     * @return the memo {@link #remember(Object)} would make of the entity as it is now
+     */
+    public Long memo(Object entity) {
+        return objectMemo.memo(entity, metaData.classInfo(entity));
+    }
+
+    /**
+     * Remembers the entity as it was when the given memo was made of it, rather than as it is now, so that changes
+     * made to it since are still seen as changes. An entity that tracks its own changes is marked clean, unless it
+     * has been changed since.
+     *
+     * @param entity the entity that has been saved
+     * @param memo the memo made of it by {@link #memo(Object)} when it was mapped, or null to remember it as it is now
+     */
+    public void remember(Object entity, Long memo) {
+        if (memo == null) {
+            remember(entity);
+            return;
+        }
+        hold(entity);
+        journalMemo(entity);
+        objectMemo.remember(entity, metaData.classInfo(entity), memo);
+    }
+
+    // a saved entity may have been evicted since it was loaded, in which case it is registered again, so that it
+    // is diffed against what was saved and counts towards the limits; otherwise it is marked as used, and its size
+    // estimated again now that it has been loaded or saved
+    private void hold(Object entity) {
+        Long id = identity(entity);
+        if (id == null) {
+            return;
+        }
+        if (metaData.isRelationshipEntity(metaData.classInfo(entity).name())) {
+            if (relationshipEntityRegister.get(id) == null) {
+                registerRelationshipEntity(entity, id);
+            }
+        } else if (nodeEntityRegister.get(id) == null) {
+            registerNodeEntity(entity, id);
+        } else if (nodeEntityRegister.get(id) == entity) {
+            untouch(id);
+            touch(id, entity);
+        }
     }
 
     public boolean isDirty(Object entity) {
+        if (changeJournal.contains(entity)) {
+            return true;
+        }
         ClassInfo classInfo = metaData.classInfo(entity);
         return !objectMemo.remembered(entity, classInfo);
     }
 
+    // change journal methods
+
+    /**
+     * Lets saves skip the references of entities that have not been marked as changed. Once this is set, a save to
+     * unlimited depth does not descend from an entity that was loaded or saved before, unless it has since been
+     * passed to {@link #markDirty(Object)} or, if it implements {@link DirtyTracking}, reports itself as dirty.
+     * Changes to the relationships of an entity, as well as to its properties, must then be marked.
+     *
+     * @param journalling whether saves rely on the change journal
+     */
+    public void setChangeJournal(boolean journalling) {
+        this.journalling = journalling;
+    }
+
+    public boolean isJournalling() {
+        return journalling;
+    }
+
+    /**
+     * Records that the given entity has changed since it was last loaded or saved, so that it is written on the next
+     * save that reaches it. A relationship entity marks its start and end nodes as well, since it is saved from them.
+     *
+     * @param entity the entity whose properties or relationships have changed
+     */
+    public void markDirty(Object entity) {
+        changeJournal.add(entity);
+        ClassInfo classInfo = metaData.classInfo(entity);
+        if (classInfo != null && metaData.isRelationshipEntity(classInfo.name())) {
+            Object startNode = entityAccessStrategy.getStartNodeReader(classInfo).read(entity);
+            Object endNode = entityAccessStrategy.getEndNodeReader(classInfo).read(entity);
+            if (startNode != null) {
+                changeJournal.add(startNode);
+            }
+            if (endNode != null) {
+                changeJournal.add(endNode);
+            }
+        }
+    }
+
+    /**
+     * @param entity an entity that may have changed
+     * @return true if the entity has been marked as changed, or tracks its own changes and has changed
+     */
+    public boolean isMarkedDirty(Object entity) {
+        if (entity instanceof DirtyTracking) {
+            return ((DirtyTracking) entity).isDirty() || changeJournal.contains(entity);
+        }
+        return changeJournal.contains(entity);
+    }
+
+    /**
+     * @return the entities that have been marked as changed and not saved since
+     */
+    public List<Object> markedDirty() {
+        synchronized (changeJournal) {
+            return new ArrayList<>(changeJournal);
+        }
+    }
+
+    /**
+     * @param entity an entity
+     * @return true if the entity has been loaded or saved, and not forgotten since
+     */
+    public boolean isRemembered(Object entity) {
+        return objectMemo.contains(entity);
+    }
+
     // these methods belong on the relationship registry
     public boolean isRegisteredRelationship(MappedRelationship relationship) {
         return relationshipRegister.contains(relationship);
@@ -152,11 +312,98 @@ public class MappingContext {
             relationship.setRelationshipId(null); //We're only interested in id's of relationship entities
         }
         relationshipRegister.add(relationship);
+        Object startNode = nodeEntityRegister.get(relationship.getStartNodeId());
+        if (startNode != null) {
+            touch(relationship.getStartNodeId(), startNode);
+        }
+        Object endNode = nodeEntityRegister.get(relationship.getEndNodeId());
+        if (endNode != null) {
+            touch(relationship.getEndNodeId(), endNode);
+        }
+    }
+
+    // truncation methods
+    public void registerTruncation(Long id, String relationshipType) {
+        Set<String> types = truncationRegister.get(id);
+        if (types == null) {
+            truncationRegister.putIfAbsent(id, Collections.newSetFromMap(new ConcurrentHashMap<String, Boolean>()));
+            types = truncationRegister.get(id);
+        }
+        types.add(relationshipType);
+    }
+
+    public void deregisterTruncation(Long id, String relationshipType) {
+        Set<String> types = truncationRegister.get(id);
+        if (types != null) {
+            types.remove(relationshipType);
+        }
+    }
+
+    /**
+     * @param id the id of a node in Neo4j
+     * @param relationshipType the relationship type
+     * @return true if some relationships of the given type on the node were not loaded because of a fan-out limit
+     */
+    public boolean isTruncated(Long id, String relationshipType) {
+        Set<String> types = truncationRegister.get(id);
+        return types != null && types.contains(relationshipType);
+    }
+
+    /**
+     * @param id the id of a node in Neo4j
+     * @return true if any relationships on the node were not loaded because of a fan-out limit
+     */
+    public boolean isTruncated(Long id) {
+        Set<String> types = truncationRegister.get(id);
+        return types != null && !types.isEmpty();
+    }
+
+    // hydration methods
+    public void registerHydration(Long id, int depth) {
+        hydrationRegister.put(id, new Hydration(depth, System.currentTimeMillis()));
+    }
+
+    /**
+     * @param id the id of a node in Neo4j
+     * @param depth the depth to which the node's neighbourhood is required
+     * @param maxStalenessMillis how long ago the node may have been loaded
+     * @return true if the node was last loaded by id to at least the given depth no longer ago than the given time
+     */
+    public boolean isHydrated(Long id, int depth, long maxStalenessMillis) {
+        Hydration hydration = hydrationRegister.get(id);
+        if (hydration == null) {
+            return false;
+        }
+        boolean deepEnough = hydration.depth < 0 || (depth >= 0 && hydration.depth >= depth);
+        return deepEnough && System.currentTimeMillis() - hydration.timestamp <= maxStalenessMillis;
+    }
+
+    /**
+     * Forgets that the nodes at either end of the relationship were loaded with their neighbours, because the
+     * context no longer holds every relationship they had when they were.
+     */
+    private void invalidateHydration(MappedRelationship relationship) {
+        hydrationRegister.remove(relationship.getStartNodeId());
+        hydrationRegister.remove(relationship.getEndNodeId());
     }
 
     public void clear() {
+        // nothing recorded before now can be reverted, as what it reverts to is gone
+        generation++;
+        undoLogs.remove();
         objectMemo.clear();
+        changeJournal.clear();
+        truncationRegister.clear();
+        hydrationRegister.clear();
+        Usage usage = this.usage;
+        if (usage != null) {
+            synchronized (usage) {
+                usage.clear();
+                usage.bytes = 0;
+            }
+        }
         relationshipRegister.clear();
+        forgottenRelationships.clear();
         nodeEntityRegister.clear();
         typeRegister.clear();
         relationshipEntityRegister.clear();
@@ -169,7 +416,9 @@ public class MappingContext {
     }
 
     public Object registerRelationshipEntity(Object relationshipEntity, Long id) {
-        relationshipEntityRegister.putIfAbsent(id, relationshipEntity);
+        if (relationshipEntityRegister.putIfAbsent(id, relationshipEntity) == null) {
+            journalRelationshipEntityRegistered(relationshipEntity, id);
+        }
         registerTypes(relationshipEntity.getClass(), relationshipEntity);
         return relationshipEntity;
     }
@@ -223,11 +472,84 @@ public class MappingContext {
         getAll(type).remove(entity);
     }
 
+    /**
+     * purges all information about these objects from the mapping context, visiting the
+     * relationship mappings once for all of them rather than once for each
+     *
+     * @param entities the objects whose references and relationship mappings we want to purge
+     */
+    public void clearAll(Collection<?> entities) {
+
+        Set<Long> nodeIds = new HashSet<>();
+        Set<Long> relationshipIds = new HashSet<>();
+
+        for (Object entity : entities) {
+            Long id = identity(entity);
+            if (id == null) {
+                continue;
+            }
+            if (entity.equals(relationshipEntityRegister.get(id))) {
+                removeRelationshipEntity(id);
+                forget(entity);
+                relationshipIds.add(id);
+                // as in purge, the entities at either end are flushed too
+                for (Object node : new Object[] {
+                        entityAccessStrategy.getStartNodeReader(metaData.classInfo(entity)).read(entity),
+                        entityAccessStrategy.getEndNodeReader(metaData.classInfo(entity)).read(entity) }) {
+                    Long nodeId = node == null ? null : identity(node);
+                    if (nodeId != null && node.equals(nodeEntityRegister.get(nodeId))) {
+                        forgetNode(node, nodeId);
+                        nodeIds.add(nodeId);
+                    }
+                }
+            } else if (entity.equals(nodeEntityRegister.get(id))) {
+                forgetNode(entity, id);
+                nodeIds.add(id);
+            }
+        }
+
+        Iterator<MappedRelationship> mappedRelationshipIterator = relationshipRegister.iterator();
+        while (mappedRelationshipIterator.hasNext()) {
+            MappedRelationship mappedRelationship = mappedRelationshipIterator.next();
+            if (nodeIds.contains(mappedRelationship.getStartNodeId())
+                    || nodeIds.contains(mappedRelationship.getEndNodeId())
+                    || (mappedRelationship.getRelationshipId() != null && relationshipIds.contains(mappedRelationship.getRelationshipId()))) {
+                mappedRelationshipIterator.remove();
+            }
+        }
+    }
+
+    private Long identity(Object entity) {
+        ClassInfo classInfo = metaData.classInfo(entity);
+        if (classInfo == null) {
+            return null;
+        }
+        return (Long) entityAccessStrategy.getIdentityPropertyReader(classInfo).read(entity);
+    }
+
+    private void forgetNode(Object entity, Long id) {
+        removeNodeEntity(id);
+        forget(entity);
+        truncationRegister.remove(id);
+        hydrationRegister.remove(id);
+        untouch(id);
+    }
+
+    private void forget(Object entity) {
+        forgetTypes(entity.getClass(), entity);
+        journalMemo(entity);
+        objectMemo.forget(entity);
+        changeJournal.remove(entity);
+    }
+
     private void purge(Object entity, PropertyReader identityReader) {
         Long id = (Long) identityReader.read(entity);
         if (id != null) {
             if (nodeEntityRegister.containsValue(entity)) {
-                nodeEntityRegister.remove(id);
+                removeNodeEntity(id);
+                truncationRegister.remove(id);
+                hydrationRegister.remove(id);
+                untouch(id);
 
                 // remove all relationship mappings to/from this object
                 Iterator<MappedRelationship> mappedRelationshipIterator = mappedRelationships().iterator();
@@ -239,7 +561,7 @@ public class MappingContext {
                 }
             }
             if (relationshipEntityRegister.containsValue(entity)) {
-                relationshipEntityRegister.remove(id);
+                removeRelationshipEntity(id);
                 RelationalReader startNodeReader = entityAccessStrategy.getStartNodeReader(metaData.classInfo(entity));
                 clear(startNodeReader.read(entity));
                 RelationalReader endNodeReader = entityAccessStrategy.getEndNodeReader(metaData.classInfo(entity));
@@ -248,6 +570,370 @@ public class MappingContext {
         }
     }
 
+    // eviction methods
+
+    /**
+     * Bounds the number of node entities this context holds. Once {@link #evictIfOverLimit()} finds more than
+     * this many, it forgets the least recently used ones. Zero or less removes the bound.
+     *
+     * @param entityLimit the maximum number of node entities to hold between operations
+     */
+    public void setEntityLimit(int entityLimit) {
+        this.entityLimit = entityLimit;
+        trackUsage();
+    }
+
+    /**
+     * Bounds the estimated memory taken up by the node entities this context holds, by their properties, and by the
+     * relationships mapped between them. Once {@link #evictIfOverLimit()} finds them taking up more than this, it
+     * forgets the least recently used ones. An entity's size is estimated when it is registered, and again whenever
+     * it is loaded or saved. Zero or less removes the bound.
+     *
+     * @param memoryLimit the estimated number of bytes the node entities may take up between operations
+     */
+    public void setMemoryLimit(long memoryLimit) {
+        this.memoryLimit = memoryLimit;
+        trackUsage();
+    }
+
+    private void trackUsage() {
+        if (entityLimit <= 0 && memoryLimit <= 0) {
+            usage = null;
+            return;
+        }
+        Usage newUsage = new Usage();
+        for (Object entity : nodeEntityRegister.values()) {
+            Long id = identity(entity);
+            if (id != null) {
+                long size = EntitySize.estimate(entity, metaData.classInfo(entity), entityAccessStrategy);
+                newUsage.put(id, size);
+                newUsage.bytes += size;
+            }
+        }
+        usage = newUsage;
+    }
+
+    /**
+     * Forgets the least recently used node entities if there are more than the entity limit, or they take up more
+     * than the memory limit, bringing them a tenth below the limit, so that eviction does not have to run again
+     * after every operation.
+     *
+     * This must only be called between operations, not while a save is being compiled or a response is being
+     * mapped, since they look up the entities they have just registered.
+     */
+    public void evictIfOverLimit() {
+        Usage usage = this.usage;
+        if (usage == null) {
+            return;
+        }
+        List<Long> eldest = new ArrayList<>();
+        synchronized (usage) {
+            // the relationships of an evicted node are forgotten with it, leaving its id and those of its neighbours
+            long used = usage.bytes
+                    + relationshipRegister.size() * EntitySize.RELATIONSHIP
+                    + forgottenRelationships.size() * EntitySize.FORGOTTEN_ID;
+            boolean tooMany = entityLimit > 0 && usage.size() > entityLimit;
+            boolean tooLarge = memoryLimit > 0 && used > memoryLimit;
+            if (!tooMany && !tooLarge) {
+                return;
+            }
+            long entities = entityLimit > 0 ? entityLimit - entityLimit / 10 : Long.MAX_VALUE;
+            long bytes = memoryLimit > 0 ? memoryLimit - memoryLimit / 10 : Long.MAX_VALUE;
+            Iterator<Map.Entry<Long, Long>> iterator = usage.entrySet().iterator();
+            while ((usage.size() > entities || used > bytes) && iterator.hasNext()) {
+                Map.Entry<Long, Long> entry = iterator.next();
+                eldest.add(entry.getKey());
+                usage.bytes -= entry.getValue();
+                used -= entry.getValue() + relationshipRegister.of(entry.getKey()).size() * (EntitySize.RELATIONSHIP - EntitySize.FORGOTTEN_ID);
+                iterator.remove();
+            }
+        }
+        evict(eldest);
+    }
+
+    /**
+     * Forgets the given node entities, the memos kept for them and the relationships mapped to and from them, with
+     * the relationship entities of those relationships. The ids of the nodes at both ends of the relationships are
+     * kept, so that a save of one of them, which may still be held by the application, deletes the relationships it
+     * no longer has without this context knowing of them.
+     *
+     * @param ids the ids of the nodes to forget
+     */
+    public void evict(Collection<Long> ids) {
+        for (Long id : ids) {
+            Object entity = nodeEntityRegister.get(id);
+            if (entity != null) {
+                forgetNode(entity, id);
+                for (MappedRelationship mappedRelationship : relationshipRegister.of(id)) {
+                    relationshipRegister.remove(mappedRelationship);
+                    forgottenRelationships.add(mappedRelationship.getStartNodeId());
+                    forgottenRelationships.add(mappedRelationship.getEndNodeId());
+                    if (mappedRelationship.getRelationshipId() != null) {
+                        Object relationshipEntity = removeRelationshipEntity(mappedRelationship.getRelationshipId());
+                        if (relationshipEntity != null) {
+                            forget(relationshipEntity);
+                        }
+                    }
+                }
+            }
+        }
+    }
+
+    /**
+     * @param id the id of a node
+     * @return true if relationships of the node were forgotten when it or one of its neighbours was evicted, and it
+     * has not been saved with its relationships since, so that it may have relationships this context does not hold
+     */
+    public boolean hasForgottenRelationships(Long id) {
+        return forgottenRelationships.contains(id);
+    }
+
+    /**
+     * Records that a save is to write every relationship of the node, deleting those this context does not hold,
+     * so that the relationships it holds for the node are all the node has again.
+     *
+     * @param id the id of a node whose relationships were forgotten
+     */
+    public void relationshipsSaved(final Long id) {
+        if (forgottenRelationships.remove(id)) {
+            UndoLog undoLog = undoLogs.get();
+            if (undoLog != null) {
+                undoLog.record(new UndoLog.Change() {
+                    @Override
+                    public void undo() {
+                        forgottenRelationships.add(id);
+                    }
+                });
+            }
+        }
+    }
+
+    private void forgetTypes(Class<?> type, Object entity) {
+        Set<Object> entities = typeRegister.get(type);
+        if (entities != null) {
+            entities.remove(entity);
+        }
+        if (type.getSuperclass() != null && !type.getSuperclass().getName().equals("java.lang.Object")) {
+            forgetTypes(type.getSuperclass(), entity);
+        }
+        for (Class<?> interfaceClass : type.getInterfaces()) {
+            forgetTypes(interfaceClass, entity);
+        }
+    }
+
+    // undo methods
+
+    /**
+     * Starts recording the changes the current thread makes to this context, so that {@link #undo()} can
+     * revert them. Anything recorded before is dropped.
+     */
+    public void beginUndoLog() {
+        undoLogs.set(new UndoLog(generation));
+    }
+
+    /**
+     * Reverts the changes the current thread has made to this context since {@link #beginUndoLog()}, the most
+     * recent first, and stops recording. The registers, memos and relationship mappings are put back as they
+     * were, and entities created in the meantime lose the ids they were given. Nothing is reverted if the
+     * context has been cleared since recording began.
+     */
+    public void undo() {
+        UndoLog undoLog = undoLogs.get();
+        undoLogs.remove();
+        if (undoLog != null && undoLog.generation() == generation) {
+            undoLog.replay();
+        }
+    }
+
+    /**
+     * Stops recording the current thread's changes, keeping them.
+     */
+    public void discardUndoLog() {
+        undoLogs.remove();
+    }
+
+    /**
+     * Stops recording the current thread's changes without reverting them, so that recording them can carry on
+     * later, possibly after other changes that are not to be recorded, with {@link #resumeUndoLog(UndoLog)}.
+     *
+     * @return the changes recorded so far, or null if none were being recorded
+     */
+    public UndoLog suspendUndoLog() {
+        UndoLog undoLog = undoLogs.get();
+        undoLogs.remove();
+        return undoLog;
+    }
+
+    /**
+     * @return the changes the current thread is recording, so that threads working on its behalf can record theirs
+     * with them using {@link #resumeUndoLog(UndoLog)}, or null if none are being recorded
+     */
+    public UndoLog currentUndoLog() {
+        return undoLogs.get();
+    }
+
+    /**
+     * Carries on recording the current thread's changes after those returned by {@link #suspendUndoLog()}, so that
+     * {@link #undo()} reverts them all.
+     *
+     * @param undoLog the changes returned by {@link #suspendUndoLog()}, or null to record nothing
+     */
+    public void resumeUndoLog(UndoLog undoLog) {
+        if (undoLog == null) {
+            undoLogs.remove();
+        } else {
+            undoLogs.set(undoLog);
+        }
+    }
+
+    /**
+     * Sets the id of an entity that has just been created in the graph.
+     *
+     * @param entity the new entity
+     * @param id its id in the graph
+     */
+    public void setIdentity(final Object entity, Long id) {
+        ClassInfo classInfo = metaData.classInfo(entity);
+        final Field identityField = classInfo.getField(classInfo.identityField());
+        UndoLog undoLog = undoLogs.get();
+        if (undoLog != null) {
+            final Object previous = FieldWriter.read(identityField, entity);
+            undoLog.record(new UndoLog.Change() {
+                @Override
+                public void undo() {
+                    FieldWriter.write(identityField, entity, previous);
+                }
+            });
+        }
+        FieldWriter.write(identityField, entity, id);
+    }
+
+    private Object removeNodeEntity(final Long id) {
+        final Object entity = nodeEntityRegister.remove(id);
+        UndoLog undoLog = undoLogs.get();
+        if (entity != null && undoLog != null) {
+            undoLog.record(new UndoLog.Change() {
+                @Override
+                public void undo() {
+                    if (nodeEntityRegister.putIfAbsent(id, entity) == null) {
+                        registerTypes(entity.getClass(), entity);
+                        touch(id, entity);
+                    }
+                }
+            });
+        }
+        return entity;
+    }
+
+    private Object removeRelationshipEntity(final Long id) {
+        final Object entity = relationshipEntityRegister.remove(id);
+        UndoLog undoLog = undoLogs.get();
+        if (entity != null && undoLog != null) {
+            undoLog.record(new UndoLog.Change() {
+                @Override
+                public void undo() {
+                    if (relationshipEntityRegister.putIfAbsent(id, entity) == null) {
+                        registerTypes(entity.getClass(), entity);
+                    }
+                }
+            });
+        }
+        return entity;
+    }
+
+    private void journalNodeRegistered(final Object entity, final Long id) {
+        UndoLog undoLog = undoLogs.get();
+        if (undoLog != null) {
+            undoLog.record(new UndoLog.Change() {
+                @Override
+                public void undo() {
+                    if (nodeEntityRegister.get(id) == entity) {
+                        nodeEntityRegister.remove(id);
+                        forgetTypes(entity.getClass(), entity);
+                        truncationRegister.remove(id);
+                        hydrationRegister.remove(id);
+                        untouch(id);
+                    }
+                }
+            });
+        }
+    }
+
+    private void journalRelationshipEntityRegistered(final Object entity, final Long id) {
+        UndoLog undoLog = undoLogs.get();
+        if (undoLog != null) {
+            undoLog.record(new UndoLog.Change() {
+                @Override
+                public void undo() {
+                    if (relationshipEntityRegister.get(id) == entity) {
+                        relationshipEntityRegister.remove(id);
+                        forgetTypes(entity.getClass(), entity);
+                    }
+                }
+            });
+        }
+    }
+
+    private void journalMemo(final Object entity) {
+        UndoLog undoLog = undoLogs.get();
+        if (undoLog != null) {
+            final Long hash = objectMemo.hashOf(entity);
+            final boolean marked = changeJournal.contains(entity);
+            undoLog.record(new UndoLog.Change() {
+                @Override
+                public void undo() {
+                    objectMemo.restore(entity, hash);
+                    if (marked) {
+                        changeJournal.add(entity);
+                    }
+                }
+            });
+        }
+    }
+
+    private void journalRelationship(final MappedRelationship relationship, final boolean added) {
+        UndoLog undoLog = undoLogs.get();
+        if (undoLog != null) {
+            undoLog.record(new UndoLog.Change() {
+                @Override
+                public void undo() {
+                    invalidateHydration(relationship);
+                    if (added) {
+                        relationshipRegister.remove(relationship);
+                    } else {
+                        relationshipRegister.add(relationship);
+                    }
+                }
+            });
+        }
+    }
+
+    // marks the node entity as the most recently used, estimating its size if it is not already counted
+    private void touch(Long id, Object entity) {
+        Usage usage = this.usage;
+        if (usage != null) {
+            synchronized (usage) {
+                if (usage.get(id) == null) {
+                    long size = EntitySize.estimate(entity, metaData.classInfo(entity), entityAccessStrategy);
+                    usage.put(id, size);
+                    usage.bytes += size;
+                }
+            }
+        }
+    }
+
+    private void untouch(Long id) {
+        Usage usage = this.usage;
+        if (usage != null) {
+            synchronized (usage) {
+                Long size = usage.remove(id);
+                if (size != null) {
+                    usage.bytes -= size;
+                }
+            }
+        }
+    }
+
     public void dump() {
 
         for (Object o : nodeEntityRegister.values()) {
@@ -260,4 +946,132 @@ public class MappingContext {
             System.out.println(String.format("%s, %s", o, remembered));
         }
     }
+
+    /**
+     * The relationship mappings, which record their changes in the current thread's undo log, however they are made.
+     */
+    private class RelationshipRegister extends AbstractSet<MappedRelationship> {
+
+        private final Set<MappedRelationship> relationships = Collections.newSetFromMap(new ConcurrentHashMap<MappedRelationship, Boolean>());
+
+        // the relationships of each node, so that those of a node being evicted are found without looking at all
+        private final ConcurrentMap<Long, Set<MappedRelationship>> byNode = new ConcurrentHashMap<>();
+
+        @Override
+        public boolean add(MappedRelationship relationship) {
+            if (relationships.add(relationship)) {
+                index(relationship.getStartNodeId(), relationship);
+                index(relationship.getEndNodeId(), relationship);
+                journalRelationship(relationship, true);
+                return true;
+            }
+            return false;
+        }
+
+        @Override
+        public boolean remove(Object relationship) {
+            if (relationships.remove(relationship)) {
+                unindex((MappedRelationship) relationship);
+                invalidateHydration((MappedRelationship) relationship);
+                journalRelationship((MappedRelationship) relationship, false);
+                return true;
+            }
+            return false;
+        }
+
+        @Override
+        public boolean contains(Object relationship) {
+            return relationships.contains(relationship);
+        }
+
+        @Override
+        public int size() {
+            return relationships.size();
+        }
+
+        @Override
+        public void clear() {
+            relationships.clear();
+            byNode.clear();
+        }
+
+        List<MappedRelationship> of(Long id) {
+            Set<MappedRelationship> indexed = byNode.get(id);
+            return indexed == null ? Collections.<MappedRelationship>emptyList() : new ArrayList<>(indexed);
+        }
+
+        private void index(Long id, MappedRelationship relationship) {
+            Set<MappedRelationship> indexed = byNode.get(id);
+            if (indexed == null) {
+                byNode.putIfAbsent(id, Collections.newSetFromMap(new ConcurrentHashMap<MappedRelationship, Boolean>()));
+                indexed = byNode.get(id);
+            }
+            indexed.add(relationship);
+        }
+
+        private void unindex(MappedRelationship relationship) {
+            for (Long id : Arrays.asList(relationship.getStartNodeId(), relationship.getEndNodeId())) {
+                Set<MappedRelationship> indexed = byNode.get(id);
+                if (indexed != null) {
+                    indexed.remove(relationship);
+                    if (indexed.isEmpty()) {
+                        byNode.remove(id, indexed);
+                    }
+                }
+            }
+        }
+
+        @Override
+        public Iterator<MappedRelationship> iterator() {
+            final Iterator<MappedRelationship> iterator = relationships.iterator();
+            return new Iterator<MappedRelationship>() {
+
+                private MappedRelationship current;
+
+                @Override
+                public boolean hasNext() {
+                    return iterator.hasNext();
+                }
+
+                @Override
+                public MappedRelationship next() {
+                    current = iterator.next();
+                    return current;
+                }
+
+                @Override
+                public void remove() {
+                    iterator.remove();
+                    unindex(current);
+                    invalidateHydration(current);
+                    journalRelationship(current, false);
+                }
+            };
+        }
+    }
+
+    /**
+     * Node entity ids in least-recently-used order, with the estimated size of each and their total.
+     */
+    private static class Usage extends LinkedHashMap<Long, Long> {
+
+        private static final long serialVersionUID = 1L;
+
+        private long bytes;
+
+        Usage() {
+            super(16, 0.75f, true);
+        }
+    }
+
+    private static class Hydration {
+
+        private final int depth;
+        private final long timestamp;
+
+        Hydration(int depth, long timestamp) {
+            this.depth = depth;
+            this.timestamp = timestamp;
+        }
+    }
 }
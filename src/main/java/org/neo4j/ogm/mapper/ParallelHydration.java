@@ -0,0 +1,52 @@
+/*
+ * Copyright (c) 2002-2015 "Neo Technology,"
+ * Network Engine for Objects in Lund AB [http://neotechnology.com]
+ *
+ * This product is licensed to you under the Apache License, Version 2.0 (the "License").
+ * You may not use this product except in compliance with the License.
+ *
+ * This product may include a number of subcomponents with
+ * separate copyright notices and license terms. Your use of the source
+ * code for these subcomponents is subject to the terms and
+ * conditions of the subcomponent's license, as noted in the LICENSE file.
+ *
+ */
+package org.neo4j.ogm.mapper;
+
+import java.util.concurrent.ForkJoinPool;
+
+/**
+ * Settings for mapping large responses with several threads. When a response presents at least the threshold
+ * number of new nodes, a {@link GraphEntityMapper} instantiates them and writes their properties in partitions
+ * of that size on the pool, then wires up the relationships on the calling thread in response order.
+ */
+public class ParallelHydration {
+
+    private final ForkJoinPool pool;
+    private final int threshold;
+
+    /**
+     * @param parallelism The number of threads to hydrate nodes with
+     * @param threshold The number of new nodes in a response below which it is mapped on the calling thread alone,
+     *                  and the number of nodes each thread hydrates at a time
+     */
+    public ParallelHydration(int parallelism, int threshold) {
+        if (parallelism < 1 || threshold < 1) {
+            throw new RuntimeException("Parallelism and threshold must be greater than zero");
+        }
+        this.pool = new ForkJoinPool(parallelism);
+        this.threshold = threshold;
+    }
+
+    public ForkJoinPool pool() {
+        return pool;
+    }
+
+    public int threshold() {
+        return threshold;
+    }
+
+    public boolean appliesTo(int nodeCount) {
+        return nodeCount >= threshold;
+    }
+}
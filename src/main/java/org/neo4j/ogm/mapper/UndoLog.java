@@ -0,0 +1,58 @@
+/*
+ * Copyright (c) 2002-2015 "Neo Technology,"
+ * Network Engine for Objects in Lund AB [http://neotechnology.com]
+ *
+ * This product is licensed to you under the Apache License, Version 2.0 (the "License").
+ * You may not use this product except in compliance with the License.
+ *
+ * This product may include a number of subcomponents with
+ * separate copyright notices and license terms. Your use of the source
+ * code for these subcomponents is subject to the terms and
+ * conditions of the subcomponent's license, as noted in the LICENSE file.
+ *
+ */
+package org.neo4j.ogm.mapper;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * The changes a thread has made to a {@link MappingContext} since it began a transaction, each recorded
+ * with the means of reverting it. The threads that hydrate a response on its behalf record their changes
+ * here too, so they may be recorded from several threads at once. Outside this package it is only a handle,
+ * passed back to {@link MappingContext#resumeUndoLog(UndoLog)} to carry on recording.
+ */
+public final class UndoLog {
+
+    interface Change {
+        void undo();
+    }
+
+    private final List<Change> changes = new ArrayList<>();
+    private final long generation;
+
+    /**
+     * @param generation the number of times the context had been cleared when recording began
+     */
+    UndoLog(long generation) {
+        this.generation = generation;
+    }
+
+    long generation() {
+        return generation;
+    }
+
+    synchronized void record(Change change) {
+        changes.add(change);
+    }
+
+    /**
+     * Reverts the recorded changes, the most recent first.
+     */
+    synchronized void replay() {
+        for (int i = changes.size() - 1; i >= 0; i--) {
+            changes.get(i).undo();
+        }
+        changes.clear();
+    }
+}
@@ -334,6 +334,22 @@ public class ClassInfo {
         return fieldInfos;
     }
 
+    /**
+     * Finds the property field that is annotated as a unique index, by which an entity can be identified before its id is known.
+     * If several are, the one with the first property name is chosen.
+     *
+     * @return A FieldInfo object describing the uniquely indexed property field, or null if there isn't one.
+     */
+    public FieldInfo uniqueIndexField() {
+        FieldInfo uniqueField = null;
+        for (FieldInfo fieldInfo : propertyFields()) {
+            if (fieldInfo.isUnique() && (uniqueField == null || fieldInfo.property().compareTo(uniqueField.property()) < 0)) {
+                uniqueField = fieldInfo;
+            }
+        }
+        return uniqueField;
+    }
+
     /**
      * Finds the property field with a specific property name from the ClassInfo's property fields
      *
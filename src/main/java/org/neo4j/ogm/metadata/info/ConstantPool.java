@@ -36,12 +36,18 @@ class ConstantPool {
                     pool[i] = stream.readUTF();
                     break;
                 case ConstantPoolTags.INTEGER:
+                    // boolean, char, byte and short annotation values are stored as integers too
+                    pool[i] = String.valueOf(stream.readInt());
+                    break;
                 case ConstantPoolTags.FLOAT:
-                    stream.skipBytes(4);
+                    pool[i] = String.valueOf(stream.readFloat());
                     break;
                 case ConstantPoolTags.LONG:
+                    pool[i] = String.valueOf(stream.readLong());
+                    i++; // double slot
+                    break;
                 case ConstantPoolTags.DOUBLE:
-                    stream.skipBytes(8);
+                    pool[i] = String.valueOf(stream.readDouble());
                     i++; // double slot
                     break;
                 case ConstantPoolTags.CLASS:
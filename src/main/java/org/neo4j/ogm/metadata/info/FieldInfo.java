@@ -14,6 +14,7 @@
 
 package org.neo4j.ogm.metadata.info;
 
+import org.neo4j.ogm.annotation.Index;
 import org.neo4j.ogm.annotation.Property;
 import org.neo4j.ogm.annotation.Relationship;
 import org.neo4j.ogm.metadata.RelationshipUtils;
@@ -223,6 +224,22 @@ public class FieldInfo {
         return getAnnotations().get(annotationName) != null;
     }
 
+    public boolean isIndexed() {
+        return annotations != null && annotations.get(Index.CLASS) != null;
+    }
+
+    /**
+     * @return true if the field is annotated with {@link Index} and the index is a uniqueness constraint
+     */
+    public boolean isUnique() {
+        if (!isIndexed()) {
+            return false;
+        }
+        // the class file holds a boolean annotation value as the integer 1 or 0
+        String unique = annotations.get(Index.CLASS).get(Index.UNIQUE, "0");
+        return "1".equals(unique) || "true".equals(unique);
+    }
+
     /**
      * Get the type descriptor
      * @return the descriptor if the field is scalar or an array, otherwise the type parameter descriptor.
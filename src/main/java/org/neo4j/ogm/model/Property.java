@@ -60,22 +60,22 @@ public class Property<K, V> {
         return String.format("%s : %s", this.key, asParameter());
     }
 
+    /**
+     * Numbers, booleans, strings, arrays and collections are passed through with their types intact,
+     * to be written as the corresponding Cypher parameter types. Anything else is passed as a string.
+     *
+     * @return the value of this property in a form that can be sent as a Cypher parameter
+     */
     public Object asParameter() {
-        if (value == null) {
-            return null;
-        }
-        if (value instanceof String) {
+        if (value == null
+                || value instanceof String
+                || value instanceof Number
+                || value instanceof Boolean
+                || value instanceof Iterable
+                || value.getClass().isArray()) {
             return value;
         }
-        try {
-            return Long.parseLong(value.toString());
-        } catch (Exception e1) {
-            try {
-                return Double.parseDouble(value.toString());
-            } catch (Exception e2) {
-                return value.toString();
-            }
-        }
+        return value.toString();
     }
 
     @Override
@@ -0,0 +1,31 @@
+/*
+ * Copyright (c) 2002-2015 "Neo Technology,"
+ * Network Engine for Objects in Lund AB [http://neotechnology.com]
+ *
+ * This product is licensed to you under the Apache License, Version 2.0 (the "License").
+ * You may not use this product except in compliance with the License.
+ *
+ * This product may include a number of subcomponents with
+ * separate copyright notices and license terms. Your use of the source
+ * code for these subcomponents is subject to the terms and
+ * conditions of the subcomponent's license, as noted in the LICENSE file.
+ *
+ */
+
+package org.neo4j.ogm.session;
+
+/**
+ * A handle on work that another thread may cancel while it is in progress.
+ */
+public interface Cancellable {
+
+    /**
+     * Cancels the work, aborting any request it is waiting on. The thread doing the work sees a
+     * {@link java.util.concurrent.CancellationException} instead of the request's response, and its next requests
+     * are refused the same way.
+     */
+    void cancel();
+
+    boolean isCancelled();
+
+}
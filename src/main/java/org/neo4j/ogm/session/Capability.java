@@ -14,12 +14,19 @@
 package org.neo4j.ogm.session;
 
 import java.util.Collection;
+import java.util.Iterator;
 import java.util.Map;
+import java.util.concurrent.TimeUnit;
 
 import org.neo4j.ogm.cypher.Filter;
 import org.neo4j.ogm.cypher.Filters;
+import org.neo4j.ogm.cypher.query.FanOutLimit;
 import org.neo4j.ogm.cypher.query.Pagination;
+import org.neo4j.ogm.cypher.query.QueryBatch;
 import org.neo4j.ogm.cypher.query.SortOrder;
+import org.neo4j.ogm.session.request.Deadline;
+import org.neo4j.ogm.session.result.BatchResult;
+import org.neo4j.ogm.session.result.ImportStatistics;
 import org.neo4j.ogm.session.result.QueryStatistics;
 import org.neo4j.ogm.session.result.Result;
 import org.neo4j.ogm.session.transaction.Transaction;
@@ -42,6 +49,13 @@ public interface Capability {
         <T> Collection<T> loadAll(Class<T> type, Collection<Long> ids, SortOrder sortOrder, Pagination pagination);
         <T> Collection<T> loadAll(Class<T> type, Collection<Long> ids, SortOrder sortOrder, Pagination pagination, int depth);
 
+        /**
+         * Loads objects of the given type with the given ids, keeping at most {@link FanOutLimit#getLimit()}
+         * relationships of each type for each node that is reached. Nodes whose relationships were
+         * not all loaded are reported by {@link LoadOne#isTruncated(Object, String)}.
+         */
+        <T> Collection<T> loadAll(Class<T> type, Collection<Long> ids, int depth, FanOutLimit fanOutLimit);
+
     }
 
     interface LoadByInstances {
@@ -96,16 +110,78 @@ public interface Capability {
         // load a single object of Class type, with id id
         <T> T load(Class<T> type, Long id);
         <T> T load(Class<T> type, Long id, int depth);
+
+        /**
+         * Loads a single object to the given depth, keeping at most {@link FanOutLimit#getLimit()}
+         * relationships of each type for each node that is reached.
+         */
+        <T> T load(Class<T> type, Long id, int depth, FanOutLimit fanOutLimit);
+
+        /**
+         * Loads a single object to the given depth, returning the instance already held by the session
+         * instead of querying the database if the {@link ReadPolicy} allows it.
+         */
+        <T> T load(Class<T> type, Long id, int depth, ReadPolicy readPolicy);
+
+        /**
+         * @param entity a loaded entity
+         * @param relationshipType the relationship type
+         * @return true if relationships of this type were left unloaded on the entity by a {@link FanOutLimit}
+         */
+        boolean isTruncated(Object entity, String relationshipType);
     }
 
     interface Save {
         <T> void save(T object);
         <T> void save(T object, int depth);
+
+        /**
+         * Waits until every save that has been queued by write-behind has been written to the database.
+         * Returns straight away if write-behind is not enabled.
+         *
+         * @see SessionFactory#setWriteBehind(long, java.util.concurrent.TimeUnit, int)
+         */
+        void flush();
+
+        /**
+         * Records that the given entity's properties or relationships have changed since it was loaded or last
+         * saved. Sessions that use a change journal only write the entities that have been marked, or that track
+         * their own changes and report them, together with the new entities they reference.
+         *
+         * @see SessionFactory#setChangeJournal(boolean)
+         */
+        <T> void markDirty(T object);
+    }
+
+    interface Import {
+
+        /**
+         * Imports a stream of new entities in batches of at most the given size, each sent in its own request, so that
+         * outside a transaction each is committed on its own. Node entities are imported with their properties and
+         * the relationships their fields refer to, whose other ends must be in the stream or already have ids.
+         * Relationship entities are imported if their start and end nodes come earlier in the stream or already have
+         * ids. The id of each entity is set once it has been imported, but none of them are held by the session, so
+         * the stream can be much larger than would fit in memory.
+         *
+         * @return the number of entities imported and the rate they were imported at
+         */
+        <T> ImportStatistics importAll(Iterator<T> entities, int batchSize);
+        <T> ImportStatistics importAll(Iterator<T> entities, int batchSize, ImportProgress progress);
     }
 
     interface Delete {
         <T> void delete(T object);
         <T> void deleteAll(Class<T> type);
+
+        /**
+         * Deletes all the entities of the given type in batches of at most the given size, each sent in its own
+         * request, so that no single transaction has to hold all of them.
+         *
+         * @return the number of entities deleted
+         */
+        <T> long deleteAll(Class<T> type, int batchSize);
+        <T> long deleteAll(Class<T> type, int batchSize, DeleteProgress progress);
+
         void purgeDatabase();
         void clear();
     }
@@ -224,6 +300,18 @@ public interface Capability {
          */
         Result query(String cypher, Map<String, ?> parameters, boolean readOnly);
 
+        /**
+         * Executes all the queries in the given batch in a single request to the database.
+         *
+         * <p>Each query is mapped as it would be by {@link #query(Class, String, Map)} if it was added with a type,
+         * or by {@link #query(String, Map)} otherwise. Queries added without a type must not modify the graph.
+         * Domain objects are mapped into the same session as those returned by other queries.</p>
+         *
+         * @param batch The {@link QueryBatch} to execute
+         * @return A {@link BatchResult} holding the result of each query, in the order they were added to the batch
+         */
+        BatchResult queryBatch(QueryBatch batch);
+
         /**
          * Counts all the <em>node</em> entities of the specified type.
          *
@@ -234,6 +322,22 @@ public interface Capability {
 
     }
 
+    interface Deadlines {
+
+        /**
+         * Starts a deadline for the loads, queries, saves and other requests the calling thread makes until the
+         * deadline is closed, in place of the session's request timeout. A request still in flight when the deadline
+         * passes is aborted and fails with a {@link org.neo4j.ogm.exception.DeadlineExceededException}, and a
+         * transaction it was made in is rolled back on the server. The deadline can also be cancelled from another
+         * thread, with the same effect.
+         *
+         * @param timeout the time allowed, or zero for no limit, so that the work can only be cancelled
+         * @return the deadline, to be closed on the calling thread once the work is done
+         * @see SessionFactory#setRequestTimeout(long, java.util.concurrent.TimeUnit)
+         */
+        Deadline deadline(long timeout, TimeUnit unit);
+    }
+
     interface GraphId {
 
         /**
@@ -0,0 +1,30 @@
+/*
+ * Copyright (c) 2002-2015 "Neo Technology,"
+ * Network Engine for Objects in Lund AB [http://neotechnology.com]
+ *
+ * This product is licensed to you under the Apache License, Version 2.0 (the "License").
+ * You may not use this product except in compliance with the License.
+ *
+ * This product may include a number of subcomponents with
+ * separate copyright notices and license terms. Your use of the source
+ * code for these subcomponents is subject to the terms and
+ * conditions of the subcomponent's license, as noted in the LICENSE file.
+ *
+ */
+package org.neo4j.ogm.session;
+
+/**
+ * A callback interface used to report the progress of a {@link Session#importAll(java.util.Iterator, int, ImportProgress)}.
+ */
+public interface ImportProgress {
+
+    /**
+     * Called by the OGM {@link Session} after each batch has been imported.
+     *
+     * @param imported The number of entities imported in the batch just completed
+     * @param total The number of entities imported so far
+     * @param rowsPerSecond The number of entities imported per second so far
+     */
+    void imported(long imported, long total, double rowsPerSecond);
+
+}
@@ -15,29 +15,46 @@
 package org.neo4j.ogm.session;
 
 import java.util.Collection;
+import java.util.Iterator;
 import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
 import org.apache.http.impl.client.CloseableHttpClient;
 import org.neo4j.ogm.authentication.UsernamePasswordCredentials;
 import org.neo4j.ogm.cypher.Filter;
 import org.neo4j.ogm.cypher.Filters;
+import org.neo4j.ogm.cypher.query.FanOutLimit;
 import org.neo4j.ogm.cypher.query.Pagination;
+import org.neo4j.ogm.cypher.query.QueryBatch;
 import org.neo4j.ogm.cypher.query.SortOrder;
+import org.neo4j.ogm.mapper.IdentityMapStorage;
 import org.neo4j.ogm.mapper.MappingContext;
+import org.neo4j.ogm.mapper.ParallelHydration;
 import org.neo4j.ogm.metadata.MetaData;
 import org.neo4j.ogm.session.delegates.*;
+import org.neo4j.ogm.session.request.Deadline;
 import org.neo4j.ogm.session.request.DefaultRequest;
 import org.neo4j.ogm.session.request.Neo4jRequest;
+import org.neo4j.ogm.session.request.ReplicaRouter;
 import org.neo4j.ogm.session.request.RequestHandler;
+import org.neo4j.ogm.session.request.RoutingRequest;
 import org.neo4j.ogm.session.request.SessionRequestHandler;
+import org.neo4j.ogm.session.request.SlowQueryLog;
+import org.neo4j.ogm.session.request.strategy.DistinctPathQuery;
+import org.neo4j.ogm.session.request.strategy.LoadStrategy;
 import org.neo4j.ogm.session.request.strategy.QueryStatements;
+import org.neo4j.ogm.session.request.strategy.QueryTemplateCache;
 import org.neo4j.ogm.session.request.strategy.VariableDepthQuery;
 import org.neo4j.ogm.session.request.strategy.VariableDepthRelationshipQuery;
 import org.neo4j.ogm.session.response.ResponseHandler;
 import org.neo4j.ogm.session.response.SessionResponseHandler;
+import org.neo4j.ogm.session.result.BatchResult;
+import org.neo4j.ogm.session.result.ImportStatistics;
 import org.neo4j.ogm.session.result.QueryStatistics;
 import org.neo4j.ogm.session.result.Result;
+import org.neo4j.ogm.session.schema.IndexUsage;
 import org.neo4j.ogm.session.transaction.Transaction;
 import org.neo4j.ogm.session.transaction.TransactionManager;
 import org.slf4j.Logger;
@@ -52,7 +69,7 @@ public class Neo4jSession implements Session {
     private final Logger logger = LoggerFactory.getLogger(Neo4jSession.class);
 
     private final MetaData metaData;
-    private final MappingContext mappingContext;
+    private MappingContext mappingContext;
     private final ObjectMapper mapper;
     private final TransactionManager txManager;
 
@@ -61,6 +78,7 @@ public class Neo4jSession implements Session {
     private final LoadByIdsDelegate loadByIdsHandler = new LoadByIdsDelegate(this);
     private final LoadByInstancesDelegate loadByInstancesDelegate = new LoadByInstancesDelegate(this);
     private final SaveDelegate saveDelegate = new SaveDelegate(this);
+    private final ImportDelegate importDelegate = new ImportDelegate(this);
     private final DeleteDelegate deleteDelegate = new DeleteDelegate(this);
     private final ExecuteQueriesDelegate executeQueriesDelegate = new ExecuteQueriesDelegate(this);
     private final ExecuteStatementsDelegate executeStatementsDelegate = new ExecuteStatementsDelegate(this);
@@ -68,6 +86,16 @@ public class Neo4jSession implements Session {
     private final GraphIdDelegate graphIdDelegate = new GraphIdDelegate(this);
 
     private Neo4jRequest<String> request;
+    private LoadStrategy loadStrategy = LoadStrategy.PATHS;
+    private ReplicaRouter replicaRouter;
+    private BatchingLoader batchingLoader;
+    private ReadPolicy readPolicy = ReadPolicy.ALWAYS_FETCH;
+    private IndexUsage indexUsage;
+    private QueryTemplateCache queryTemplateCache = new QueryTemplateCache();
+    private ParallelHydration parallelHydration;
+    private WriteBehind writeBehind;
+    private SlowQueryLog slowQueryLog;
+    private AtomicLong deadlinesExceeded = new AtomicLong();
 
     public Neo4jSession(MetaData metaData, String url, CloseableHttpClient client, ObjectMapper mapper) {
         this.metaData = metaData;
@@ -104,6 +132,21 @@ public class Neo4jSession implements Session {
         return loadOneHandler.load(type, id, depth);
     }
 
+    @Override
+    public <T> T load(Class<T> type, Long id, int depth, FanOutLimit fanOutLimit) {
+        return loadOneHandler.load(type, id, depth, fanOutLimit);
+    }
+
+    @Override
+    public <T> T load(Class<T> type, Long id, int depth, ReadPolicy readPolicy) {
+        return loadOneHandler.load(type, id, depth, readPolicy);
+    }
+
+    @Override
+    public boolean isTruncated(Object entity, String relationshipType) {
+        return loadOneHandler.isTruncated(entity, relationshipType);
+    }
+
     /*
      *----------------------------------------------------------------------------------------------------------
      * loadByTypeHandler
@@ -274,6 +317,11 @@ public class Neo4jSession implements Session {
         return loadByIdsHandler.loadAll(type, ids, sortOrder, pagination, depth);
     }
 
+    @Override
+    public <T> Collection<T> loadAll(Class<T> type, Collection<Long> ids, int depth, FanOutLimit fanOutLimit) {
+        return loadByIdsHandler.loadAll(type, ids, depth, fanOutLimit);
+    }
+
 
     /*
      *----------------------------------------------------------------------------------------------------------
@@ -345,12 +393,32 @@ public class Neo4jSession implements Session {
         return executeQueriesDelegate.query(type, cypher, parameters);
     }
 
+    @Override
+    public BatchResult queryBatch(QueryBatch batch) {
+        return executeQueriesDelegate.queryBatch(batch);
+    }
+
     @Override
     public long countEntitiesOfType(Class<?> entity) {
         return executeQueriesDelegate.countEntitiesOfType(entity);
     }
 
 
+    /*
+    *----------------------------------------------------------------------------------------------------------
+    * ImportDelegate
+    *----------------------------------------------------------------------------------------------------------
+    */
+    @Override
+    public <T> ImportStatistics importAll(Iterator<T> entities, int batchSize) {
+        return importDelegate.importAll(entities, batchSize);
+    }
+
+    @Override
+    public <T> ImportStatistics importAll(Iterator<T> entities, int batchSize, ImportProgress progress) {
+        return importDelegate.importAll(entities, batchSize, progress);
+    }
+
     /*
     *----------------------------------------------------------------------------------------------------------
     * DeleteDelegate
@@ -375,6 +443,16 @@ public class Neo4jSession implements Session {
     public <T> void deleteAll(Class<T> type) {
         deleteDelegate.deleteAll(type);
     }
+
+    @Override
+    public <T> long deleteAll(Class<T> type, int batchSize) {
+        return deleteDelegate.deleteAll(type, batchSize);
+    }
+
+    @Override
+    public <T> long deleteAll(Class<T> type, int batchSize, DeleteProgress progress) {
+        return deleteDelegate.deleteAll(type, batchSize, progress);
+    }
     
     /*
     *----------------------------------------------------------------------------------------------------------
@@ -391,6 +469,26 @@ public class Neo4jSession implements Session {
         saveDelegate.save(object, depth);
     }
 
+    @Override
+    public void flush() {
+        saveDelegate.flush();
+    }
+
+    @Override
+    public <T> void markDirty(T object) {
+        saveDelegate.markDirty(object);
+    }
+
+
+    /*
+    *----------------------------------------------------------------------------------------------------------
+    * Deadlines
+    *----------------------------------------------------------------------------------------------------------
+    */
+    @Override
+    public Deadline deadline(long timeout, TimeUnit unit) {
+        return Deadline.start(timeout, unit, deadlinesExceeded);
+    }
 
     /*
     *----------------------------------------------------------------------------------------------------------
@@ -444,9 +542,16 @@ public class Neo4jSession implements Session {
         if(metaData.isRelationshipEntity(type.getName())) {
                 return new VariableDepthRelationshipQuery();
         }
+        if (loadStrategy == LoadStrategy.DISTINCT_SETS) {
+            return new DistinctPathQuery();
+        }
         return new VariableDepthQuery();
     }
 
+    public void setLoadStrategy(LoadStrategy loadStrategy) {
+        this.loadStrategy = loadStrategy;
+    }
+
     public String entityType(String name) {
         return metaData.entityType(name);
     }
@@ -455,6 +560,14 @@ public class Neo4jSession implements Session {
         return mappingContext;
     }
 
+    /**
+     * Replaces the mapping context with an empty one using the given storage. This discards everything
+     * the session has loaded, so it should only be called before the session is used.
+     */
+    public void setIdentityMapStorage(IdentityMapStorage storage) {
+        this.mappingContext = new MappingContext(metaData, storage);
+    }
+
     public MetaData metaData() {
         return metaData;
     }
@@ -468,15 +581,113 @@ public class Neo4jSession implements Session {
     }
 
     public RequestHandler requestHandler() {
-        return new SessionRequestHandler(mapper, request);
+        if (replicaRouter != null) {
+            return new SessionRequestHandler(mapper, new RoutingRequest(request, replicaRouter), txManager, slowQueryLog);
+        }
+        return new SessionRequestHandler(mapper, request, txManager, slowQueryLog);
     }
 
     public Transaction ensureTransaction() {
+        beginOperation();
         return transactionsDelegate.getCurrentOrAutocommitTransaction();
     }
 
+    /**
+     * Use this instead of {@link #ensureTransaction()} for requests that do not modify the graph,
+     * so that they can be sent to a read replica when there is no open transaction.
+     */
+    public Transaction ensureReadTransaction() {
+        beginOperation();
+        return transactionsDelegate.getCurrentOrReadTransaction();
+    }
+
+    // every operation begins by taking in the saves written behind since the last, on the thread using the session,
+    // and bounding the entities held, before anything it does is under way
+    private void beginOperation() {
+        if (writeBehind != null) {
+            writeBehind.apply();
+        }
+        mappingContext.evictIfOverLimit();
+    }
+
+    public void setReplicaRouter(ReplicaRouter replicaRouter) {
+        this.replicaRouter = replicaRouter;
+    }
+
+    public ReplicaRouter replicaRouter() {
+        return replicaRouter;
+    }
+
+    public boolean hasOpenTransaction() {
+        return transactionsDelegate.hasOpenTransaction();
+    }
+
+    public void setBatchingLoader(BatchingLoader batchingLoader) {
+        this.batchingLoader = batchingLoader;
+    }
+
+    public BatchingLoader batchingLoader() {
+        return batchingLoader;
+    }
+
+    public void setReadPolicy(ReadPolicy readPolicy) {
+        this.readPolicy = readPolicy;
+    }
+
+    public ReadPolicy readPolicy() {
+        return readPolicy;
+    }
+
+    public void setQueryTemplateCache(QueryTemplateCache queryTemplateCache) {
+        this.queryTemplateCache = queryTemplateCache;
+    }
+
+    public QueryTemplateCache queryTemplateCache() {
+        return queryTemplateCache;
+    }
+
+    public void setIndexUsage(IndexUsage indexUsage) {
+        this.indexUsage = indexUsage;
+    }
+
+    public IndexUsage indexUsage() {
+        return indexUsage;
+    }
+
+    public void setParallelHydration(ParallelHydration parallelHydration) {
+        this.parallelHydration = parallelHydration;
+    }
+
+    public ParallelHydration parallelHydration() {
+        return parallelHydration;
+    }
+
+    public void setWriteBehind(WriteBehind writeBehind) {
+        this.writeBehind = writeBehind;
+    }
+
+    public WriteBehind writeBehind() {
+        return writeBehind;
+    }
+
+    public void setSlowQueryLog(SlowQueryLog slowQueryLog) {
+        this.slowQueryLog = slowQueryLog;
+    }
+
+    /**
+     * @param timeoutMillis the time allowed for each request made without a {@link Deadline}, or zero for no limit
+     * @param deadlinesExceeded counts the requests that take longer than they are allowed
+     */
+    public void setRequestTimeout(long timeoutMillis, AtomicLong deadlinesExceeded) {
+        this.deadlinesExceeded = deadlinesExceeded;
+        if (request instanceof DefaultRequest) {
+            ((DefaultRequest) request).setTimeout(timeoutMillis, deadlinesExceeded);
+        }
+        txManager.setTimeout(timeoutMillis, deadlinesExceeded);
+    }
+
     public ResponseHandler responseHandler() {
-        return new SessionResponseHandler(metaData, mappingContext);
+        return new SessionResponseHandler(metaData, mappingContext, parallelHydration);
     }
 
     public TransactionManager transactionManager() {
@@ -0,0 +1,59 @@
+/*
+ * Copyright (c) 2002-2015 "Neo Technology,"
+ * Network Engine for Objects in Lund AB [http://neotechnology.com]
+ *
+ * This product is licensed to you under the Apache License, Version 2.0 (the "License").
+ * You may not use this product except in compliance with the License.
+ *
+ * This product may include a number of subcomponents with
+ * separate copyright notices and license terms. Your use of the source
+ * code for these subcomponents is subject to the terms and
+ * conditions of the subcomponent's license, as noted in the LICENSE file.
+ *
+ */
+package org.neo4j.ogm.session;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Decides whether loading an entity by id may return the instance already held in the session
+ * instead of querying the database.
+ *
+ * A cached instance is only returned if it was itself loaded by id to at least the requested depth,
+ * and none of its relationships were left out by a fan-out limit.
+ */
+public class ReadPolicy {
+
+    /**
+     * Always query the database. This is the default.
+     */
+    public static final ReadPolicy ALWAYS_FETCH = new ReadPolicy(0);
+
+    /**
+     * Return the cached instance however long ago it was loaded.
+     */
+    public static final ReadPolicy PREFER_CACHED = new ReadPolicy(Long.MAX_VALUE);
+
+    /**
+     * @param duration how long after being loaded a cached instance may still be returned
+     * @param unit the unit of the duration
+     * @return a policy that returns cached instances loaded no longer ago than the given duration
+     */
+    public static ReadPolicy maxStaleness(long duration, TimeUnit unit) {
+        return new ReadPolicy(unit.toMillis(duration));
+    }
+
+    private final long maxStalenessMillis;
+
+    private ReadPolicy(long maxStalenessMillis) {
+        this.maxStalenessMillis = maxStalenessMillis;
+    }
+
+    public boolean allowsCached() {
+        return maxStalenessMillis > 0;
+    }
+
+    public long getMaxStalenessMillis() {
+        return maxStalenessMillis;
+    }
+}
@@ -29,9 +29,11 @@ public interface Session extends
         Capability.LoadByInstances,
         Capability.LoadByType,
         Capability.Save,
+        Capability.Import,
         Capability.Delete,
         Capability.Transactions,
         Capability.ExecuteStatements,
         Capability.ExecuteQueries,
+        Capability.Deadlines,
         Capability.GraphId {
 }
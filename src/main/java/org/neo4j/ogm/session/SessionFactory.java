@@ -16,12 +16,37 @@ package org.neo4j.ogm.session;
 
 import java.net.URI;
 import java.net.URISyntaxException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
 import org.apache.http.impl.client.CloseableHttpClient;
 import org.apache.http.impl.client.HttpClients;
+import org.neo4j.ogm.authentication.CredentialsService;
+import org.neo4j.ogm.authentication.Neo4jCredentials;
 import org.neo4j.ogm.authentication.UsernamePasswordCredentials;
+import org.neo4j.ogm.mapper.IdentityMapStorage;
+import org.neo4j.ogm.mapper.ParallelHydration;
 import org.neo4j.ogm.metadata.MetaData;
+import org.neo4j.ogm.session.delegates.BatchingLoader;
+import org.neo4j.ogm.session.delegates.WriteBehind;
+import org.neo4j.ogm.session.request.ReplicaRouter;
+import org.neo4j.ogm.session.request.SlowQueryLog;
+import org.neo4j.ogm.session.request.strategy.LoadStrategy;
+import org.neo4j.ogm.session.request.strategy.QueryTemplateCache;
+import org.neo4j.ogm.session.scan.PartitionedScan;
+import org.neo4j.ogm.session.schema.IndexManager;
+import org.neo4j.ogm.session.schema.IndexMode;
+import org.neo4j.ogm.session.schema.IndexUsage;
 
 /**
  * Used to create {@link Session} instances for interacting with Neo4j.
@@ -34,6 +59,44 @@ public class SessionFactory {
     private static final ObjectMapper objectMapper = new ObjectMapper();
     private final CloseableHttpClient httpClient = HttpClients.createDefault();
     private final MetaData metaData;
+    private final IndexManager indexManager;
+    private final IndexUsage indexUsage;
+    private final QueryTemplateCache queryTemplateCache = new QueryTemplateCache();
+
+    private final ConcurrentMap<String, ReplicaRouter> replicaRouters = new ConcurrentHashMap<>();
+    private final ConcurrentMap<String, Boolean> indexedServers = new ConcurrentHashMap<>();
+
+    private IndexMode indexMode = IndexMode.NONE;
+
+    private LoadStrategy loadStrategy = LoadStrategy.PATHS;
+
+    private ReadPolicy readPolicy = ReadPolicy.ALWAYS_FETCH;
+    private IdentityMapStorage identityMapStorage = IdentityMapStorage.CONCURRENT;
+    private int entityLimit;
+    private long memoryLimit;
+    private ParallelHydration parallelHydration;
+    private boolean changeJournal;
+
+    private long batchWindow;
+    private TimeUnit batchWindowUnit;
+    private int maxBatchSize;
+
+    private ScheduledThreadPoolExecutor writeBehindWriter;
+    // the write-behinds of sessions that have saves still to write, which are held until they have been written
+    private final Set<WriteBehind> writeBehinds = Collections.synchronizedSet(Collections.newSetFromMap(new IdentityHashMap<WriteBehind, Boolean>()));
+    private long flushInterval;
+    private TimeUnit flushIntervalUnit;
+    private int flushBatchSize;
+    private WriteFailureHandler writeFailureHandler;
+
+    private long slowQueryThreshold = -1;
+    private TimeUnit slowQueryThresholdUnit;
+    private double slowQuerySampleRate;
+    private int slowQueryParameterLength;
+    private SlowQueryListener slowQueryListener;
+
+    private long requestTimeoutMillis;
+    private final AtomicLong deadlinesExceeded = new AtomicLong();
 
     /**
      * Constructs a new {@link SessionFactory} by initialising the object-graph mapping meta-data from the given list of domain
@@ -48,6 +111,8 @@ public class SessionFactory {
      */
     public SessionFactory(String... packages) {
         this.metaData = new MetaData(packages);
+        this.indexManager = new IndexManager(metaData, httpClient, objectMapper);
+        this.indexUsage = new IndexUsage(indexManager.declaredIndexes());
     }
 
     /**
@@ -70,19 +135,47 @@ public class SessionFactory {
                 username=auth.split(":")[0];
                 password=auth.split(":")[1];
 
-                uriStr = uri.getScheme() + "://" + uri.toString().substring(uri.toString().indexOf(auth) + auth.length()+1);
+                uriStr = withoutUserInfo(uri);
             }
 
             if(username!=null && password!=null) {
-                return new Neo4jSession(metaData, uriStr, httpClient, objectMapper, new UsernamePasswordCredentials(username, password));
+                UsernamePasswordCredentials credentials = new UsernamePasswordCredentials(username, password);
+                return applyIndexes(configure(new Neo4jSession(metaData, uriStr, httpClient, objectMapper, credentials)), uriStr, credentials);
 
             }
-            return new Neo4jSession(metaData, uriStr, httpClient, objectMapper);
+            return applyIndexes(configure(new Neo4jSession(metaData, uriStr, httpClient, objectMapper)), uriStr, CredentialsService.userNameAndPassword());
         } catch (URISyntaxException e) {
             throw new RuntimeException(e);
         }
     }
 
+    /**
+     * Opens a new Neo4j mapping {@link Session} against the specified Neo4j database, which reads from the given
+     * read replicas whenever it can.
+     * <p>
+     * Loads, read-only queries and counts that are not part of an explicit transaction are spread across the
+     * replicas, each going to the healthy replica with the fewest outstanding requests. Everything else, including
+     * all the work done in a transaction, is sent to the writer. A replica that fails is avoided for a cool-down
+     * period, during which its reads go to the other replicas or to the writer.
+     * </p>
+     * Sessions opened with the same writer and replicas share their routing state.
+     *
+     * @param writerUrl The base URL of the Neo4j database to which all writes are sent. It may contain the username and password as in {@link #openSession(String)}
+     * @param readReplicaUrls The base URLs of the Neo4j databases that replicate the writer
+     * @return A new {@link Session}
+     */
+    public Session openSession(String writerUrl, List<String> readReplicaUrls) {
+        Neo4jSession session = (Neo4jSession) openSession(writerUrl);
+        String key = writerUrl + readReplicaUrls;
+        ReplicaRouter router = replicaRouters.get(key);
+        if (router == null) {
+            replicaRouters.putIfAbsent(key, new ReplicaRouter(withoutUserInfo(URI.create(writerUrl)), readReplicaUrls));
+            router = replicaRouters.get(key);
+        }
+        session.setReplicaRouter(router);
+        return session;
+    }
+
     /**
      * Opens a new Neo4j mapping {@link Session} against the specified Neo4j database.
      *
@@ -92,7 +185,20 @@ public class SessionFactory {
      * @return A new {@link Session}
      */
     public Session openSession(String url, String username, String password) {
-        return new Neo4jSession(metaData, url, httpClient, objectMapper, new UsernamePasswordCredentials(username, password));
+        UsernamePasswordCredentials credentials = new UsernamePasswordCredentials(username, password);
+        return applyIndexes(configure(new Neo4jSession(metaData, url, httpClient, objectMapper, credentials)), url, credentials);
+    }
+
+    /**
+     * Prepares a scan of every node entity of the given type in the specified Neo4j database, in partitions of node
+     * ids that are scanned concurrently, each by a session opened from this factory.
+     *
+     * @param url The base URL of the Neo4j database to scan, as given to {@link #openSession(String)}
+     * @param type The type of the node entities to visit
+     * @return A {@link PartitionedScan}, to be configured and run
+     */
+    public <T> PartitionedScan<T> partitionedScan(String url, Class<T> type) {
+        return new PartitionedScan<>(this, url, type);
     }
 
     /**
@@ -104,4 +210,322 @@ public class SessionFactory {
         return metaData;
     }
 
+    /**
+     * Sets the shape of the Cypher used by sessions opened from this factory to load entities to a given depth.
+     * The default, {@link LoadStrategy#PATHS}, returns every path from the loaded entities, which repeats nodes
+     * and relationships that lie on more than one path. {@link LoadStrategy#DISTINCT_SETS} returns each of
+     * them once.
+     *
+     * @param loadStrategy The {@link LoadStrategy} to use
+     */
+    public void setLoadStrategy(LoadStrategy loadStrategy) {
+        this.loadStrategy = loadStrategy;
+    }
+
+    /**
+     * Enables coalescing of concurrent single-entity loads in sessions opened from this factory.
+     * Calls to {@link Session#load(Class, Long, int)} for the same type and depth that are made from different
+     * threads within the given window of each other are loaded together with one query, up to the given
+     * number of ids at a time. Each call is delayed by at most the window. Loads made inside a transaction are
+     * never batched.
+     *
+     * @param window The time to wait for other loads to join a batch, zero or less to disable batching
+     * @param unit The unit of the window
+     * @param maxBatchSize The number of ids after which a batch is loaded without waiting for the window to close
+     */
+    public void setLoadBatching(long window, TimeUnit unit, int maxBatchSize) {
+        if (maxBatchSize < 1) {
+            throw new RuntimeException("Maximum batch size must be greater than zero");
+        }
+        this.batchWindow = window;
+        this.batchWindowUnit = unit;
+        this.maxBatchSize = maxBatchSize;
+    }
+
+    /**
+     * Sets the {@link ReadPolicy} used by sessions opened from this factory when an entity is loaded by id
+     * without one. The default, {@link ReadPolicy#ALWAYS_FETCH}, always queries the database.
+     *
+     * @param readPolicy The {@link ReadPolicy} to use
+     */
+    public void setReadPolicy(ReadPolicy readPolicy) {
+        this.readPolicy = readPolicy;
+    }
+
+    /**
+     * Sets the data structures used by sessions opened from this factory to hold the entities they have loaded.
+     * The default, {@link IdentityMapStorage#CONCURRENT}, favours concurrent lookups. {@link IdentityMapStorage#COMPACT}
+     * uses much less memory per entity, for sessions that hold millions of them.
+     *
+     * @param identityMapStorage The {@link IdentityMapStorage} to use
+     */
+    public void setIdentityMapStorage(IdentityMapStorage identityMapStorage) {
+        this.identityMapStorage = identityMapStorage;
+    }
+
+    /**
+     * Bounds the number of node entities each session opened from this factory keeps in its mapping context.
+     * When a session holds more than this many, the least recently used are forgotten before the next response
+     * is mapped, with the relationships to and from them. Saving a forgotten entity that the application still
+     * holds, or one of its neighbours, deletes the relationships of its mapped types that it is no longer saved with,
+     * since the session no longer knows which it had. Forgotten entities are loaded again from the database when next
+     * asked for. By default there is no bound.
+     * <p>
+     * Eviction can run while another thread is mapping a response, so a bounded session should not be used by
+     * several threads at once.
+     * </p>
+     *
+     * @param entityLimit The maximum number of node entities to keep, or zero for no bound
+     */
+    public void setEntityLimit(int entityLimit) {
+        this.entityLimit = entityLimit;
+    }
+
+    /**
+     * Bounds the estimated memory taken up by the node entities each session opened from this factory keeps in its
+     * mapping context. Entities are forgotten as they are by {@link #setEntityLimit(int)}, least recently used first,
+     * when those a session holds take up more than this. The estimate counts each entity's properties and the
+     * session's bookkeeping for it, but not the entities it refers to, which are counted in their own right. The
+     * relationships the session knows of, and the ids it keeps of entities whose relationships it forgot, count
+     * too. Both bounds can be set together. By default there is no bound.
+     *
+     * @param memoryLimit The estimated number of bytes the node entities may take up, or zero for no bound
+     */
+    public void setMemoryLimit(long memoryLimit) {
+        this.memoryLimit = memoryLimit;
+    }
+
+    /**
+     * Makes sessions opened from this factory keep a journal of the entities that have changed, so that saving to
+     * unlimited depth does not walk the parts of the object graph that have not. An entity that was loaded or saved
+     * before is then only written, and the entities it references only visited, when it has been passed to
+     * {@link Session#markDirty(Object)} since, or implements {@link org.neo4j.ogm.mapper.DirtyTracking} and reports
+     * itself as dirty. Changed entities are found through the relationships the session knows of, even when the
+     * entities between them and the one being saved are unchanged.
+     * <p>
+     * Changes to the relationships of an entity must be marked as well as changes to its properties, or they are not
+     * saved. Saves to a limited depth still visit every entity within it.
+     * </p>
+     *
+     * @param changeJournal whether saves only walk the entities marked as changed
+     */
+    public void setChangeJournal(boolean changeJournal) {
+        this.changeJournal = changeJournal;
+    }
+
+    /**
+     * Enables mapping large responses with several threads in sessions opened from this factory. When a response
+     * presents at least the threshold number of nodes that have not already been mapped from it, they are
+     * instantiated and have their properties written on a pool of the given number of threads, in partitions of
+     * the threshold size. Relationships are still mapped afterwards on the thread that made the request, in the
+     * order the response presents them. The pool is shared by all the sessions opened from this factory.
+     *
+     * @param parallelism The number of threads to map nodes with, or less than two to map on the calling thread only
+     * @param threshold The smallest number of new nodes in a response worth mapping with several threads
+     */
+    public void setParallelHydration(int parallelism, int threshold) {
+        this.parallelHydration = parallelism > 1 ? new ParallelHydration(parallelism, threshold) : null;
+    }
+
+    /**
+     * Enables write-behind saving in sessions opened from this factory. Saves made outside a transaction are queued
+     * and return straight away, and the queued entities are written in batches from a background thread shared by
+     * all the sessions. Each save writes the entities as they were when it was made. An entity saved again before its
+     * batch is full is only written once, in its latest state, unless its relationships have changed in between. A
+     * batch is written when it holds the given number of entities, or when the first entity in it has waited for the
+     * flush interval. A save made while one of the session's batches is being written waits for it, so each session
+     * has at most two batches waiting.
+     * <p>
+     * Queued saves are not seen by loads and queries until they have been written, which can be waited for with
+     * {@link Session#flush()}. New entities are given their ids by the first operation on the session after they
+     * have been written. Deleting a queued entity removes it from the queue. Saves that fail are logged, or handed
+     * to the {@link WriteFailureHandler} if one has been set. Saves still queued when the JVM exits are lost unless
+     * {@link #close()} has been called.
+     * </p>
+     *
+     * @param flushInterval The longest time a save waits to be written
+     * @param unit The unit of the flush interval
+     * @param batchSize The number of entities written in each request
+     */
+    public synchronized void setWriteBehind(long flushInterval, TimeUnit unit, int batchSize) {
+        if (batchSize < 1) {
+            throw new RuntimeException("Batch size must be greater than zero");
+        }
+        if (writeBehindWriter == null) {
+            writeBehindWriter = new ScheduledThreadPoolExecutor(1, new ThreadFactory() {
+                @Override
+                public Thread newThread(Runnable runnable) {
+                    Thread thread = new Thread(runnable, "neo4j-ogm-write-behind");
+                    thread.setDaemon(true);
+                    return thread;
+                }
+            });
+        }
+        this.flushInterval = flushInterval;
+        this.flushIntervalUnit = unit;
+        this.flushBatchSize = batchSize;
+    }
+
+    /**
+     * Sets the handler given the entities whose write-behind saves could not be written.
+     *
+     * @param writeFailureHandler The {@link WriteFailureHandler} to use, or null to log failures
+     */
+    public void setWriteFailureHandler(WriteFailureHandler writeFailureHandler) {
+        this.writeFailureHandler = writeFailureHandler;
+    }
+
+    /**
+     * Reports the requests made by sessions opened from this factory that take at least the given time, from being
+     * sent until their responses are closed. Each is reported with a fingerprint of its statements, in which literals
+     * are replaced by ?, together with its parameters, the number of records read from its response, and the time
+     * spent waiting for the server, reading the response and mapping it. Slow requests are logged as warnings unless
+     * a {@link SlowQueryListener} is set. Requests under the threshold cost no more than reading the clock.
+     * <p>
+     * Parameter values can be large, and may be sensitive, so they are reported truncated to the given length, or
+     * not at all if it is zero.
+     * </p>
+     *
+     * @param threshold The time a request must take to be reported, or less than zero to report none
+     * @param unit The unit of the threshold
+     * @param sampleRate The fraction of slow requests to report, from 0 to 1
+     * @param parameterLength The number of characters of each parameter value to report
+     */
+    public void setSlowQueryLog(long threshold, TimeUnit unit, double sampleRate, int parameterLength) {
+        this.slowQueryThreshold = threshold;
+        this.slowQueryThresholdUnit = unit;
+        this.slowQuerySampleRate = sampleRate;
+        this.slowQueryParameterLength = parameterLength;
+    }
+
+    /**
+     * Sets the listener given the requests found to be slow by the slow-query log.
+     *
+     * @param slowQueryListener The {@link SlowQueryListener} to use, or null to log slow requests
+     */
+    public void setSlowQueryListener(SlowQueryListener slowQueryListener) {
+        this.slowQueryListener = slowQueryListener;
+    }
+
+    /**
+     * Limits the time each request made by sessions opened from this factory may take, from being sent until its
+     * response has been read, unless it is made within a {@link Session#deadline(long, TimeUnit)}. A request that
+     * takes longer is aborted, fails with a {@link org.neo4j.ogm.exception.DeadlineExceededException}, and has the
+     * transaction it was made in rolled back on the server. By default requests may take as long as they need.
+     *
+     * @param timeout The time allowed for each request, or zero for no limit
+     * @param unit The unit of the timeout
+     */
+    public void setRequestTimeout(long timeout, TimeUnit unit) {
+        this.requestTimeoutMillis = unit.toMillis(timeout);
+    }
+
+    /**
+     * @return the number of requests made by sessions opened from this factory that were aborted because their
+     * request timeout or deadline passed
+     */
+    public long deadlinesExceeded() {
+        return deadlinesExceeded.get();
+    }
+
+    /**
+     * Writes every save still queued by write-behind, waiting until they have all been written, and stops the
+     * write-behind thread. Sessions opened from this factory can no longer queue saves afterwards.
+     */
+    public synchronized void close() {
+        if (writeBehindWriter != null) {
+            List<WriteBehind> active;
+            synchronized (writeBehinds) {
+                active = new ArrayList<>(writeBehinds);
+            }
+            for (WriteBehind writeBehind : active) {
+                writeBehind.close();
+            }
+            // everything has been written, so the writes still waiting for their flush interval have nothing to do
+            writeBehindWriter.setExecuteExistingDelayedTasksAfterShutdownPolicy(false);
+            writeBehindWriter.shutdown();
+            try {
+                writeBehindWriter.awaitTermination(Long.MAX_VALUE, TimeUnit.NANOSECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new RuntimeException("Interrupted while waiting for queued saves to be written", e);
+            }
+        }
+    }
+
+    /**
+     * Sets what is done with the indexes declared by {@link org.neo4j.ogm.annotation.Index} annotations on the domain.
+     * The mode is applied the first time a session is opened against each database, before the session is returned.
+     * The default, {@link IndexMode#NONE}, leaves the schema alone.
+     *
+     * @param indexMode The {@link IndexMode} to apply
+     */
+    public void setIndexMode(IndexMode indexMode) {
+        this.indexMode = indexMode;
+    }
+
+    /**
+     * Retrieves the counts of the property filters used by sessions opened from this factory, by whether or not they
+     * could use an index. Until an {@link IndexMode} other than {@link IndexMode#NONE} has been applied, the indexes
+     * are taken to be those declared on the domain.
+     *
+     * @return The {@link IndexUsage} shared by sessions opened from this factory
+     */
+    public IndexUsage indexUsage() {
+        return indexUsage;
+    }
+
+    private static String withoutUserInfo(URI uri) {
+        String auth = uri.getUserInfo();
+        if (auth == null || auth.trim().isEmpty()) {
+            return uri.toString();
+        }
+        return uri.getScheme() + "://" + uri.toString().substring(uri.toString().indexOf(auth) + auth.length()+1);
+    }
+
+    private Neo4jSession applyIndexes(Neo4jSession session, String url, Neo4jCredentials<?> credentials) {
+        if (indexMode != IndexMode.NONE && indexedServers.putIfAbsent(url, Boolean.TRUE) == null) {
+            try {
+                indexUsage.setIndexes(indexManager.apply(indexMode, session, url, credentials));
+            } catch (RuntimeException e) {
+                indexedServers.remove(url);
+                throw e;
+            }
+        }
+        return session;
+    }
+
+    private Neo4jSession configure(Neo4jSession session) {
+        if (identityMapStorage != IdentityMapStorage.CONCURRENT) {
+            session.setIdentityMapStorage(identityMapStorage);
+        }
+        if (entityLimit > 0) {
+            session.context().setEntityLimit(entityLimit);
+        }
+        if (memoryLimit > 0) {
+            session.context().setMemoryLimit(memoryLimit);
+        }
+        if (changeJournal) {
+            session.context().setChangeJournal(true);
+        }
+        session.setLoadStrategy(loadStrategy);
+        session.setReadPolicy(readPolicy);
+        if (batchWindow > 0) {
+            session.setBatchingLoader(new BatchingLoader(session, batchWindow, batchWindowUnit, maxBatchSize));
+        }
+        session.setIndexUsage(indexUsage);
+        session.setQueryTemplateCache(queryTemplateCache);
+        if (parallelHydration != null) {
+            session.setParallelHydration(parallelHydration);
+        }
+        session.setRequestTimeout(requestTimeoutMillis, deadlinesExceeded);
+        if (slowQueryThreshold >= 0) {
+            session.setSlowQueryLog(new SlowQueryLog(slowQueryThreshold, slowQueryThresholdUnit, slowQuerySampleRate, slowQueryParameterLength, slowQueryListener));
+        }
+        if (writeBehindWriter != null) {
+            session.setWriteBehind(new WriteBehind(session, writeBehindWriter, writeBehinds, flushInterval, flushIntervalUnit, flushBatchSize, writeFailureHandler));
+        }
+        return session;
+    }
+
 }
@@ -0,0 +1,32 @@
+/*
+ * Copyright (c) 2002-2015 "Neo Technology,"
+ * Network Engine for Objects in Lund AB [http://neotechnology.com]
+ *
+ * This product is licensed to you under the Apache License, Version 2.0 (the "License").
+ * You may not use this product except in compliance with the License.
+ *
+ * This product may include a number of subcomponents with
+ * separate copyright notices and license terms. Your use of the source
+ * code for these subcomponents is subject to the terms and
+ * conditions of the subcomponent's license, as noted in the LICENSE file.
+ *
+ */
+
+package org.neo4j.ogm.session;
+
+import org.neo4j.ogm.session.request.SlowQuery;
+
+/**
+ * A callback interface used to hand back the requests that took longer than the slow-query threshold.
+ */
+public interface SlowQueryListener {
+
+    /**
+     * Called by the OGM on the thread that made the request, once its response has been closed or it has failed.
+     * It should return quickly, since the thread goes on with the session's work afterwards.
+     *
+     * @param query The fingerprint, timings and row count of the slow request
+     */
+    void slowQuery(SlowQuery query);
+
+}
@@ -0,0 +1,34 @@
+/*
+ * Copyright (c) 2002-2015 "Neo Technology,"
+ * Network Engine for Objects in Lund AB [http://neotechnology.com]
+ *
+ * This product is licensed to you under the Apache License, Version 2.0 (the "License").
+ * You may not use this product except in compliance with the License.
+ *
+ * This product may include a number of subcomponents with
+ * separate copyright notices and license terms. Your use of the source
+ * code for these subcomponents is subject to the terms and
+ * conditions of the subcomponent's license, as noted in the LICENSE file.
+ *
+ */
+package org.neo4j.ogm.session;
+
+import java.util.List;
+
+/**
+ * A callback interface used to hand back the entities whose write-behind save could not be written to the database.
+ */
+public interface WriteFailureHandler {
+
+    /**
+     * Called by the OGM when a batch of queued saves has failed, on a thread using the session, as it next begins
+     * an operation or flushes. The entities are not queued again, so a handler that must not lose them should keep
+     * them somewhere durable or save them again itself.
+     *
+     * @param entities The entities whose save failed, in the order they were first queued
+     * @param depth The depth to which they were to be saved
+     * @param cause The exception that failed the batch
+     */
+    void failed(List<Object> entities, int depth, RuntimeException cause);
+
+}
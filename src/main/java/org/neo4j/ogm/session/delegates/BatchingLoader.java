@@ -0,0 +1,166 @@
+/*
+ * Copyright (c) 2002-2015 "Neo Technology,"
+ * Network Engine for Objects in Lund AB [http://neotechnology.com]
+ *
+ * This product is licensed to you under the Apache License, Version 2.0 (the "License").
+ * You may not use this product except in compliance with the License.
+ *
+ * This product may include a number of subcomponents with
+ * separate copyright notices and license terms. Your use of the source
+ * code for these subcomponents is subject to the terms and
+ * conditions of the subcomponent's license, as noted in the LICENSE file.
+ *
+ */
+package org.neo4j.ogm.session.delegates;
+
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.TimeUnit;
+
+import org.neo4j.ogm.session.Neo4jSession;
+
+/**
+ * Coalesces single-entity loads made concurrently on the same session into one request.
+ *
+ * Loads of the same type to the same depth that arrive within a short window of each other are
+ * collected into a batch. The thread that opened the batch waits until the window closes or the
+ * batch is full, then loads every id in it with a single query. The other threads in the batch
+ * wait for that query and pick their entity out of the mapping context.
+ */
+public class BatchingLoader {
+
+    private final Neo4jSession session;
+    private final long windowNanos;
+    private final int maxBatchSize;
+
+    private final Map<BatchKey, Batch> pending = new HashMap<>();
+
+    public BatchingLoader(Neo4jSession session, long window, TimeUnit unit, int maxBatchSize) {
+
+        if (maxBatchSize < 1) {
+            throw new RuntimeException("Maximum batch size must be greater than zero");
+        }
+
+        this.session = session;
+        this.windowNanos = unit.toNanos(window);
+        this.maxBatchSize = maxBatchSize;
+    }
+
+    public <T> T load(Class<T> type, Long id, int depth) {
+
+        BatchKey key = new BatchKey(type, depth);
+        Batch batch;
+        boolean opened = false;
+
+        synchronized (this) {
+            batch = pending.get(key);
+            if (batch == null) {
+                batch = new Batch(type, depth);
+                pending.put(key, batch);
+                opened = true;
+            }
+            batch.ids.add(id);
+            if (batch.ids.size() >= maxBatchSize) {
+                close(key, batch);
+            }
+        }
+
+        if (opened) {
+            try {
+                batch.full.await(windowNanos, TimeUnit.NANOSECONDS);
+            } catch (InterruptedException e) {
+                // load the batch anyway, the other threads in it are waiting on us
+                Thread.currentThread().interrupt();
+            }
+            synchronized (this) {
+                close(key, batch);
+            }
+            batch.task.run();
+        }
+
+        return batch.get(type, id);
+    }
+
+    // must be called holding the lock; no more ids are added to a batch once it is closed
+    private void close(BatchKey key, Batch batch) {
+        if (pending.get(key) == batch) {
+            pending.remove(key);
+            batch.full.countDown();
+        }
+    }
+
+    private class Batch {
+
+        private final Set<Long> ids = new LinkedHashSet<>();
+        private final CountDownLatch full = new CountDownLatch(1);
+        private final FutureTask<Void> task;
+        private final boolean relationshipEntity;
+
+        Batch(final Class<?> type, final int depth) {
+            this.relationshipEntity = session.metaData().isRelationshipEntity(type.getName());
+            this.task = new FutureTask<>(new Callable<Void>() {
+                @Override
+                public Void call() {
+                    session.loadAll(type, ids, depth);
+                    return null;
+                }
+            });
+        }
+
+        <T> T get(Class<T> type, Long id) {
+            try {
+                task.get();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new RuntimeException("Interrupted while waiting for batched load of " + type.getName() + " " + id, e);
+            } catch (ExecutionException e) {
+                if (e.getCause() instanceof RuntimeException) {
+                    throw (RuntimeException) e.getCause();
+                }
+                if (e.getCause() instanceof Error) {
+                    throw (Error) e.getCause();
+                }
+                throw new RuntimeException(e.getCause());
+            }
+
+            Object entity = relationshipEntity
+                    ? session.context().getRelationshipEntity(id)
+                    : session.context().getNodeEntity(id);
+
+            if (entity != null && type.isAssignableFrom(entity.getClass())) {
+                return type.cast(entity);
+            }
+            return null;
+        }
+    }
+
+    private static class BatchKey {
+
+        private final Class<?> type;
+        private final int depth;
+
+        BatchKey(Class<?> type, int depth) {
+            this.type = type;
+            this.depth = depth;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) return true;
+            if (o == null || getClass() != o.getClass()) return false;
+            BatchKey that = (BatchKey) o;
+            return depth == that.depth && type.equals(that.type);
+        }
+
+        @Override
+        public int hashCode() {
+            return 31 * type.hashCode() + depth;
+        }
+    }
+}
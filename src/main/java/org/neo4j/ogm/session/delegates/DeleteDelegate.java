@@ -14,18 +14,23 @@
 package org.neo4j.ogm.session.delegates;
 
 import java.lang.reflect.Field;
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.List;
 
+import org.neo4j.ogm.cypher.query.RowModelQueryWithStatistics;
 import org.neo4j.ogm.cypher.statement.ParameterisedStatement;
 import org.neo4j.ogm.entityaccess.FieldWriter;
 import org.neo4j.ogm.metadata.info.ClassInfo;
 import org.neo4j.ogm.session.Capability;
+import org.neo4j.ogm.session.DeleteProgress;
 import org.neo4j.ogm.session.Neo4jSession;
 import org.neo4j.ogm.session.request.strategy.DeleteNodeStatements;
 import org.neo4j.ogm.session.request.strategy.DeleteRelationshipStatements;
 import org.neo4j.ogm.session.request.strategy.DeleteStatements;
 import org.neo4j.ogm.session.response.Neo4jResponse;
+import org.neo4j.ogm.session.result.QueryStatistics;
+import org.neo4j.ogm.session.result.RowQueryStatisticsResult;
 
 /**
  * @author Vince Bickers
@@ -46,16 +51,58 @@ public class DeleteDelegate implements Capability.Delete {
     }
 
 
+    // deletes all the entities with one request: one statement for the relationship entities, then one for the nodes
     private <T> void deleteAll(T object) {
-        List<T> list;
+
+        Iterable<?> elements;
         if (object.getClass().isArray()) {
-            list = Arrays.asList(object);
+            elements = Arrays.asList((Object[]) object);
         } else {
-            list = (List<T>) object;
+            elements = (Iterable<?>) object;
+        }
+
+        List<Long> nodeIds = new ArrayList<>();
+        List<Long> relationshipIds = new ArrayList<>();
+        List<Object> deleted = new ArrayList<>();
+
+        for (Object element : elements) {
+            if (element.getClass().isArray() || Iterable.class.isAssignableFrom(element.getClass())) {
+                delete(element);
+                continue;
+            }
+            ClassInfo classInfo = session.metaData().classInfo(element);
+            if (classInfo == null) {
+                session.info(element.getClass().getName() + " is not an instance of a persistable class");
+                continue;
+            }
+            discardQueuedSave(element);
+            Field identityField = classInfo.getField(classInfo.identityField());
+            Long identity = (Long) FieldWriter.read(identityField, element);
+            if (identity != null) {
+                if (session.metaData().isRelationshipEntity(classInfo.name())) {
+                    relationshipIds.add(identity);
+                } else {
+                    nodeIds.add(identity);
+                }
+                deleted.add(element);
+            }
+        }
+
+        if (deleted.isEmpty()) {
+            return;
         }
-        for (T element : list) {
-            delete(element);
+
+        List<ParameterisedStatement> statements = new ArrayList<>();
+        if (!relationshipIds.isEmpty()) {
+            statements.add(new DeleteRelationshipStatements().deleteAll(relationshipIds));
+        }
+        if (!nodeIds.isEmpty()) {
+            statements.add(new DeleteNodeStatements().deleteAll(nodeIds));
         }
+
+        String url = session.ensureTransaction().url();
+        session.requestHandler().execute(statements, url).close();
+        session.context().clearAll(deleted);
     }
 
     @Override
@@ -65,14 +112,14 @@ public class DeleteDelegate implements Capability.Delete {
         } else {
             ClassInfo classInfo = session.metaData().classInfo(object);
             if (classInfo != null) {
+                discardQueuedSave(object);
                 Field identityField = classInfo.getField(classInfo.identityField());
                 Long identity = (Long) FieldWriter.read(identityField, object);
                 if (identity != null) {
                     String url = session.ensureTransaction().url();
                     ParameterisedStatement request = getDeleteStatementsBasedOnType(object.getClass()).delete(identity);
-                    try (Neo4jResponse<String> response = session.requestHandler().execute(request, url)) {
-                        session.context().clear(object);
-                    }
+                    session.requestHandler().execute(request, url).close();
+                    session.context().clear(object);
                 }
             } else {
                 session.info(object.getClass().getName() + " is not an instance of a persistable class");
@@ -84,24 +131,87 @@ public class DeleteDelegate implements Capability.Delete {
     public <T> void deleteAll(Class<T> type) {
         ClassInfo classInfo = session.metaData().classInfo(type.getName());
         if (classInfo != null) {
+            flushQueuedSaves();
             String url = session.ensureTransaction().url();
             ParameterisedStatement request = getDeleteStatementsBasedOnType(type).deleteByType(session.entityType(classInfo.name()));
-            try (Neo4jResponse<String> response = session.requestHandler().execute(request, url)) {
-                session.context().clear(type);
-            }
+            session.requestHandler().execute(request, url).close();
+            session.context().clear(type);
         } else {
             session.info(type.getName() + " is not a persistable class");
         }
     }
 
 
+    @Override
+    public <T> long deleteAll(Class<T> type, int batchSize) {
+        return deleteAll(type, batchSize, null);
+    }
+
+    @Override
+    public <T> long deleteAll(Class<T> type, int batchSize, DeleteProgress progress) {
+
+        if (batchSize < 1) {
+            throw new RuntimeException("Batch size must be greater than zero");
+        }
+
+        ClassInfo classInfo = session.metaData().classInfo(type.getName());
+        if (classInfo == null) {
+            session.info(type.getName() + " is not a persistable class");
+            return 0;
+        }
+
+        flushQueuedSaves();
+        boolean relationshipEntity = session.metaData().isRelationshipEntity(classInfo.name());
+        RowModelQueryWithStatistics request = getDeleteStatementsBasedOnType(type).deleteByType(session.entityType(classInfo.name()), batchSize);
+
+        // each batch is sent in its own request, so that outside a transaction each is committed on its own
+        long total = 0;
+        int deleted;
+        do {
+            String url = session.ensureTransaction().url();
+            try (Neo4jResponse<RowQueryStatisticsResult> response = session.requestHandler().execute(request, url)) {
+                RowQueryStatisticsResult result = response.next();
+                QueryStatistics stats = result == null ? null : result.getStats();
+                deleted = stats == null ? 0 : (relationshipEntity ? stats.getRelationshipsDeleted() : stats.getNodesDeleted());
+            }
+            total += deleted;
+            session.debug("Deleted " + total + " of type " + type.getName());
+            if (progress != null && deleted > 0) {
+                progress.deleted(deleted, total);
+            }
+        } while (deleted >= batchSize);
+
+        session.context().clear(type);
+        return total;
+    }
+
     @Override
     public void purgeDatabase() {
+        WriteBehind writeBehind = session.writeBehind();
+        if (writeBehind != null) {
+            writeBehind.discardAll();
+        }
         String url = session.ensureTransaction().url();
         session.requestHandler().execute(new DeleteNodeStatements().purge(), url).close();
         session.context().clear();
     }
 
+    // a save still queued for a new entity would otherwise create it again once it had been deleted
+    private void discardQueuedSave(Object entity) {
+        WriteBehind writeBehind = session.writeBehind();
+        if (writeBehind != null) {
+            writeBehind.discard(entity);
+        }
+    }
+
+    // queued saves may create entities of the type being deleted, or refer to new ones, so they are written first
+    private void flushQueuedSaves() {
+        WriteBehind writeBehind = session.writeBehind();
+        if (writeBehind != null) {
+            writeBehind.flush();
+        }
+    }
+
     @Override
     public void clear() {
         session.context().clear();
@@ -20,17 +20,22 @@ import java.util.regex.Pattern;
 import org.apache.commons.lang.StringUtils;
 import org.neo4j.ogm.cypher.query.GraphModelQuery;
 import org.neo4j.ogm.cypher.query.Query;
+import org.neo4j.ogm.cypher.query.QueryBatch;
 import org.neo4j.ogm.cypher.query.RowModelQuery;
 import org.neo4j.ogm.cypher.query.RowModelQueryWithStatistics;
+import org.neo4j.ogm.cypher.statement.ParameterisedStatement;
 import org.neo4j.ogm.metadata.info.ClassInfo;
 import org.neo4j.ogm.model.GraphModel;
 import org.neo4j.ogm.session.*;
 import org.neo4j.ogm.session.request.strategy.AggregateStatements;
 import org.neo4j.ogm.session.response.Neo4jResponse;
+import org.neo4j.ogm.session.result.BatchResult;
 import org.neo4j.ogm.session.result.QueryResult;
 import org.neo4j.ogm.session.result.Result;
 import org.neo4j.ogm.session.result.RowModel;
+import org.neo4j.ogm.session.result.ResultProcessingException;
 import org.neo4j.ogm.session.result.RowQueryStatisticsResult;
+import org.neo4j.ogm.session.result.StatementResult;
 
 /**
  * @author Vince Bickers
@@ -111,9 +116,9 @@ public class ExecuteQueriesDelegate implements Capability.ExecuteQueries {
             throw new RuntimeException("Supplied Parameters cannot be null.");
         }
 
-        String url = session.ensureTransaction().url();
+        String url = isReadOnly(cypher) ? session.ensureReadTransaction().url() : session.ensureTransaction().url();
 
-        if (type != null && session.metaData().classInfo(type.getSimpleName()) != null) {
+        if (isEntityType(type)) {
             Query qry = new GraphModelQuery(cypher, parameters);
             try (Neo4jResponse<GraphModel> response = session.requestHandler().execute(qry, url)) {
                 return session.responseHandler().loadAll(type, response);
@@ -135,6 +140,64 @@ public class ExecuteQueriesDelegate implements Capability.ExecuteQueries {
         }
     }
 
+    @Override
+    public BatchResult queryBatch(QueryBatch batch) {
+
+        BatchResult batchResult = new BatchResult();
+        if (batch.isEmpty()) {
+            return batchResult;
+        }
+
+        List<ParameterisedStatement> statements = new ArrayList<>();
+        boolean readOnly = true;
+        for (QueryBatch.Entry entry : batch.entries()) {
+            // queries returning domain objects may modify the graph, as in query(type, cypher, parameters)
+            validateQuery(entry.getCypher(), entry.getParameters(), entry.getType() == null);
+            readOnly &= isReadOnly(entry.getCypher());
+            if (isEntityType(entry.getType())) {
+                statements.add(new GraphModelQuery(entry.getCypher(), entry.getParameters()));
+            } else {
+                statements.add(new RowModelQuery(entry.getCypher(), entry.getParameters()));
+            }
+        }
+
+        String url = readOnly ? session.ensureReadTransaction().url() : session.ensureTransaction().url();
+        try (Neo4jResponse<StatementResult> response = session.requestHandler().executeBatch(statements, url)) {
+            for (QueryBatch.Entry entry : batch.entries()) {
+                StatementResult statementResult = response.next();
+                if (statementResult == null) {
+                    throw new ResultProcessingException("Expected " + statements.size() + " results but found " + batchResult.size(), null);
+                }
+                batchResult.add(mapStatementResult(entry.getType(), statementResult));
+            }
+        }
+        return batchResult;
+    }
+
+    private Object mapStatementResult(Class<?> type, StatementResult statementResult) {
+        if (isEntityType(type)) {
+            return session.responseHandler().loadAll(type, statementResult.getGraphs());
+        }
+        if (type == null) {
+            Collection<Map<String, Object>> rows = new ArrayList<>();
+            RowModelMapper<Map<String, Object>> rowModelMapper = new MapRowModelMapper();
+            for (Object[] row : statementResult.getRows()) {
+                rowModelMapper.mapIntoResult(rows, row, statementResult.getColumns());
+            }
+            return new QueryResult(rows, null);
+        }
+        Collection<Object> scalars = new ArrayList<>();
+        RowModelMapper<Object> rowModelMapper = new EntityRowModelMapper<>();
+        for (Object[] row : statementResult.getRows()) {
+            rowModelMapper.mapIntoResult(scalars, row, statementResult.getColumns());
+        }
+        return scalars;
+    }
+
+    private boolean isEntityType(Class<?> type) {
+        return type != null && session.metaData().classInfo(type.getSimpleName()) != null;
+    }
+
     @Override
     public long countEntitiesOfType(Class<?> entity) {
         ClassInfo classInfo = session.metaData().classInfo(entity.getName());
@@ -143,7 +206,7 @@ public class ExecuteQueriesDelegate implements Capability.ExecuteQueries {
         }
 
         RowModelQuery countStatement = new AggregateStatements().countNodesLabelledWith(classInfo.labels());
-        String url  = session.ensureTransaction().url();
+        String url  = session.ensureReadTransaction().url();
         try (Neo4jResponse<RowModel> response = session.requestHandler().execute(countStatement, url)) {
             RowModel queryResult = response.next();
             return queryResult == null ? 0 : ((Number) queryResult.getValues()[0]).longValue();
@@ -0,0 +1,454 @@
+/*
+ * Copyright (c) 2002-2015 "Neo Technology,"
+ * Network Engine for Objects in Lund AB [http://neotechnology.com]
+ *
+ * This product is licensed to you under the Apache License, Version 2.0 (the "License").
+ * You may not use this product except in compliance with the License.
+ *
+ * This product may include a number of subcomponents with
+ * separate copyright notices and license terms. Your use of the source
+ * code for these subcomponents is subject to the terms and
+ * conditions of the subcomponent's license, as noted in the LICENSE file.
+ *
+ */
+package org.neo4j.ogm.session.delegates;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.IdentityHashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import org.neo4j.ogm.annotation.Relationship;
+import org.neo4j.ogm.cypher.query.RowModelQuery;
+import org.neo4j.ogm.entityaccess.DefaultEntityAccessStrategy;
+import org.neo4j.ogm.entityaccess.EntityAccessStrategy;
+import org.neo4j.ogm.entityaccess.PropertyReader;
+import org.neo4j.ogm.entityaccess.RelationalReader;
+import org.neo4j.ogm.mapper.UndoLog;
+import org.neo4j.ogm.metadata.info.ClassInfo;
+import org.neo4j.ogm.session.Capability;
+import org.neo4j.ogm.session.ImportProgress;
+import org.neo4j.ogm.session.Neo4jSession;
+import org.neo4j.ogm.session.request.strategy.ImportStatements;
+import org.neo4j.ogm.session.response.Neo4jResponse;
+import org.neo4j.ogm.session.result.ImportStatistics;
+import org.neo4j.ogm.session.result.RowModel;
+
+/**
+ * Imports new entities a batch at a time, without compiling them into an object graph or keeping them
+ * in the mapping context. Node entities are batched by class, and each batch is created by a single UNWIND
+ * statement; relationship entities are batched by type in the same way, once the nodes at their ends have
+ * been imported. The relationships a node entity's fields refer to are batched by type once the node has been
+ * imported, as soon as the node at their other end has an id. Those whose other end is still to be imported are
+ * held by the id of the end that has been, until the other end is imported, so only the nodes still to come are
+ * kept. A relationship referred to from both its ends, or with an end merged on its unique key, is merged rather
+ * than created, so that it is only made once and importing the same data again does not duplicate it. The id of
+ * each imported entity is written back to it, but is not taken away again if an enclosing transaction is rolled
+ * back, as the session would otherwise have to hold every imported entity until then.
+ */
+public class ImportDelegate implements Capability.Import {
+
+    private final Neo4jSession session;
+    private final EntityAccessStrategy entityAccessStrategy = new DefaultEntityAccessStrategy();
+    private final ImportStatements statements = new ImportStatements();
+
+    public ImportDelegate(Neo4jSession neo4jSession) {
+        this.session = neo4jSession;
+    }
+
+    @Override
+    public <T> ImportStatistics importAll(Iterator<T> entities, int batchSize) {
+        return importAll(entities, batchSize, null);
+    }
+
+    @Override
+    public <T> ImportStatistics importAll(Iterator<T> entities, int batchSize, ImportProgress progress) {
+
+        if (batchSize < 1) {
+            throw new RuntimeException("Batch size must be greater than zero");
+        }
+
+        Import anImport = new Import(batchSize, progress);
+        while (entities.hasNext()) {
+            anImport.add(entities.next());
+        }
+        return anImport.finish();
+    }
+
+    private class Import {
+
+        private final int batchSize;
+        private final ImportProgress progress;
+        private final long start = System.currentTimeMillis();
+
+        private final Map<ClassInfo, List<Object>> nodeBatches = new LinkedHashMap<>();
+        private final Map<ClassInfo, List<Object>> relationshipBatches = new LinkedHashMap<>();
+        private final Map<List<Object>, LinkBatch> linkBatches = new LinkedHashMap<>();
+        // links waiting for the node at their other end, by its unique key if it has one
+        private final Map<Object, List<Link>> pendingOnKey = new HashMap<>();
+        private final Map<Object, List<Link>> pendingOnNode = new IdentityHashMap<>();
+
+        private long nodes;
+        private long relationships;
+        private long batches;
+
+        Import(int batchSize, ImportProgress progress) {
+            this.batchSize = batchSize;
+            this.progress = progress;
+        }
+
+        void add(Object entity) {
+
+            ClassInfo classInfo = session.metaData().classInfo(entity);
+            if (classInfo == null) {
+                session.info(entity.getClass().getName() + " is not an instance of a persistable class");
+                return;
+            }
+            if (entityAccessStrategy.getIdentityPropertyReader(classInfo).read(entity) != null) {
+                throw new RuntimeException(entity.getClass().getName() + " already has an id, only new entities can be imported");
+            }
+
+            boolean relationshipEntity = session.metaData().isRelationshipEntity(classInfo.name());
+            Map<ClassInfo, List<Object>> batches = relationshipEntity ? relationshipBatches : nodeBatches;
+            List<Object> batch = batches.get(classInfo);
+            if (batch == null) {
+                batch = new ArrayList<>(batchSize);
+                batches.put(classInfo, batch);
+            }
+            batch.add(entity);
+
+            if (batch.size() >= batchSize) {
+                if (relationshipEntity) {
+                    importRelationships(classInfo, batches.remove(classInfo));
+                } else {
+                    importNodes(classInfo, batches.remove(classInfo));
+                }
+            }
+        }
+
+        ImportStatistics finish() {
+            importAllNodes();
+            for (Map.Entry<ClassInfo, List<Object>> batch : new ArrayList<>(relationshipBatches.entrySet())) {
+                importRelationships(batch.getKey(), batch.getValue());
+            }
+            relationshipBatches.clear();
+            for (Map<Object, List<Link>> pending : Arrays.asList(pendingOnKey, pendingOnNode)) {
+                for (List<Link> links : pending.values()) {
+                    Link link = links.get(0);
+                    throw new RuntimeException("The " + link.awaiting + " at one end of a " + link.type +
+                            " relationship must be imported, or already have an id");
+                }
+            }
+            for (LinkBatch batch : linkBatches.values()) {
+                importLinks(batch);
+            }
+            linkBatches.clear();
+            return new ImportStatistics(nodes, relationships, batches, System.currentTimeMillis() - start);
+        }
+
+        private void importAllNodes() {
+            for (Map.Entry<ClassInfo, List<Object>> batch : new ArrayList<>(nodeBatches.entrySet())) {
+                importNodes(batch.getKey(), batch.getValue());
+            }
+            nodeBatches.clear();
+        }
+
+        private void importNodes(ClassInfo classInfo, List<Object> entities) {
+
+            // entities with a unique key are merged on it, as they are when they are saved
+            String key = classInfo.uniqueIndexField() == null ? null : classInfo.uniqueIndexField().property();
+            List<Object> created = new ArrayList<>();
+            List<Map<String, Object>> createdRows = new ArrayList<>();
+            List<Object> merged = new ArrayList<>();
+            List<Map<String, Object>> mergedRows = new ArrayList<>();
+
+            for (Object entity : entities) {
+                Map<String, Object> row = properties(classInfo, entity);
+                if (key != null && row.get(key) != null) {
+                    merged.add(entity);
+                    mergedRows.add(row);
+                } else {
+                    created.add(entity);
+                    createdRows.add(row);
+                }
+            }
+
+            if (!created.isEmpty()) {
+                execute(statements.createNodes(classInfo.labels(), createdRows), created);
+            }
+            if (!merged.isEmpty()) {
+                execute(statements.mergeNodes(classInfo.neo4jName(), key, classInfo.labels(), mergedRows), merged);
+            }
+            nodes += entities.size();
+            imported(entities.size());
+            for (Object entity : entities) {
+                arrived(entity);
+            }
+            link(classInfo, entities);
+        }
+
+        private void importRelationships(ClassInfo classInfo, List<Object> entities) {
+
+            // the nodes at either end may still be waiting in a batch of their own
+            importAllNodes();
+
+            List<Map<String, Object>> rows = new ArrayList<>();
+            for (Object entity : entities) {
+                Map<String, Object> row = new HashMap<>();
+                row.put("start", id(entityAccessStrategy.getStartNodeReader(classInfo).read(entity), "@StartNode", entity));
+                row.put("end", id(entityAccessStrategy.getEndNodeReader(classInfo).read(entity), "@EndNode", entity));
+                row.put("props", properties(classInfo, entity));
+                rows.add(row);
+            }
+
+            execute(statements.createRelationships(classInfo.neo4jName(), rows), entities);
+            relationships += entities.size();
+            imported(entities.size());
+        }
+
+        private void link(ClassInfo classInfo, List<Object> entities) {
+            for (RelationalReader reader : entityAccessStrategy.getRelationalReaders(classInfo)) {
+                for (Object entity : entities) {
+                    Object related = reader.read(entity);
+                    if (related instanceof Iterable) {
+                        for (Object target : (Iterable<?>) related) {
+                            link(reader, entity, target);
+                        }
+                    } else if (related != null && related.getClass().isArray()) {
+                        for (Object target : (Object[]) related) {
+                            link(reader, entity, target);
+                        }
+                    } else {
+                        link(reader, entity, related);
+                    }
+                }
+            }
+        }
+
+        private void link(RelationalReader reader, Object entity, Object target) {
+            // relationship entities are imported in their own right
+            if (target == null || session.metaData().isRelationshipEntity(target.getClass().getName())) {
+                return;
+            }
+            String type = reader.relationshipType();
+            String direction = reader.relationshipDirection();
+            // a relationship referred to from both its ends, or to a node merged on its key, may already exist
+            boolean merge = mergedOnKey(entity) || mergedOnKey(target) || refersBack(target, type, direction, entity);
+            Link link = new Link(type, id(entity), Relationship.INCOMING.equals(direction), merge, target.getClass().getName());
+            Long targetId = id(target);
+            if (targetId != null) {
+                queue(link, targetId);
+                return;
+            }
+            List<Object> key = uniqueKey(target);
+            Map<Object, List<Link>> pending = key == null ? pendingOnNode : pendingOnKey;
+            Object awaited = key == null ? target : key;
+            List<Link> links = pending.get(awaited);
+            if (links == null) {
+                links = new ArrayList<>();
+                pending.put(awaited, links);
+            }
+            links.add(link);
+        }
+
+        private void arrived(Object node) {
+            List<Object> key = uniqueKey(node);
+            List<Link> links = key == null ? pendingOnNode.remove(node) : pendingOnKey.remove(key);
+            if (links != null) {
+                Long id = id(node);
+                for (Link link : links) {
+                    queue(link, id);
+                }
+            }
+        }
+
+        private void queue(Link link, Long otherId) {
+            Long start = link.incoming ? otherId : link.id;
+            Long end = link.incoming ? link.id : otherId;
+            List<Object> key = Arrays.<Object>asList(link.type, link.merge);
+            LinkBatch batch = linkBatches.get(key);
+            if (batch == null) {
+                batch = new LinkBatch(link.type, link.merge, batchSize);
+                linkBatches.put(key, batch);
+            }
+            if (batch.add(start, end) && batch.rows.size() >= batchSize) {
+                importLinks(linkBatches.remove(key));
+            }
+        }
+
+        private void importLinks(LinkBatch batch) {
+            List<Map<String, Object>> rows = batch.rows;
+            RowModelQuery query = batch.merge
+                    ? statements.mergeRelationships(batch.type, rows)
+                    : statements.createRelationships(batch.type, rows);
+            String url = session.ensureTransaction().url();
+            try (Neo4jResponse<RowModel> response = session.requestHandler().execute(query, url)) {
+                for (int i = 0; i < rows.size(); i++) {
+                    if (response.next() == null) {
+                        throw new RuntimeException("Import of " + rows.size() + " relationships returned fewer ids than expected");
+                    }
+                }
+            }
+            batches++;
+            relationships += rows.size();
+            imported(rows.size());
+        }
+
+        private boolean mergedOnKey(Object node) {
+            return uniqueKey(node) != null;
+        }
+
+        // the label and unique key a node is merged on, or null if it is not merged
+        private List<Object> uniqueKey(Object node) {
+            ClassInfo classInfo = session.metaData().classInfo(node);
+            if (classInfo == null || classInfo.uniqueIndexField() == null) {
+                return null;
+            }
+            String key = classInfo.uniqueIndexField().property();
+            Object value = entityAccessStrategy.getPropertyReader(classInfo, key).read(node);
+            return value == null ? null : Arrays.<Object>asList(classInfo.neo4jName(), key, value);
+        }
+
+        private boolean refersBack(Object target, String type, String direction, Object entity) {
+            ClassInfo classInfo = session.metaData().classInfo(target);
+            if (classInfo == null) {
+                return false;
+            }
+            String opposite = Relationship.INCOMING.equals(direction) ? Relationship.OUTGOING
+                    : Relationship.OUTGOING.equals(direction) ? Relationship.INCOMING : direction;
+            for (RelationalReader reader : entityAccessStrategy.getRelationalReaders(classInfo)) {
+                if (type.equals(reader.relationshipType()) && opposite.equals(reader.relationshipDirection())
+                        && refersTo(reader.read(target), entity)) {
+                    return true;
+                }
+            }
+            return false;
+        }
+
+        private boolean refersTo(Object related, Object entity) {
+            if (related instanceof Iterable) {
+                for (Object element : (Iterable<?>) related) {
+                    if (element == entity) {
+                        return true;
+                    }
+                }
+                return false;
+            }
+            if (related != null && related.getClass().isArray()) {
+                for (Object element : (Object[]) related) {
+                    if (element == entity) {
+                        return true;
+                    }
+                }
+                return false;
+            }
+            return related == entity;
+        }
+
+        private void execute(RowModelQuery query, List<Object> entities) {
+            String url = session.ensureTransaction().url();
+            // the ids are not recorded to be undone, which would keep every imported entity until the transaction ends
+            UndoLog undoLog = session.context().suspendUndoLog();
+            try (Neo4jResponse<RowModel> response = session.requestHandler().execute(query, url)) {
+                for (Object entity : entities) {
+                    RowModel rowModel = response.next();
+                    if (rowModel == null) {
+                        throw new RuntimeException("Import of " + entities.size() + " entities returned fewer ids than expected");
+                    }
+                    session.context().setIdentity(entity, ((Number) rowModel.getValues()[0]).longValue());
+                }
+            } finally {
+                session.context().resumeUndoLog(undoLog);
+            }
+            batches++;
+        }
+
+        private void imported(long count) {
+            if (progress != null) {
+                long total = nodes + relationships;
+                progress.imported(count, total, ImportStatistics.rowsPerSecond(total, System.currentTimeMillis() - start));
+            }
+        }
+
+        private Map<String, Object> properties(ClassInfo classInfo, Object entity) {
+            Map<String, Object> properties = new HashMap<>();
+            for (PropertyReader propertyReader : entityAccessStrategy.getPropertyReaders(classInfo)) {
+                Object value = propertyReader.read(entity);
+                if (value != null) {
+                    properties.put(propertyReader.propertyName(), value);
+                }
+            }
+            return properties;
+        }
+
+        private Long id(Object node) {
+            ClassInfo classInfo = session.metaData().classInfo(node);
+            return classInfo == null ? null : (Long) entityAccessStrategy.getIdentityPropertyReader(classInfo).read(node);
+        }
+
+        private Long id(Object node, String end, Object relationshipEntity) {
+            Long id = node == null ? null : id(node);
+            if (id == null) {
+                throw new RuntimeException("The " + end + " of " + relationshipEntity.getClass().getName() + " must be imported before it");
+            }
+            return id;
+        }
+    }
+
+    /**
+     * A relationship from, or to, a node that has been imported, to be made once the node at its other end has an id.
+     */
+    private static class Link {
+
+        private final String type;
+        private final Long id;
+        private final boolean incoming;
+        private final boolean merge;
+        private final String awaiting;
+
+        Link(String type, Long id, boolean incoming, boolean merge, String awaiting) {
+            this.type = type;
+            this.id = id;
+            this.incoming = incoming;
+            this.merge = merge;
+            this.awaiting = awaiting;
+        }
+    }
+
+    /**
+     * The relationships of one type waiting to be created, or merged, together. A relationship referred to more
+     * than once is only added once, but only the ends of those in the batch are kept, so the ones already sent
+     * are merged if they may be referred to again.
+     */
+    private static class LinkBatch {
+
+        private final String type;
+        private final boolean merge;
+        private final List<Map<String, Object>> rows;
+        private final Set<List<Long>> ends = new HashSet<>();
+
+        LinkBatch(String type, boolean merge, int batchSize) {
+            this.type = type;
+            this.merge = merge;
+            this.rows = new ArrayList<>(batchSize);
+        }
+
+        boolean add(Long start, Long end) {
+            if (!ends.add(Arrays.asList(start, end))) {
+                return false;
+            }
+            Map<String, Object> row = new HashMap<>();
+            row.put("start", start);
+            row.put("end", end);
+            row.put("props", new HashMap<String, Object>());
+            rows.add(row);
+            return true;
+        }
+    }
+}
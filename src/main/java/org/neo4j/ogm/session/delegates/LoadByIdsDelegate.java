@@ -14,15 +14,22 @@
 package org.neo4j.ogm.session.delegates;
 
 import java.util.Collection;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.Set;
 
+import org.neo4j.ogm.cypher.query.FanOutLimit;
+import org.neo4j.ogm.cypher.query.GraphRowModelQuery;
 import org.neo4j.ogm.cypher.query.Pagination;
 import org.neo4j.ogm.cypher.query.Query;
 import org.neo4j.ogm.cypher.query.SortOrder;
 import org.neo4j.ogm.model.GraphModel;
 import org.neo4j.ogm.session.Capability;
 import org.neo4j.ogm.session.Neo4jSession;
+import org.neo4j.ogm.session.request.strategy.FanOutStatements;
 import org.neo4j.ogm.session.request.strategy.QueryStatements;
 import org.neo4j.ogm.session.response.Neo4jResponse;
+import org.neo4j.ogm.session.result.GraphRowModel;
 
 /**
  * @author Vince Bickers
@@ -39,7 +46,7 @@ public class LoadByIdsDelegate implements Capability.LoadByIds {
     @Override
     public <T> Collection<T> loadAll(Class<T> type, Collection<Long> ids, SortOrder sortOrder, Pagination pagination, int depth) {
 
-        String url = session.ensureTransaction().url();
+        String url = session.ensureReadTransaction().url();
         String entityType = session.entityType(type.getName());
         QueryStatements queryStatements = session.queryStatementsFor(type);
 
@@ -47,9 +54,52 @@ public class LoadByIdsDelegate implements Capability.LoadByIds {
                 .setSortOrder(sortOrder)
                 .setPagination(pagination);
 
+        Collection<T> entities;
         try (Neo4jResponse<GraphModel> response = session.requestHandler().execute(qry, url)) {
-            return session.responseHandler().loadAll(type, response);
+            entities = session.responseHandler().loadAll(type, response);
         }
+        // other entities of the same type may come back as neighbours, but only those asked for were loaded to the full depth
+        if (!session.metaData().isRelationshipEntity(type.getName())) {
+            for (T entity : entities) {
+                Long id = session.resolveGraphIdFor(entity);
+                if (ids.contains(id)) {
+                    session.context().registerHydration(id, depth);
+                }
+            }
+        }
+        return entities;
+    }
+
+    @Override
+    public <T> Collection<T> loadAll(Class<T> type, Collection<Long> ids, int depth, FanOutLimit fanOutLimit) {
+
+        if (depth == 0 || session.metaData().isRelationshipEntity(type.getName())) {
+            return loadAll(type, ids, depth);
+        }
+
+        String url = session.ensureReadTransaction().url();
+        FanOutStatements fanOutStatements = new FanOutStatements();
+
+        // expand one hop at a time, so that the limit can be applied to every node along the way
+        Set<Long> visited = new HashSet<>();
+        Set<Long> frontier = new LinkedHashSet<>(ids);
+        for (int hop = 0; !frontier.isEmpty() && (depth < 0 || hop < depth); hop++) {
+            visited.addAll(frontier);
+            GraphRowModelQuery qry = fanOutStatements.expand(frontier, fanOutLimit);
+            try (Neo4jResponse<GraphRowModel> response = session.requestHandler().execute(qry, url)) {
+                frontier = new LinkedHashSet<>(session.responseHandler().expand(response, fanOutLimit.getLimit()));
+            }
+            frontier.removeAll(visited);
+        }
+
+        Set<T> results = new LinkedHashSet<>();
+        for (Long id : ids) {
+            Object entity = session.context().getNodeEntity(id);
+            if (entity != null && type.isAssignableFrom(entity.getClass())) {
+                results.add(type.cast(entity));
+            }
+        }
+        return results;
     }
 
     @Override
@@ -31,8 +31,11 @@ import org.neo4j.ogm.model.GraphModel;
 import org.neo4j.ogm.session.Capability;
 import org.neo4j.ogm.session.Neo4jSession;
 import org.neo4j.ogm.session.request.strategy.QueryStatements;
+import org.neo4j.ogm.session.request.strategy.QueryTemplate;
+import org.neo4j.ogm.session.request.strategy.QueryTemplateCache;
 import org.neo4j.ogm.session.response.Neo4jResponse;
 import org.neo4j.ogm.session.result.GraphRowModel;
+import org.neo4j.ogm.session.schema.IndexUsage;
 
 import java.util.Collection;
 
@@ -51,7 +54,7 @@ public class LoadByTypeDelegate implements Capability.LoadByType {
     @Override
     public <T> Collection<T> loadAll(Class<T> type, Filters filters, SortOrder sortOrder, Pagination pagination, int depth) {
 
-        String url = session.ensureTransaction().url();
+        String url = session.ensureReadTransaction().url();
         String entityType = session.entityType(type.getName());
         QueryStatements queryStatements = session.queryStatementsFor(type);
 
@@ -70,11 +73,21 @@ public class LoadByTypeDelegate implements Capability.LoadByType {
             }
         } else {
 
-            filters = resolvePropertyAnnotations(type, filters);
+            // filtered loads of the same shape differ only in their parameters, so their Cypher is compiled once
+            QueryTemplateCache templates = session.queryTemplateCache();
+            String shape = QueryTemplateCache.shape(queryStatements, type, filters, sortOrder, pagination, depth);
+            QueryTemplate template = templates.get(shape);
+            if (template == null) {
+                filters = resolvePropertyAnnotations(type, filters);
+                Query compiled = queryStatements.findByProperties(entityType, filters, depth)
+                        .setSortOrder(sortOrder)
+                        .setPagination(pagination);
+                template = new QueryTemplate(compiled, filters, entityType, session.metaData().isRelationshipEntity(type.getName()));
+                templates.put(shape, template);
+            }
+            recordIndexUsage(template, filters);
 
-            Query qry = queryStatements.findByProperties(entityType, filters, depth)
-                    .setSortOrder(sortOrder)
-                    .setPagination(pagination);
+            Query qry = template.bind(filters, pagination);
 
             if (depth != 0) {
                 try (Neo4jResponse<GraphRowModel> response = session.requestHandler().execute((GraphRowModelQuery) qry, url)) {
@@ -221,6 +234,21 @@ public class LoadByTypeDelegate implements Capability.LoadByType {
         return filters;
     }
 
+    private void recordIndexUsage(QueryTemplate template, Filters filters) {
+        IndexUsage indexUsage = session.indexUsage();
+        if (indexUsage == null) {
+            return;
+        }
+        int i = 0;
+        for (Filter filter : filters) {
+            String label = template.filteredLabels().get(i);
+            String property = template.filteredProperties().get(i++);
+            if (label != null && !indexUsage.record(label, property, filter.getComparisonOperator())) {
+                session.debug("Filter on :" + label + "(" + property + ") cannot use an index");
+            }
+        }
+    }
+
     private String resolvePropertyName(Class entityType, String propertyName) {
         ClassInfo classInfo = session.metaData().classInfo(entityType.getName());
         FieldInfo fieldInfo = classInfo.propertyFieldByName(propertyName);
@@ -13,10 +13,15 @@
  */
 package org.neo4j.ogm.session.delegates;
 
+import java.util.Collections;
+import java.util.Iterator;
+
+import org.neo4j.ogm.cypher.query.FanOutLimit;
 import org.neo4j.ogm.cypher.query.Query;
 import org.neo4j.ogm.model.GraphModel;
 import org.neo4j.ogm.session.Capability;
 import org.neo4j.ogm.session.Neo4jSession;
+import org.neo4j.ogm.session.ReadPolicy;
 import org.neo4j.ogm.session.request.strategy.QueryStatements;
 import org.neo4j.ogm.session.response.Neo4jResponse;
 
@@ -38,12 +43,62 @@ public class LoadOneDelegate implements Capability.LoadOne {
 
     @Override
     public <T> T load(Class<T> type, Long id, int depth) {
-        String url = session.ensureTransaction().url();
+        return load(type, id, depth, session.readPolicy());
+    }
+
+    @Override
+    public <T> T load(Class<T> type, Long id, int depth, ReadPolicy readPolicy) {
+
+        boolean nodeEntity = !session.metaData().isRelationshipEntity(type.getName());
+
+        if (nodeEntity && readPolicy.allowsCached()) {
+            T cached = cached(type, id, depth, readPolicy);
+            if (cached != null) {
+                return cached;
+            }
+        }
+
+        // loads inside a transaction must see that transaction, so they are never batched with other threads
+        BatchingLoader batchingLoader = session.batchingLoader();
+        if (batchingLoader != null && !session.hasOpenTransaction()) {
+            return batchingLoader.load(type, id, depth);
+        }
+
+        String url = session.ensureReadTransaction().url();
         QueryStatements queryStatements = session.queryStatementsFor(type);
         Query qry = queryStatements.findOne(id,depth);
+        T entity;
         try (Neo4jResponse<GraphModel> response = session.requestHandler().execute(qry, url)) {
-            return session.responseHandler().loadById(type, response, id);
+            entity = session.responseHandler().loadById(type, response, id);
         }
+        if (entity != null && nodeEntity) {
+            session.context().registerHydration(id, depth);
+        }
+        return entity;
+    }
+
+    @Override
+    public <T> T load(Class<T> type, Long id, int depth, FanOutLimit fanOutLimit) {
+        Iterator<T> iterator = session.loadAll(type, Collections.singletonList(id), depth, fanOutLimit).iterator();
+        return iterator.hasNext() ? iterator.next() : null;
+    }
+
+    private <T> T cached(Class<T> type, Long id, int depth, ReadPolicy readPolicy) {
+        Object entity = session.context().getNodeEntity(id);
+        if (entity != null
+                && type.isAssignableFrom(entity.getClass())
+                && !session.context().isTruncated(id)
+                && session.context().isHydrated(id, depth, readPolicy.getMaxStalenessMillis())) {
+            session.debug("Returning cached instance of " + type.getName() + " " + id);
+            return type.cast(entity);
+        }
+        return null;
+    }
+
+    @Override
+    public boolean isTruncated(Object entity, String relationshipType) {
+        Long id = session.resolveGraphIdFor(entity);
+        return id != null && session.context().isTruncated(id, relationshipType);
     }
 
 
@@ -13,8 +13,11 @@
  */
 package org.neo4j.ogm.session.delegates;
 
+import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 
 import org.neo4j.ogm.cypher.compiler.CypherContext;
 import org.neo4j.ogm.mapper.EntityGraphMapper;
@@ -29,6 +32,8 @@ import org.neo4j.ogm.session.transaction.Transaction;
  */
 public class SaveDelegate implements Capability.Save {
 
+    private static final int MERGE_BATCH_SIZE = 500;
+
     private final Neo4jSession session;
 
     public SaveDelegate(Neo4jSession neo4jSession) {
@@ -37,6 +42,9 @@ public class SaveDelegate implements Capability.Save {
 
     @Override
     public <T> void save(T object) {
+        if (queued(object, -1)) {
+            return;
+        }
         if (object.getClass().isArray() || Iterable.class.isAssignableFrom(object.getClass())) {
             saveAll(object, -1);
         } else {
@@ -51,13 +59,51 @@ public class SaveDelegate implements Capability.Save {
         } else {
             list = (List<T>) object;
         }
+        EntityGraphMapper mapper = new EntityGraphMapper(session.metaData(), session.context());
+        List<Object> merged = new ArrayList<>();
+        Map<List<Object>, Object> keys = new HashMap<>();
         for (T element : list) {
-            save(element, depth);
+            Object key = mapper.mergeKey(element);
+            if (key == null) {
+                // the entities waiting to be merged came first, so they are written first
+                merge(merged, depth);
+                save(element, depth);
+                continue;
+            }
+            // two entities merged on the same key would both be written to one node, the last one winning
+            List<Object> labelledKey = Arrays.asList(session.metaData().classInfo(element).neo4jName(), key);
+            Object other = keys.put(labelledKey, element);
+            if (other == null) {
+                merged.add(element);
+            } else if (other != element) {
+                throw new RuntimeException("Cannot save two " + element.getClass().getName() + " entities with the same unique key: " + key);
+            }
+            if (merged.size() >= MERGE_BATCH_SIZE) {
+                merge(merged, depth);
+            }
         }
+        merge(merged, depth);
+    }
+
+    // entities identified only by their unique keys are merged together, a batch at a time
+    private void merge(List<Object> batch, int depth) {
+        if (batch.isEmpty()) {
+            return;
+        }
+        Transaction tx = session.ensureTransaction();
+        CypherContext context = new EntityGraphMapper(session.metaData(), session.context()).map(batch, depth);
+        try (Neo4jResponse<String> response = session.requestHandler().execute(context.getStatements(), tx.url())) {
+            session.responseHandler().updateObjects(context, response, session.mapper());
+            tx.append(context);
+        }
+        batch.clear();
     }
 
     @Override
     public <T> void save(T object, int depth) {
+        if (queued(object, depth)) {
+            return;
+        }
         if (object.getClass().isArray() || Iterable.class.isAssignableFrom(object.getClass())) {
             saveAll(object, depth);
         } else {
@@ -75,4 +121,37 @@ public class SaveDelegate implements Capability.Save {
         }
     }
 
+    @Override
+    public void flush() {
+        WriteBehind writeBehind = session.writeBehind();
+        if (writeBehind != null) {
+            writeBehind.flush();
+        }
+    }
+
+    @Override
+    public <T> void markDirty(T object) {
+        session.context().markDirty(object);
+    }
+
+    // saves made inside a transaction belong to it, so only those made outside one are written behind
+    private boolean queued(Object object, int depth) {
+        WriteBehind writeBehind = session.writeBehind();
+        if (writeBehind == null || session.hasOpenTransaction()) {
+            return false;
+        }
+        if (object.getClass().isArray()) {
+            for (Object element : (Object[]) object) {
+                writeBehind.save(element, depth);
+            }
+        } else if (object instanceof Iterable) {
+            for (Object element : (Iterable<?>) object) {
+                writeBehind.save(element, depth);
+            }
+        } else {
+            writeBehind.save(object, depth);
+        }
+        return true;
+    }
+
 }
@@ -16,6 +16,7 @@ package org.neo4j.ogm.session.delegates;
 import org.neo4j.ogm.session.Capability;
 import org.neo4j.ogm.session.GraphCallback;
 import org.neo4j.ogm.session.Neo4jSession;
+import org.neo4j.ogm.session.request.ReplicaRouter;
 import org.neo4j.ogm.session.transaction.SimpleTransaction;
 import org.neo4j.ogm.session.transaction.Transaction;
 
@@ -66,19 +67,40 @@ public class TransactionsDelegate implements Capability.Transactions {
         session.debug("getOrCreateTransaction() being called on thread: " + Thread.currentThread().getId());
         session.debug("Session identity: " + this);
 
-        Transaction tx = session.transactionManager().getCurrentTransaction();
-        if (tx == null
-                || tx.status().equals(Transaction.Status.CLOSED)
-                || tx.status().equals(Transaction.Status.COMMITTED)
-                || tx.status().equals(Transaction.Status.ROLLEDBACK)) {
+        if (!hasOpenTransaction()) {
             session.debug("There is no existing transaction, creating a transient one");
             return new SimpleTransaction(session.context(), autoCommitUrl);
         }
 
+        Transaction tx = session.transactionManager().getCurrentTransaction();
         session.debug("Current transaction: " + tx.url() + ", tx id: " + tx);
         return tx;
 
     }
 
+    /**
+     * @return true if a transaction has been begun on the current thread and not yet finished
+     */
+    public boolean hasOpenTransaction() {
+        Transaction tx = session.transactionManager().getCurrentTransaction();
+        return !(tx == null
+                || tx.status().equals(Transaction.Status.CLOSED)
+                || tx.status().equals(Transaction.Status.COMMITTED)
+                || tx.status().equals(Transaction.Status.ROLLEDBACK));
+    }
+
+    /**
+     * As {@link #getCurrentOrAutocommitTransaction()}, except that if there is no open transaction
+     * and the session has read replicas, the autocommit transaction is bound to one of them.
+     */
+    public Transaction getCurrentOrReadTransaction() {
+        Transaction tx = getCurrentOrAutocommitTransaction();
+        ReplicaRouter router = session.replicaRouter();
+        if (router == null || !autoCommitUrl.equals(tx.url())) {
+            return tx;
+        }
+        return new SimpleTransaction(session.context(), router.select() + "db/data/transaction/commit");
+    }
+
 
 }
@@ -0,0 +1,588 @@
+/*
+ * Copyright (c) 2002-2015 "Neo Technology,"
+ * Network Engine for Objects in Lund AB [http://neotechnology.com]
+ *
+ * This product is licensed to you under the Apache License, Version 2.0 (the "License").
+ * You may not use this product except in compliance with the License.
+ *
+ * This product may include a number of subcomponents with
+ * separate copyright notices and license terms. Your use of the source
+ * code for these subcomponents is subject to the terms and
+ * conditions of the subcomponent's license, as noted in the LICENSE file.
+ *
+ */
+package org.neo4j.ogm.session.delegates;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.IdentityHashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+import org.neo4j.ogm.cypher.compiler.CypherCompiler;
+import org.neo4j.ogm.cypher.compiler.CypherContext;
+import org.neo4j.ogm.cypher.statement.ParameterisedStatement;
+import org.neo4j.ogm.mapper.EntityGraphMapper;
+import org.neo4j.ogm.mapper.MappedRelationship;
+import org.neo4j.ogm.mapper.MappingContext;
+import org.neo4j.ogm.mapper.TransientRelationship;
+import org.neo4j.ogm.mapper.UndoLog;
+import org.neo4j.ogm.session.Neo4jSession;
+import org.neo4j.ogm.session.WriteFailureHandler;
+import org.neo4j.ogm.session.response.Neo4jResponse;
+import org.neo4j.ogm.session.result.StatementResult;
+import org.neo4j.ogm.session.transaction.Transaction;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Queues the saves made on a session outside a transaction, and writes them from a background thread.
+ *
+ * A save is mapped by {@link EntityGraphMapper} on the thread that queues it, once, so what is written is the state
+ * its entities were in when they were saved, whatever happens to them afterwards. The saves in the batch being
+ * filled are mapped to the one compiler, so new entities reachable from several of them are created once, and the
+ * batch's statements are built from it once, when the batch is closed. An entity saved again while its batch is
+ * being filled has its properties, and those of the entities it reaches, mapped again, so that it is written once,
+ * as it was last saved. If it no longer relates to them as it did, the batch is closed instead, and the entity is
+ * saved in the next one. Batches are written when they are full, or once the first save queued has waited for the
+ * flush interval.
+ *
+ * The writer thread only sends the statements. What they return is taken into the session's mapping context by
+ * {@link #apply()}, on a thread using the session, when it next begins an operation or flushes. Batches that
+ * could not be written are handed to the failure handler then too. A save cannot be mapped until the batches
+ * before it have been applied, since it may reach what they create, so a save made while one is being written
+ * waits for it to be written, and applies it. Each session therefore has at most the batch being filled and the
+ * one being written waiting.
+ *
+ * All the sessions of a factory share the one writer thread, so batches are never written concurrently. While a
+ * session has saves to write, its write-behind is held in the set of active ones its factory gives it, so that
+ * they are still written when the factory is closed if the session has been dropped.
+ */
+public class WriteBehind {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(WriteBehind.class);
+
+    private final Neo4jSession session;
+    private final ScheduledExecutorService writer;
+    private final Set<WriteBehind> active;
+    private final long intervalNanos;
+    private final int batchSize;
+    private final WriteFailureHandler failureHandler;
+
+    // the batch being filled, the full ones waiting for the writer, the one being written and those written since
+    // the last apply, in the order they were queued
+    private Batch open;
+    private final Deque<Batch> full = new ArrayDeque<>();
+    private final List<Batch> writing = new ArrayList<>();
+    private final List<Batch> written = new ArrayList<>();
+    private final Object sending = new Object();
+    private Transaction transaction;
+    private boolean scheduled;
+    private boolean closed;
+
+    private final Runnable drain = new Runnable() {
+        @Override
+        public void run() {
+            drain();
+        }
+    };
+
+    public WriteBehind(Neo4jSession session, ScheduledExecutorService writer, Set<WriteBehind> active, long interval, TimeUnit unit, int batchSize, WriteFailureHandler failureHandler) {
+
+        if (batchSize < 1) {
+            throw new RuntimeException("Batch size must be greater than zero");
+        }
+
+        this.session = session;
+        this.writer = writer;
+        this.active = active;
+        this.intervalNanos = unit.toNanos(interval);
+        this.batchSize = batchSize;
+        this.failureHandler = failureHandler;
+    }
+
+    public void save(Object entity, int depth) {
+
+        if (session.metaData().classInfo(entity) == null) {
+            session.info(entity.getClass().getName() + " is not an instance of a persistable class");
+            return;
+        }
+
+        Transaction tx = session.ensureTransaction();
+
+        synchronized (this) {
+            if (closed || writer.isShutdown()) {
+                throw new RuntimeException("Write-behind has been closed, saves can no longer be queued");
+            }
+            transaction = tx;
+
+            if (open != null && open.contains(entity)) {
+                if (remap(open, entity, depth)) {
+                    closeIfFull();
+                    return;
+                }
+                // the batch holds the entity related to others as it no longer is, so it is saved in the next one
+                closeOpenBatch();
+                schedule(0);
+            }
+
+            List<Batch> earlier = new ArrayList<>(full);
+            earlier.addAll(writing);
+            awaitWritten(earlier);
+            apply();
+            queue(entity, depth);
+        }
+    }
+
+    /**
+     * Writes every save queued so far, waiting until they have been written, and applies them.
+     */
+    public void flush() {
+        Future<?> done;
+        try {
+            done = writer.submit(drain);
+        } catch (RejectedExecutionException e) {
+            // the factory has been closed, so there is no writer thread to wait for
+            done = null;
+            drain();
+        }
+        if (done != null) {
+            try {
+                done.get();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new RuntimeException("Interrupted while waiting for queued saves to be written", e);
+            } catch (ExecutionException e) {
+                if (e.getCause() instanceof RuntimeException) {
+                    throw (RuntimeException) e.getCause();
+                }
+                if (e.getCause() instanceof Error) {
+                    throw (Error) e.getCause();
+                }
+                throw new RuntimeException(e.getCause());
+            }
+        }
+        apply();
+    }
+
+    /**
+     * Writes every save queued so far on the calling thread, and stops any more from being queued. What they
+     * return is applied by the next operation on the session.
+     */
+    public void close() {
+        synchronized (this) {
+            closed = true;
+        }
+        drain();
+    }
+
+    /**
+     * Takes what the batches written since this was last called returned into the session's mapping context,
+     * setting the ids of the new entities and remembering the saved ones in the state they were saved in, and hands
+     * the batches that could not be written to the failure handler. Since they have been written whatever happens
+     * to any transaction the calling thread has open, none of this is undone if that transaction is rolled back.
+     */
+    public void apply() {
+        List<Batch> batches;
+        synchronized (this) {
+            if (written.isEmpty()) {
+                return;
+            }
+            batches = new ArrayList<>(written);
+            written.clear();
+        }
+        MappingContext mappingContext = session.context();
+        UndoLog undoLog = mappingContext.suspendUndoLog();
+        try {
+            for (Batch batch : batches) {
+                if (batch.failure == null) {
+                    session.responseHandler().updateObjects(batch.context, batch.results);
+                    batch.transaction.append(batch.context);
+                } else if (failureHandler != null) {
+                    failed(batch.entities, batch.depths, batch.failure);
+                }
+            }
+        } finally {
+            mappingContext.resumeUndoLog(undoLog);
+        }
+    }
+
+    /**
+     * Removes the given entity from the batch being filled, if it was saved in it, so that it is not written. If an
+     * earlier batch is to create the entity, this waits for it to be written, so that the entity has an id.
+     */
+    public void discard(Object entity) {
+        synchronized (this) {
+            if (open != null && open.remove(entity)) {
+                if (open.isEmpty()) {
+                    revert(open);
+                    open = null;
+                    idle();
+                } else {
+                    rebuild(open);
+                }
+            }
+            List<Batch> creating = creating(Collections.singleton(entity));
+            if (creating.isEmpty()) {
+                return;
+            }
+            awaitWritten(creating);
+        }
+        apply();
+    }
+
+    /**
+     * Empties the queue without writing any of it, and forgets what has been written but not yet applied.
+     */
+    public synchronized void discardAll() {
+        open = null;
+        full.clear();
+        for (Batch batch : writing) {
+            batch.discarded = true;
+        }
+        written.clear();
+        idle();
+        notifyAll();
+    }
+
+    public synchronized int queued() {
+        int queued = open == null ? 0 : open.entities.size();
+        for (Batch batch : full) {
+            queued += batch.entities.size();
+        }
+        return queued;
+    }
+
+    // maps the save into the batch being filled, which must hold neither it nor anything it reaches, closing the
+    // batch once it is full; must be called holding the lock
+    private void queue(Object entity, int depth) {
+
+        if (open == null) {
+            open = new Batch(transaction);
+            open.begin(session);
+            active.add(this);
+        }
+
+        open.add(entity, depth);
+        try {
+            map(open, entity, depth);
+        } catch (RuntimeException e) {
+            // the compiler may hold part of the entity, so the batch is mapped again without it
+            open.remove(entity);
+            if (open.isEmpty()) {
+                revert(open);
+                open = null;
+                idle();
+            } else {
+                rebuild(open);
+            }
+            throw e;
+        }
+
+        closeIfFull();
+    }
+
+    // must be called holding the lock
+    private void closeIfFull() {
+        if (open.entities.size() >= batchSize) {
+            closeOpenBatch();
+            if (!closed) {
+                schedule(0);
+            }
+        } else if (!scheduled && !closed) {
+            schedule(intervalNanos);
+        }
+    }
+
+    // lets the factory forget this once it has nothing left to write; must be called holding the lock
+    private void idle() {
+        if (open == null && full.isEmpty() && writing.isEmpty()) {
+            active.remove(this);
+        }
+    }
+
+    // maps one more entity into the batch, recording what that changes in the mapping context with what mapping
+    // the batch has changed so far; must be called holding the lock
+    private void map(Batch batch, Object entity, int depth) {
+        MappingContext mappingContext = session.context();
+        UndoLog undoLog = mappingContext.suspendUndoLog();
+        try {
+            if (batch.undoLog == null) {
+                mappingContext.beginUndoLog();
+            } else {
+                mappingContext.resumeUndoLog(batch.undoLog);
+            }
+            try {
+                batch.mapper.map(entity, depth, batch.compiler);
+            } finally {
+                batch.undoLog = mappingContext.suspendUndoLog();
+            }
+            CypherContext context = batch.compiler.context();
+            List<Object> logged = context.log(batch.memoised);
+            for (Object object : logged) {
+                if (!(object instanceof MappedRelationship) && !(object instanceof TransientRelationship)) {
+                    context.memo(object, mappingContext.memo(object));
+                }
+            }
+            batch.memoised += logged.size();
+        } finally {
+            mappingContext.resumeUndoLog(undoLog);
+        }
+    }
+
+    // maps an entity the batch already holds again, as it is now, unless that would mean mapping the rest of the
+    // batch again; must be called holding the lock
+    private boolean remap(Batch batch, Object entity, int depth) {
+        List<Object> changed = batch.mapper.remap(entity, depth, batch.compiler);
+        if (changed == null) {
+            return false;
+        }
+        batch.add(entity, depth);
+        MappingContext mappingContext = session.context();
+        CypherContext context = batch.compiler.context();
+        for (Object object : changed) {
+            context.memo(object, mappingContext.memo(object));
+        }
+        batch.memoised = context.log(0).size();
+        return true;
+    }
+
+    // puts the mapping context back as it was before the batch was mapped, and maps its entities anew, which is
+    // only done when one of them is taken out of it; must be called holding the lock
+    private void rebuild(Batch batch) {
+        revert(batch);
+        batch.begin(session);
+        for (Object entity : batch.entities) {
+            map(batch, entity, batch.depths.get(entity));
+        }
+    }
+
+    // puts the mapping context back as it was before the batch was mapped; must be called holding the lock
+    private void revert(Batch batch) {
+        MappingContext mappingContext = session.context();
+        UndoLog undoLog = mappingContext.suspendUndoLog();
+        try {
+            mappingContext.resumeUndoLog(batch.undoLog);
+            mappingContext.undo();
+            batch.undoLog = null;
+        } finally {
+            mappingContext.resumeUndoLog(undoLog);
+        }
+    }
+
+    // the batches other than the one being filled that create any of the given entities, and have not been applied
+    private List<Batch> creating(Collection<Object> entities) {
+        List<Batch> creating = new ArrayList<>();
+        for (Collection<Batch> batches : Arrays.asList(full, writing, written)) {
+            for (Batch batch : batches) {
+                for (Object entity : entities) {
+                    if (batch.created.contains(entity)) {
+                        creating.add(batch);
+                        break;
+                    }
+                }
+            }
+        }
+        return creating;
+    }
+
+    // must be called holding the lock
+    private void awaitWritten(List<Batch> batches) {
+        if (batches.isEmpty()) {
+            return;
+        }
+        schedule(0);
+        for (Batch batch : batches) {
+            while (full.contains(batch) || writing.contains(batch)) {
+                try {
+                    wait();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    throw new RuntimeException("Interrupted while waiting for queued saves to be written", e);
+                }
+            }
+        }
+    }
+
+    // builds the statements of the batch being filled from what has been mapped into it, which touches neither its
+    // entities nor the mapping context, so this may be called from the writer thread; must be called holding the lock
+    private void closeOpenBatch() {
+        open.context = open.compiler.compile();
+        open.created = Collections.newSetFromMap(new IdentityHashMap<Object, Boolean>());
+        open.created.addAll(open.context.getNewObjects());
+        // the batch will not be mapped again, so what mapping it changed is kept
+        open.undoLog = null;
+        open.mapper = null;
+        open.compiler = null;
+        full.add(open);
+        open = null;
+    }
+
+    // must be called holding the lock
+    private void schedule(long delayNanos) {
+        try {
+            writer.schedule(drain, delayNanos, TimeUnit.NANOSECONDS);
+            scheduled = true;
+        } catch (RejectedExecutionException e) {
+            throw new RuntimeException("Write-behind has been closed, saves can no longer be queued", e);
+        }
+    }
+
+    private void drain() {
+        synchronized (sending) {
+            Batch batch;
+            while ((batch = take()) != null) {
+                write(batch);
+            }
+        }
+    }
+
+    // takes the next batch off the queue, closing the one being filled if there is no other
+    private synchronized Batch take() {
+        if (full.isEmpty()) {
+            if (open == null) {
+                scheduled = false;
+                return null;
+            }
+            closeOpenBatch();
+        }
+        Batch batch = full.poll();
+        writing.add(batch);
+        notifyAll();
+        return batch;
+    }
+
+    // sends the batch's statements, touching neither its entities nor the mapping context
+    private void write(Batch batch) {
+        List<ParameterisedStatement> statements = batch.context.getStatements();
+        try {
+            if (!statements.isEmpty()) {
+                try (Neo4jResponse<StatementResult> response = session.requestHandler().executeBatch(statements, batch.transaction.url())) {
+                    for (int i = 0; i < statements.size(); i++) {
+                        batch.results.add(response.next());
+                    }
+                }
+            }
+        } catch (RuntimeException e) {
+            batch.failure = e;
+            if (failureHandler == null) {
+                LOGGER.error("Failed to write " + batch.entities.size() + " queued saves, they have been lost", e);
+            }
+        }
+        synchronized (this) {
+            writing.remove(batch);
+            if (!batch.discarded) {
+                written.add(batch);
+            }
+            idle();
+            notifyAll();
+        }
+    }
+
+    // hands the entities to the failure handler, grouped by the depth they were to be saved to
+    private void failed(List<Object> saved, Map<Object, Integer> depths, RuntimeException failure) {
+        Map<Integer, List<Object>> byDepth = new LinkedHashMap<>();
+        for (Object entity : saved) {
+            Integer depth = depths.get(entity);
+            List<Object> entities = byDepth.get(depth);
+            if (entities == null) {
+                entities = new ArrayList<>();
+                byDepth.put(depth, entities);
+            }
+            entities.add(entity);
+        }
+        for (Map.Entry<Integer, List<Object>> entities : byDepth.entrySet()) {
+            try {
+                failureHandler.failed(entities.getValue(), entities.getKey(), failure);
+            } catch (RuntimeException handlerException) {
+                LOGGER.error("Write failure handler failed for " + entities.getValue().size() + " queued saves", handlerException);
+            }
+        }
+    }
+
+    private static int deeper(int depth, int other) {
+        return depth < 0 || other < 0 ? -1 : Math.max(depth, other);
+    }
+
+    /**
+     * Saves queued together, in the order their entities were first saved and with the depth each is to be saved to,
+     * mapped to the one compiler while the batch is being filled, and to the statements that write them once it is
+     * closed.
+     */
+    private static class Batch {
+
+        private final Transaction transaction;
+        private final List<Object> entities = new ArrayList<>();
+        private final Map<Object, Integer> depths = new IdentityHashMap<>();
+
+        // while the batch is being filled, what its saves have been mapped to, how many of the objects they logged
+        // have been memoised, and what mapping them changed in the mapping context
+        private EntityGraphMapper mapper;
+        private CypherCompiler compiler;
+        private int memoised;
+        private UndoLog undoLog;
+
+        private CypherContext context;
+        private Set<Object> created;
+
+        private final List<StatementResult> results = new ArrayList<>();
+        private RuntimeException failure;
+        private boolean discarded;
+
+        Batch(Transaction transaction) {
+            this.transaction = transaction;
+        }
+
+        // a save of an entity already saved only deepens it
+        void add(Object entity, int depth) {
+            Integer queuedDepth = depths.get(entity);
+            if (queuedDepth == null) {
+                entities.add(entity);
+                depths.put(entity, depth);
+            } else {
+                depths.put(entity, deeper(queuedDepth, depth));
+            }
+        }
+
+        boolean remove(Object entity) {
+            if (depths.remove(entity) == null) {
+                return false;
+            }
+            Iterator<Object> iterator = entities.iterator();
+            while (iterator.hasNext()) {
+                if (iterator.next() == entity) {
+                    iterator.remove();
+                    break;
+                }
+            }
+            return true;
+        }
+
+        // an entity reached by a save in the batch, rather than saved itself, is held in the state it was reached in
+        boolean contains(Object entity) {
+            return depths.containsKey(entity) || compiler != null && compiler.context().visited(entity);
+        }
+
+        boolean isEmpty() {
+            return entities.isEmpty();
+        }
+
+        void begin(Neo4jSession session) {
+            mapper = new EntityGraphMapper(session.metaData(), session.context());
+            compiler = mapper.newCompiler();
+            memoised = 0;
+        }
+    }
+}
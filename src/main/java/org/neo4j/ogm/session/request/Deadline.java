@@ -0,0 +1,273 @@
+/*
+ * Copyright (c) 2002-2015 "Neo Technology,"
+ * Network Engine for Objects in Lund AB [http://neotechnology.com]
+ *
+ * This product is licensed to you under the Apache License, Version 2.0 (the "License").
+ * You may not use this product except in compliance with the License.
+ *
+ * This product may include a number of subcomponents with
+ * separate copyright notices and license terms. Your use of the source
+ * code for these subcomponents is subject to the terms and
+ * conditions of the subcomponent's license, as noted in the LICENSE file.
+ *
+ */
+
+package org.neo4j.ogm.session.request;
+
+import java.util.Collections;
+import java.util.Set;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.apache.http.client.config.RequestConfig;
+import org.apache.http.client.methods.HttpRequestBase;
+import org.neo4j.ogm.exception.DeadlineExceededException;
+import org.neo4j.ogm.session.Cancellable;
+
+/**
+ * A time by which the requests made on a thread must be answered, and a handle by which they can be cancelled.
+ * <p>
+ * A deadline started with {@link #start(long, TimeUnit, AtomicLong)} applies to every request the starting thread
+ * makes until it is closed. Each request is refused if the deadline has passed or it has been cancelled, is sent with
+ * connect and socket timeouts no longer than the time remaining, and is aborted if it is still in flight when the
+ * deadline passes or it is cancelled. The request then fails with a {@link DeadlineExceededException}, or a
+ * {@link CancellationException}. Work done between requests, such as mapping their responses, is not interrupted.
+ * </p>
+ * Deadlines may be nested, in which case the inner one cannot end later than the outer one.
+ */
+public class Deadline implements Cancellable, AutoCloseable {
+
+    private static final ThreadLocal<Deadline> current = new ThreadLocal<>();
+
+    private static final long NONE = Long.MAX_VALUE;
+
+    private final long expiresAt;
+    private final AtomicLong exceeded;
+    private final Deadline outer;
+    private final boolean scoped;
+    private final Set<HttpRequestBase> inFlight = Collections.newSetFromMap(new ConcurrentHashMap<HttpRequestBase, Boolean>());
+    private final AtomicBoolean counted = new AtomicBoolean();
+    private final ScheduledFuture<?> timer;
+    private volatile boolean cancelled;
+
+    private Deadline(long timeoutNanos, AtomicLong exceeded, Deadline outer, boolean scoped) {
+        long now = System.nanoTime();
+        long expiresAt = timeoutNanos > 0 ? now + timeoutNanos : NONE;
+        if (outer != null && outer.expiresAt != NONE && (expiresAt == NONE || outer.expiresAt - expiresAt < 0)) {
+            expiresAt = outer.expiresAt;
+        }
+        this.expiresAt = expiresAt;
+        this.exceeded = exceeded;
+        this.outer = outer;
+        this.scoped = scoped;
+        if (expiresAt == NONE) {
+            this.timer = null;
+        } else {
+            this.timer = Timer.EXECUTOR.schedule(new Runnable() {
+                @Override
+                public void run() {
+                    abortInFlight();
+                }
+            }, expiresAt - now, TimeUnit.NANOSECONDS);
+        }
+    }
+
+    /**
+     * Starts a deadline for the requests the calling thread makes until the deadline is closed, which must be done on
+     * the same thread.
+     *
+     * @param timeout the time the requests must be made in, or zero for no limit, so that they can only be cancelled
+     * @param unit the unit of the timeout
+     * @param exceeded counts the deadlines that pass before their requests are answered, or null
+     * @return the deadline, which is now the calling thread's current deadline
+     */
+    public static Deadline start(long timeout, TimeUnit unit, AtomicLong exceeded) {
+        Deadline deadline = new Deadline(unit.toNanos(timeout), exceeded, current.get(), true);
+        current.set(deadline);
+        return deadline;
+    }
+
+    /**
+     * @return the calling thread's current deadline, or null if it has none
+     */
+    public static Deadline current() {
+        return current.get();
+    }
+
+    /**
+     * Finds the deadline for a single request: the calling thread's current deadline, if it has one, or else a new
+     * deadline for that request alone if a timeout is given.
+     *
+     * @param timeoutMillis the time to allow a request when the thread has no current deadline, or zero for no limit
+     * @param exceeded counts the deadlines that pass before their requests are answered, or null
+     * @return the deadline the request is to be made under, or null if it has none
+     */
+    public static Deadline forRequest(long timeoutMillis, AtomicLong exceeded) {
+        Deadline deadline = current.get();
+        if (deadline != null) {
+            return deadline;
+        }
+        return forRollback(timeoutMillis, exceeded);
+    }
+
+    /**
+     * Finds the deadline for a request that rolls back work, which must still be sent after the calling thread's
+     * current deadline has passed or been cancelled, so only the given timeout applies.
+     *
+     * @param timeoutMillis the time to allow the request, or zero for no limit
+     * @param exceeded counts the deadlines that pass before their requests are answered, or null
+     * @return the deadline the request is to be made under, or null if it has none
+     */
+    public static Deadline forRollback(long timeoutMillis, AtomicLong exceeded) {
+        return timeoutMillis > 0 ? new Deadline(TimeUnit.MILLISECONDS.toNanos(timeoutMillis), exceeded, null, false) : null;
+    }
+
+    @Override
+    public void cancel() {
+        cancelled = true;
+        abortInFlight();
+    }
+
+    @Override
+    public boolean isCancelled() {
+        for (Deadline deadline = this; deadline != null; deadline = deadline.outer) {
+            if (deadline.cancelled) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    public boolean isExpired() {
+        return expiresAt != NONE && System.nanoTime() - expiresAt >= 0;
+    }
+
+    /**
+     * @return the time left before the deadline, in milliseconds, or {@link Long#MAX_VALUE} if it has no time limit
+     */
+    public long remainingMillis() {
+        if (expiresAt == NONE) {
+            return Long.MAX_VALUE;
+        }
+        return Math.max(0, TimeUnit.NANOSECONDS.toMillis(expiresAt - System.nanoTime()));
+    }
+
+    /**
+     * @throws CancellationException if the deadline has been cancelled
+     * @throws DeadlineExceededException if the deadline has passed
+     */
+    public void check() {
+        RuntimeException failure = failure(null);
+        if (failure != null) {
+            throw failure;
+        }
+    }
+
+    /**
+     * Makes a request subject to this deadline, until it is released. The request is refused if the deadline
+     * has already passed or been cancelled.
+     *
+     * @param request the request about to be sent
+     */
+    public void register(HttpRequestBase request) {
+        check();
+        if (expiresAt != NONE) {
+            int timeout = (int) Math.max(1, Math.min(Integer.MAX_VALUE, remainingMillis()));
+            RequestConfig config = request.getConfig() == null ? RequestConfig.DEFAULT : request.getConfig();
+            request.setConfig(RequestConfig.copy(config)
+                    .setConnectTimeout(timeout)
+                    .setConnectionRequestTimeout(timeout)
+                    .setSocketTimeout(timeout)
+                    .build());
+        }
+        for (Deadline deadline = this; deadline != null; deadline = deadline.outer) {
+            deadline.inFlight.add(request);
+        }
+        // it may have passed or been cancelled while we were adding it, in which case nothing else will abort it
+        if (isCancelled() || isExpired()) {
+            request.abort();
+        }
+    }
+
+    /**
+     * Stops the given request being subject to this deadline, once its response has been read.
+     *
+     * @param request a request previously registered
+     */
+    public void release(HttpRequestBase request) {
+        for (Deadline deadline = this; deadline != null; deadline = deadline.outer) {
+            deadline.inFlight.remove(request);
+        }
+        if (!scoped && timer != null && inFlight.isEmpty()) {
+            timer.cancel(false);
+        }
+    }
+
+    /**
+     * Explains the failure of a request made under this deadline.
+     *
+     * @param cause the exception the request failed with
+     * @return the exception to throw instead if the request failed because the deadline passed or was cancelled,
+     * or null if it did not
+     */
+    public RuntimeException failure(Throwable cause) {
+        if (isCancelled()) {
+            CancellationException cancellation = new CancellationException("The operation was cancelled");
+            cancellation.initCause(cause);
+            return cancellation;
+        }
+        if (isExpired()) {
+            if (exceeded != null && counted.compareAndSet(false, true)) {
+                exceeded.incrementAndGet();
+            }
+            return new DeadlineExceededException("The deadline passed before the operation completed", cause);
+        }
+        return null;
+    }
+
+    /**
+     * Ends the deadline, making the one it was started within, if any, current again.
+     */
+    @Override
+    public void close() {
+        if (timer != null) {
+            timer.cancel(false);
+        }
+        if (scoped && current.get() == this) {
+            if (outer != null) {
+                current.set(outer);
+            } else {
+                current.remove();
+            }
+        }
+    }
+
+    private void abortInFlight() {
+        for (HttpRequestBase request : inFlight) {
+            request.abort();
+        }
+    }
+
+    // the timer thread is only started once a deadline with a time limit is first created
+    private static class Timer {
+
+        static final ScheduledThreadPoolExecutor EXECUTOR = new ScheduledThreadPoolExecutor(1, new ThreadFactory() {
+            @Override
+            public Thread newThread(Runnable runnable) {
+                Thread thread = new Thread(runnable, "neo4j-ogm-deadlines");
+                thread.setDaemon(true);
+                return thread;
+            }
+        });
+
+        static {
+            EXECUTOR.setRemoveOnCancelPolicy(true);
+        }
+    }
+}
@@ -14,6 +14,8 @@
 
 package org.neo4j.ogm.session.request;
 
+import java.util.concurrent.atomic.AtomicLong;
+
 import org.apache.http.HttpEntity;
 import org.apache.http.StatusLine;
 import org.apache.http.client.ClientProtocolException;
@@ -39,12 +41,14 @@ import org.slf4j.LoggerFactory;
  * @author Vince Bickers
  * @author Luanne Misquitta
  */
-public class DefaultRequest implements Neo4jRequest<String> {
+public class DefaultRequest implements Neo4jRequest<String>, StreamingRequest {
 
     private static final Logger LOGGER = LoggerFactory.getLogger(DefaultRequest.class);
 
     private final CloseableHttpClient httpClient;
     private final Neo4jCredentials credentials;
+    private long timeoutMillis;
+    private AtomicLong deadlinesExceeded;
 
     public DefaultRequest(CloseableHttpClient httpClient) {
         this.httpClient = httpClient;
@@ -56,17 +60,43 @@ public class DefaultRequest implements Neo4jRequest<String> {
         this.credentials = usernamePasswordCredentials;
     }
 
-    public Neo4jResponse<String> execute(String url, String cypherQuery) {
+    /**
+     * Limits the time each request may take when the calling thread has no {@link Deadline} of its own.
+     *
+     * @param timeoutMillis the time allowed for each request, from sending it to closing its response, or zero for no limit
+     * @param deadlinesExceeded counts the requests that take longer than they are allowed, or null
+     */
+    public void setTimeout(long timeoutMillis, AtomicLong deadlinesExceeded) {
+        this.timeoutMillis = timeoutMillis;
+        this.deadlinesExceeded = deadlinesExceeded;
+    }
 
-        JsonResponse jsonResponse = null;
+    public Neo4jResponse<String> execute(String url, String cypherQuery) {
+        if (LOGGER.isDebugEnabled()) {
+            LOGGER.debug("POST " + url + ", request: " + cypherQuery);
+        }
+        return execute(url, new StringEntity(cypherQuery, "UTF-8"), cypherQuery);
+    }
 
-        try {
+    /**
+     * Sends the statements, serialising them straight into the connection. A request that fails is described by its
+     * url and the number of its statements, so that the whole payload is not built as a string to report it.
+     */
+    @Override
+    public Neo4jResponse<String> execute(String url, StatementsEntity statements) {
+        if (LOGGER.isDebugEnabled()) {
+            LOGGER.debug("POST " + url + ", request: " + statements.toJson());
+        }
+        return execute(url, statements, url + ", " + statements);
+    }
 
-            LOGGER.debug("POST " + url + ", request: " + cypherQuery);
+    private Neo4jResponse<String> execute(String url, HttpEntity entity, String description) {
 
-            HttpPost request = new HttpPost(url);
-            HttpEntity entity = new StringEntity(cypherQuery,"UTF-8");
+        JsonResponse jsonResponse = null;
+        Deadline deadline = Deadline.forRequest(timeoutMillis, deadlinesExceeded);
+        HttpPost request = new HttpPost(url);
 
+        try {
             request.setHeader(new BasicHeader(HTTP.CONTENT_TYPE,"application/json;charset=UTF-8"));
             request.setHeader(new BasicHeader("Accept", "application/json;charset=UTF-8"));
 
@@ -77,6 +107,10 @@ public class DefaultRequest implements Neo4jRequest<String> {
 
             request.setEntity(entity);
 
+            if (deadline != null) {
+                deadline.register(request);
+            }
+
             CloseableHttpResponse response = httpClient.execute(request);
 
             StatusLine statusLine = response.getStatusLine();
@@ -92,7 +126,7 @@ public class DefaultRequest implements Neo4jRequest<String> {
             }
 
             LOGGER.debug("Response is OK, creating response handler");
-            jsonResponse = new JsonResponse(response);
+            jsonResponse = new JsonResponse(response, deadline, request);
             return jsonResponse;
 
         }
@@ -101,8 +135,14 @@ public class DefaultRequest implements Neo4jRequest<String> {
             LOGGER.warn("Caught response exception: " + e.getLocalizedMessage());
             if (jsonResponse != null) {
                 jsonResponse.close();
+            } else if (deadline != null) {
+                deadline.release(request);
+            }
+            RuntimeException failure = deadline == null ? null : deadline.failure(e);
+            if (failure != null) {
+                throw failure;
             }
-            throw new ResultProcessingException("Failed to execute request: " + cypherQuery, e);
+            throw new ResultProcessingException("Failed to execute request: " + description, e);
         }
     }
 
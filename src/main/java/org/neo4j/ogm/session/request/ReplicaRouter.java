@@ -0,0 +1,154 @@
+/*
+ * Copyright (c) 2002-2015 "Neo Technology,"
+ * Network Engine for Objects in Lund AB [http://neotechnology.com]
+ *
+ * This product is licensed to you under the Apache License, Version 2.0 (the "License").
+ * You may not use this product except in compliance with the License.
+ *
+ * This product may include a number of subcomponents with
+ * separate copyright notices and license terms. Your use of the source
+ * code for these subcomponents is subject to the terms and
+ * conditions of the subcomponent's license, as noted in the LICENSE file.
+ *
+ */
+
+package org.neo4j.ogm.session.request;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Selects the server that should handle a read that is not part of an explicit transaction.
+ *
+ * Reads are sent to the healthy read replica with the fewest outstanding requests, ties being
+ * broken by the lowest average response time. A replica that fails a request is considered
+ * unhealthy and receives no reads until its cool-down has elapsed, after which it is tried again.
+ * When no replica is healthy, reads are sent to the writer.
+ *
+ * A router is shared by all the sessions that use the same writer and replicas, so that the
+ * outstanding request counts reflect the whole application.
+ */
+public class ReplicaRouter {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(ReplicaRouter.class);
+
+    private static final long DEFAULT_COOL_DOWN_MILLIS = TimeUnit.SECONDS.toMillis(30);
+
+    private final String writerUrl;
+    private final List<Replica> replicas = new ArrayList<>();
+    private final AtomicInteger next = new AtomicInteger();
+    private volatile long coolDownMillis = DEFAULT_COOL_DOWN_MILLIS;
+
+    public ReplicaRouter(String writerUrl, List<String> replicaUrls) {
+        this.writerUrl = baseUrl(writerUrl);
+        for (String replicaUrl : replicaUrls) {
+            replicas.add(new Replica(baseUrl(replicaUrl)));
+        }
+    }
+
+    public String writerUrl() {
+        return writerUrl;
+    }
+
+    public List<Replica> replicas() {
+        return Collections.unmodifiableList(replicas);
+    }
+
+    public void setCoolDown(long coolDown, TimeUnit unit) {
+        this.coolDownMillis = unit.toMillis(coolDown);
+    }
+
+    /**
+     * @return the base url of the server to send the next read to
+     */
+    public String select() {
+        long now = System.currentTimeMillis();
+        int size = replicas.size();
+        int start = size == 0 ? 0 : (next.getAndIncrement() & Integer.MAX_VALUE) % size;
+        Replica selected = null;
+        for (int i = 0; i < size; i++) {
+            Replica candidate = replicas.get((start + i) % size);
+            if (candidate.isHealthy(now) && (selected == null || candidate.isLessLoadedThan(selected))) {
+                selected = candidate;
+            }
+        }
+        return selected == null ? writerUrl : selected.url();
+    }
+
+    /**
+     * @param url the url a request is about to be sent to
+     * @return the replica that owns the url, or null if the url is not one of a replica
+     */
+    public Replica replicaFor(String url) {
+        for (Replica replica : replicas) {
+            if (url.startsWith(replica.url())) {
+                return replica;
+            }
+        }
+        return null;
+    }
+
+    void failed(Replica replica, Throwable cause) {
+        LOGGER.warn("Read replica " + replica.url() + " failed, routing reads elsewhere for " + coolDownMillis + "ms: " + cause.getLocalizedMessage());
+        replica.unhealthyUntil = System.currentTimeMillis() + coolDownMillis;
+    }
+
+    private static String baseUrl(String url) {
+        return url.endsWith("/") ? url : url + "/";
+    }
+
+    /**
+     * The routing state of a single read replica.
+     */
+    public static class Replica {
+
+        // weight of the latest response time in the moving average
+        private static final double ALPHA = 0.2;
+
+        private final String url;
+        private final AtomicInteger outstanding = new AtomicInteger();
+        private volatile double averageMillis;
+        private volatile long unhealthyUntil;
+
+        Replica(String url) {
+            this.url = url;
+        }
+
+        public String url() {
+            return url;
+        }
+
+        public int outstanding() {
+            return outstanding.get();
+        }
+
+        public boolean isHealthy(long now) {
+            return unhealthyUntil <= now;
+        }
+
+        void started() {
+            outstanding.incrementAndGet();
+        }
+
+        void finished() {
+            outstanding.decrementAndGet();
+        }
+
+        void responded(long millis) {
+            averageMillis = averageMillis == 0 ? millis : ALPHA * millis + (1 - ALPHA) * averageMillis;
+            unhealthyUntil = 0;
+        }
+
+        private boolean isLessLoadedThan(Replica other) {
+            int load = outstanding.get();
+            int otherLoad = other.outstanding.get();
+            return load < otherLoad || (load == otherLoad && averageMillis < other.averageMillis);
+        }
+    }
+}
@@ -27,6 +27,7 @@ import org.neo4j.ogm.session.response.Neo4jResponse;
 import org.neo4j.ogm.session.result.GraphRowModel;
 import org.neo4j.ogm.session.result.RowModel;
 import org.neo4j.ogm.session.result.RowQueryStatisticsResult;
+import org.neo4j.ogm.session.result.StatementResult;
 
 /**
  * @author Vince Bickers
@@ -41,4 +42,5 @@ public interface RequestHandler {
     Neo4jResponse<String> execute(ParameterisedStatement statement, String url);
     Neo4jResponse<String> execute(List<ParameterisedStatement> statementList, String url);
     Neo4jResponse<RowQueryStatisticsResult> execute(RowModelQueryWithStatistics query, String url);
+    Neo4jResponse<StatementResult> executeBatch(List<ParameterisedStatement> statementList, String url);
 }
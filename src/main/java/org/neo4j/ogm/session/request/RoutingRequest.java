@@ -0,0 +1,133 @@
+/*
+ * Copyright (c) 2002-2015 "Neo Technology,"
+ * Network Engine for Objects in Lund AB [http://neotechnology.com]
+ *
+ * This product is licensed to you under the Apache License, Version 2.0 (the "License").
+ * You may not use this product except in compliance with the License.
+ *
+ * This product may include a number of subcomponents with
+ * separate copyright notices and license terms. Your use of the source
+ * code for these subcomponents is subject to the terms and
+ * conditions of the subcomponent's license, as noted in the LICENSE file.
+ *
+ */
+
+package org.neo4j.ogm.session.request;
+
+import java.io.IOException;
+
+import org.apache.http.client.HttpResponseException;
+import org.neo4j.ogm.session.response.Neo4jResponse;
+import org.neo4j.ogm.session.result.ResultProcessingException;
+
+/**
+ * A {@link Neo4jRequest} that keeps a {@link ReplicaRouter} informed about the requests sent to read replicas.
+ *
+ * Requests to urls that do not belong to a replica are passed through unchanged. If a replica cannot
+ * be reached, or responds with a server error, it is marked as unhealthy and the request is sent
+ * to the writer instead.
+ */
+public class RoutingRequest implements Neo4jRequest<String>, StreamingRequest {
+
+    private final Neo4jRequest<String> request;
+    private final ReplicaRouter router;
+
+    public RoutingRequest(Neo4jRequest<String> request, ReplicaRouter router) {
+        this.request = request;
+        this.router = router;
+    }
+
+    @Override
+    public Neo4jResponse<String> execute(String url, String jsonStatements) {
+        return route(url, jsonStatements, null);
+    }
+
+    @Override
+    public Neo4jResponse<String> execute(String url, StatementsEntity statements) {
+        return route(url, null, statements);
+    }
+
+    private Neo4jResponse<String> route(String url, String jsonStatements, StatementsEntity statements) {
+
+        ReplicaRouter.Replica replica = router.replicaFor(url);
+        if (replica == null) {
+            return send(url, jsonStatements, statements);
+        }
+
+        replica.started();
+        long start = System.currentTimeMillis();
+        try {
+            Neo4jResponse<String> response = send(url, jsonStatements, statements);
+            replica.responded(System.currentTimeMillis() - start);
+            return new ReplicaResponse(response, replica);
+        } catch (ResultProcessingException rpe) {
+            replica.finished();
+            if (!isServerFailure(rpe.getCause())) {
+                throw rpe;
+            }
+            router.failed(replica, rpe.getCause());
+            return send(router.writerUrl() + url.substring(replica.url().length()), jsonStatements, statements);
+        }
+    }
+
+    private Neo4jResponse<String> send(String url, String jsonStatements, StatementsEntity statements) {
+        if (statements == null) {
+            return request.execute(url, jsonStatements);
+        }
+        if (request instanceof StreamingRequest) {
+            return ((StreamingRequest) request).execute(url, statements);
+        }
+        return request.execute(url, statements.toJson());
+    }
+
+    private boolean isServerFailure(Throwable cause) {
+        if (cause instanceof HttpResponseException) {
+            return ((HttpResponseException) cause).getStatusCode() >= 500;
+        }
+        return cause instanceof IOException;
+    }
+
+    /**
+     * Releases the replica's outstanding request when the response has been consumed.
+     */
+    private static class ReplicaResponse implements Neo4jResponse<String> {
+
+        private final Neo4jResponse<String> response;
+        private final ReplicaRouter.Replica replica;
+        private boolean closed;
+
+        ReplicaResponse(Neo4jResponse<String> response, ReplicaRouter.Replica replica) {
+            this.response = response;
+            this.replica = replica;
+        }
+
+        @Override
+        public String next() {
+            return response.next();
+        }
+
+        @Override
+        public void close() {
+            if (!closed) {
+                closed = true;
+                replica.finished();
+            }
+            response.close();
+        }
+
+        @Override
+        public void initialiseScan(ResponseRecord record) {
+            response.initialiseScan(record);
+        }
+
+        @Override
+        public String[] columns() {
+            return response.columns();
+        }
+
+        @Override
+        public int rowId() {
+            return response.rowId();
+        }
+    }
+}
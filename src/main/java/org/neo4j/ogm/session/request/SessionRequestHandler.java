@@ -16,8 +16,8 @@ package org.neo4j.ogm.session.request;
 
 import java.util.ArrayList;
 import java.util.List;
+import java.util.concurrent.CancellationException;
 
-import com.fasterxml.jackson.core.JsonProcessingException;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import org.neo4j.ogm.cypher.query.GraphRowModelQuery;
 import org.neo4j.ogm.cypher.query.Query;
@@ -25,12 +25,14 @@ import org.neo4j.ogm.cypher.query.RowModelQuery;
 import org.neo4j.ogm.cypher.query.RowModelQueryWithStatistics;
 import org.neo4j.ogm.cypher.statement.ParameterisedStatement;
 import org.neo4j.ogm.cypher.statement.ParameterisedStatements;
-import org.neo4j.ogm.metadata.MappingException;
+import org.neo4j.ogm.exception.DeadlineExceededException;
 import org.neo4j.ogm.model.GraphModel;
 import org.neo4j.ogm.session.response.*;
 import org.neo4j.ogm.session.result.GraphRowModel;
 import org.neo4j.ogm.session.result.RowModel;
 import org.neo4j.ogm.session.result.RowQueryStatisticsResult;
+import org.neo4j.ogm.session.result.StatementResult;
+import org.neo4j.ogm.session.transaction.TransactionManager;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -42,11 +44,23 @@ public class SessionRequestHandler implements RequestHandler {
 
     private final ObjectMapper mapper;
     private final Neo4jRequest<String> request;
+    private final TransactionManager transactionManager;
+    private final SlowQueryLog slowQueryLog;
     private final Logger logger = LoggerFactory.getLogger(SessionRequestHandler.class);
 
     public SessionRequestHandler(ObjectMapper mapper, Neo4jRequest<String> request) {
+        this(mapper, request, null);
+    }
+
+    public SessionRequestHandler(ObjectMapper mapper, Neo4jRequest<String> request, TransactionManager transactionManager) {
+        this(mapper, request, transactionManager, null);
+    }
+
+    public SessionRequestHandler(ObjectMapper mapper, Neo4jRequest<String> request, TransactionManager transactionManager, SlowQueryLog slowQueryLog) {
         this.request = request;
         this.mapper = mapper;
+        this.transactionManager = transactionManager;
+        this.slowQueryLog = slowQueryLog;
     }
 
     @Override
@@ -88,21 +102,121 @@ public class SessionRequestHandler implements RequestHandler {
         return new RowStatisticsResponse(response, mapper);
     }
 
+    @Override
+    public Neo4jResponse<StatementResult> executeBatch(List<ParameterisedStatement> statementList, String url) {
+        Neo4jResponse<String> response = execute(statementList, url);
+        return new MultiStatementResponse(response, mapper);
+    }
 
     @Override
     public Neo4jResponse<String> execute(List<ParameterisedStatement> statementList, String url) {
+
+        for (ParameterisedStatement statement : statementList) {
+            if (statement.getStatement().isEmpty()) {
+                return new EmptyResponse();
+            }
+        }
+
+        if (transactionManager != null) {
+            transactionManager.check(url);
+        }
+
+        StatementsEntity statements = new StatementsEntity(mapper, new ParameterisedStatements(statementList));
+        long sentNanos = slowQueryLog == null ? 0 : System.nanoTime();
+        Neo4jResponse<String> response;
         try {
-            String json = mapper.writeValueAsString(new ParameterisedStatements(statementList));
-            // ugh.
-            if (!json.contains("statement\":\"\"")) {    // not an empty statement
+            if (request instanceof StreamingRequest) {
+                response = ((StreamingRequest) request).execute(url, statements);
+            } else {
+                String json = statements.toJson();
                 logger.debug(json);
-                return request.execute(url, json);
+                response = request.execute(url, json);
+            }
+        } catch (RuntimeException e) {
+            if (slowQueryLog != null) {
+                slowQueryLog.failed(statementList, url, sentNanos);
             }
-            return new EmptyResponse();
-        } catch (JsonProcessingException jpe) {
-            throw new MappingException("Could not create JSON due to " + jpe.getLocalizedMessage(),jpe);
+            if (transactionManager != null) {
+                // the server may still be running the statements, holding the transaction's locks
+                if (abandons(e)) {
+                    transactionManager.abandon(url);
+                }
+                // or may have begun the transaction they were to begin, without telling us where
+                transactionManager.failed(url);
+            }
+            throw e;
         }
+
+        // the first statements of a lazily begun transaction also begin it on the server
+        if (transactionManager != null && response instanceof JsonResponse) {
+            transactionManager.begun(url, ((JsonResponse) response).location());
+        }
+        if (slowQueryLog != null) {
+            response = slowQueryLog.monitor(statementList, url, sentNanos, response);
+        }
+        if (transactionManager != null) {
+            return new AbandoningResponse(url, response);
+        }
+        return response;
+    }
+
+    private static boolean abandons(RuntimeException e) {
+        return e instanceof DeadlineExceededException || e instanceof CancellationException;
     }
 
+    /**
+     * Abandons the transaction of a response whose rows stop arriving before they have all been read, because the
+     * deadline passed or the request was cancelled while they were streaming.
+     */
+    private class AbandoningResponse implements Neo4jResponse<String> {
+
+        private final String url;
+        private final Neo4jResponse<String> response;
+
+        AbandoningResponse(String url, Neo4jResponse<String> response) {
+            this.url = url;
+            this.response = response;
+        }
+
+        @Override
+        public String next() {
+            try {
+                return response.next();
+            } catch (RuntimeException e) {
+                abandon(e);
+                throw e;
+            }
+        }
+
+        @Override
+        public void initialiseScan(ResponseRecord record) {
+            try {
+                response.initialiseScan(record);
+            } catch (RuntimeException e) {
+                abandon(e);
+                throw e;
+            }
+        }
 
+        @Override
+        public void close() {
+            response.close();
+        }
+
+        @Override
+        public String[] columns() {
+            return response.columns();
+        }
+
+        @Override
+        public int rowId() {
+            return response.rowId();
+        }
+
+        private void abandon(RuntimeException e) {
+            if (abandons(e)) {
+                transactionManager.abandon(url);
+            }
+        }
+    }
 }
@@ -0,0 +1,118 @@
+/*
+ * Copyright (c) 2002-2015 "Neo Technology,"
+ * Network Engine for Objects in Lund AB [http://neotechnology.com]
+ *
+ * This product is licensed to you under the Apache License, Version 2.0 (the "License").
+ * You may not use this product except in compliance with the License.
+ *
+ * This product may include a number of subcomponents with
+ * separate copyright notices and license terms. Your use of the source
+ * code for these subcomponents is subject to the terms and
+ * conditions of the subcomponent's license, as noted in the LICENSE file.
+ *
+ */
+
+package org.neo4j.ogm.session.request;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * A request that took longer than the slow-query threshold, as recorded by a {@link SlowQueryLog}.
+ * <p>
+ * Its time is split into phases: waiting for the server to respond, reading records from the response, and
+ * everything else done between sending the request and closing the response, which is mostly mapping the records.
+ * </p>
+ */
+public class SlowQuery {
+
+    private final String url;
+    private final String fingerprint;
+    private final List<Map<String, Object>> parameters;
+    private final int rows;
+    private final long waitMillis;
+    private final long parseMillis;
+    private final long mapMillis;
+    private final boolean failed;
+
+    SlowQuery(String url, String fingerprint, List<Map<String, Object>> parameters, int rows, long waitMillis, long parseMillis, long mapMillis, boolean failed) {
+        this.url = url;
+        this.fingerprint = fingerprint;
+        this.parameters = parameters;
+        this.rows = rows;
+        this.waitMillis = waitMillis;
+        this.parseMillis = parseMillis;
+        this.mapMillis = mapMillis;
+        this.failed = failed;
+    }
+
+    public String getUrl() {
+        return url;
+    }
+
+    /**
+     * @return the statements of the request with their literals replaced by ?, separated by semicolons
+     */
+    public String getFingerprint() {
+        return fingerprint;
+    }
+
+    /**
+     * @return the parameters of each statement, with their values truncated, or replaced by ? if values are omitted
+     */
+    public List<Map<String, Object>> getParameters() {
+        return parameters;
+    }
+
+    /**
+     * @return the number of records read from the response
+     */
+    public int getRows() {
+        return rows;
+    }
+
+    /**
+     * @return the time between sending the request and the server starting its response
+     */
+    public long getWaitMillis() {
+        return waitMillis;
+    }
+
+    /**
+     * @return the time spent reading records from the response
+     */
+    public long getParseMillis() {
+        return parseMillis;
+    }
+
+    /**
+     * @return the rest of the time until the response was closed, spent mapping its records
+     */
+    public long getMapMillis() {
+        return mapMillis;
+    }
+
+    public long getTotalMillis() {
+        return waitMillis + parseMillis + mapMillis;
+    }
+
+    /**
+     * @return true if the request failed rather than being answered
+     */
+    public boolean isFailed() {
+        return failed;
+    }
+
+    @Override
+    public String toString() {
+        return "slow query: totalMs=" + getTotalMillis()
+                + " waitMs=" + waitMillis
+                + " parseMs=" + parseMillis
+                + " mapMs=" + mapMillis
+                + " rows=" + rows
+                + (failed ? " failed=true" : "")
+                + " url=" + url
+                + " fingerprint=\"" + fingerprint + "\""
+                + " parameters=" + parameters;
+    }
+}
@@ -0,0 +1,284 @@
+/*
+ * Copyright (c) 2002-2015 "Neo Technology,"
+ * Network Engine for Objects in Lund AB [http://neotechnology.com]
+ *
+ * This product is licensed to you under the Apache License, Version 2.0 (the "License").
+ * You may not use this product except in compliance with the License.
+ *
+ * This product may include a number of subcomponents with
+ * separate copyright notices and license terms. Your use of the source
+ * code for these subcomponents is subject to the terms and
+ * conditions of the subcomponent's license, as noted in the LICENSE file.
+ *
+ */
+
+package org.neo4j.ogm.session.request;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+import org.neo4j.ogm.cypher.statement.ParameterisedStatement;
+import org.neo4j.ogm.session.SlowQueryListener;
+import org.neo4j.ogm.session.response.Neo4jResponse;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Times the requests a session sends and reports those that take longer than a threshold to a
+ * {@link SlowQueryListener}, which by default logs them as warnings.
+ * <p>
+ * A request is timed from when it is sent until its response is closed. Nothing more than reading the clock is
+ * done for requests under the threshold: their statements are only fingerprinted, and their parameters only
+ * copied, once they are known to be slow and have been sampled.
+ * </p>
+ */
+public class SlowQueryLog {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(SlowQueryLog.class);
+
+    private static final SlowQueryListener LOGGING_LISTENER = new SlowQueryListener() {
+        @Override
+        public void slowQuery(SlowQuery query) {
+            LOGGER.warn("{}", query);
+        }
+    };
+
+    private static final String OMITTED = "?";
+
+    private final long thresholdNanos;
+    private final double sampleRate;
+    private final int parameterLength;
+    private final SlowQueryListener listener;
+
+    /**
+     * @param threshold the time a request must take to be reported
+     * @param unit the unit of the threshold
+     * @param sampleRate the fraction of slow requests to report, from 0 to 1
+     * @param parameterLength the number of characters of each parameter value to report, or 0 to omit values
+     * @param listener the listener to report slow requests to, or null to log them
+     */
+    public SlowQueryLog(long threshold, TimeUnit unit, double sampleRate, int parameterLength, SlowQueryListener listener) {
+        this.thresholdNanos = unit.toNanos(threshold);
+        this.sampleRate = sampleRate;
+        this.parameterLength = parameterLength;
+        this.listener = listener == null ? LOGGING_LISTENER : listener;
+    }
+
+    /**
+     * Wraps the response to a request so that the request is timed until the response is closed.
+     *
+     * @param statements the statements that were sent
+     * @param url the url they were sent to
+     * @param sentNanos the {@link System#nanoTime()} at which they were sent
+     * @param response the response to them
+     * @return a response that reports the request if it was slow once it is closed
+     */
+    public Neo4jResponse<String> monitor(List<ParameterisedStatement> statements, String url, long sentNanos, Neo4jResponse<String> response) {
+        return new TimedResponse(statements, url, sentNanos, System.nanoTime(), response);
+    }
+
+    /**
+     * Reports a request that failed, if it was slow.
+     *
+     * @param statements the statements that were sent
+     * @param url the url they were sent to
+     * @param sentNanos the {@link System#nanoTime()} at which they were sent
+     */
+    public void failed(List<ParameterisedStatement> statements, String url, long sentNanos) {
+        long now = System.nanoTime();
+        report(statements, url, 0, now - sentNanos, 0, 0, true);
+    }
+
+    private void report(List<ParameterisedStatement> statements, String url, int rows, long waitNanos, long parseNanos, long mapNanos, boolean failed) {
+        if (waitNanos + parseNanos + mapNanos < thresholdNanos) {
+            return;
+        }
+        if (sampleRate < 1.0 && ThreadLocalRandom.current().nextDouble() >= sampleRate) {
+            return;
+        }
+        StringBuilder fingerprint = new StringBuilder();
+        List<Map<String, Object>> parameters = new ArrayList<>(statements.size());
+        for (ParameterisedStatement statement : statements) {
+            if (fingerprint.length() > 0) {
+                fingerprint.append("; ");
+            }
+            fingerprint.append(fingerprint(statement.getStatement()));
+            parameters.add(parameters(statement.getParameters()));
+        }
+        try {
+            listener.slowQuery(new SlowQuery(url, fingerprint.toString(), parameters, rows,
+                    TimeUnit.NANOSECONDS.toMillis(waitNanos), TimeUnit.NANOSECONDS.toMillis(parseNanos), TimeUnit.NANOSECONDS.toMillis(mapNanos), failed));
+        } catch (RuntimeException e) {
+            LOGGER.warn("Slow query listener failed: " + e.getLocalizedMessage());
+        }
+    }
+
+    private Map<String, Object> parameters(Map<String, Object> values) {
+        Map<String, Object> parameters = new LinkedHashMap<>();
+        for (Map.Entry<String, Object> entry : values.entrySet()) {
+            Object value = entry.getValue();
+            if (parameterLength <= 0) {
+                value = OMITTED;
+            } else if (value != null) {
+                String string = String.valueOf(value);
+                value = string.length() > parameterLength ? string.substring(0, parameterLength) + "..." : string;
+            }
+            parameters.put(entry.getKey(), value);
+        }
+        return Collections.unmodifiableMap(parameters);
+    }
+
+    /**
+     * Normalises a Cypher statement so that statements differing only in their literals share a fingerprint. String and
+     * number literals are replaced by ?, lists of literals by [?], and runs of whitespace by a single space. Quoted
+     * identifiers and parameter names are kept.
+     *
+     * @param cypher the statement
+     * @return the statement with its literals removed
+     */
+    public static String fingerprint(String cypher) {
+        StringBuilder sb = new StringBuilder(cypher.length());
+        int length = cypher.length();
+        int i = 0;
+        while (i < length) {
+            char c = cypher.charAt(i);
+            if (c == '`') {
+                int end = cypher.indexOf('`', i + 1);
+                end = end < 0 ? length : end + 1;
+                sb.append(cypher, i, end);
+                i = end;
+            } else if (c == '\'' || c == '"') {
+                i = skipString(cypher, i);
+                sb.append('?');
+            } else if (Character.isDigit(c) && (i == 0 || !isIdentifierPart(cypher.charAt(i - 1)))) {
+                while (i < length && (Character.isLetterOrDigit(cypher.charAt(i)) || cypher.charAt(i) == '.')) {
+                    i++;
+                }
+                sb.append('?');
+            } else if (Character.isWhitespace(c)) {
+                while (i < length && Character.isWhitespace(cypher.charAt(i))) {
+                    i++;
+                }
+                if (sb.length() > 0) {
+                    sb.append(' ');
+                }
+            } else {
+                sb.append(c);
+                i++;
+            }
+        }
+        return collapseLists(sb.toString().trim());
+    }
+
+    private static int skipString(String cypher, int start) {
+        char quote = cypher.charAt(start);
+        int i = start + 1;
+        while (i < cypher.length()) {
+            char c = cypher.charAt(i);
+            if (c == '\\') {
+                i += 2;
+            } else if (c == quote) {
+                return i + 1;
+            } else {
+                i++;
+            }
+        }
+        return i;
+    }
+
+    private static boolean isIdentifierPart(char c) {
+        return Character.isLetterOrDigit(c) || c == '_' || c == '$';
+    }
+
+    private static String collapseLists(String fingerprint) {
+        return fingerprint.replaceAll("\\[\\s*\\?(\\s*,\\s*\\?)*\\s*\\]", "[?]");
+    }
+
+    private class TimedResponse implements Neo4jResponse<String> {
+
+        private final List<ParameterisedStatement> statements;
+        private final String url;
+        private final long sentNanos;
+        private final long respondedNanos;
+        private final Neo4jResponse<String> response;
+        private long parseNanos;
+        private int rows;
+        private boolean reported;
+
+        TimedResponse(List<ParameterisedStatement> statements, String url, long sentNanos, long respondedNanos, Neo4jResponse<String> response) {
+            this.statements = statements;
+            this.url = url;
+            this.sentNanos = sentNanos;
+            this.respondedNanos = respondedNanos;
+            this.response = response;
+        }
+
+        @Override
+        public String next() {
+            long start = System.nanoTime();
+            String record;
+            try {
+                record = response.next();
+            } catch (RuntimeException e) {
+                failed(start);
+                throw e;
+            }
+            parseNanos += System.nanoTime() - start;
+            if (record != null) {
+                rows++;
+            }
+            return record;
+        }
+
+        @Override
+        public void close() {
+            try {
+                response.close();
+            } finally {
+                report(false);
+            }
+        }
+
+        @Override
+        public void initialiseScan(ResponseRecord record) {
+            long start = System.nanoTime();
+            try {
+                response.initialiseScan(record);
+            } catch (RuntimeException e) {
+                failed(start);
+                throw e;
+            }
+            parseNanos += System.nanoTime() - start;
+        }
+
+        @Override
+        public String[] columns() {
+            return response.columns();
+        }
+
+        @Override
+        public int rowId() {
+            return response.rowId();
+        }
+
+        // the response may never be closed once reading it has failed, so it is reported at once
+        private void failed(long start) {
+            parseNanos += System.nanoTime() - start;
+            report(true);
+        }
+
+        private void report(boolean failed) {
+            if (!reported) {
+                reported = true;
+                long waitNanos = respondedNanos - sentNanos;
+                long mapNanos = Math.max(0, System.nanoTime() - respondedNanos - parseNanos);
+                SlowQueryLog.this.report(statements, url, rows, waitNanos, parseNanos, mapNanos, failed);
+            }
+        }
+    }
+}
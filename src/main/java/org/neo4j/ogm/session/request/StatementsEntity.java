@@ -0,0 +1,99 @@
+/*
+ * Copyright (c) 2002-2015 "Neo Technology,"
+ * Network Engine for Objects in Lund AB [http://neotechnology.com]
+ *
+ * This product is licensed to you under the Apache License, Version 2.0 (the "License").
+ * You may not use this product except in compliance with the License.
+ *
+ * This product may include a number of subcomponents with
+ * separate copyright notices and license terms. Your use of the source
+ * code for these subcomponents is subject to the terms and
+ * conditions of the subcomponent's license, as noted in the LICENSE file.
+ *
+ */
+package org.neo4j.ogm.session.request;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+
+import com.fasterxml.jackson.core.JsonEncoding;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.apache.http.entity.AbstractHttpEntity;
+import org.apache.http.entity.ContentType;
+import org.neo4j.ogm.cypher.statement.ParameterisedStatements;
+import org.neo4j.ogm.metadata.MappingException;
+
+/**
+ * A request body that serialises a set of statements straight into the HTTP connection as they are
+ * sent, using chunked transfer encoding, instead of building the whole JSON document in memory first.
+ */
+public class StatementsEntity extends AbstractHttpEntity {
+
+    private final ObjectMapper mapper;
+    private final ParameterisedStatements statements;
+
+    public StatementsEntity(ObjectMapper mapper, ParameterisedStatements statements) {
+        this.mapper = mapper;
+        this.statements = statements;
+        setContentType(ContentType.APPLICATION_JSON.toString());
+        setChunked(true);
+    }
+
+    @Override
+    public void writeTo(OutputStream outputStream) throws IOException {
+        // the connection owns the stream, so the generator must leave it open
+        JsonGenerator generator = mapper.getFactory().createGenerator(outputStream, JsonEncoding.UTF8);
+        generator.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+        try {
+            mapper.writeValue(generator, statements);
+        } finally {
+            generator.close();
+        }
+    }
+
+    /**
+     * Serialises the statements to a string. This copies the whole payload, so it should only be used
+     * for logging or by requests that cannot stream.
+     *
+     * @return the statements as JSON
+     */
+    public String toJson() {
+        try {
+            return mapper.writeValueAsString(statements);
+        } catch (JsonProcessingException jpe) {
+            throw new MappingException("Could not create JSON due to " + jpe.getLocalizedMessage(), jpe);
+        }
+    }
+
+    @Override
+    public InputStream getContent() throws IOException {
+        return new ByteArrayInputStream(mapper.writeValueAsBytes(statements));
+    }
+
+    @Override
+    public long getContentLength() {
+        return -1;
+    }
+
+    @Override
+    public boolean isRepeatable() {
+        return true;
+    }
+
+    @Override
+    public boolean isStreaming() {
+        return false;
+    }
+
+    /**
+     * @return how many statements there are, rather than the statements themselves, which would copy the payload
+     */
+    @Override
+    public String toString() {
+        return statements.getStatements().size() + " statements";
+    }
+}
@@ -0,0 +1,26 @@
+/*
+ * Copyright (c) 2002-2015 "Neo Technology,"
+ * Network Engine for Objects in Lund AB [http://neotechnology.com]
+ *
+ * This product is licensed to you under the Apache License, Version 2.0 (the "License").
+ * You may not use this product except in compliance with the License.
+ *
+ * This product may include a number of subcomponents with
+ * separate copyright notices and license terms. Your use of the source
+ * code for these subcomponents is subject to the terms and
+ * conditions of the subcomponent's license, as noted in the LICENSE file.
+ *
+ */
+package org.neo4j.ogm.session.request;
+
+import org.neo4j.ogm.session.response.Neo4jResponse;
+
+/**
+ * Implemented by {@link Neo4jRequest}s that can write statements into the request body as it is sent,
+ * without first serialising them to a string.
+ */
+public interface StreamingRequest {
+
+    Neo4jResponse<String> execute(String url, StatementsEntity statements);
+
+}
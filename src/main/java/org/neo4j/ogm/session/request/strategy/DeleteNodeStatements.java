@@ -15,6 +15,7 @@ package org.neo4j.ogm.session.request.strategy;
 
 import java.util.Collection;
 
+import org.neo4j.ogm.cypher.query.RowModelQueryWithStatistics;
 import org.neo4j.ogm.cypher.statement.ParameterisedStatement;
 import org.neo4j.ogm.session.Utils;
 
@@ -38,4 +39,8 @@ public class DeleteNodeStatements implements DeleteStatements{
     public ParameterisedStatement deleteByType(String label) {
         return new ParameterisedStatement(String.format("MATCH (n:`%s`) OPTIONAL MATCH (n)-[r]-() DELETE r, n", label), Utils.map());
     }
+
+    public RowModelQueryWithStatistics deleteByType(String label, int limit) {
+        return new RowModelQueryWithStatistics(String.format("MATCH (n:`%s`) WITH n LIMIT { limit } OPTIONAL MATCH (n)-[r]-() DELETE r, n", label), Utils.map("limit", limit));
+    }
 }
@@ -16,6 +16,7 @@ package org.neo4j.ogm.session.request.strategy;
 
 import java.util.Collection;
 
+import org.neo4j.ogm.cypher.query.RowModelQueryWithStatistics;
 import org.neo4j.ogm.cypher.statement.ParameterisedStatement;
 import org.neo4j.ogm.session.Utils;
 
@@ -38,4 +39,8 @@ public class DeleteRelationshipStatements implements DeleteStatements {
     public ParameterisedStatement deleteByType(String type) {
         return new ParameterisedStatement(String.format("MATCH (n)-[r:`%s`]-() DELETE r", type), Utils.map());
     }
+
+    public RowModelQueryWithStatistics deleteByType(String type, int limit) {
+        return new RowModelQueryWithStatistics(String.format("MATCH (n)-[r:`%s`]->() WITH r LIMIT { limit } DELETE r", type), Utils.map("limit", limit));
+    }
 }
@@ -16,6 +16,7 @@ package org.neo4j.ogm.session.request.strategy;
 
 import java.util.Collection;
 
+import org.neo4j.ogm.cypher.query.RowModelQueryWithStatistics;
 import org.neo4j.ogm.cypher.statement.ParameterisedStatement;
 
 /**
@@ -32,4 +33,10 @@ public interface DeleteStatements {
 
     ParameterisedStatement deleteByType(String label);
 
+    /**
+     * @return a statement that deletes at most the given number of entities of the given type, with statistics
+     * so that the number actually deleted can be read from the response
+     */
+    RowModelQueryWithStatistics deleteByType(String label, int limit);
+
 }
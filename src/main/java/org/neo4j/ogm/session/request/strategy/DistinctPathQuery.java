@@ -0,0 +1,88 @@
+/*
+ * Copyright (c) 2002-2015 "Neo Technology,"
+ * Network Engine for Objects in Lund AB [http://neotechnology.com]
+ *
+ * This product is licensed to you under the Apache License, Version 2.0 (the "License").
+ * You may not use this product except in compliance with the License.
+ *
+ * This product may include a number of subcomponents with
+ * separate copyright notices and license terms. Your use of the source
+ * code for these subcomponents is subject to the terms and
+ * conditions of the subcomponent's license, as noted in the LICENSE file.
+ *
+ */
+
+package org.neo4j.ogm.session.request.strategy;
+
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Map;
+
+import org.neo4j.ogm.cypher.Filters;
+import org.neo4j.ogm.cypher.query.GraphModelQuery;
+import org.neo4j.ogm.cypher.query.GraphRowModelQuery;
+import org.neo4j.ogm.cypher.query.Query;
+import org.neo4j.ogm.session.Utils;
+
+/**
+ * A variant of {@link VariableDepthQuery} that returns the distinct nodes and relationships reachable
+ * from the matched nodes, rather than every path to them. Nodes and relationships that lie on many
+ * paths are therefore sent over the wire only once.
+ */
+public class DistinctPathQuery extends VariableDepthQuery {
+
+    // every node and every relationship on a path from n is the end of some (shorter or equal) path from n,
+    // since the paths we match start at length 0.
+    private static final String DISTINCT_RETURN = " RETURN collect(DISTINCT m), collect(DISTINCT last(relationships(p)))";
+
+    @Override
+    public Query findOne(Long id, int depth) {
+        if (depth == 0) {
+            return super.findOne(id, depth);
+        }
+        return new GraphModelQuery("MATCH (n) WHERE id(n) = { id } WITH n MATCH p=(n)-[" + range(depth) + "]-(m)" + DISTINCT_RETURN, Utils.map("id", id));
+    }
+
+    @Override
+    public Query findAll(Collection<Long> ids, int depth) {
+        if (depth == 0) {
+            return super.findAll(ids, depth);
+        }
+        return new GraphModelQuery("MATCH (n) WHERE id(n) in { ids } WITH n MATCH p=(n)-[" + range(depth) + "]-(m)" + DISTINCT_RETURN, Utils.map("ids", ids));
+    }
+
+    @Override
+    public Query findAllByType(String label, Collection<Long> ids, int depth) {
+        if (depth == 0) {
+            return super.findAllByType(label, ids, depth);
+        }
+        String qry = String.format("MATCH (n:`%s`) WHERE id(n) in { ids } WITH n MATCH p=(n)-[%s]-(m)", label, range(depth)) + DISTINCT_RETURN;
+        return new GraphModelQuery(qry, Utils.map("ids", ids));
+    }
+
+    @Override
+    public Query findByType(String label, int depth) {
+        if (depth == 0) {
+            return super.findByType(label, depth);
+        }
+        String qry = String.format("MATCH (n:`%s`) WITH n MATCH p=(n)-[%s]-(m)", label, range(depth)) + DISTINCT_RETURN;
+        return new GraphModelQuery(qry, Utils.map());
+    }
+
+    @Override
+    public Query findByProperties(String label, Filters parameters, int depth) {
+        if (depth == 0) {
+            return super.findByProperties(label, parameters, depth);
+        }
+        // the id of each matched node must come back in its own row, so here we aggregate per matched node
+        Map<String, Object> properties = new HashMap<>();
+        StringBuilder query = constructQuery(label, parameters, properties);
+        query.append(String.format("WITH n MATCH p=(n)-[%s]-(m)", range(depth)));
+        query.append(DISTINCT_RETURN).append(", ID(n)");
+        return new GraphRowModelQuery(query.toString(), properties);
+    }
+
+    private String range(int depth) {
+        return depth < 0 ? "*0.." : "*0.." + depth;
+    }
+}
@@ -0,0 +1,47 @@
+/*
+ * Copyright (c) 2002-2015 "Neo Technology,"
+ * Network Engine for Objects in Lund AB [http://neotechnology.com]
+ *
+ * This product is licensed to you under the Apache License, Version 2.0 (the "License").
+ * You may not use this product except in compliance with the License.
+ *
+ * This product may include a number of subcomponents with
+ * separate copyright notices and license terms. Your use of the source
+ * code for these subcomponents is subject to the terms and
+ * conditions of the subcomponent's license, as noted in the LICENSE file.
+ *
+ */
+
+package org.neo4j.ogm.session.request.strategy;
+
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Map;
+
+import org.neo4j.ogm.cypher.query.FanOutLimit;
+import org.neo4j.ogm.cypher.query.GraphRowModelQuery;
+
+/**
+ * Encapsulates the Cypher statement used to expand a set of nodes by a single hop, keeping
+ * at most a fixed number of relationships of each type for each node.
+ *
+ * Each row of the result describes one (node, relationship type) pair. The row columns are
+ * the node, the retained relationships, the nodes at the other end of them, the node id,
+ * the relationship type and the total number of relationships of that type on the node.
+ */
+public class FanOutStatements {
+
+    public static final int NODE_ID_COLUMN = 3;
+    public static final int TYPE_COLUMN = 4;
+    public static final int COUNT_COLUMN = 5;
+
+    public GraphRowModelQuery expand(Collection<Long> ids, FanOutLimit fanOutLimit) {
+        String qry = "MATCH (n) WHERE id(n) IN { ids } OPTIONAL MATCH (n)-[r]-(m) WITH n, r, m" + fanOutLimit.orderBy("r")
+                + " WITH n, type(r) AS t, collect(r) AS rs, collect(m) AS ms"
+                + " RETURN n, rs[0..{ limit }], ms[0..{ limit }], ID(n), t, length(rs)";
+        Map<String, Object> parameters = new HashMap<>();
+        parameters.put("ids", ids);
+        parameters.put("limit", fanOutLimit.getLimit());
+        return new GraphRowModelQuery(qry, parameters);
+    }
+}
@@ -0,0 +1,56 @@
+/*
+ * Copyright (c) 2002-2015 "Neo Technology,"
+ * Network Engine for Objects in Lund AB [http://neotechnology.com]
+ *
+ * This product is licensed to you under the Apache License, Version 2.0 (the "License").
+ * You may not use this product except in compliance with the License.
+ *
+ * This product may include a number of subcomponents with
+ * separate copyright notices and license terms. Your use of the source
+ * code for these subcomponents is subject to the terms and
+ * conditions of the subcomponent's license, as noted in the LICENSE file.
+ *
+ */
+package org.neo4j.ogm.session.request.strategy;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+
+import org.neo4j.ogm.cypher.query.RowModelQuery;
+import org.neo4j.ogm.session.Utils;
+
+/**
+ * Encapsulates the Cypher statements used to import batches of new entities. Each statement unwinds a list of
+ * rows, one for each entity, and returns the id of the node or relationship created for each row, in order.
+ */
+public class ImportStatements {
+
+    public RowModelQuery createNodes(Collection<String> labels, List<Map<String, Object>> rows) {
+        return new RowModelQuery(String.format("UNWIND { rows } AS row CREATE (n%s) SET n = row RETURN id(n)", cypherLabels(labels)),
+                Utils.map("rows", rows));
+    }
+
+    public RowModelQuery mergeNodes(String label, String key, Collection<String> labels, List<Map<String, Object>> rows) {
+        return new RowModelQuery(String.format("UNWIND { rows } AS row MERGE (n:`%s` { `%s`: row.`%s` }) SET n%s, n += row RETURN id(n)",
+                label, key, key, cypherLabels(labels)), Utils.map("rows", rows));
+    }
+
+    public RowModelQuery createRelationships(String type, List<Map<String, Object>> rows) {
+        return new RowModelQuery(String.format("UNWIND { rows } AS row MATCH (a) WHERE id(a) = row.start MATCH (b) WHERE id(b) = row.end " +
+                "CREATE (a)-[r:`%s`]->(b) SET r = row.props RETURN id(r)", type), Utils.map("rows", rows));
+    }
+
+    public RowModelQuery mergeRelationships(String type, List<Map<String, Object>> rows) {
+        return new RowModelQuery(String.format("UNWIND { rows } AS row MATCH (a) WHERE id(a) = row.start MATCH (b) WHERE id(b) = row.end " +
+                "MERGE (a)-[r:`%s`]->(b) SET r += row.props RETURN id(r)", type), Utils.map("rows", rows));
+    }
+
+    private static String cypherLabels(Collection<String> labels) {
+        StringBuilder cypherLabels = new StringBuilder();
+        for (String label : labels) {
+            cypherLabels.append(":`").append(label).append('`');
+        }
+        return cypherLabels.toString();
+    }
+}
@@ -0,0 +1,27 @@
+/*
+ * Copyright (c) 2002-2015 "Neo Technology,"
+ * Network Engine for Objects in Lund AB [http://neotechnology.com]
+ *
+ * This product is licensed to you under the Apache License, Version 2.0 (the "License").
+ * You may not use this product except in compliance with the License.
+ *
+ * This product may include a number of subcomponents with
+ * separate copyright notices and license terms. Your use of the source
+ * code for these subcomponents is subject to the terms and
+ * conditions of the subcomponent's license, as noted in the LICENSE file.
+ *
+ */
+
+package org.neo4j.ogm.session.request.strategy;
+
+/**
+ * Selects the shape of the Cypher used to load node entities to a given depth.
+ */
+public enum LoadStrategy {
+
+    /** return every path from the matched nodes (see {@link VariableDepthQuery}) */
+    PATHS,
+
+    /** return the distinct nodes and relationships reachable from the matched nodes (see {@link DistinctPathQuery}) */
+    DISTINCT_SETS
+}
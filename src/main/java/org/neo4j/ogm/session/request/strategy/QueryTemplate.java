@@ -0,0 +1,113 @@
+/*
+ * Copyright (c) 2002-2015 "Neo Technology,"
+ * Network Engine for Objects in Lund AB [http://neotechnology.com]
+ *
+ * This product is licensed to you under the Apache License, Version 2.0 (the "License").
+ * You may not use this product except in compliance with the License.
+ *
+ * This product may include a number of subcomponents with
+ * separate copyright notices and license terms. Your use of the source
+ * code for these subcomponents is subject to the terms and
+ * conditions of the subcomponent's license, as noted in the LICENSE file.
+ *
+ */
+package org.neo4j.ogm.session.request.strategy;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+
+import org.neo4j.ogm.cypher.Filter;
+import org.neo4j.ogm.cypher.Filters;
+import org.neo4j.ogm.cypher.query.GraphModelQuery;
+import org.neo4j.ogm.cypher.query.GraphRowModelQuery;
+import org.neo4j.ogm.cypher.query.Pagination;
+import org.neo4j.ogm.cypher.query.Query;
+
+/**
+ * The compiled Cypher for one shape of filtered load, including its sorting and paging, together with the names of
+ * the parameters its filters are bound to. Binding a template to new filter values builds no Cypher.
+ */
+public class QueryTemplate {
+
+    private final String statement;
+    private final boolean rowModel;
+    private final List<String> parameterNames;
+    private final List<String> filteredLabels;
+    private final List<String> filteredProperties;
+
+    /**
+     * Compiles a template from a query built for the given filters, once their property names have been resolved.
+     *
+     * @param query The query, with its sort order and pagination set
+     * @param filters The filters the query was built from
+     * @param label The label or relationship type being loaded
+     * @param relationshipEntity Whether a relationship entity is being loaded
+     */
+    public QueryTemplate(Query query, Filters filters, String label, boolean relationshipEntity) {
+        this.statement = query.getStatement();
+        this.rowModel = query instanceof GraphRowModelQuery;
+
+        List<String> parameterNames = new ArrayList<>();
+        List<String> filteredLabels = new ArrayList<>();
+        List<String> filteredProperties = new ArrayList<>();
+        for (Filter filter : filters) {
+            if (filter.isNested()) {
+                // named as VariableDepthQuery and VariableDepthRelationshipQuery name the parameters of nested filters
+                parameterNames.add(filter.getNestedPropertyName() + "_" + filter.getPropertyName());
+                filteredLabels.add(filter.isNestedRelationshipEntity() ? null : filter.getNestedEntityTypeLabel());
+            } else {
+                parameterNames.add(filter.getPropertyName());
+                filteredLabels.add(relationshipEntity ? null : label);
+            }
+            filteredProperties.add(filter.getPropertyName());
+        }
+        this.parameterNames = Collections.unmodifiableList(parameterNames);
+        this.filteredLabels = Collections.unmodifiableList(filteredLabels);
+        this.filteredProperties = Collections.unmodifiableList(filteredProperties);
+    }
+
+    /**
+     * Creates a query from this template for filters of the same shape as those it was compiled from.
+     *
+     * @param filters The filters whose values are to be bound
+     * @param pagination The page to load, or null if the template was compiled without paging
+     * @return a query ready to be executed
+     */
+    public Query bind(Filters filters, Pagination pagination) {
+        Map<String, Object> parameters = new HashMap<>();
+        Iterator<String> names = parameterNames.iterator();
+        for (Filter filter : filters) {
+            parameters.put(names.next(), filter.getPropertyValue());
+        }
+        if (pagination != null) {
+            parameters.put(Pagination.SKIP, pagination.getSkip());
+            parameters.put(Pagination.LIMIT, pagination.getLimit());
+        }
+        if (rowModel) {
+            return new GraphRowModelQuery(statement, parameters);
+        }
+        return new GraphModelQuery(statement, parameters);
+    }
+
+    public String statement() {
+        return statement;
+    }
+
+    /**
+     * @return the label of the nodes each filter applies to, or null where a filter applies to a relationship
+     */
+    public List<String> filteredLabels() {
+        return filteredLabels;
+    }
+
+    /**
+     * @return the property each filter applies to
+     */
+    public List<String> filteredProperties() {
+        return filteredProperties;
+    }
+}
@@ -0,0 +1,95 @@
+/*
+ * Copyright (c) 2002-2015 "Neo Technology,"
+ * Network Engine for Objects in Lund AB [http://neotechnology.com]
+ *
+ * This product is licensed to you under the Apache License, Version 2.0 (the "License").
+ * You may not use this product except in compliance with the License.
+ *
+ * This product may include a number of subcomponents with
+ * separate copyright notices and license terms. Your use of the source
+ * code for these subcomponents is subject to the terms and
+ * conditions of the subcomponent's license, as noted in the LICENSE file.
+ *
+ */
+package org.neo4j.ogm.session.request.strategy;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.neo4j.ogm.cypher.Filter;
+import org.neo4j.ogm.cypher.Filters;
+import org.neo4j.ogm.cypher.query.Pagination;
+import org.neo4j.ogm.cypher.query.SortOrder;
+
+/**
+ * Holds the {@link QueryTemplate}s of filtered loads, keyed by the shape of the load: the strategy and type,
+ * the property, comparison and boolean operator of each filter, the depth, the sort order and whether the load
+ * is paged. Loads of the same shape share both the template and the Cypher text, so the server can reuse its plan.
+ */
+public class QueryTemplateCache {
+
+    // the number of shapes in use is bounded by the code that loads, so running out means something is generating them
+    private static final int MAX_TEMPLATES = 1024;
+
+    private final ConcurrentMap<String, QueryTemplate> templates = new ConcurrentHashMap<>();
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+
+    /**
+     * Creates the key of a filtered load. The filters must not yet have had their property names resolved.
+     */
+    public static String shape(QueryStatements strategy, Class<?> type, Filters filters, SortOrder sortOrder, Pagination pagination, int depth) {
+        StringBuilder shape = new StringBuilder(strategy.getClass().getName())
+                .append('|').append(type.getName())
+                .append('|').append(depth);
+        for (Filter filter : filters) {
+            shape.append('|');
+            if (filter.getOwnerEntityType() != null) {
+                shape.append(filter.getOwnerEntityType().getName()).append('.');
+            }
+            if (filter.isNested()) {
+                shape.append(filter.getNestedPropertyName()).append(':').append(filter.getNestedPropertyType()).append('.');
+            }
+            shape.append(filter.getPropertyName())
+                    .append(' ').append(filter.getComparisonOperator())
+                    .append(' ').append(filter.getBooleanOperator());
+        }
+        return shape.append('|').append(sortOrder)
+                .append('|').append(pagination != null)
+                .toString();
+    }
+
+    public QueryTemplate get(String shape) {
+        QueryTemplate template = templates.get(shape);
+        if (template == null) {
+            misses.incrementAndGet();
+        } else {
+            hits.incrementAndGet();
+        }
+        return template;
+    }
+
+    public void put(String shape, QueryTemplate template) {
+        if (templates.size() >= MAX_TEMPLATES) {
+            templates.clear();
+        }
+        templates.put(shape, template);
+    }
+
+    public long hits() {
+        return hits.get();
+    }
+
+    public long misses() {
+        return misses.get();
+    }
+
+    public int size() {
+        return templates.size();
+    }
+
+    public void clear() {
+        templates.clear();
+    }
+}
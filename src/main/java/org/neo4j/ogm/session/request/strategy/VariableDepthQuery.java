@@ -114,7 +114,7 @@ public class VariableDepthQuery implements QueryStatements {
         }
     }
 
-    private static StringBuilder constructQuery(String label, Filters filters, Map<String, Object> properties) {
+    static StringBuilder constructQuery(String label, Filters filters, Map<String, Object> properties) {
         Map<String, StringBuilder> matchClauses = new LinkedHashMap<>(); //All individual MATCH classes, grouped by node label
         Map<String, String> matchClauseIdentifiers = new HashMap<>(); //Mapping of the node label to the identifier used in the query
         List<StringBuilder> relationshipClauses = new ArrayList<>(); //All relationship clauses
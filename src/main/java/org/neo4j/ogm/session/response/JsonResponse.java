@@ -15,6 +15,8 @@
 package org.neo4j.ogm.session.response;
 
 import org.apache.http.client.methods.CloseableHttpResponse;
+import org.apache.http.client.methods.HttpRequestBase;
+import org.neo4j.ogm.session.request.Deadline;
 import org.neo4j.ogm.session.result.ResultProcessingException;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -47,14 +49,29 @@ public class JsonResponse implements Neo4jResponse<String> {
     private final InputStream results;
     private final Scanner scanner;
     private final CloseableHttpResponse response;
+    private final String location;
+    private final Deadline deadline;
+    private final HttpRequestBase request;
     private String scanToken = null;
     private String[] columns;
     private int currentRow = -1;
 
 
     public JsonResponse(CloseableHttpResponse response) {
+        this(response, null, null);
+    }
+
+    /**
+     * @param response the response to read
+     * @param deadline the deadline the request was made under, which it is released from once the response is closed, or null
+     * @param request the request the response answers
+     */
+    public JsonResponse(CloseableHttpResponse response, Deadline deadline, HttpRequestBase request) {
         try {
             this.response = response;
+            this.deadline = deadline;
+            this.request = request;
+            this.location = response.containsHeader("Location") ? response.getFirstHeader("Location").getValue() : null;
             this.results = response.getEntity().getContent();
             this.scanner = new Scanner(results, "UTF-8");
         } catch (IOException ioException) {
@@ -64,6 +81,9 @@ public class JsonResponse implements Neo4jResponse<String> {
 
     public JsonResponse(InputStream inputStream)  {
         this.response = null;
+        this.location = null;
+        this.deadline = null;
+        this.request = null;
         this.results = inputStream;
         this.scanner = new Scanner(results, "UTF-8");
     }
@@ -106,6 +126,12 @@ public class JsonResponse implements Neo4jResponse<String> {
             return record;
 
         } catch (NoSuchElementException e) {
+            // the scanner takes a failure to read as the end of the response, which would silently truncate it
+            IOException ioException = scanner.ioException();
+            if (ioException != null) {
+                RuntimeException failure = deadline == null ? null : deadline.failure(ioException);
+                throw failure != null ? failure : new ResultProcessingException("Failed to read response", ioException);
+            }
             return null;
         }
     }
@@ -119,9 +145,20 @@ public class JsonResponse implements Neo4jResponse<String> {
             }
         } catch (Exception e) {
             throw new RuntimeException(e);
+        } finally {
+            if (deadline != null) {
+                deadline.release(request);
+            }
         }
     }
 
+    /**
+     * @return the url of the transaction the server began to run this request, or null if it did not begin one
+     */
+    public String location() {
+        return location;
+    }
+
     public String[] columns() {
         return this.columns;
     }
@@ -0,0 +1,118 @@
+/*
+ * Copyright (c) 2002-2015 "Neo Technology,"
+ * Network Engine for Objects in Lund AB [http://neotechnology.com]
+ *
+ * This product is licensed to you under the Apache License, Version 2.0 (the "License").
+ * You may not use this product except in compliance with the License.
+ *
+ * This product may include a number of subcomponents with
+ * separate copyright notices and license terms. Your use of the source
+ * code for these subcomponents is subject to the terms and
+ * conditions of the subcomponent's license, as noted in the LICENSE file.
+ *
+ */
+
+package org.neo4j.ogm.session.response;
+
+import java.util.Iterator;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.neo4j.ogm.model.GraphModel;
+import org.neo4j.ogm.session.result.StatementResult;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * The {@link Neo4jResponse} to a request containing several statements. Each call to {@link #next()}
+ * returns the results of the next statement, in the order the statements were sent.
+ */
+public class MultiStatementResponse implements Neo4jResponse<StatementResult> {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(MultiStatementResponse.class);
+
+    private final ObjectMapper objectMapper;
+    private final Neo4jResponse<String> response;
+
+    private Iterator<JsonNode> results;
+    private String[] columns;
+    private int statement = -1;
+
+    public MultiStatementResponse(Neo4jResponse<String> response, ObjectMapper objectMapper) {
+        this.response = response;
+        this.objectMapper = objectMapper;
+        try {
+            initialiseScan(ResponseRecord.RESULTS);
+        } catch (Exception e) {
+            //Ignore this exception since we're reading the whole results array in next()
+        }
+    }
+
+    @Override
+    public StatementResult next() {
+        if (results == null) {
+            String json = response.next();
+            if (json == null) {
+                return null;
+            }
+            results = readResults(json).iterator();
+        }
+        if (!results.hasNext()) {
+            return null;
+        }
+
+        JsonNode result = results.next();
+        statement++;
+        try {
+            columns = objectMapper.treeToValue(result.get("columns"), String[].class);
+            StatementResult statementResult = new StatementResult(columns);
+            for (JsonNode data : result.get("data")) {
+                if (data.has("graph")) {
+                    statementResult.addGraph(objectMapper.treeToValue(data.get("graph"), GraphModel.class));
+                }
+                if (data.has("row")) {
+                    statementResult.addRow(objectMapper.treeToValue(data.get("row"), Object[].class));
+                }
+            }
+            return statementResult;
+        } catch (Exception e) {
+            LOGGER.error("failed to parse: " + result);
+            throw new RuntimeException(e);
+        }
+    }
+
+    @Override
+    public void close() {
+        response.close();
+    }
+
+    @Override
+    public void initialiseScan(ResponseRecord record) {
+        response.initialiseScan(record);
+    }
+
+    @Override
+    public String[] columns() {
+        return columns;
+    }
+
+    @Override
+    public int rowId() {
+        return statement;
+    }
+
+    private JsonNode readResults(String json) {
+        JsonNode outerObject;
+        try {
+            outerObject = objectMapper.readTree(json);
+        } catch (Exception e) {
+            try {
+                outerObject = objectMapper.readTree(json + "]}"); // the scanner strips the end of the results array
+            } catch (Exception e2) {
+                LOGGER.error("failed to parse: " + json);
+                throw new RuntimeException(e2);
+            }
+        }
+        return outerObject.get("results");
+    }
+}
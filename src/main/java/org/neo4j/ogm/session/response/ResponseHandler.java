@@ -18,8 +18,10 @@ import com.fasterxml.jackson.databind.ObjectMapper;
 import org.neo4j.ogm.cypher.compiler.CypherContext;
 import org.neo4j.ogm.model.GraphModel;
 import org.neo4j.ogm.session.result.GraphRowModel;
+import org.neo4j.ogm.session.result.StatementResult;
 
 import java.util.Collection;
+import java.util.List;
 
 /**
  * @author Vince Bickers
@@ -29,7 +31,10 @@ public interface ResponseHandler {
 
     <T> T loadById(Class<T> type, Neo4jResponse<GraphModel> stream, Long id);
     <T> Collection<T> loadAll(Class<T> type, Neo4jResponse<GraphModel> stream);
+    <T> Collection<T> loadAll(Class<T> type, Iterable<GraphModel> graphModels);
     <T> Collection<T> loadByProperty(Class<T> type, Neo4jResponse<GraphRowModel> stream);
+    Collection<Long> expand(Neo4jResponse<GraphRowModel> stream, int fanOutLimit);
 
     void updateObjects(CypherContext context, Neo4jResponse<String> response, ObjectMapper mapper);
+    void updateObjects(CypherContext context, List<StatementResult> results);
 }
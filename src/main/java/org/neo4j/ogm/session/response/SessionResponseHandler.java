@@ -14,23 +14,25 @@
 
 package org.neo4j.ogm.session.response;
 
-import java.lang.reflect.Field;
 import java.util.*;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
 import org.neo4j.ogm.annotation.RelationshipEntity;
 import org.neo4j.ogm.cypher.compiler.CypherContext;
-import org.neo4j.ogm.entityaccess.FieldWriter;
 import org.neo4j.ogm.mapper.GraphEntityMapper;
 import org.neo4j.ogm.mapper.MappedRelationship;
 import org.neo4j.ogm.mapper.MappingContext;
+import org.neo4j.ogm.mapper.ParallelHydration;
 import org.neo4j.ogm.mapper.TransientRelationship;
 import org.neo4j.ogm.metadata.MetaData;
 import org.neo4j.ogm.metadata.info.ClassInfo;
 import org.neo4j.ogm.model.GraphModel;
+import org.neo4j.ogm.model.NodeModel;
+import org.neo4j.ogm.session.request.strategy.FanOutStatements;
 import org.neo4j.ogm.session.result.GraphRowModel;
 import org.neo4j.ogm.session.result.GraphRowResult;
 import org.neo4j.ogm.session.result.RowModel;
+import org.neo4j.ogm.session.result.StatementResult;
 
 /**
  *  @author Vince Bickers
@@ -40,10 +42,16 @@ public class SessionResponseHandler implements ResponseHandler {
 
     private final MetaData metaData;
     private final MappingContext mappingContext;
+    private final ParallelHydration parallelHydration;
 
     public SessionResponseHandler(MetaData metaData, MappingContext mappingContext) {
+        this(metaData, mappingContext, null);
+    }
+
+    public SessionResponseHandler(MetaData metaData, MappingContext mappingContext, ParallelHydration parallelHydration) {
         this.metaData = metaData;
         this.mappingContext = mappingContext;
+        this.parallelHydration = parallelHydration;
     }
 
     @Override
@@ -53,11 +61,16 @@ public class SessionResponseHandler implements ResponseHandler {
         Set<Long> resultEntityIds = new LinkedHashSet<>();
         ClassInfo classInfo = metaData.classInfo(type.getName());
         GraphRowModel graphRowModel = response.next();
+        GraphEntityMapper ogm = new GraphEntityMapper(metaData, mappingContext, parallelHydration);
+
+        //Load the GraphModels into the ogm
+        List<GraphModel> graphModels = new ArrayList<>();
+        for (GraphRowResult graphRowResult : graphRowModel.getGraphRowResults()) {
+            graphModels.add(graphRowResult.getGraph());
+        }
+        ogm.mapAll(type, graphModels);
 
         for(GraphRowResult graphRowResult : graphRowModel.getGraphRowResults()) {
-            //Load the GraphModel into the ogm
-            GraphEntityMapper ogm = new GraphEntityMapper(metaData, mappingContext);
-            ogm.map(type, graphRowResult.getGraph());
             //Extract the id's of filtered nodes from the rowData and return them
             Object[] rowData = graphRowResult.getRow();
             for (Object data : rowData) {
@@ -81,6 +94,35 @@ public class SessionResponseHandler implements ResponseHandler {
         return result;
     }
 
+    @Override
+    public Collection<Long> expand(Neo4jResponse<GraphRowModel> response, int fanOutLimit) {
+
+        Set<Long> reachedNodeIds = new LinkedHashSet<>();
+        GraphEntityMapper ogm = new GraphEntityMapper(metaData, mappingContext);
+        GraphRowModel graphRowModel = response.next();
+
+        for (GraphRowResult graphRowResult : graphRowModel.getGraphRowResults()) {
+            GraphModel graphModel = graphRowResult.getGraph();
+            ogm.map(Object.class, graphModel);
+            for (NodeModel nodeModel : graphModel.getNodes()) {
+                reachedNodeIds.add(nodeModel.getId());
+            }
+            // flag the (node, type) pairs that had more relationships than we loaded
+            Object[] rowData = graphRowResult.getRow();
+            Object type = rowData[FanOutStatements.TYPE_COLUMN];
+            if (type != null) {
+                Long nodeId = ((Number) rowData[FanOutStatements.NODE_ID_COLUMN]).longValue();
+                if (((Number) rowData[FanOutStatements.COUNT_COLUMN]).intValue() > fanOutLimit) {
+                    mappingContext.registerTruncation(nodeId, type.toString());
+                } else {
+                    mappingContext.deregisterTruncation(nodeId, type.toString());
+                }
+            }
+        }
+        response.close();
+        return reachedNodeIds;
+    }
+
     @Override
     public void updateObjects(CypherContext context, Neo4jResponse<String> response, ObjectMapper mapper) {
 
@@ -91,40 +133,65 @@ public class SessionResponseHandler implements ResponseHandler {
         Map<String, Long> directRefMap = new HashMap<>();
 
         while ((rowModel = rowModelResponse.next()) != null) {
-            Object[] results = rowModel.getValues();
+            updateObjects(context, variables, rowModel.getValues(), directRefMap);
+        }
 
-            for (int i = 0; i < variables.length; i++) {
+        registerNewRelationships(context, directRefMap);
 
-                String variable = variables[i];
+        rowModelResponse.close();
+    }
 
-                // create the mapping between the cypher variable and the newly created domain object's
-                // identity, as returned by the database
-                Long identity = Long.parseLong(results[i].toString());
-                directRefMap.put(variable, identity);
+    @Override
+    public void updateObjects(CypherContext context, List<StatementResult> results) {
 
-                // find the newly created domain object in the context log
-                Object persisted = context.getNewObject(variable);
+        Map<String, Long> directRefMap = new HashMap<>();
 
-                if (persisted != null) {  // it will be null if the variable represents a simple relationship.
+        for (StatementResult result : results) {
+            // an empty statement has no result
+            if (result != null) {
+                for (Object[] row : result.getRows()) {
+                    updateObjects(context, result.getColumns(), row, directRefMap);
+                }
+            }
+        }
 
-                    // set the id field of the newly created domain object
-                    ClassInfo classInfo = metaData.classInfo(persisted);
-                    Field identityField = classInfo.getField(classInfo.identityField());
-                    FieldWriter.write(identityField, persisted, identity);
+        registerNewRelationships(context, directRefMap);
+    }
 
-                    // ensure the newly created domain object is added into the mapping context
-                    if (classInfo.annotationsInfo().get(RelationshipEntity.CLASS) == null) {
-                        mappingContext.registerNodeEntity(persisted, identity);
-                    } else {
-                        mappingContext.registerRelationshipEntity(persisted, identity);
-                    }
-                    mappingContext.remember(persisted); //remember the persisted entity so it isn't marked for rewrite just after it's been retrieved and had it's id set
+    private void updateObjects(CypherContext context, String[] variables, Object[] results, Map<String, Long> directRefMap) {
+
+        for (int i = 0; i < variables.length; i++) {
+
+            String variable = variables[i];
+
+            // create the mapping between the cypher variable and the newly created domain object's
+            // identity, as returned by the database
+            Long identity = Long.parseLong(results[i].toString());
+            directRefMap.put(variable, identity);
 
+            // find the newly created domain object in the context log
+            Object persisted = context.getNewObject(variable);
+
+            if (persisted != null) {  // it will be null if the variable represents a simple relationship.
+
+                // set the id field of the newly created domain object
+                ClassInfo classInfo = metaData.classInfo(persisted);
+                mappingContext.setIdentity(persisted, identity);
+
+                // ensure the newly created domain object is added into the mapping context
+                if (classInfo.annotationsInfo().get(RelationshipEntity.CLASS) == null) {
+                    mappingContext.registerNodeEntity(persisted, identity);
+                } else {
+                    mappingContext.registerRelationshipEntity(persisted, identity);
                 }
+                mappingContext.remember(persisted, context.memo(persisted)); //remember the persisted entity so it isn't marked for rewrite just after it's been retrieved and had it's id set
+
             }
         }
+    }
 
-        // finally, all new relationships just established in the graph need to be added to the mapping context.
+    // finally, all new relationships just established in the graph need to be added to the mapping context.
+    private void registerNewRelationships(CypherContext context, Map<String, Long> directRefMap) {
         if(directRefMap.size() > 0) {
             for (Object object : context.log()) {
                 if (object instanceof TransientRelationship) {
@@ -136,18 +203,12 @@ public class SessionResponseHandler implements ResponseHandler {
                 }
             }
         }
-
-        rowModelResponse.close();
     }
 
     @Override
     public <T> T loadById(Class<T> type, Neo4jResponse<GraphModel> response, Long id) {
-        GraphEntityMapper ogm = new GraphEntityMapper(metaData, mappingContext);
-        GraphModel graphModel;
-
-        while ((graphModel = response.next()) != null) {
-            ogm.map(type, graphModel);
-        }
+        GraphEntityMapper ogm = new GraphEntityMapper(metaData, mappingContext, parallelHydration);
+        ogm.mapAll(type, graphModels(response));
         response.close();
         return lookup(type, id);
     }
@@ -174,14 +235,53 @@ public class SessionResponseHandler implements ResponseHandler {
 
         Set<T> objects = new LinkedHashSet<>();
 
-        GraphEntityMapper ogm = new GraphEntityMapper(metaData, mappingContext);
-
-        GraphModel graphModel;
-        while ((graphModel = response.next()) != null) {
-            objects.addAll(ogm.map(type, graphModel));
-        }
+        GraphEntityMapper ogm = new GraphEntityMapper(metaData, mappingContext, parallelHydration);
+        objects.addAll(ogm.mapAll(type, graphModels(response)));
         response.close();
         return objects;
     }
 
+    @Override
+    public <T> Collection<T> loadAll(Class<T> type, Iterable<GraphModel> graphModels) {
+
+        Set<T> objects = new LinkedHashSet<>();
+
+        GraphEntityMapper ogm = new GraphEntityMapper(metaData, mappingContext, parallelHydration);
+        objects.addAll(ogm.mapAll(type, graphModels));
+        return objects;
+    }
+
+    // presents the models of a response as they are read from it
+    private static Iterable<GraphModel> graphModels(final Neo4jResponse<GraphModel> response) {
+        return new Iterable<GraphModel>() {
+            @Override
+            public Iterator<GraphModel> iterator() {
+                return new Iterator<GraphModel>() {
+
+                    private GraphModel next = response.next();
+
+                    @Override
+                    public boolean hasNext() {
+                        return next != null;
+                    }
+
+                    @Override
+                    public GraphModel next() {
+                        if (next == null) {
+                            throw new NoSuchElementException();
+                        }
+                        GraphModel current = next;
+                        next = response.next();
+                        return current;
+                    }
+
+                    @Override
+                    public void remove() {
+                        throw new UnsupportedOperationException();
+                    }
+                };
+            }
+        };
+    }
+
 }
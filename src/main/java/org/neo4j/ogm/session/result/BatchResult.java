@@ -0,0 +1,57 @@
+/*
+ * Copyright (c) 2002-2015 "Neo Technology,"
+ * Network Engine for Objects in Lund AB [http://neotechnology.com]
+ *
+ * This product is licensed to you under the Apache License, Version 2.0 (the "License").
+ * You may not use this product except in compliance with the License.
+ *
+ * This product may include a number of subcomponents with
+ * separate copyright notices and license terms. Your use of the source
+ * code for these subcomponents is subject to the terms and
+ * conditions of the subcomponent's license, as noted in the LICENSE file.
+ *
+ */
+
+package org.neo4j.ogm.session.result;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * The results of a {@link org.neo4j.ogm.cypher.query.QueryBatch}, in the order in which the
+ * queries were added to the batch.
+ */
+public class BatchResult {
+
+    private final List<Object> results = new ArrayList<>();
+
+    public void add(Object result) {
+        results.add(result);
+    }
+
+    public int size() {
+        return results.size();
+    }
+
+    /**
+     * @param index the position of the query in the batch
+     * @param type the type the query was added with
+     * @return the domain objects or scalars returned by a query that was added with a type
+     */
+    @SuppressWarnings("unchecked")
+    public <T> Iterable<T> get(int index, Class<T> type) {
+        return (Iterable<T>) results.get(index);
+    }
+
+    /**
+     * @param index the position of the query in the batch
+     * @return the rows returned by a query that was added without a type
+     */
+    public Result get(int index) {
+        Object result = results.get(index);
+        if (!(result instanceof Result)) {
+            throw new RuntimeException("Query " + index + " in the batch was added with a result type");
+        }
+        return (Result) result;
+    }
+}
@@ -0,0 +1,74 @@
+/*
+ * Copyright (c) 2002-2015 "Neo Technology,"
+ * Network Engine for Objects in Lund AB [http://neotechnology.com]
+ *
+ * This product is licensed to you under the Apache License, Version 2.0 (the "License").
+ * You may not use this product except in compliance with the License.
+ *
+ * This product may include a number of subcomponents with
+ * separate copyright notices and license terms. Your use of the source
+ * code for these subcomponents is subject to the terms and
+ * conditions of the subcomponent's license, as noted in the LICENSE file.
+ *
+ */
+package org.neo4j.ogm.session.result;
+
+/**
+ * Holds read only statistics about a completed import of entities.
+ */
+public class ImportStatistics {
+
+    private final long nodes;
+    private final long relationships;
+    private final long batches;
+    private final long elapsedMillis;
+
+    public ImportStatistics(long nodes, long relationships, long batches, long elapsedMillis) {
+        this.nodes = nodes;
+        this.relationships = relationships;
+        this.batches = batches;
+        this.elapsedMillis = elapsedMillis;
+    }
+
+    /**
+     * @return the number of node entities imported
+     */
+    public long getNodes() {
+        return nodes;
+    }
+
+    /**
+     * @return the number of relationship entities imported
+     */
+    public long getRelationships() {
+        return relationships;
+    }
+
+    /**
+     * @return the number of requests the entities were imported with
+     */
+    public long getBatches() {
+        return batches;
+    }
+
+    public long getElapsedMillis() {
+        return elapsedMillis;
+    }
+
+    /**
+     * @return the number of entities imported per second
+     */
+    public double getRowsPerSecond() {
+        return rowsPerSecond(nodes + relationships, elapsedMillis);
+    }
+
+    public static double rowsPerSecond(long rows, long elapsedMillis) {
+        return elapsedMillis == 0 ? rows * 1000.0 : rows * 1000.0 / elapsedMillis;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("Imported %d nodes and %d relationships in %d batches and %d ms (%.1f rows/s)",
+                nodes, relationships, batches, elapsedMillis, getRowsPerSecond());
+    }
+}
@@ -0,0 +1,55 @@
+/*
+ * Copyright (c) 2002-2015 "Neo Technology,"
+ * Network Engine for Objects in Lund AB [http://neotechnology.com]
+ *
+ * This product is licensed to you under the Apache License, Version 2.0 (the "License").
+ * You may not use this product except in compliance with the License.
+ *
+ * This product may include a number of subcomponents with
+ * separate copyright notices and license terms. Your use of the source
+ * code for these subcomponents is subject to the terms and
+ * conditions of the subcomponent's license, as noted in the LICENSE file.
+ *
+ */
+
+package org.neo4j.ogm.session.result;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.neo4j.ogm.model.GraphModel;
+
+/**
+ * The results of one statement out of a request containing several statements.
+ * Only the formats that were requested for the statement are populated.
+ */
+public class StatementResult {
+
+    private final String[] columns;
+    private final List<GraphModel> graphs = new ArrayList<>();
+    private final List<Object[]> rows = new ArrayList<>();
+
+    public StatementResult(String[] columns) {
+        this.columns = columns;
+    }
+
+    public String[] getColumns() {
+        return columns;
+    }
+
+    public List<GraphModel> getGraphs() {
+        return graphs;
+    }
+
+    public List<Object[]> getRows() {
+        return rows;
+    }
+
+    public void addGraph(GraphModel graphModel) {
+        graphs.add(graphModel);
+    }
+
+    public void addRow(Object[] row) {
+        rows.add(row);
+    }
+}
@@ -0,0 +1,56 @@
+/*
+ * Copyright (c) 2002-2015 "Neo Technology,"
+ * Network Engine for Objects in Lund AB [http://neotechnology.com]
+ *
+ * This product is licensed to you under the Apache License, Version 2.0 (the "License").
+ * You may not use this product except in compliance with the License.
+ *
+ * This product may include a number of subcomponents with
+ * separate copyright notices and license terms. Your use of the source
+ * code for these subcomponents is subject to the terms and
+ * conditions of the subcomponent's license, as noted in the LICENSE file.
+ *
+ */
+package org.neo4j.ogm.session.scan;
+
+/**
+ * A range of node ids, from {@link #getFrom()} inclusive to {@link #getTo()} exclusive, scanned by one worker of a
+ * {@link PartitionedScan}. The partitions a scan could not finish are returned with their start moved past
+ * the entities already visited, so that they can be kept and scanned again with {@link PartitionedScan#resume}.
+ */
+public class Partition {
+
+    private final long from;
+    private final long to;
+
+    public Partition(long from, long to) {
+        this.from = from;
+        this.to = to;
+    }
+
+    public long getFrom() {
+        return from;
+    }
+
+    public long getTo() {
+        return to;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (o == null || getClass() != o.getClass()) return false;
+        Partition that = (Partition) o;
+        return from == that.from && to == that.to;
+    }
+
+    @Override
+    public int hashCode() {
+        return 31 * (int) (from ^ (from >>> 32)) + (int) (to ^ (to >>> 32));
+    }
+
+    @Override
+    public String toString() {
+        return "[" + from + ", " + to + ")";
+    }
+}
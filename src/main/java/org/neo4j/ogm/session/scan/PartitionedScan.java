@@ -0,0 +1,211 @@
+/*
+ * Copyright (c) 2002-2015 "Neo Technology,"
+ * Network Engine for Objects in Lund AB [http://neotechnology.com]
+ *
+ * This product is licensed to you under the Apache License, Version 2.0 (the "License").
+ * You may not use this product except in compliance with the License.
+ *
+ * This product may include a number of subcomponents with
+ * separate copyright notices and license terms. Your use of the source
+ * code for these subcomponents is subject to the terms and
+ * conditions of the subcomponent's license, as noted in the LICENSE file.
+ *
+ */
+package org.neo4j.ogm.session.scan;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import org.neo4j.ogm.metadata.info.ClassInfo;
+import org.neo4j.ogm.session.Session;
+import org.neo4j.ogm.session.SessionFactory;
+import org.neo4j.ogm.session.Utils;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Visits every node entity of a type, scanning ranges of node ids concurrently.
+ *
+ * The ids between the lowest and highest of the type's label are split into partitions, which are scanned by
+ * a pool of workers, each with its own session. A worker pages through its partition in id order, starting each
+ * page after the highest id of the one before, and clears its session after every page, so that it never holds
+ * more than a page of entities. A partition that fails is returned from where its last unfinished page began,
+ * and can be scanned again with {@link #resume(Collection, ScanCallback)}.
+ */
+public class PartitionedScan<T> {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(PartitionedScan.class);
+
+    private final SessionFactory sessionFactory;
+    private final String url;
+    private final Class<T> type;
+    private final String labels;
+
+    private int workers = 4;
+    private long partitionSize = 100000;
+    private int pageSize = 1000;
+
+    public PartitionedScan(SessionFactory sessionFactory, String url, Class<T> type) {
+
+        ClassInfo classInfo = sessionFactory.metaData().classInfo(type.getName());
+        if (classInfo == null || sessionFactory.metaData().isRelationshipEntity(classInfo.name())) {
+            throw new RuntimeException(type.getName() + " is not a node entity class");
+        }
+
+        StringBuilder cypherLabels = new StringBuilder();
+        for (String label : classInfo.labels()) {
+            cypherLabels.append(":`").append(label).append('`');
+        }
+
+        this.sessionFactory = sessionFactory;
+        this.url = url;
+        this.type = type;
+        this.labels = cypherLabels.toString();
+    }
+
+    /**
+     * @param workers The number of partitions to scan at once, each with its own session. The default is 4.
+     */
+    public void setWorkers(int workers) {
+        if (workers < 1) {
+            throw new RuntimeException("Number of workers must be greater than zero");
+        }
+        this.workers = workers;
+    }
+
+    /**
+     * @param partitionSize The number of node ids in each partition. The default is 100000.
+     */
+    public void setPartitionSize(long partitionSize) {
+        if (partitionSize < 1) {
+            throw new RuntimeException("Partition size must be greater than zero");
+        }
+        this.partitionSize = partitionSize;
+    }
+
+    /**
+     * @param pageSize The largest number of entities a worker loads at a time. The default is 1000.
+     */
+    public void setPageSize(int pageSize) {
+        if (pageSize < 1) {
+            throw new RuntimeException("Page size must be greater than zero");
+        }
+        this.pageSize = pageSize;
+    }
+
+    /**
+     * Visits every entity of the type, waiting until every partition has been scanned or has failed.
+     *
+     * @param callback The {@link ScanCallback} to visit the entities with
+     * @return the number of entities visited, and the partitions that failed
+     */
+    public ScanResult run(ScanCallback<? super T> callback) {
+        return scan(partitions(), callback);
+    }
+
+    /**
+     * Scans the given partitions again, as returned by {@link ScanResult#getFailed()}.
+     *
+     * @param partitions The partitions to scan
+     * @param callback The {@link ScanCallback} to visit the entities with
+     * @return the number of entities visited, and the partitions that failed
+     */
+    public ScanResult resume(Collection<Partition> partitions, ScanCallback<? super T> callback) {
+        return scan(new ArrayList<>(partitions), callback);
+    }
+
+    private List<Partition> partitions() {
+        Session session = sessionFactory.openSession(url);
+        Map<String, Object> bounds = session.query("MATCH (n" + labels + ") RETURN min(id(n)) AS lo, max(id(n)) AS hi",
+                Collections.<String, Object>emptyMap()).queryResults().iterator().next();
+
+        List<Partition> partitions = new ArrayList<>();
+        if (bounds.get("lo") == null) {
+            return partitions;
+        }
+        long lo = ((Number) bounds.get("lo")).longValue();
+        long hi = ((Number) bounds.get("hi")).longValue() + 1;
+        for (long from = lo; from < hi; from += partitionSize) {
+            partitions.add(new Partition(from, Math.min(from + partitionSize, hi)));
+        }
+        return partitions;
+    }
+
+    private ScanResult scan(List<Partition> partitions, final ScanCallback<? super T> callback) {
+
+        long start = System.currentTimeMillis();
+        ExecutorService executor = Executors.newFixedThreadPool(Math.max(1, Math.min(workers, partitions.size())));
+        try {
+            List<Future<Worker>> futures = new ArrayList<>();
+            for (Partition partition : partitions) {
+                futures.add(executor.submit(new Worker(partition, callback)));
+            }
+
+            long scanned = 0;
+            List<Partition> failed = new ArrayList<>();
+            for (Future<Worker> future : futures) {
+                Worker worker = future.get();
+                scanned += worker.scanned;
+                if (worker.remaining != null) {
+                    failed.add(worker.remaining);
+                }
+            }
+            return new ScanResult(scanned, partitions.size(), failed, System.currentTimeMillis() - start);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RuntimeException("Interrupted while scanning " + type.getName(), e);
+        } catch (ExecutionException e) {
+            throw new RuntimeException("Failed to scan " + type.getName(), e.getCause());
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    private class Worker implements Callable<Worker> {
+
+        private final Partition partition;
+        private final ScanCallback<? super T> callback;
+        private long scanned;
+        private Partition remaining;
+
+        Worker(Partition partition, ScanCallback<? super T> callback) {
+            this.partition = partition;
+            this.callback = callback;
+        }
+
+        @Override
+        public Worker call() {
+            String cypher = "MATCH (n" + labels + ") WHERE id(n) >= { lo } AND id(n) < { hi } RETURN n ORDER BY id(n) LIMIT { limit }";
+            long from = partition.getFrom();
+            try {
+                Session session = sessionFactory.openSession(url);
+                int found;
+                do {
+                    found = 0;
+                    long next = from;
+                    for (T entity : session.query(type, cypher, Utils.map("lo", from, "hi", partition.getTo(), "limit", pageSize))) {
+                        callback.visit(entity);
+                        next = Math.max(next, session.resolveGraphIdFor(entity) + 1);
+                        found++;
+                        scanned++;
+                    }
+                    // nothing from this page is needed any more, so the session is kept to a page of entities
+                    session.clear();
+                    from = next;
+                } while (found == pageSize && from < partition.getTo());
+            } catch (RuntimeException e) {
+                LOGGER.warn("Scan of " + type.getName() + " partition " + new Partition(from, partition.getTo()) + " failed: " + e.getLocalizedMessage());
+                remaining = new Partition(from, partition.getTo());
+            }
+            return this;
+        }
+    }
+}
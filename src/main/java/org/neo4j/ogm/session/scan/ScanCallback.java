@@ -0,0 +1,30 @@
+/*
+ * Copyright (c) 2002-2015 "Neo Technology,"
+ * Network Engine for Objects in Lund AB [http://neotechnology.com]
+ *
+ * This product is licensed to you under the Apache License, Version 2.0 (the "License").
+ * You may not use this product except in compliance with the License.
+ *
+ * This product may include a number of subcomponents with
+ * separate copyright notices and license terms. Your use of the source
+ * code for these subcomponents is subject to the terms and
+ * conditions of the subcomponent's license, as noted in the LICENSE file.
+ *
+ */
+package org.neo4j.ogm.session.scan;
+
+/**
+ * A callback interface used to visit the entities found by a {@link PartitionedScan}.
+ */
+public interface ScanCallback<T> {
+
+    /**
+     * Called once for each entity scanned. Entities from different partitions are visited concurrently, by
+     * different worker threads, so implementations must be thread-safe. Throwing an exception stops the
+     * scan of the entity's partition, which is then returned as failed, starting from the entity's page.
+     *
+     * @param entity An entity of the scanned type, loaded without its relationships
+     */
+    void visit(T entity);
+
+}
@@ -0,0 +1,63 @@
+/*
+ * Copyright (c) 2002-2015 "Neo Technology,"
+ * Network Engine for Objects in Lund AB [http://neotechnology.com]
+ *
+ * This product is licensed to you under the Apache License, Version 2.0 (the "License").
+ * You may not use this product except in compliance with the License.
+ *
+ * This product may include a number of subcomponents with
+ * separate copyright notices and license terms. Your use of the source
+ * code for these subcomponents is subject to the terms and
+ * conditions of the subcomponent's license, as noted in the LICENSE file.
+ *
+ */
+package org.neo4j.ogm.session.scan;
+
+import java.util.List;
+
+/**
+ * Holds read only statistics about a completed {@link PartitionedScan}, and the partitions it could not finish.
+ */
+public class ScanResult {
+
+    private final long scanned;
+    private final int partitions;
+    private final List<Partition> failed;
+    private final long elapsedMillis;
+
+    public ScanResult(long scanned, int partitions, List<Partition> failed, long elapsedMillis) {
+        this.scanned = scanned;
+        this.partitions = partitions;
+        this.failed = failed;
+        this.elapsedMillis = elapsedMillis;
+    }
+
+    /**
+     * @return the number of entities visited
+     */
+    public long getScanned() {
+        return scanned;
+    }
+
+    /**
+     * @return the number of partitions scanned, including those that failed
+     */
+    public int getPartitions() {
+        return partitions;
+    }
+
+    /**
+     * @return what remains of each partition that failed, to be passed to {@link PartitionedScan#resume}
+     */
+    public List<Partition> getFailed() {
+        return failed;
+    }
+
+    public boolean isComplete() {
+        return failed.isEmpty();
+    }
+
+    public long getElapsedMillis() {
+        return elapsedMillis;
+    }
+}
@@ -0,0 +1,88 @@
+/*
+ * Copyright (c) 2002-2015 "Neo Technology,"
+ * Network Engine for Objects in Lund AB [http://neotechnology.com]
+ *
+ * This product is licensed to you under the Apache License, Version 2.0 (the "License").
+ * You may not use this product except in compliance with the License.
+ *
+ * This product may include a number of subcomponents with
+ * separate copyright notices and license terms. Your use of the source
+ * code for these subcomponents is subject to the terms and
+ * conditions of the subcomponent's license, as noted in the LICENSE file.
+ *
+ */
+package org.neo4j.ogm.session.schema;
+
+/**
+ * A schema index, or a uniqueness constraint, on one property of the nodes with a given label.
+ */
+public class IndexDefinition {
+
+    private final String label;
+    private final String property;
+    private final boolean unique;
+
+    public IndexDefinition(String label, String property, boolean unique) {
+        this.label = label;
+        this.property = property;
+        this.unique = unique;
+    }
+
+    public String label() {
+        return label;
+    }
+
+    public String property() {
+        return property;
+    }
+
+    public boolean isUnique() {
+        return unique;
+    }
+
+    /**
+     * @return true if this index is on the same label and property as the given one, whether or not it is unique
+     */
+    public boolean isOn(String label, String property) {
+        return this.label.equals(label) && this.property.equals(property);
+    }
+
+    public String createStatement() {
+        if (unique) {
+            return "CREATE CONSTRAINT ON (n:`" + label + "`) ASSERT n.`" + property + "` IS UNIQUE";
+        }
+        return "CREATE INDEX ON :`" + label + "`(`" + property + "`)";
+    }
+
+    public String dropStatement() {
+        if (unique) {
+            return "DROP CONSTRAINT ON (n:`" + label + "`) ASSERT n.`" + property + "` IS UNIQUE";
+        }
+        return "DROP INDEX ON :`" + label + "`(`" + property + "`)";
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (o == null || getClass() != o.getClass()) {
+            return false;
+        }
+        IndexDefinition that = (IndexDefinition) o;
+        return unique == that.unique && label.equals(that.label) && property.equals(that.property);
+    }
+
+    @Override
+    public int hashCode() {
+        int result = label.hashCode();
+        result = 31 * result + property.hashCode();
+        result = 31 * result + (unique ? 1 : 0);
+        return result;
+    }
+
+    @Override
+    public String toString() {
+        return ":" + label + "(" + property + ")" + (unique ? " UNIQUE" : "");
+    }
+}
@@ -0,0 +1,196 @@
+/*
+ * Copyright (c) 2002-2015 "Neo Technology,"
+ * Network Engine for Objects in Lund AB [http://neotechnology.com]
+ *
+ * This product is licensed to you under the Apache License, Version 2.0 (the "License").
+ * You may not use this product except in compliance with the License.
+ *
+ * This product may include a number of subcomponents with
+ * separate copyright notices and license terms. Your use of the source
+ * code for these subcomponents is subject to the terms and
+ * conditions of the subcomponent's license, as noted in the LICENSE file.
+ *
+ */
+package org.neo4j.ogm.session.schema;
+
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.Set;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.apache.http.HttpResponse;
+import org.apache.http.StatusLine;
+import org.apache.http.client.HttpResponseException;
+import org.apache.http.client.methods.HttpGet;
+import org.apache.http.impl.client.CloseableHttpClient;
+import org.apache.http.message.BasicHeader;
+import org.apache.http.util.EntityUtils;
+import org.neo4j.ogm.authentication.HttpRequestAuthorization;
+import org.neo4j.ogm.authentication.Neo4jCredentials;
+import org.neo4j.ogm.metadata.MetaData;
+import org.neo4j.ogm.metadata.info.ClassInfo;
+import org.neo4j.ogm.metadata.info.FieldInfo;
+import org.neo4j.ogm.session.Session;
+import org.neo4j.ogm.session.result.ResultProcessingException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Compares the indexes declared on the domain with {@link org.neo4j.ogm.annotation.Index} against the schema of a
+ * database, and brings the schema into line according to an {@link IndexMode}.
+ */
+public class IndexManager {
+
+    private final Logger logger = LoggerFactory.getLogger(IndexManager.class);
+
+    private final MetaData metaData;
+    private final CloseableHttpClient httpClient;
+    private final ObjectMapper mapper;
+
+    public IndexManager(MetaData metaData, CloseableHttpClient httpClient, ObjectMapper mapper) {
+        this.metaData = metaData;
+        this.httpClient = httpClient;
+        this.mapper = mapper;
+    }
+
+    /**
+     * @return an index for each {@link org.neo4j.ogm.annotation.Index} property field of each node entity,
+     * on the label of that entity
+     */
+    public Set<IndexDefinition> declaredIndexes() {
+        Set<IndexDefinition> indexes = new HashSet<>();
+        for (ClassInfo classInfo : metaData.persistentEntities()) {
+            if (!classInfo.hydrated() || classInfo.isInterface() || classInfo.isEnum() || metaData.isRelationshipEntity(classInfo.name())) {
+                continue;
+            }
+            String label = classInfo.neo4jName();
+            if (!classInfo.labels().contains(label)) {
+                continue; // abstract classes do not label their nodes
+            }
+            for (FieldInfo fieldInfo : classInfo.propertyFields()) {
+                if (fieldInfo.isIndexed()) {
+                    indexes.add(new IndexDefinition(label, fieldInfo.property(), fieldInfo.isUnique()));
+                }
+            }
+        }
+        return indexes;
+    }
+
+    /**
+     * Reads the indexes and uniqueness constraints defined in the database at the given server.
+     *
+     * @param server The base URL of the database
+     * @param credentials The credentials to authenticate with, which may be null
+     * @return the indexes, with the index behind each uniqueness constraint reported only as the constraint
+     */
+    public Set<IndexDefinition> existingIndexes(String server, Neo4jCredentials<?> credentials) {
+        String schema = server.endsWith("/") ? server + "db/data/schema/" : server + "/db/data/schema/";
+        Set<IndexDefinition> indexes = new HashSet<>();
+        Set<IndexDefinition> constraints = read(schema + "constraint", credentials, true);
+        for (IndexDefinition index : read(schema + "index", credentials, false)) {
+            if (!constraints.contains(new IndexDefinition(index.label(), index.property(), true))) {
+                indexes.add(index);
+            }
+        }
+        indexes.addAll(constraints);
+        return indexes;
+    }
+
+    /**
+     * Applies the given mode to the database at the given server, running any schema changes through the session.
+     *
+     * @param mode The {@link IndexMode} to apply
+     * @param session A session against the server, with no open transaction
+     * @param server The base URL of the database
+     * @param credentials The credentials to authenticate with, which may be null
+     * @return the indexes defined in the database once the mode has been applied
+     */
+    public Set<IndexDefinition> apply(IndexMode mode, Session session, String server, Neo4jCredentials<?> credentials) {
+        if (mode == IndexMode.NONE) {
+            return existingIndexes(server, credentials);
+        }
+
+        Set<IndexDefinition> declared = declaredIndexes();
+        Set<IndexDefinition> existing = existingIndexes(server, credentials);
+
+        if (mode == IndexMode.VALIDATE) {
+            Set<IndexDefinition> missing = missing(declared, existing, false);
+            if (!missing.isEmpty()) {
+                throw new RuntimeException("The database at " + server + " is missing the declared indexes " + missing);
+            }
+            return existing;
+        }
+
+        if (mode == IndexMode.ASSERT) {
+            for (Iterator<IndexDefinition> iterator = existing.iterator(); iterator.hasNext(); ) {
+                IndexDefinition index = iterator.next();
+                if (!declared.contains(index)) {
+                    run(session, index.dropStatement());
+                    iterator.remove();
+                }
+            }
+        }
+
+        for (IndexDefinition index : missing(declared, existing, mode == IndexMode.ASSERT)) {
+            // a uniqueness constraint cannot be created while a plain index is on the same property
+            IndexDefinition plain = new IndexDefinition(index.label(), index.property(), false);
+            if (index.isUnique() && existing.contains(plain)) {
+                run(session, plain.dropStatement());
+            }
+            run(session, index.createStatement());
+        }
+        return existingIndexes(server, credentials);
+    }
+
+    // a uniqueness constraint also serves as a plain index on its property, unless the match must be exact
+    private Set<IndexDefinition> missing(Collection<IndexDefinition> declared, Set<IndexDefinition> existing, boolean exact) {
+        Set<IndexDefinition> missing = new HashSet<>();
+        for (IndexDefinition index : declared) {
+            if (existing.contains(index)) {
+                continue;
+            }
+            if (!exact && !index.isUnique() && existing.contains(new IndexDefinition(index.label(), index.property(), true))) {
+                continue;
+            }
+            missing.add(index);
+        }
+        return missing;
+    }
+
+    private void run(Session session, String statement) {
+        logger.info(statement);
+        session.query(statement, Collections.<String, Object>emptyMap(), false);
+    }
+
+    private Set<IndexDefinition> read(String url, Neo4jCredentials<?> credentials, boolean unique) {
+        HttpGet request = new HttpGet(url);
+        request.setHeader(new BasicHeader("Accept", "application/json;charset=UTF-8"));
+        HttpRequestAuthorization.authorize(request, credentials);
+        try {
+            HttpResponse response = httpClient.execute(request);
+            StatusLine statusLine = response.getStatusLine();
+            String body = EntityUtils.toString(response.getEntity());
+            if (statusLine.getStatusCode() >= 300) {
+                throw new HttpResponseException(statusLine.getStatusCode(), statusLine.getReasonPhrase());
+            }
+            Set<IndexDefinition> indexes = new HashSet<>();
+            for (JsonNode definition : mapper.readTree(body)) {
+                if (unique && !"UNIQUENESS".equals(definition.path("type").asText())) {
+                    continue;
+                }
+                JsonNode properties = definition.path("property_keys");
+                if (properties.size() == 1) {
+                    indexes.add(new IndexDefinition(definition.path("label").asText(), properties.get(0).asText(), unique));
+                }
+            }
+            return indexes;
+        } catch (Exception e) {
+            throw new ResultProcessingException("Failed to read the schema from " + url, e);
+        } finally {
+            request.releaseConnection();
+        }
+    }
+}
@@ -0,0 +1,42 @@
+/*
+ * Copyright (c) 2002-2015 "Neo Technology,"
+ * Network Engine for Objects in Lund AB [http://neotechnology.com]
+ *
+ * This product is licensed to you under the Apache License, Version 2.0 (the "License").
+ * You may not use this product except in compliance with the License.
+ *
+ * This product may include a number of subcomponents with
+ * separate copyright notices and license terms. Your use of the source
+ * code for these subcomponents is subject to the terms and
+ * conditions of the subcomponent's license, as noted in the LICENSE file.
+ *
+ */
+package org.neo4j.ogm.session.schema;
+
+/**
+ * What a {@link org.neo4j.ogm.session.SessionFactory} does with the indexes declared by {@link org.neo4j.ogm.annotation.Index}
+ * annotations the first time it opens a session against a database.
+ */
+public enum IndexMode {
+
+    /**
+     * Leaves the schema alone. This is the default.
+     */
+    NONE,
+
+    /**
+     * Fails to open the session if any declared index or uniqueness constraint is missing from the database.
+     */
+    VALIDATE,
+
+    /**
+     * Drops every index and uniqueness constraint that is not declared, and creates those that are missing,
+     * so that the schema of the database matches the domain exactly.
+     */
+    ASSERT,
+
+    /**
+     * Creates the declared indexes and uniqueness constraints that are missing, and leaves everything else in place.
+     */
+    UPDATE
+}
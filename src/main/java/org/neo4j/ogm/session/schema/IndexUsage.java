@@ -0,0 +1,119 @@
+/*
+ * Copyright (c) 2002-2015 "Neo Technology,"
+ * Network Engine for Objects in Lund AB [http://neotechnology.com]
+ *
+ * This product is licensed to you under the Apache License, Version 2.0 (the "License").
+ * You may not use this product except in compliance with the License.
+ *
+ * This product may include a number of subcomponents with
+ * separate copyright notices and license terms. Your use of the source
+ * code for these subcomponents is subject to the terms and
+ * conditions of the subcomponent's license, as noted in the LICENSE file.
+ *
+ */
+package org.neo4j.ogm.session.schema;
+
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.neo4j.ogm.cypher.ComparisonOperator;
+
+/**
+ * Counts the property filters used to load entities by whether or not an index can serve them.
+ * <p>
+ * A filter can use an index if it compares a property for equality and there is an index, or a uniqueness
+ * constraint, on that property for the label being filtered. Filters that cannot are answered by scanning
+ * every node with the label.
+ * </p>
+ */
+public class IndexUsage {
+
+    private volatile Set<IndexDefinition> indexes;
+
+    private final ConcurrentMap<String, AtomicLong> hits = new ConcurrentHashMap<>();
+    private final ConcurrentMap<String, AtomicLong> misses = new ConcurrentHashMap<>();
+
+    public IndexUsage(Collection<IndexDefinition> indexes) {
+        setIndexes(indexes);
+    }
+
+    /**
+     * Replaces the indexes that filters are checked against, for example once they have been read from the database.
+     */
+    public void setIndexes(Collection<IndexDefinition> indexes) {
+        this.indexes = Collections.unmodifiableSet(new HashSet<>(indexes));
+    }
+
+    public boolean isIndexed(String label, String property) {
+        for (IndexDefinition index : indexes) {
+            if (index.isOn(label, property)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Records a filter on the given property of the nodes with the given label.
+     *
+     * @return true if the filter can use an index
+     */
+    public boolean record(String label, String property, ComparisonOperator operator) {
+        boolean hit = operator == ComparisonOperator.EQUALS && isIndexed(label, property);
+        String key = ":" + label + "(" + property + ")";
+        ConcurrentMap<String, AtomicLong> counts = hit ? hits : misses;
+        AtomicLong count = counts.get(key);
+        if (count == null) {
+            counts.putIfAbsent(key, new AtomicLong());
+            count = counts.get(key);
+        }
+        count.incrementAndGet();
+        return hit;
+    }
+
+    /**
+     * @return the number of filters that could use an index, by label and property
+     */
+    public Map<String, Long> hits() {
+        return snapshot(hits);
+    }
+
+    /**
+     * @return the number of filters that had to scan a label, by label and property
+     */
+    public Map<String, Long> misses() {
+        return snapshot(misses);
+    }
+
+    public void reset() {
+        hits.clear();
+        misses.clear();
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder report = new StringBuilder("Index usage");
+        for (Map.Entry<String, Long> entry : hits().entrySet()) {
+            report.append("\n  ").append(entry.getKey()).append(" used an index ").append(entry.getValue()).append(" time(s)");
+        }
+        for (Map.Entry<String, Long> entry : misses().entrySet()) {
+            report.append("\n  ").append(entry.getKey()).append(" scanned its label ").append(entry.getValue()).append(" time(s)");
+        }
+        return report.toString();
+    }
+
+    private static Map<String, Long> snapshot(Map<String, AtomicLong> counts) {
+        Map<String, Long> snapshot = new TreeMap<>();
+        for (Map.Entry<String, AtomicLong> entry : counts.entrySet()) {
+            snapshot.put(entry.getKey(), entry.getValue().get());
+        }
+        return snapshot;
+    }
+}
@@ -27,26 +27,97 @@ public class LongTransaction extends SimpleTransaction {
     private final Logger logger = LoggerFactory.getLogger(LongTransaction.class);
 
     private final TransactionManager transactionRequestHandler;
+    private boolean begun;
+    private boolean abandoned;
+    private boolean failed;
 
     public LongTransaction(MappingContext mappingContext, String url, TransactionManager transactionRequestHandler) {
+        this(mappingContext, url, transactionRequestHandler, true);
+    }
+
+    /**
+     * A transaction that has not yet been begun is not begun on the server until the first statements are sent
+     * to its url, which is then replaced by the url the server allocates to it.
+     */
+    LongTransaction(MappingContext mappingContext, String url, TransactionManager transactionRequestHandler, boolean begun) {
         super(mappingContext, url);
         this.transactionRequestHandler = transactionRequestHandler;
+        this.begun = begun;
+    }
+
+    public boolean isBegun() {
+        return begun;
+    }
+
+    /**
+     * @return true if the statements that were to begin the transaction failed, so that it can only be rolled back
+     */
+    public boolean isFailed() {
+        return failed;
+    }
+
+    // whether the transaction is still to be begun by the first statements sent to its url
+    boolean isBeginning() {
+        return !begun && !abandoned && !failed;
+    }
+
+    void begin(String location) {
+        logger.debug("Transaction begun with endpoint " + location);
+        relocate(location);
+        begun = true;
+    }
+
+    /**
+     * Records that the transaction has been rolled back on the server because its statements were abandoned, so that
+     * there is nothing left there to roll back, and nothing that could be committed.
+     */
+    void abandon() {
+        begun = false;
+        abandoned = true;
+    }
+
+    /**
+     * Records that the statements that were to begin the transaction failed, so that it is not known whether the
+     * server began it. Statements sent to its url again would begin another transaction, so none may be sent, and
+     * it cannot be committed.
+     */
+    void fail() {
+        failed = true;
     }
 
     public void commit() {
-        transactionRequestHandler.commit(this);
+        if (abandoned) {
+            throw new TransactionException("Transaction was rolled back when its statements were abandoned. Cannot commit");
+        }
+        if (failed) {
+            throw new TransactionException("Transaction failed to begin. Cannot commit");
+        }
+        if (begun) {
+            transactionRequestHandler.commit(this);
+        } else {
+            // nothing was ever sent, so there is nothing for the server to commit
+            transactionRequestHandler.release(this);
+        }
         super.commit();
     }
 
 
     public void rollback() {
-        transactionRequestHandler.rollback(this);
+        if (begun) {
+            transactionRequestHandler.rollback(this);
+        } else {
+            transactionRequestHandler.release(this);
+        }
         super.rollback();
     }
 
     public void close() {
         if (this.status().equals(Status.OPEN) || this.status().equals(Status.PENDING)) {
-            transactionRequestHandler.rollback(this);
+            if (begun) {
+                transactionRequestHandler.rollback(this);
+            } else {
+                transactionRequestHandler.release(this);
+            }
         }
         super.close();
     }
@@ -31,8 +31,9 @@ public class SimpleTransaction implements Transaction {
 
     private final Logger logger = LoggerFactory.getLogger(Transaction.class);
     private final MappingContext mappingContext;
-    private final String url;
+    private String url;
     private final boolean autocommit;
+    private final boolean undoable;
 
     private final List<CypherContext> contexts;
 
@@ -43,6 +44,10 @@ public class SimpleTransaction implements Transaction {
         this.url = url;
         this.autocommit = url.endsWith("/commit");
         this.contexts = new ArrayList<>();
+        this.undoable = mappingContext != null && !autocommit;
+        if (undoable) {
+            mappingContext.beginUndoLog();
+        }
     }
 
     public final void append(CypherContext context) {
@@ -62,10 +67,16 @@ public class SimpleTransaction implements Transaction {
         return url;
     }
 
+    // a lazily begun transaction only learns its url once the server has begun it
+    final void relocate(String url) {
+        this.url = url;
+    }
+
     public void rollback() {
         logger.debug("rollback invoked");
         if (status == Status.OPEN || status == Status.PENDING) {
             contexts.clear();
+            undo();
             status = Status.ROLLEDBACK;
         } else {
             throw new TransactionException("Transaction is no longer open. Cannot rollback");
@@ -76,6 +87,9 @@ public class SimpleTransaction implements Transaction {
         logger.debug("commit invoked");
         if (status == Status.OPEN || status == Status.PENDING) {
             synchroniseSession();
+            if (undoable) {
+                mappingContext.discardUndoLog();
+            }
             status = Status.COMMITTED;
         } else {
             throw new TransactionException("Transaction is no longer open. Cannot commit");
@@ -87,9 +101,19 @@ public class SimpleTransaction implements Transaction {
     }
 
     public void close() {
+        if (status == Status.OPEN || status == Status.PENDING) {
+            undo();
+        }
         status = Status.CLOSED;
     }
 
+    // puts the session back as it was before the transaction began
+    private void undo() {
+        if (undoable) {
+            mappingContext.undo();
+        }
+    }
+
     private void synchroniseSession()  {
 
         for (CypherContext cypherContext : contexts) {
@@ -109,7 +133,7 @@ public class SimpleTransaction implements Transaction {
                     }
                 } else if (!(o instanceof TransientRelationship)) {
                     logger.debug("remembering " + o);
-                    mappingContext.remember(o);
+                    mappingContext.remember(o, cypherContext.memo(o));
                 }
             }
             logger.debug("number of objects: " + cypherContext.log().size());
@@ -14,7 +14,8 @@
 
 package org.neo4j.ogm.session.transaction;
 
-import org.apache.http.Header;
+import java.util.concurrent.atomic.AtomicLong;
+
 import org.apache.http.HttpEntity;
 import org.apache.http.HttpResponse;
 import org.apache.http.StatusLine;
@@ -31,6 +32,7 @@ import org.neo4j.ogm.authentication.HttpRequestAuthorization;
 import org.neo4j.ogm.authentication.Neo4jCredentials;
 import org.neo4j.ogm.authentication.UsernamePasswordCredentials;
 import org.neo4j.ogm.mapper.MappingContext;
+import org.neo4j.ogm.session.request.Deadline;
 import org.neo4j.ogm.session.result.ErrorsException;
 import org.neo4j.ogm.session.result.ResultProcessingException;
 import org.slf4j.Logger;
@@ -46,6 +48,8 @@ public class TransactionManager {
     private final CloseableHttpClient httpClient;
     private final String url;
     private final Neo4jCredentials credentials;
+    private long timeoutMillis;
+    private AtomicLong deadlinesExceeded;
 
     private static final ThreadLocal<Transaction> transaction = new ThreadLocal<>();
 
@@ -63,18 +67,120 @@ public class TransactionManager {
         transaction.remove(); // ensures this thread does not have a current tx;
     }
 
+    /**
+     * Opens a transaction without contacting the server. The transaction is begun by the first statements
+     * sent to its url, and the server's response to them tells us where the transaction lives from then on.
+     *
+     * @param mappingContext the mapping context to synchronise when the transaction commits
+     * @return the new, not yet begun, transaction, which becomes the current transaction for this thread
+     */
     public Transaction openTransaction(MappingContext mappingContext) {
-        String transactionEndpoint = newTransactionEndpointUrl();
-        logger.debug("Creating new transaction with endpoint " + transactionEndpoint);
-        transaction.set(new LongTransaction(mappingContext, transactionEndpoint, this));
+        logger.debug("Creating new transaction, to be begun at " + url);
+        transaction.set(new LongTransaction(mappingContext, url, this, false));
         return transaction.get();
     }
 
+    /**
+     * Tells the current transaction, if it has not yet been begun, where the server began it in response
+     * to statements sent to the given url. If the response does not say, the transaction is failed, as it would
+     * be by {@link #failed(String)}.
+     *
+     * @param requestUrl the url the statements were sent to
+     * @param location the value of the response's Location header, or null if it had none
+     */
+    public void begun(String requestUrl, String location) {
+        LongTransaction tx = beginning(requestUrl);
+        if (tx != null) {
+            if (location != null) {
+                tx.begin(location);
+            } else {
+                tx.fail();
+            }
+        }
+    }
+
+    /**
+     * Fails the current transaction, if it has not yet been begun, when the statements sent to the given url to
+     * begin it failed. The server may have begun it without telling us where, and statements sent to the same url
+     * again would silently begin another, so the transaction refuses any more statements and can only be rolled
+     * back or closed. Anything the server did begin is left for it to time out.
+     *
+     * @param requestUrl the url the failed statements were sent to
+     */
+    public void failed(String requestUrl) {
+        LongTransaction tx = beginning(requestUrl);
+        if (tx != null) {
+            tx.fail();
+        }
+    }
+
+    /**
+     * @param requestUrl the url statements are about to be sent to
+     * @throws TransactionException if they belong to the current transaction, which has failed to begin
+     */
+    public void check(String requestUrl) {
+        Transaction tx = transaction.get();
+        if (tx instanceof LongTransaction && ((LongTransaction) tx).isFailed() && tx.url().equals(requestUrl)) {
+            throw new TransactionException("Transaction failed to begin. It must be rolled back before it can accept new operations");
+        }
+    }
+
+    // the current transaction, if it is waiting to be begun by statements sent to the given url
+    private LongTransaction beginning(String requestUrl) {
+        Transaction tx = transaction.get();
+        if (tx instanceof LongTransaction && ((LongTransaction) tx).isBeginning() && tx.url().equals(requestUrl)) {
+            return (LongTransaction) tx;
+        }
+        return null;
+    }
+
+    /**
+     * Limits the time each request to commit or roll back a transaction may take when the calling thread has no
+     * {@link Deadline} of its own. Requests to roll back are never refused because the thread's deadline has passed.
+     *
+     * @param timeoutMillis the time allowed for each request, or zero for no limit
+     * @param deadlinesExceeded counts the requests that take longer than they are allowed, or null
+     */
+    public void setTimeout(long timeoutMillis, AtomicLong deadlinesExceeded) {
+        this.timeoutMillis = timeoutMillis;
+        this.deadlinesExceeded = deadlinesExceeded;
+    }
+
+    /**
+     * Rolls back the current transaction on the server when statements sent to the given url were abandoned because
+     * their deadline passed or they were cancelled, so that the server does not go on holding its locks. The
+     * transaction can then only be rolled back or closed. A transaction the abandoned statements would have begun
+     * is left for the server to time out, since the server never told us where it was.
+     *
+     * @param requestUrl the url the abandoned statements were sent to
+     */
+    public void abandon(String requestUrl) {
+        Transaction tx = transaction.get();
+        if (tx instanceof LongTransaction && ((LongTransaction) tx).isBegun() && tx.url().equals(requestUrl)) {
+            String url = tx.url();
+            logger.debug("DELETE " + url + " after its statements were abandoned");
+            try {
+                executeRequest(new HttpDelete(url), Deadline.forRollback(timeoutMillis, deadlinesExceeded));
+            } catch (RuntimeException e) {
+                logger.warn("Could not roll back abandoned transaction " + url + ": " + e.getLocalizedMessage());
+            }
+            ((LongTransaction) tx).abandon();
+        }
+    }
+
+    /**
+     * Finishes a transaction that was never begun on the server, and so needs no request to commit or roll back.
+     */
+    public void release(Transaction tx) {
+        logger.debug("Transaction was never begun, nothing to send to the server");
+        transaction.remove();
+    }
+
     public void rollback(Transaction tx) {
         String url = tx.url();
         logger.debug("DELETE " + url);
         HttpDelete request = new HttpDelete(url);
-        executeRequest(request);
+        executeRequest(request, Deadline.forRollback(timeoutMillis, deadlinesExceeded));
         transaction.remove();
     }
 
@@ -83,7 +189,7 @@ public class TransactionManager {
         logger.debug("POST " + url);
         HttpPost request = new HttpPost(url);
         request.setHeader(new BasicHeader(HTTP.CONTENT_TYPE,"application/json;charset=UTF-8"));
-        executeRequest(request);
+        executeRequest(request, Deadline.forRequest(timeoutMillis, deadlinesExceeded));
         transaction.remove();
     }
 
@@ -91,13 +197,17 @@ public class TransactionManager {
         return transaction.get();
     }
 
-    private HttpResponse executeRequest(HttpRequestBase request) {
+    private HttpResponse executeRequest(HttpRequestBase request, Deadline deadline) {
 
         try {
 
             request.setHeader(new BasicHeader("Accept", "application/json;charset=UTF-8"));
             HttpRequestAuthorization.authorize(request, credentials);
 
+            if (deadline != null) {
+                deadline.register(request);
+            }
+
             HttpResponse response = httpClient.execute(request);
             StatusLine statusLine = response.getStatusLine();
 
@@ -125,17 +235,17 @@ public class TransactionManager {
         }
 
         catch (Exception e) {
+            RuntimeException failure = deadline == null ? null : deadline.failure(e);
+            if (failure != null) {
+                throw failure;
+            }
             throw new ResultProcessingException("Failed to execute request: ", e);
         }
-    }
-
-    private String newTransactionEndpointUrl() {
-        logger.debug("POST " + url);
-        HttpPost request = new HttpPost(url);
-        request.setHeader(new BasicHeader(HTTP.CONTENT_TYPE, "application/json;charset=UTF-8"));
-        HttpResponse response = executeRequest(request);
-        Header location = response.getHeaders("Location")[0];
-        return location.getValue();
+        finally {
+            if (deadline != null) {
+                deadline.release(request);
+            }
+        }
     }
 
     private String transactionRequestEndpoint(String server) {
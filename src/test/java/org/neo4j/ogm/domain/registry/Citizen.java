@@ -0,0 +1,68 @@
+/*
+ * Copyright (c) 2002-2015 "Neo Technology,"
+ * Network Engine for Objects in Lund AB [http://neotechnology.com]
+ *
+ * This product is licensed to you under the Apache License, Version 2.0 (the "License").
+ * You may not use this product except in compliance with the License.
+ *
+ * This product may include a number of subcomponents with
+ * separate copyright notices and license terms. Your use of the source
+ * code for these subcomponents is subject to the terms and
+ * conditions of the subcomponent's license, as noted in the LICENSE file.
+ *
+ */
+package org.neo4j.ogm.domain.registry;
+
+import org.neo4j.ogm.annotation.Index;
+import org.neo4j.ogm.annotation.Property;
+import org.neo4j.ogm.annotation.Relationship;
+
+public class Citizen {
+
+    private Long id;
+
+    @Index(unique = true)
+    @Property(name = "passport_no")
+    private String passport;
+
+    @Index
+    private String surname;
+
+    private String forename;
+
+    @Relationship(type = "SPOUSE")
+    private Citizen spouse;
+
+    public Citizen() {
+    }
+
+    public Citizen(String passport, String surname, String forename) {
+        this.passport = passport;
+        this.surname = surname;
+        this.forename = forename;
+    }
+
+    public Long getId() {
+        return id;
+    }
+
+    public String getPassport() {
+        return passport;
+    }
+
+    public String getSurname() {
+        return surname;
+    }
+
+    public String getForename() {
+        return forename;
+    }
+
+    public Citizen getSpouse() {
+        return spouse;
+    }
+
+    public void setSpouse(Citizen spouse) {
+        this.spouse = spouse;
+    }
+}
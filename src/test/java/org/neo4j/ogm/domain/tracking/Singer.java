@@ -0,0 +1,71 @@
+/*
+ * Copyright (c) 2002-2015 "Neo Technology,"
+ * Network Engine for Objects in Lund AB [http://neotechnology.com]
+ *
+ * This product is licensed to you under the Apache License, Version 2.0 (the "License").
+ * You may not use this product except in compliance with the License.
+ *
+ * This product may include a number of subcomponents with
+ * separate copyright notices and license terms. Your use of the source
+ * code for these subcomponents is subject to the terms and
+ * conditions of the subcomponent's license, as noted in the LICENSE file.
+ *
+ */
+package org.neo4j.ogm.domain.tracking;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.neo4j.ogm.mapper.DirtyTracking;
+
+public class Singer implements DirtyTracking {
+
+    private Long id;
+    private String name;
+    private List<String> aliases = new ArrayList<>();
+    private transient boolean dirty = true;
+
+    public Singer() {
+    }
+
+    public Singer(String name) {
+        this.name = name;
+    }
+
+    public Long getId() {
+        return id;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public List<String> getAliases() {
+        return aliases;
+    }
+
+    public void setName(String name) {
+        this.name = name;
+        this.dirty = true;
+    }
+
+    // changes the name without telling anyone
+    public void rename(String name) {
+        this.name = name;
+    }
+
+    @Override
+    public boolean isDirty() {
+        return dirty;
+    }
+
+    @Override
+    public void markClean() {
+        dirty = false;
+    }
+
+    @Override
+    public void markDirty() {
+        dirty = true;
+    }
+}
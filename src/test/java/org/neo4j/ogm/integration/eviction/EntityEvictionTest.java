@@ -0,0 +1,134 @@
+/*
+ * Copyright (c) 2002-2015 "Neo Technology,"
+ * Network Engine for Objects in Lund AB [http://neotechnology.com]
+ *
+ * This product is licensed to you under the Apache License, Version 2.0 (the "License").
+ * You may not use this product except in compliance with the License.
+ *
+ * This product may include a number of subcomponents with
+ * separate copyright notices and license terms. Your use of the source
+ * code for these subcomponents is subject to the terms and
+ * conditions of the subcomponent's license, as noted in the LICENSE file.
+ *
+ */
+
+package org.neo4j.ogm.integration.eviction;
+
+import static org.junit.Assert.*;
+
+import java.util.Collections;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.ClassRule;
+import org.junit.Test;
+import org.neo4j.ogm.cypher.Filter;
+import org.neo4j.ogm.domain.music.Album;
+import org.neo4j.ogm.domain.music.Artist;
+import org.neo4j.ogm.session.Neo4jSession;
+import org.neo4j.ogm.session.Session;
+import org.neo4j.ogm.session.SessionFactory;
+import org.neo4j.ogm.testutil.Neo4jIntegrationTestRule;
+
+public class EntityEvictionTest {
+
+    @ClassRule
+    public static Neo4jIntegrationTestRule databaseServerRule = new Neo4jIntegrationTestRule();
+
+    private SessionFactory sessionFactory;
+    private Neo4jSession session;
+
+    @Before
+    public void init() {
+        sessionFactory = new SessionFactory("org.neo4j.ogm.domain.music");
+        sessionFactory.setEntityLimit(2);
+        session = (Neo4jSession) sessionFactory.openSession(databaseServerRule.url());
+        databaseServerRule.getGraphDatabaseService().execute("FOREACH (i IN range(1, 5) | " +
+                "CREATE (:`l'artiste` {name: 'Artist ' + i})-[:`HAS-ALBUM`]->(:`l'album` {name: 'Album ' + i}))");
+    }
+
+    @After
+    public void clearDatabase() {
+        databaseServerRule.clearDatabase();
+    }
+
+    @Test
+    public void shouldEvictBeforeMappingTheNextResponse() {
+        assertEquals(5, session.loadAll(Artist.class, 0).size());
+        assertEquals(5, session.context().getAll(Artist.class).size());
+
+        session.loadAll(Album.class, new Filter("name", "Album 1"), 0);
+
+        assertEquals(2, session.context().getAll(Artist.class).size());
+        assertEquals(1, session.context().getAll(Album.class).size());
+    }
+
+    @Test
+    public void shouldSaveEntitiesModifiedAfterTheyWereEvicted() {
+        Artist first = session.loadAll(Artist.class, new Filter("name", "Artist 1")).iterator().next();
+        for (int i = 2; i <= 5; i++) {
+            session.loadAll(Artist.class, new Filter("name", "Artist " + i));
+        }
+        assertNull(session.context().getNodeEntity(first.getId()));
+
+        first.setName("Renamed");
+        session.save(first);
+
+        Session fresh = sessionFactory.openSession(databaseServerRule.url());
+        Artist reloaded = fresh.load(Artist.class, first.getId());
+        assertEquals("Renamed", reloaded.getName());
+        assertEquals(1, reloaded.getAlbums().size());
+        assertEquals(5, fresh.queryForObject(Integer.class, "MATCH ()-[r:`HAS-ALBUM`]->() RETURN count(r)", Collections.<String, Object>emptyMap()).intValue());
+    }
+
+    @Test
+    public void shouldDeleteARelationshipRemovedFromAnEntityAfterItWasEvicted() {
+        Artist first = session.loadAll(Artist.class, new Filter("name", "Artist 1")).iterator().next();
+        Album album = first.getAlbums().iterator().next();
+        for (int i = 2; i <= 5; i++) {
+            session.loadAll(Artist.class, new Filter("name", "Artist " + i));
+        }
+        assertNull(session.context().getNodeEntity(first.getId()));
+        assertNull(session.context().getNodeEntity(album.getId()));
+
+        first.getAlbums().clear();
+        session.save(first);
+
+        Session fresh = sessionFactory.openSession(databaseServerRule.url());
+        assertEquals(0, fresh.load(Artist.class, first.getId()).getAlbums().size());
+        assertEquals(4, fresh.queryForObject(Integer.class, "MATCH ()-[r:`HAS-ALBUM`]->() RETURN count(r)", Collections.<String, Object>emptyMap()).intValue());
+    }
+
+    @Test
+    public void shouldDeleteARelationshipToAnEvictedEntityRemovedFromAnEntityStillHeld() {
+        Artist first = session.loadAll(Artist.class, new Filter("name", "Artist 1")).iterator().next();
+        Album album = first.getAlbums().iterator().next();
+        session.context().evict(Collections.singletonList(album.getId()));
+        assertSame(first, session.context().getNodeEntity(first.getId()));
+
+        first.getAlbums().clear();
+        session.save(first);
+
+        Session fresh = sessionFactory.openSession(databaseServerRule.url());
+        assertEquals(0, fresh.load(Artist.class, first.getId()).getAlbums().size());
+        assertEquals(4, fresh.queryForObject(Integer.class, "MATCH ()-[r:`HAS-ALBUM`]->() RETURN count(r)", Collections.<String, Object>emptyMap()).intValue());
+        assertFalse(session.context().hasForgottenRelationships(first.getId()));
+    }
+
+    @Test
+    public void shouldHoldAnEntityAgainOnceItIsSavedAfterBeingEvicted() {
+        Artist first = session.loadAll(Artist.class, new Filter("name", "Artist 1"), 0).iterator().next();
+        for (int i = 2; i <= 5; i++) {
+            session.loadAll(Artist.class, new Filter("name", "Artist " + i), 0);
+        }
+        assertNull(session.context().getNodeEntity(first.getId()));
+
+        first.setName("Renamed");
+        session.save(first, 0);
+
+        assertSame(first, session.context().getNodeEntity(first.getId()));
+        assertTrue(session.context().isRemembered(first));
+        assertFalse(session.context().isDirty(first));
+        assertTrue(session.context().getAll(Artist.class).size() <= 3);
+    }
+}
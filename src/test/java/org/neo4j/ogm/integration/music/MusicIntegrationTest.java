@@ -18,6 +18,7 @@ import static org.junit.Assert.*;
 
 import java.io.IOException;
 import java.util.Collection;
+import java.util.Collections;
 
 import org.junit.After;
 import org.junit.Before;
@@ -32,6 +33,7 @@ import org.neo4j.ogm.domain.music.Recording;
 import org.neo4j.ogm.domain.music.Studio;
 import org.neo4j.ogm.session.Session;
 import org.neo4j.ogm.session.SessionFactory;
+import org.neo4j.ogm.session.transaction.Transaction;
 import org.neo4j.ogm.testutil.Neo4jIntegrationTestRule;
 
 /**
@@ -176,4 +178,30 @@ public class MusicIntegrationTest {
 		assertEquals("The Beatles", loadedEric.getGuestAlbums().iterator().next().getName());
 		assertEquals("Slowhand", loadedEric.getAlbums().iterator().next().getName());
 	}
+
+	@Test
+	public void shouldNotDuplicateRelationshipsOfANodeWhoseNeighbourWasDeleted() {
+		Artist theBeatles = new Artist("The Beatles");
+		Album please = new Album("Please Please Me");
+		Recording pleaseRecording = new Recording(please, new Studio("EMI Studios, London"), 1963);
+		please.setRecording(pleaseRecording);
+		theBeatles.getAlbums().add(please);
+		please.setArtist(theBeatles);
+		session.save(theBeatles);
+		session.clear();
+
+		try (Transaction tx = session.beginTransaction()) {
+			Artist loaded = session.load(Artist.class, theBeatles.getId(), 1);
+			Recording recording = session.load(Recording.class, pleaseRecording.getId());
+			recording.getAlbum().setRecording(null);
+
+			// deleting the recording forgets the album's relationships, including the one to the artist
+			session.delete(recording);
+			session.save(loaded);
+			tx.commit();
+		}
+
+		assertEquals(1, session.queryForObject(Integer.class, "MATCH (:`l'artiste`)-[r:`HAS-ALBUM`]->(:`l'album`) RETURN count(r)", Collections.<String, Object>emptyMap()).intValue());
+		assertEquals(0, session.queryForObject(Integer.class, "MATCH ()-[r:`RECORDED-AT`]->() RETURN count(r)", Collections.<String, Object>emptyMap()).intValue());
+	}
 }
@@ -0,0 +1,113 @@
+/*
+ * Copyright (c) 2002-2015 "Neo Technology,"
+ * Network Engine for Objects in Lund AB [http://neotechnology.com]
+ *
+ * This product is licensed to you under the Apache License, Version 2.0 (the "License").
+ * You may not use this product except in compliance with the License.
+ *
+ * This product may include a number of subcomponents with
+ * separate copyright notices and license terms. Your use of the source
+ * code for these subcomponents is subject to the terms and
+ * conditions of the subcomponent's license, as noted in the LICENSE file.
+ *
+ */
+
+package org.neo4j.ogm.integration.replicas;
+
+import static org.junit.Assert.*;
+
+import java.util.Arrays;
+import java.util.Collections;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.ClassRule;
+import org.junit.Test;
+import org.neo4j.ogm.cypher.Filter;
+import org.neo4j.ogm.domain.social.Person;
+import org.neo4j.ogm.session.Neo4jSession;
+import org.neo4j.ogm.session.Session;
+import org.neo4j.ogm.session.SessionFactory;
+import org.neo4j.ogm.session.request.ReplicaRouter;
+import org.neo4j.ogm.session.transaction.Transaction;
+import org.neo4j.ogm.testutil.Neo4jIntegrationTestRule;
+
+/**
+ * The replicas in these tests don't replicate anything: each server holds different data,
+ * so that we can tell which one answered a request.
+ */
+public class ReadReplicaRoutingTest {
+
+    @ClassRule
+    public static Neo4jIntegrationTestRule writer = new Neo4jIntegrationTestRule();
+
+    @ClassRule
+    public static Neo4jIntegrationTestRule replicaOne = new Neo4jIntegrationTestRule();
+
+    @ClassRule
+    public static Neo4jIntegrationTestRule replicaTwo = new Neo4jIntegrationTestRule();
+
+    private SessionFactory sessionFactory;
+    private Session session;
+
+    @Before
+    public void init() {
+        sessionFactory = new SessionFactory("org.neo4j.ogm.domain.social");
+        session = sessionFactory.openSession(writer.url(), Arrays.asList(replicaOne.url(), replicaTwo.url()));
+
+        writer.getGraphDatabaseService().execute("CREATE (:Person {name:'Writer'})");
+        replicaOne.getGraphDatabaseService().execute("CREATE (:Person {name:'Replica'})");
+        replicaTwo.getGraphDatabaseService().execute("CREATE (:Person {name:'Replica'})");
+    }
+
+    @After
+    public void clearDatabase() {
+        writer.clearDatabase();
+        replicaOne.clearDatabase();
+        replicaTwo.clearDatabase();
+    }
+
+    @Test
+    public void shouldSendReadsOutsideTransactionsToReplicas() {
+        for (int i = 0; i < 4; i++) {
+            assertEquals(1, session.loadAll(Person.class, new Filter("name", "Replica")).size());
+            assertEquals(0, session.loadAll(Person.class, new Filter("name", "Writer")).size());
+            assertEquals(1, session.countEntitiesOfType(Person.class));
+            assertEquals("Replica", session.query("MATCH (p:Person) RETURN p.name AS name", Collections.<String, Object>emptyMap()).iterator().next().get("name"));
+        }
+
+        for (ReplicaRouter.Replica replica : ((Neo4jSession) session).replicaRouter().replicas()) {
+            assertEquals(0, replica.outstanding());
+        }
+    }
+
+    @Test
+    public void shouldSendWritesToTheWriter() {
+        session.save(new Person("New"));
+
+        assertTrue(writer.getGraphDatabaseService().execute("MATCH (p:Person {name:'New'}) RETURN p").hasNext());
+        assertFalse(replicaOne.getGraphDatabaseService().execute("MATCH (p:Person {name:'New'}) RETURN p").hasNext());
+        assertFalse(replicaTwo.getGraphDatabaseService().execute("MATCH (p:Person {name:'New'}) RETURN p").hasNext());
+    }
+
+    @Test
+    public void shouldSendReadsInTransactionsToTheWriter() {
+        try (Transaction tx = session.beginTransaction()) {
+            assertEquals(1, session.loadAll(Person.class, new Filter("name", "Writer")).size());
+            assertEquals(0, session.loadAll(Person.class, new Filter("name", "Replica")).size());
+            tx.commit();
+        }
+    }
+
+    @Test
+    public void shouldFallBackToTheWriterWhenAReplicaFails() {
+        Session failingSession = sessionFactory.openSession(writer.url(), Collections.singletonList("http://localhost:1/"));
+
+        assertEquals(1, failingSession.loadAll(Person.class, new Filter("name", "Writer")).size());
+
+        ReplicaRouter router = ((Neo4jSession) failingSession).replicaRouter();
+        assertFalse(router.replicas().get(0).isHealthy(System.currentTimeMillis()));
+        assertEquals(0, router.replicas().get(0).outstanding());
+        assertEquals(router.writerUrl(), router.select());
+    }
+}
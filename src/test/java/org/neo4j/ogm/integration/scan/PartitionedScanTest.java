@@ -0,0 +1,114 @@
+/*
+ * Copyright (c) 2002-2015 "Neo Technology,"
+ * Network Engine for Objects in Lund AB [http://neotechnology.com]
+ *
+ * This product is licensed to you under the Apache License, Version 2.0 (the "License").
+ * You may not use this product except in compliance with the License.
+ *
+ * This product may include a number of subcomponents with
+ * separate copyright notices and license terms. Your use of the source
+ * code for these subcomponents is subject to the terms and
+ * conditions of the subcomponent's license, as noted in the LICENSE file.
+ *
+ */
+package org.neo4j.ogm.integration.scan;
+
+import static org.junit.Assert.*;
+
+import java.util.Collections;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.ClassRule;
+import org.junit.Test;
+import org.neo4j.ogm.domain.music.Artist;
+import org.neo4j.ogm.session.SessionFactory;
+import org.neo4j.ogm.session.scan.PartitionedScan;
+import org.neo4j.ogm.session.scan.ScanCallback;
+import org.neo4j.ogm.session.scan.ScanResult;
+import org.neo4j.ogm.testutil.Neo4jIntegrationTestRule;
+
+public class PartitionedScanTest {
+
+    @ClassRule
+    public static Neo4jIntegrationTestRule databaseServerRule = new Neo4jIntegrationTestRule();
+
+    private static final int ARTISTS = 250;
+
+    private final SessionFactory sessionFactory = new SessionFactory("org.neo4j.ogm.domain.music");
+    private final Set<String> visited = Collections.newSetFromMap(new ConcurrentHashMap<String, Boolean>());
+
+    @Before
+    public void init() {
+        databaseServerRule.getGraphDatabaseService().execute("FOREACH (i IN range(1, " + ARTISTS + ") | " +
+                "CREATE (:`l'artiste` {name: 'Artist ' + i})-[:`HAS-ALBUM`]->(:`l'album` {name: 'Album ' + i}))");
+    }
+
+    @After
+    public void clearDatabase() {
+        databaseServerRule.clearDatabase();
+    }
+
+    @Test
+    public void shouldVisitEveryEntityOfTheTypeOnce() {
+        PartitionedScan<Artist> scan = sessionFactory.partitionedScan(databaseServerRule.url(), Artist.class);
+        scan.setWorkers(4);
+        scan.setPartitionSize(50);
+        scan.setPageSize(20);
+
+        ScanResult result = scan.run(new ScanCallback<Artist>() {
+            @Override
+            public void visit(Artist artist) {
+                assertTrue("Visited twice: " + artist.getName(), visited.add(artist.getName()));
+            }
+        });
+
+        assertTrue(result.isComplete());
+        assertEquals(ARTISTS, result.getScanned());
+        assertEquals(ARTISTS, visited.size());
+        assertTrue(result.getPartitions() > 1);
+    }
+
+    @Test
+    public void shouldResumeAFailedPartitionFromItsLastPage() {
+        PartitionedScan<Artist> scan = sessionFactory.partitionedScan(databaseServerRule.url(), Artist.class);
+        scan.setPartitionSize(100);
+        scan.setPageSize(10);
+
+        final AtomicBoolean failing = new AtomicBoolean(true);
+        ScanCallback<Artist> callback = new ScanCallback<Artist>() {
+            @Override
+            public void visit(Artist artist) {
+                if (artist.getName().equals("Artist 125") && failing.getAndSet(false)) {
+                    throw new RuntimeException("Failed to visit " + artist.getName());
+                }
+                visited.add(artist.getName());
+            }
+        };
+
+        ScanResult result = scan.run(callback);
+        assertEquals(1, result.getFailed().size());
+        assertTrue(visited.size() < ARTISTS);
+
+        ScanResult resumed = scan.resume(result.getFailed(), callback);
+        assertTrue(resumed.isComplete());
+        assertEquals(ARTISTS, visited.size());
+        assertTrue(resumed.getScanned() < ARTISTS);
+    }
+
+    @Test
+    public void shouldScanNothingWhenThereAreNoEntities() {
+        databaseServerRule.clearDatabase();
+        ScanResult result = sessionFactory.partitionedScan(databaseServerRule.url(), Artist.class).run(new ScanCallback<Artist>() {
+            @Override
+            public void visit(Artist artist) {
+                fail("There are no artists to visit");
+            }
+        });
+        assertEquals(0, result.getScanned());
+        assertEquals(0, result.getPartitions());
+    }
+}
@@ -0,0 +1,162 @@
+/*
+ * Copyright (c) 2002-2015 "Neo Technology,"
+ * Network Engine for Objects in Lund AB [http://neotechnology.com]
+ *
+ * This product is licensed to you under the Apache License, Version 2.0 (the "License").
+ * You may not use this product except in compliance with the License.
+ *
+ * This product may include a number of subcomponents with
+ * separate copyright notices and license terms. Your use of the source
+ * code for these subcomponents is subject to the terms and
+ * conditions of the subcomponent's license, as noted in the LICENSE file.
+ *
+ */
+package org.neo4j.ogm.integration.schema;
+
+import static org.junit.Assert.*;
+
+import java.util.Set;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.apache.http.impl.client.HttpClients;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.ClassRule;
+import org.junit.Test;
+import org.neo4j.graphdb.GraphDatabaseService;
+import org.neo4j.graphdb.Transaction;
+import org.neo4j.graphdb.schema.ConstraintDefinition;
+import org.neo4j.ogm.cypher.ComparisonOperator;
+import org.neo4j.ogm.cypher.Filter;
+import org.neo4j.ogm.domain.registry.Citizen;
+import org.neo4j.ogm.session.Session;
+import org.neo4j.ogm.session.SessionFactory;
+import org.neo4j.ogm.session.schema.IndexDefinition;
+import org.neo4j.ogm.session.schema.IndexManager;
+import org.neo4j.ogm.session.schema.IndexMode;
+import org.neo4j.ogm.testutil.Neo4jIntegrationTestRule;
+
+public class IndexManagementTest {
+
+    @ClassRule
+    public static Neo4jIntegrationTestRule databaseServerRule = new Neo4jIntegrationTestRule();
+
+    private static final IndexDefinition PASSPORT = new IndexDefinition("Citizen", "passport_no", true);
+    private static final IndexDefinition SURNAME = new IndexDefinition("Citizen", "surname", false);
+    private static final IndexDefinition FORENAME = new IndexDefinition("Citizen", "forename", false);
+
+    private SessionFactory sessionFactory;
+    private IndexManager indexManager;
+
+    @Before
+    public void init() {
+        sessionFactory = new SessionFactory("org.neo4j.ogm.domain.registry");
+        indexManager = new IndexManager(sessionFactory.metaData(), HttpClients.createDefault(), new ObjectMapper());
+    }
+
+    @After
+    public void dropSchema() {
+        GraphDatabaseService database = databaseServerRule.getGraphDatabaseService();
+        try (Transaction tx = database.beginTx()) {
+            for (ConstraintDefinition constraint : database.schema().getConstraints()) {
+                constraint.drop();
+            }
+            for (org.neo4j.graphdb.schema.IndexDefinition index : database.schema().getIndexes()) {
+                index.drop();
+            }
+            tx.success();
+        }
+        databaseServerRule.clearDatabase();
+    }
+
+    @Test
+    public void shouldCollectIndexesDeclaredOnTheDomain() {
+        Set<IndexDefinition> declared = indexManager.declaredIndexes();
+
+        assertEquals(2, declared.size());
+        assertTrue(declared.contains(PASSPORT));
+        assertTrue(declared.contains(SURNAME));
+    }
+
+    @Test
+    public void shouldLeaveTheSchemaAloneByDefault() {
+        sessionFactory.openSession(databaseServerRule.url());
+
+        assertTrue(existingIndexes().isEmpty());
+    }
+
+    @Test
+    public void shouldCreateMissingIndexesInUpdateMode() {
+        databaseServerRule.getGraphDatabaseService().execute("CREATE INDEX ON :Citizen(forename)");
+        sessionFactory.setIndexMode(IndexMode.UPDATE);
+        sessionFactory.openSession(databaseServerRule.url());
+
+        Set<IndexDefinition> existing = existingIndexes();
+        assertEquals(3, existing.size());
+        assertTrue(existing.contains(PASSPORT));
+        assertTrue(existing.contains(SURNAME));
+        assertTrue(existing.contains(FORENAME));
+    }
+
+    @Test
+    public void shouldReplaceAPlainIndexWithADeclaredUniquenessConstraint() {
+        databaseServerRule.getGraphDatabaseService().execute("CREATE INDEX ON :Citizen(passport_no)");
+        sessionFactory.setIndexMode(IndexMode.UPDATE);
+        sessionFactory.openSession(databaseServerRule.url());
+
+        Set<IndexDefinition> existing = existingIndexes();
+        assertTrue(existing.contains(PASSPORT));
+        assertFalse(existing.contains(new IndexDefinition("Citizen", "passport_no", false)));
+    }
+
+    @Test
+    public void shouldDropUndeclaredIndexesInAssertMode() {
+        databaseServerRule.getGraphDatabaseService().execute("CREATE INDEX ON :Citizen(forename)");
+        databaseServerRule.getGraphDatabaseService().execute("CREATE CONSTRAINT ON (n:Citizen) ASSERT n.surname IS UNIQUE");
+        sessionFactory.setIndexMode(IndexMode.ASSERT);
+        sessionFactory.openSession(databaseServerRule.url());
+
+        Set<IndexDefinition> existing = existingIndexes();
+        assertEquals(2, existing.size());
+        assertTrue(existing.contains(PASSPORT));
+        assertTrue(existing.contains(SURNAME));
+    }
+
+    @Test
+    public void shouldRefuseToOpenASessionWhenValidationFails() {
+        databaseServerRule.getGraphDatabaseService().execute("CREATE CONSTRAINT ON (n:Citizen) ASSERT n.passport_no IS UNIQUE");
+        sessionFactory.setIndexMode(IndexMode.VALIDATE);
+        try {
+            sessionFactory.openSession(databaseServerRule.url());
+            fail("The index on :Citizen(surname) is missing");
+        } catch (RuntimeException e) {
+            assertTrue(e.getMessage().contains(SURNAME.toString()));
+        }
+
+        databaseServerRule.getGraphDatabaseService().execute("CREATE CONSTRAINT ON (n:Citizen) ASSERT n.surname IS UNIQUE");
+        assertNotNull(sessionFactory.openSession(databaseServerRule.url()));
+    }
+
+    @Test
+    public void shouldReportWhichFiltersCanUseAnIndex() {
+        sessionFactory.setIndexMode(IndexMode.UPDATE);
+        Session session = sessionFactory.openSession(databaseServerRule.url());
+        session.save(new Citizen("P1", "Smith", "Jo"));
+
+        Filter olderPassports = new Filter("passport", "P2");
+        olderPassports.setComparisonOperator(ComparisonOperator.LESS_THAN);
+
+        assertEquals(1, session.loadAll(Citizen.class, new Filter("surname", "Smith")).size());
+        assertEquals(1, session.loadAll(Citizen.class, new Filter("forename", "Jo")).size());
+        assertEquals(1, session.loadAll(Citizen.class, olderPassports).size());
+
+        assertEquals(Long.valueOf(1), sessionFactory.indexUsage().hits().get(":Citizen(surname)"));
+        assertFalse(sessionFactory.indexUsage().hits().containsKey(":Citizen(forename)"));
+        assertEquals(Long.valueOf(1), sessionFactory.indexUsage().misses().get(":Citizen(forename)"));
+        assertEquals(Long.valueOf(1), sessionFactory.indexUsage().misses().get(":Citizen(passport_no)"));
+    }
+
+    private Set<IndexDefinition> existingIndexes() {
+        return indexManager.existingIndexes(databaseServerRule.url(), null);
+    }
+}
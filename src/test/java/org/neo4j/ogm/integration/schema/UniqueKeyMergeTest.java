@@ -0,0 +1,141 @@
+/*
+ * Copyright (c) 2002-2015 "Neo Technology,"
+ * Network Engine for Objects in Lund AB [http://neotechnology.com]
+ *
+ * This product is licensed to you under the Apache License, Version 2.0 (the "License").
+ * You may not use this product except in compliance with the License.
+ *
+ * This product may include a number of subcomponents with
+ * separate copyright notices and license terms. Your use of the source
+ * code for these subcomponents is subject to the terms and
+ * conditions of the subcomponent's license, as noted in the LICENSE file.
+ *
+ */
+package org.neo4j.ogm.integration.schema;
+
+import static org.junit.Assert.*;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.apache.http.impl.client.HttpClients;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.ClassRule;
+import org.junit.Test;
+import org.neo4j.ogm.domain.registry.Citizen;
+import org.neo4j.ogm.session.Neo4jSession;
+import org.neo4j.ogm.session.Session;
+import org.neo4j.ogm.session.SessionFactory;
+import org.neo4j.ogm.session.request.DefaultRequest;
+import org.neo4j.ogm.session.request.Neo4jRequest;
+import org.neo4j.ogm.session.response.Neo4jResponse;
+import org.neo4j.ogm.session.schema.IndexMode;
+import org.neo4j.ogm.testutil.Neo4jIntegrationTestRule;
+
+public class UniqueKeyMergeTest {
+
+    @ClassRule
+    public static Neo4jIntegrationTestRule databaseServerRule = new Neo4jIntegrationTestRule();
+
+    private SessionFactory sessionFactory;
+
+    @Before
+    public void init() {
+        sessionFactory = new SessionFactory("org.neo4j.ogm.domain.registry");
+        sessionFactory.setIndexMode(IndexMode.UPDATE);
+    }
+
+    @After
+    public void clearDatabase() {
+        databaseServerRule.clearDatabase();
+    }
+
+    @Test
+    public void shouldUpdateTheExistingNodeWithTheSameKey() {
+        databaseServerRule.getGraphDatabaseService().execute("CREATE (:Citizen {passport_no: 'P1', surname: 'Smith', forename: 'Jo'})");
+        Long existing = sessionFactory.openSession(databaseServerRule.url())
+                .queryForObject(Integer.class, "MATCH (n:Citizen) RETURN id(n)", Collections.<String, Object>emptyMap()).longValue();
+
+        Citizen citizen = new Citizen("P1", "Smith-Jones", null);
+        Session session = sessionFactory.openSession(databaseServerRule.url());
+        session.save(citizen);
+
+        assertEquals(existing, citizen.getId());
+        assertSame(citizen, session.load(Citizen.class, existing, 0));
+        assertEquals(Integer.valueOf(1), session.queryForObject(Integer.class, "MATCH (n:Citizen) RETURN count(n)", Collections.<String, Object>emptyMap()));
+
+        Citizen reloaded = sessionFactory.openSession(databaseServerRule.url()).load(Citizen.class, existing);
+        assertEquals("Smith-Jones", reloaded.getSurname());
+        assertEquals("Jo", reloaded.getForename());
+    }
+
+    @Test
+    public void shouldMergeACollectionOfEntitiesWithOneRequest() {
+        databaseServerRule.getGraphDatabaseService().execute("CREATE (:Citizen {passport_no: 'P2', surname: 'Brown'})");
+
+        final AtomicInteger requests = new AtomicInteger();
+        Neo4jSession session = (Neo4jSession) sessionFactory.openSession(databaseServerRule.url());
+        session.setRequest(new Neo4jRequest<String>() {
+            private final DefaultRequest request = new DefaultRequest(HttpClients.createDefault());
+
+            @Override
+            public Neo4jResponse<String> execute(String url, String jsonStatements) {
+                requests.incrementAndGet();
+                return request.execute(url, jsonStatements);
+            }
+        });
+
+        Citizen first = new Citizen("P1", "Smith", "Jo");
+        Citizen second = new Citizen("P2", "Brown", "Sam");
+        Citizen third = new Citizen("P3", "Green", "Al");
+        session.save(Arrays.asList(first, second, third));
+
+        assertEquals(1, requests.get());
+        assertNotNull(first.getId());
+        assertNotNull(second.getId());
+        assertNotNull(third.getId());
+        assertEquals(3, sessionFactory.openSession(databaseServerRule.url()).loadAll(Citizen.class).size());
+    }
+
+    @Test
+    public void shouldSaveACollectionInTheOrderItIsGiven() {
+        final List<String> requests = new ArrayList<>();
+        Neo4jSession session = (Neo4jSession) sessionFactory.openSession(databaseServerRule.url());
+        session.setRequest(new Neo4jRequest<String>() {
+            private final DefaultRequest request = new DefaultRequest(HttpClients.createDefault());
+
+            @Override
+            public Neo4jResponse<String> execute(String url, String jsonStatements) {
+                requests.add(jsonStatements);
+                return request.execute(url, jsonStatements);
+            }
+        });
+
+        Citizen first = new Citizen("P1", "Smith", "Jo");
+        Citizen second = new Citizen(null, "Brown", "Sam");
+        Citizen third = new Citizen("P3", "Green", "Al");
+        session.save(Arrays.asList(first, second, third));
+
+        assertEquals(3, requests.size());
+        assertTrue(requests.get(0).contains("Smith"));
+        assertTrue(requests.get(1).contains("Brown"));
+        assertTrue(requests.get(2).contains("Green"));
+        assertEquals(3, sessionFactory.openSession(databaseServerRule.url()).loadAll(Citizen.class).size());
+    }
+
+    @Test
+    public void shouldNotSaveTwoEntitiesWithTheSameKeyTogether() {
+        Session session = sessionFactory.openSession(databaseServerRule.url());
+        try {
+            session.save(Arrays.asList(new Citizen("P1", "Smith", "Jo"), new Citizen("P1", "Brown", "Sam")));
+            fail("entities with the same key should not be merged together");
+        } catch (RuntimeException e) {
+            assertTrue(e.getMessage().contains("P1"));
+        }
+        assertEquals(0, session.countEntitiesOfType(Citizen.class));
+    }
+}
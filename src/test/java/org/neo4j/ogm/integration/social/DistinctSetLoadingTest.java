@@ -0,0 +1,94 @@
+/*
+ * Copyright (c) 2002-2015 "Neo Technology,"
+ * Network Engine for Objects in Lund AB [http://neotechnology.com]
+ *
+ * This product is licensed to you under the Apache License, Version 2.0 (the "License").
+ * You may not use this product except in compliance with the License.
+ *
+ * This product may include a number of subcomponents with
+ * separate copyright notices and license terms. Your use of the source
+ * code for these subcomponents is subject to the terms and
+ * conditions of the subcomponent's license, as noted in the LICENSE file.
+ *
+ */
+
+package org.neo4j.ogm.integration.social;
+
+import static org.junit.Assert.*;
+
+import java.util.Collection;
+import java.util.Collections;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.ClassRule;
+import org.junit.Test;
+import org.neo4j.ogm.cypher.Filter;
+import org.neo4j.ogm.domain.social.Person;
+import org.neo4j.ogm.session.Session;
+import org.neo4j.ogm.session.SessionFactory;
+import org.neo4j.ogm.session.request.strategy.LoadStrategy;
+import org.neo4j.ogm.testutil.Neo4jIntegrationTestRule;
+
+public class DistinctSetLoadingTest {
+
+    @ClassRule
+    public static Neo4jIntegrationTestRule neo4jRule = new Neo4jIntegrationTestRule();
+
+    private Session session;
+
+    @Before
+    public void init() {
+        SessionFactory sessionFactory = new SessionFactory("org.neo4j.ogm.domain.social");
+        sessionFactory.setLoadStrategy(LoadStrategy.DISTINCT_SETS);
+        session = sessionFactory.openSession(neo4jRule.url());
+
+        // a diamond with a cycle back to the top, so that most nodes lie on several paths
+        session.execute("create (a:Person {name:'A'}) create (b:Person {name:'B'}) create (c:Person {name:'C'}) create (d:Person {name:'D'})" +
+                " create (a)-[:LIKES]->(b) create (a)-[:LIKES]->(c) create (b)-[:LIKES]->(d) create (c)-[:LIKES]->(d) create (d)-[:LIKES]->(a)", Collections.EMPTY_MAP);
+    }
+
+    @After
+    public void clearDatabase() {
+        neo4jRule.clearDatabase();
+    }
+
+    @Test
+    public void shouldLoadEachRelationshipOnceWhenLoadingById() {
+        Person a = session.loadAll(Person.class, new Filter("name", "A"), 0).iterator().next();
+        session.clear();
+
+        a = session.load(Person.class, a.getId(), 3);
+
+        assertEquals(2, a.getPeopleILike().size());
+        for (Person liked : a.getPeopleILike()) {
+            assertEquals(1, liked.getPeopleILike().size());
+            Person d = liked.getPeopleILike().get(0);
+            assertEquals("D", d.getName());
+            assertEquals(1, d.getPeopleILike().size());
+            assertSame(a, d.getPeopleILike().get(0));
+        }
+    }
+
+    @Test
+    public void shouldLoadByPropertyWithDistinctSets() {
+        Collection<Person> people = session.loadAll(Person.class, new Filter("name", "B"), 2);
+
+        assertEquals(1, people.size());
+        Person b = people.iterator().next();
+        assertEquals("B", b.getName());
+        Person d = b.getPeopleILike().get(0);
+        assertEquals("D", d.getName());
+        assertEquals("A", d.getPeopleILike().get(0).getName());
+    }
+
+    @Test
+    public void shouldLoadAllOfTypeWithDistinctSets() {
+        Collection<Person> people = session.loadAll(Person.class, 1);
+
+        assertEquals(4, people.size());
+        for (Person person : people) {
+            assertEquals(person.getName().equals("A") ? 2 : 1, person.getPeopleILike().size());
+        }
+    }
+}
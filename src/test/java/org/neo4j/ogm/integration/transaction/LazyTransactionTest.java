@@ -0,0 +1,139 @@
+/*
+ * Copyright (c) 2002-2015 "Neo Technology,"
+ * Network Engine for Objects in Lund AB [http://neotechnology.com]
+ *
+ * This product is licensed to you under the Apache License, Version 2.0 (the "License").
+ * You may not use this product except in compliance with the License.
+ *
+ * This product may include a number of subcomponents with
+ * separate copyright notices and license terms. Your use of the source
+ * code for these subcomponents is subject to the terms and
+ * conditions of the subcomponent's license, as noted in the LICENSE file.
+ *
+ */
+package org.neo4j.ogm.integration.transaction;
+
+import static org.junit.Assert.*;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.apache.http.impl.client.HttpClients;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.ClassRule;
+import org.junit.Test;
+import org.neo4j.ogm.domain.music.Artist;
+import org.neo4j.ogm.session.Neo4jSession;
+import org.neo4j.ogm.session.SessionFactory;
+import org.neo4j.ogm.session.request.DefaultRequest;
+import org.neo4j.ogm.session.request.Neo4jRequest;
+import org.neo4j.ogm.session.response.Neo4jResponse;
+import org.neo4j.ogm.session.transaction.Transaction;
+import org.neo4j.ogm.session.transaction.TransactionException;
+import org.neo4j.ogm.testutil.Neo4jIntegrationTestRule;
+
+public class LazyTransactionTest {
+
+    @ClassRule
+    public static Neo4jIntegrationTestRule neo4jRule = new Neo4jIntegrationTestRule();
+
+    private Neo4jSession session;
+    private final List<String> urls = new ArrayList<>();
+    private boolean failing;
+
+    @Before
+    public void init() throws IOException {
+        session = (Neo4jSession) new SessionFactory("org.neo4j.ogm.domain.music").openSession(neo4jRule.url());
+        session.setRequest(new Neo4jRequest<String>() {
+            private final DefaultRequest request = new DefaultRequest(HttpClients.createDefault());
+
+            @Override
+            public Neo4jResponse<String> execute(String url, String jsonStatements) {
+                urls.add(url);
+                if (failing) {
+                    throw new RuntimeException("Connection reset");
+                }
+                return request.execute(url, jsonStatements);
+            }
+        });
+    }
+
+    @After
+    public void clear() {
+        session.purgeDatabase();
+    }
+
+    @Test
+    public void shouldBeginTheTransactionWithItsFirstStatements() {
+        Transaction tx = session.beginTransaction();
+        String beginUrl = tx.url();
+
+        Artist artist = new Artist("The Beatles");
+        session.save(artist);
+        String transactionUrl = tx.url();
+        session.load(Artist.class, artist.getId());
+        tx.commit();
+
+        assertEquals(2, urls.size());
+        assertEquals(beginUrl, urls.get(0));
+        assertEquals(transactionUrl, urls.get(1));
+        assertNotEquals(beginUrl, transactionUrl);
+        assertTrue(transactionUrl.startsWith(beginUrl + "/"));
+        assertEquals(1, session.countEntitiesOfType(Artist.class));
+    }
+
+    @Test
+    public void shouldCommitATransactionThatSentNothingWithoutContactingTheServer() {
+        Transaction tx = session.beginTransaction();
+        String beginUrl = tx.url();
+        tx.commit();
+
+        assertEquals(Transaction.Status.COMMITTED, tx.status());
+        assertEquals(beginUrl, tx.url());
+        assertTrue(urls.isEmpty());
+        assertNull(session.getTransaction());
+    }
+
+    @Test
+    public void shouldRollbackALazilyBegunTransaction() {
+        try (Transaction tx = session.beginTransaction()) {
+            session.save(new Artist("The Beatles"));
+            tx.rollback();
+        }
+        assertEquals(0, session.countEntitiesOfType(Artist.class));
+    }
+
+    @Test
+    public void shouldRefuseStatementsOnceThoseThatWereToBeginTheTransactionHaveFailed() {
+        Transaction tx = session.beginTransaction();
+        failing = true;
+        try {
+            session.save(new Artist("The Beatles"));
+            fail("the request should have failed");
+        } catch (RuntimeException e) {
+            assertEquals(1, urls.size());
+        }
+        failing = false;
+
+        // sent again, the statements would begin another transaction
+        try {
+            session.save(new Artist("The Kinks"));
+            fail("the transaction should have refused the statements");
+        } catch (TransactionException e) {
+            assertEquals(1, urls.size());
+        }
+        try {
+            tx.commit();
+            fail("the transaction should not have committed");
+        } catch (TransactionException e) {
+            assertEquals(1, urls.size());
+        }
+
+        tx.rollback();
+        assertEquals(Transaction.Status.ROLLEDBACK, tx.status());
+        assertNull(session.getTransaction());
+        assertEquals(0, session.countEntitiesOfType(Artist.class));
+    }
+}
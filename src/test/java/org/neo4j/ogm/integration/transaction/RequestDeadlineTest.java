@@ -0,0 +1,178 @@
+/*
+ * Copyright (c) 2002-2015 "Neo Technology,"
+ * Network Engine for Objects in Lund AB [http://neotechnology.com]
+ *
+ * This product is licensed to you under the Apache License, Version 2.0 (the "License").
+ * You may not use this product except in compliance with the License.
+ *
+ * This product may include a number of subcomponents with
+ * separate copyright notices and license terms. Your use of the source
+ * code for these subcomponents is subject to the terms and
+ * conditions of the subcomponent's license, as noted in the LICENSE file.
+ *
+ */
+package org.neo4j.ogm.integration.transaction;
+
+import static org.junit.Assert.*;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.ClassRule;
+import org.junit.Test;
+import org.neo4j.ogm.domain.music.Artist;
+import org.neo4j.ogm.exception.DeadlineExceededException;
+import org.neo4j.ogm.session.Session;
+import org.neo4j.ogm.session.SessionFactory;
+import org.neo4j.ogm.session.SlowQueryListener;
+import org.neo4j.ogm.session.request.Deadline;
+import org.neo4j.ogm.session.request.SlowQuery;
+import org.neo4j.ogm.session.transaction.Transaction;
+import org.neo4j.ogm.session.transaction.TransactionException;
+import org.neo4j.ogm.testutil.Neo4jIntegrationTestRule;
+
+public class RequestDeadlineTest {
+
+    // takes a few seconds on the test server, and returns nothing until it has finished
+    private static final String RUNAWAY = "UNWIND range(1, 3000) AS i UNWIND range(1, 3000) AS j WITH i WHERE i < 0 RETURN count(i)";
+
+    // streams its first rows at once, then takes a few seconds to find that there are no more
+    private static final String STALLING = "UNWIND range(1, 15000) AS i " +
+            "UNWIND CASE WHEN i <= 5000 THEN [0] ELSE range(1, 1000) END AS j " +
+            "WITH i, j WHERE i <= 5000 OR j < 0 RETURN i";
+
+    @ClassRule
+    public static Neo4jIntegrationTestRule neo4jRule = new Neo4jIntegrationTestRule();
+
+    private SessionFactory sessionFactory;
+    private Session session;
+
+    @Before
+    public void init() throws IOException {
+        sessionFactory = new SessionFactory("org.neo4j.ogm.domain.music");
+        session = sessionFactory.openSession(neo4jRule.url());
+    }
+
+    @After
+    public void clear() {
+        session.purgeDatabase();
+    }
+
+    @Test
+    public void shouldAbortARequestThatOutlivesItsDeadline() {
+        long start = System.currentTimeMillis();
+        try (Deadline deadline = session.deadline(200, TimeUnit.MILLISECONDS)) {
+            session.query(RUNAWAY, Collections.<String, Object>emptyMap());
+            fail("the query should have been aborted");
+        } catch (DeadlineExceededException e) {
+            assertTrue(System.currentTimeMillis() - start < 2000);
+            assertEquals(1, sessionFactory.deadlinesExceeded());
+        }
+
+        // the session can be used again once the deadline is closed
+        session.save(new Artist("The Beatles"));
+        assertEquals(1, session.countEntitiesOfType(Artist.class));
+    }
+
+    @Test
+    public void shouldAbortRequestsThatOutliveTheRequestTimeout() {
+        sessionFactory.setRequestTimeout(200, TimeUnit.MILLISECONDS);
+        Session session = sessionFactory.openSession(neo4jRule.url());
+        try {
+            session.query(RUNAWAY, Collections.<String, Object>emptyMap());
+            fail("the query should have been aborted");
+        } catch (DeadlineExceededException e) {
+            assertEquals(1, sessionFactory.deadlinesExceeded());
+        }
+    }
+
+    @Test
+    public void shouldRollBackTheTransactionOfAnAbandonedRequest() {
+        Transaction tx = session.beginTransaction();
+        try {
+            session.save(new Artist("The Beatles"));
+            try (Deadline deadline = session.deadline(200, TimeUnit.MILLISECONDS)) {
+                session.query(RUNAWAY, Collections.<String, Object>emptyMap());
+                fail("the query should have been aborted");
+            } catch (DeadlineExceededException e) {
+                // expected
+            }
+            try {
+                tx.commit();
+                fail("an abandoned transaction should not commit");
+            } catch (TransactionException e) {
+                // expected
+            }
+        } finally {
+            tx.close();
+        }
+        assertNull(session.getTransaction());
+        assertEquals(0, session.countEntitiesOfType(Artist.class));
+    }
+
+    @Test
+    public void shouldRollBackTheTransactionOfARequestThatStallsWhileStreamingItsRows() {
+        final List<SlowQuery> failures = new ArrayList<>();
+        sessionFactory.setSlowQueryLog(0, TimeUnit.MILLISECONDS, 1.0, 0);
+        sessionFactory.setSlowQueryListener(new SlowQueryListener() {
+            @Override
+            public void slowQuery(SlowQuery query) {
+                if (query.isFailed()) {
+                    failures.add(query);
+                }
+            }
+        });
+        Session session = sessionFactory.openSession(neo4jRule.url());
+
+        Transaction tx = session.beginTransaction();
+        try {
+            session.save(new Artist("The Beatles"));
+            try (Deadline deadline = session.deadline(2, TimeUnit.SECONDS)) {
+                session.query(STALLING, Collections.<String, Object>emptyMap());
+                fail("the query should have been aborted");
+            } catch (DeadlineExceededException e) {
+                // expected
+            }
+            try {
+                tx.commit();
+                fail("an abandoned transaction should not commit");
+            } catch (TransactionException e) {
+                // expected
+            }
+        } finally {
+            tx.close();
+        }
+        assertNull(session.getTransaction());
+        assertEquals(0, session.countEntitiesOfType(Artist.class));
+
+        assertEquals(1, failures.size());
+        assertTrue(failures.get(0).getRows() > 0);
+    }
+
+    @Test
+    public void shouldCancelARequestFromAnotherThread() {
+        ScheduledExecutorService executor = Executors.newSingleThreadScheduledExecutor();
+        try (final Deadline deadline = session.deadline(0, TimeUnit.MILLISECONDS)) {
+            executor.schedule(new Runnable() {
+                @Override
+                public void run() {
+                    deadline.cancel();
+                }
+            }, 200, TimeUnit.MILLISECONDS);
+            session.query(RUNAWAY, Collections.<String, Object>emptyMap());
+            fail("the query should have been cancelled");
+        } catch (CancellationException e) {
+            assertEquals(0, sessionFactory.deadlinesExceeded());
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+}
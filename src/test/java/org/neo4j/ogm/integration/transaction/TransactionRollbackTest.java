@@ -0,0 +1,92 @@
+/*
+ * Copyright (c) 2002-2015 "Neo Technology,"
+ * Network Engine for Objects in Lund AB [http://neotechnology.com]
+ *
+ * This product is licensed to you under the Apache License, Version 2.0 (the "License").
+ * You may not use this product except in compliance with the License.
+ *
+ * This product may include a number of subcomponents with
+ * separate copyright notices and license terms. Your use of the source
+ * code for these subcomponents is subject to the terms and
+ * conditions of the subcomponent's license, as noted in the LICENSE file.
+ *
+ */
+package org.neo4j.ogm.integration.transaction;
+
+import static org.junit.Assert.*;
+
+import java.io.IOException;
+import java.util.Collections;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.ClassRule;
+import org.junit.Test;
+import org.neo4j.ogm.domain.music.Album;
+import org.neo4j.ogm.domain.music.Artist;
+import org.neo4j.ogm.session.Session;
+import org.neo4j.ogm.session.SessionFactory;
+import org.neo4j.ogm.session.transaction.Transaction;
+import org.neo4j.ogm.testutil.Neo4jIntegrationTestRule;
+
+public class TransactionRollbackTest {
+
+    @ClassRule
+    public static Neo4jIntegrationTestRule neo4jRule = new Neo4jIntegrationTestRule();
+
+    private Session session;
+
+    @Before
+    public void init() throws IOException {
+        session = new SessionFactory("org.neo4j.ogm.domain.music").openSession(neo4jRule.url());
+    }
+
+    @After
+    public void clear() {
+        session.purgeDatabase();
+    }
+
+    @Test
+    public void shouldSaveAgainWhatARolledBackTransactionSaved() {
+        Artist artist = new Artist("The Beatles");
+        Album album = new Album("Please Please Me");
+        artist.getAlbums().add(album);
+        album.setArtist(artist);
+
+        try (Transaction tx = session.beginTransaction()) {
+            session.save(artist);
+            assertNotNull(artist.getId());
+            tx.rollback();
+        }
+
+        assertNull(artist.getId());
+        assertNull(album.getId());
+
+        session.save(artist);
+
+        assertEquals(1, session.countEntitiesOfType(Artist.class));
+        assertEquals(1, session.countEntitiesOfType(Album.class));
+        assertEquals(1, session.queryForObject(Integer.class, "MATCH (:`l'artiste`)-[r:`HAS-ALBUM`]->(:`l'album`) RETURN count(r)", Collections.<String, Object>emptyMap()).intValue());
+    }
+
+    @Test
+    public void shouldKeepLoadedEntitiesAcrossARolledBackTransaction() {
+        Artist artist = new Artist("The Beatles");
+        session.save(artist);
+        Artist loaded = session.load(Artist.class, artist.getId());
+
+        try (Transaction tx = session.beginTransaction()) {
+            Album album = new Album("Please Please Me");
+            loaded.getAlbums().add(album);
+            album.setArtist(loaded);
+            session.save(loaded);
+            tx.rollback();
+        }
+
+        assertSame(loaded, session.load(Artist.class, artist.getId(), 0));
+        session.save(loaded);
+
+        assertEquals(1, session.countEntitiesOfType(Album.class));
+        assertEquals(1, session.queryForObject(Integer.class, "MATCH (:`l'artiste`)-[r:`HAS-ALBUM`]->(:`l'album`) RETURN count(r)", Collections.<String, Object>emptyMap()).intValue());
+    }
+}
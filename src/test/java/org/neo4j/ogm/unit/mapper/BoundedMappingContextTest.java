@@ -0,0 +1,198 @@
+/*
+ * Copyright (c) 2002-2015 "Neo Technology,"
+ * Network Engine for Objects in Lund AB [http://neotechnology.com]
+ *
+ * This product is licensed to you under the Apache License, Version 2.0 (the "License").
+ * You may not use this product except in compliance with the License.
+ *
+ * This product may include a number of subcomponents with
+ * separate copyright notices and license terms. Your use of the source
+ * code for these subcomponents is subject to the terms and
+ * conditions of the subcomponent's license, as noted in the LICENSE file.
+ *
+ */
+
+package org.neo4j.ogm.unit.mapper;
+
+import static org.junit.Assert.*;
+
+import java.util.Arrays;
+import java.util.Collections;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.neo4j.ogm.domain.policy.Person;
+import org.neo4j.ogm.domain.policy.Policy;
+import org.neo4j.ogm.mapper.MappedRelationship;
+import org.neo4j.ogm.mapper.MappingContext;
+import org.neo4j.ogm.metadata.MetaData;
+
+public class BoundedMappingContextTest {
+
+    private MappingContext context;
+
+    @Before
+    public void setUp() {
+        context = new MappingContext(new MetaData("org.neo4j.ogm.domain.policy"));
+    }
+
+    @Test
+    public void shouldEvictLeastRecentlyUsedEntitiesOnceOverTheLimit() {
+        context.setEntityLimit(10);
+        for (long id = 1; id <= 10; id++) {
+            register(new Person("person " + id), id);
+        }
+
+        context.evictIfOverLimit();
+        assertEquals(10, context.getAll(Person.class).size());
+
+        context.getNodeEntity(1L);
+        register(new Person("person 11"), 11L);
+        register(new Person("person 12"), 12L);
+        context.evictIfOverLimit();
+
+        assertEquals(9, context.getAll(Person.class).size());
+        assertNotNull(context.getNodeEntity(1L));
+        assertNull(context.getNodeEntity(2L));
+        assertNull(context.getNodeEntity(3L));
+        assertNull(context.getNodeEntity(4L));
+        assertNotNull(context.getNodeEntity(5L));
+        assertNotNull(context.getNodeEntity(12L));
+    }
+
+    @Test
+    public void shouldNotEvictWithoutALimit() {
+        for (long id = 1; id <= 100; id++) {
+            register(new Person("person " + id), id);
+        }
+        context.evictIfOverLimit();
+        assertEquals(100, context.getAll(Person.class).size());
+    }
+
+    @Test
+    public void shouldEvictLeastRecentlyUsedEntitiesOnceOverTheMemoryLimit() {
+        context.setMemoryLimit(100000);
+        char[] name = new char[10000];
+        Arrays.fill(name, 'x');
+        for (long id = 1; id <= 4; id++) {
+            register(new Person(new String(name)), id);
+        }
+
+        context.evictIfOverLimit();
+        assertEquals(4, context.getAll(Person.class).size());
+
+        context.getNodeEntity(1L);
+        register(new Person(new String(name)), 5L);
+        register(new Person(new String(name)), 6L);
+        context.evictIfOverLimit();
+
+        assertEquals(4, context.getAll(Person.class).size());
+        assertNotNull(context.getNodeEntity(1L));
+        assertNull(context.getNodeEntity(2L));
+        assertNull(context.getNodeEntity(3L));
+        assertNotNull(context.getNodeEntity(4L));
+        assertNotNull(context.getNodeEntity(6L));
+    }
+
+    @Test
+    public void shouldForgetTheRelationshipsOfEvictedEntities() {
+        Person jim = register(new Person("jim"), 1L);
+        Policy healthcare = new Policy("healthcare");
+        healthcare.setId(2L);
+        context.registerNodeEntity(healthcare, 2L);
+        MappedRelationship influences = new MappedRelationship(1L, "INFLUENCES", 2L, Person.class, Policy.class);
+        context.registerRelationship(influences);
+        assertFalse(context.hasForgottenRelationships(2L));
+
+        context.evict(Collections.singletonList(jim.getId()));
+        assertNull(context.getNodeEntity(1L));
+        assertFalse(context.isRegisteredRelationship(influences));
+        assertTrue(context.hasForgottenRelationships(1L));
+        assertTrue(context.hasForgottenRelationships(2L));
+
+        context.relationshipsSaved(2L);
+        assertFalse(context.hasForgottenRelationships(2L));
+        assertTrue(context.hasForgottenRelationships(1L));
+    }
+
+    @Test
+    public void shouldCountRelationshipsTowardsTheMemoryLimit() {
+        context.setMemoryLimit(10000);
+        for (long id = 1; id <= 4; id++) {
+            register(new Person("person " + id), id);
+        }
+        context.evictIfOverLimit();
+        assertEquals(4, context.getAll(Person.class).size());
+
+        for (int i = 0; i < 50; i++) {
+            context.registerRelationship(new MappedRelationship(1L, "INFLUENCES_" + i, 2L, Person.class, Person.class));
+        }
+        for (long id = 2; id <= 4; id++) {
+            context.getNodeEntity(id);
+        }
+        context.evictIfOverLimit();
+
+        // forgetting the relationships of the first is enough
+        assertNull(context.getNodeEntity(1L));
+        assertEquals(3, context.getAll(Person.class).size());
+        assertTrue(context.mappedRelationships().isEmpty());
+        assertTrue(context.hasForgottenRelationships(2L));
+    }
+
+    @Test
+    public void shouldTreatEvictedEntitiesAsDirty() {
+        Person jim = register(new Person("jim"), 1L);
+        context.remember(jim);
+        assertFalse(context.isDirty(jim));
+
+        context.evict(Collections.singletonList(1L));
+        assertTrue(context.isDirty(jim));
+    }
+
+    @Test
+    public void shouldHoldAnEvictedEntityAgainOnceItIsSaved() {
+        context.setEntityLimit(10);
+        Person jim = register(new Person("jim"), 1L);
+        Policy healthcare = new Policy("healthcare");
+        healthcare.setId(2L);
+        context.registerNodeEntity(healthcare, 2L);
+        MappedRelationship influences = new MappedRelationship(1L, "INFLUENCES", 2L, Person.class, Policy.class);
+        context.registerRelationship(influences);
+
+        context.evict(Arrays.asList(1L, 2L));
+        assertNull(context.getNodeEntity(1L));
+        assertFalse(context.isRegisteredRelationship(influences));
+
+        // as the transaction that saves them does
+        context.remember(jim);
+        context.remember(healthcare);
+        context.registerRelationship(influences);
+
+        assertSame(jim, context.getNodeEntity(1L));
+        assertSame(healthcare, context.getNodeEntity(2L));
+        assertEquals(1, context.getAll(Person.class).size());
+        assertEquals(1, context.getAll(Policy.class).size());
+        assertTrue(context.isRemembered(jim));
+        assertFalse(context.isDirty(jim));
+        assertTrue(context.isRegisteredRelationship(influences));
+
+        // they count towards the limit again, so they are the first to go once it is exceeded
+        for (long id = 3; id <= 12; id++) {
+            register(new Person("person " + id), id);
+        }
+        context.evictIfOverLimit();
+
+        assertEquals(9, context.getAll(Person.class).size() + context.getAll(Policy.class).size());
+        assertNull(context.getNodeEntity(1L));
+        assertNull(context.getNodeEntity(2L));
+        assertFalse(context.isRemembered(jim));
+        assertFalse(context.isRemembered(healthcare));
+        assertFalse(context.isRegisteredRelationship(influences));
+    }
+
+    private Person register(Person person, Long id) {
+        person.setId(id);
+        context.registerNodeEntity(person, id);
+        return person;
+    }
+}
@@ -0,0 +1,175 @@
+/*
+ * Copyright (c) 2002-2015 "Neo Technology,"
+ * Network Engine for Objects in Lund AB [http://neotechnology.com]
+ *
+ * This product is licensed to you under the Apache License, Version 2.0 (the "License").
+ * You may not use this product except in compliance with the License.
+ *
+ * This product may include a number of subcomponents with
+ * separate copyright notices and license terms. Your use of the source
+ * code for these subcomponents is subject to the terms and
+ * conditions of the subcomponent's license, as noted in the LICENSE file.
+ *
+ */
+
+package org.neo4j.ogm.unit.mapper;
+
+import static org.junit.Assert.*;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.BeforeClass;
+import org.junit.Test;
+import org.neo4j.ogm.cypher.compiler.CypherContext;
+import org.neo4j.ogm.domain.filesystem.Document;
+import org.neo4j.ogm.domain.filesystem.Folder;
+import org.neo4j.ogm.mapper.EntityGraphMapper;
+import org.neo4j.ogm.mapper.MappedRelationship;
+import org.neo4j.ogm.mapper.MappingContext;
+import org.neo4j.ogm.metadata.MetaData;
+
+public class ChangeJournalTest {
+
+    private static MetaData metaData;
+    private static MappingContext mappingContext;
+
+    private Folder folder;
+    private Document doc1;
+    private Document doc2;
+
+    @BeforeClass
+    public static void setUpMetaData() {
+        metaData = new MetaData("org.neo4j.ogm.domain.filesystem");
+        mappingContext = new MappingContext(metaData);
+    }
+
+    @Before
+    public void setUpLoadedFolder() {
+        mappingContext.setChangeJournal(true);
+
+        folder = new Folder();
+        doc1 = new Document();
+        doc2 = new Document();
+
+        folder.getDocuments().add(doc1);
+        folder.getDocuments().add(doc2);
+        doc1.setFolder(folder);
+        doc2.setFolder(folder);
+
+        folder.setId(0L);
+        doc1.setId(1L);
+        doc2.setId(2L);
+
+        mappingContext.registerNodeEntity(folder, folder.getId());
+        mappingContext.registerNodeEntity(doc1, doc1.getId());
+        mappingContext.registerNodeEntity(doc2, doc2.getId());
+        mappingContext.registerRelationship(new MappedRelationship(folder.getId(), "CONTAINS", doc1.getId(), Folder.class, Document.class));
+        mappingContext.registerRelationship(new MappedRelationship(folder.getId(), "CONTAINS", doc2.getId(), Folder.class, Document.class));
+
+        mappingContext.remember(folder);
+        mappingContext.remember(doc1);
+        mappingContext.remember(doc2);
+    }
+
+    @After
+    public void tidyUp() {
+        mappingContext.clear();
+        mappingContext.setChangeJournal(false);
+    }
+
+    @Test
+    public void shouldNotDescendFromEntitiesThatHaveNotBeenMarked() {
+        CypherContext context = map(folder);
+
+        assertTrue(context.visited(folder));
+        assertFalse(context.visited(doc1));
+        assertFalse(context.visited(doc2));
+        assertTrue(context.log().isEmpty());
+        assertEquals(2, mappingContext.mappedRelationships().size());
+    }
+
+    @Test
+    public void shouldVisitEverythingWhenNotJournalling() {
+        mappingContext.setChangeJournal(false);
+
+        CypherContext context = map(folder);
+
+        assertTrue(context.visited(doc1));
+        assertTrue(context.visited(doc2));
+    }
+
+    @Test
+    public void shouldVisitEverythingWhenSavingToALimitedDepth() {
+        CypherContext context = new EntityGraphMapper(metaData, mappingContext).map(folder, 1);
+
+        assertTrue(context.visited(doc1));
+        assertTrue(context.visited(doc2));
+    }
+
+    @Test
+    public void shouldFindMarkedEntitiesBeyondUnchangedOnes() {
+        doc2.setName("changed");
+        mappingContext.markDirty(doc2);
+
+        CypherContext context = map(doc1);
+
+        assertFalse(context.log().contains(folder));
+        assertTrue(context.visited(doc2));
+        assertEquals(1, context.log().size());
+        assertTrue(context.log().contains(doc2));
+    }
+
+    @Test
+    public void shouldNotSaveMarkedEntitiesThatAreNotConnected() {
+        Folder other = new Folder();
+        other.setId(3L);
+        mappingContext.registerNodeEntity(other, other.getId());
+        mappingContext.remember(other);
+        mappingContext.markDirty(other);
+
+        CypherContext context = map(folder);
+
+        assertFalse(context.visited(other));
+        assertTrue(mappingContext.isMarkedDirty(other));
+    }
+
+    @Test
+    public void shouldDeleteRelationshipsRemovedFromAMarkedEntity() {
+        folder.getDocuments().remove(doc1);
+        doc1.setFolder(null);
+        mappingContext.markDirty(folder);
+
+        map(folder);
+
+        assertEquals(1, mappingContext.mappedRelationships().size());
+    }
+
+    @Test
+    public void shouldCreateNewEntitiesAddedToAMarkedEntity() {
+        Document doc3 = new Document();
+        folder.getDocuments().add(doc3);
+        doc3.setFolder(folder);
+        mappingContext.markDirty(folder);
+
+        CypherContext context = map(folder);
+
+        assertTrue(context.visited(doc3));
+        assertTrue(context.log().contains(doc3));
+        assertFalse(context.log().contains(doc1));
+    }
+
+    @Test
+    public void shouldForgetTheMarkOnceTheEntityIsRemembered() {
+        mappingContext.markDirty(doc1);
+        assertTrue(mappingContext.isDirty(doc1));
+
+        mappingContext.remember(doc1);
+
+        assertFalse(mappingContext.isMarkedDirty(doc1));
+        assertFalse(mappingContext.isDirty(doc1));
+    }
+
+    private CypherContext map(Object entity) {
+        return new EntityGraphMapper(metaData, mappingContext).map(entity);
+    }
+}
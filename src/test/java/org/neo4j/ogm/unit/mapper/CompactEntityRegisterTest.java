@@ -0,0 +1,91 @@
+/*
+ * Copyright (c) 2002-2015 "Neo Technology,"
+ * Network Engine for Objects in Lund AB [http://neotechnology.com]
+ *
+ * This product is licensed to you under the Apache License, Version 2.0 (the "License").
+ * You may not use this product except in compliance with the License.
+ *
+ * This product may include a number of subcomponents with
+ * separate copyright notices and license terms. Your use of the source
+ * code for these subcomponents is subject to the terms and
+ * conditions of the subcomponent's license, as noted in the LICENSE file.
+ *
+ */
+
+package org.neo4j.ogm.unit.mapper;
+
+import static org.junit.Assert.*;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+
+import org.junit.Test;
+import org.neo4j.ogm.mapper.CompactEntityRegister;
+
+public class CompactEntityRegisterTest {
+
+    @Test
+    public void shouldKeepTheFirstEntityRegisteredForAnId() {
+        CompactEntityRegister register = new CompactEntityRegister();
+
+        assertNull(register.putIfAbsent(1L, "first"));
+        assertEquals("first", register.putIfAbsent(1L, "second"));
+        assertEquals("first", register.get(1L));
+        assertEquals(1, register.size());
+    }
+
+    @Test
+    public void shouldFindEntriesAfterRemovingOthersInTheSameProbeSequence() {
+        CompactEntityRegister register = new CompactEntityRegister();
+        for (long id = 0; id < 1000; id++) {
+            register.putIfAbsent(id, id);
+        }
+        for (long id = 0; id < 1000; id += 3) {
+            assertEquals(id, register.remove(id));
+        }
+        for (long id = 0; id < 1000; id++) {
+            assertEquals(id % 3 == 0 ? null : (Object) id, register.get(id));
+        }
+        assertEquals(666, register.size());
+        assertEquals(666, register.values().size());
+    }
+
+    @Test
+    public void shouldBehaveLikeAMapUnderRandomUpdates() {
+        CompactEntityRegister register = new CompactEntityRegister();
+        Map<Long, Object> expected = new HashMap<>();
+        Random random = new Random(42);
+
+        for (int i = 0; i < 100000; i++) {
+            long id = random.nextInt(5000) - 1000;
+            if (random.nextBoolean()) {
+                Object entity = new Object();
+                Object previous = expected.get(id);
+                if (previous == null) {
+                    expected.put(id, entity);
+                }
+                assertSame(previous, register.putIfAbsent(id, entity));
+            } else {
+                assertSame(expected.remove(id), register.remove(id));
+            }
+        }
+
+        assertEquals(expected.size(), register.size());
+        for (Map.Entry<Long, Object> entry : expected.entrySet()) {
+            assertSame(entry.getValue(), register.get(entry.getKey()));
+            assertTrue(register.containsValue(entry.getValue()));
+        }
+    }
+
+    @Test
+    public void shouldBeEmptyAfterClear() {
+        CompactEntityRegister register = new CompactEntityRegister();
+        register.putIfAbsent(7L, "entity");
+        register.clear();
+
+        assertNull(register.get(7L));
+        assertEquals(0, register.size());
+        assertFalse(register.containsValue("entity"));
+    }
+}
@@ -0,0 +1,32 @@
+/*
+ * Copyright (c) 2002-2015 "Neo Technology,"
+ * Network Engine for Objects in Lund AB [http://neotechnology.com]
+ *
+ * This product is licensed to you under the Apache License, Version 2.0 (the "License").
+ * You may not use this product except in compliance with the License.
+ *
+ * This product may include a number of subcomponents with
+ * separate copyright notices and license terms. Your use of the source
+ * code for these subcomponents is subject to the terms and
+ * conditions of the subcomponent's license, as noted in the LICENSE file.
+ *
+ */
+
+package org.neo4j.ogm.unit.mapper;
+
+import org.junit.Before;
+import org.neo4j.ogm.mapper.IdentityMapStorage;
+import org.neo4j.ogm.mapper.MappingContext;
+import org.neo4j.ogm.metadata.MetaData;
+
+/**
+ * Runs the {@link MappingContextTest} tests against the compact identity map storage.
+ */
+public class CompactMappingContextTest extends MappingContextTest {
+
+    @Before
+    @Override
+    public void setUp() {
+        collector = new MappingContext(new MetaData("org.neo4j.ogm.domain.policy"), IdentityMapStorage.COMPACT);
+    }
+}
@@ -33,7 +33,7 @@ import org.neo4j.ogm.metadata.MetaData;
  */
 public class MappingContextTest {
 
-    private MappingContext collector;
+    protected MappingContext collector;
     private static final int NUM_OBJECTS=100000;
     private static final int NUM_THREADS=15;
 
@@ -18,10 +18,12 @@ import org.junit.Test;
 
 import org.neo4j.ogm.domain.education.School;
 import org.neo4j.ogm.domain.education.Teacher;
+import org.neo4j.ogm.domain.tracking.Singer;
 import org.neo4j.ogm.mapper.EntityMemo;
 import org.neo4j.ogm.metadata.MetaData;
 import org.neo4j.ogm.metadata.info.ClassInfo;
 
+import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertTrue;
 
@@ -75,6 +77,49 @@ public class ObjectMemoTest {
         assertTrue(objectMemo.remembered(teacher, classInfo));
     }
 
+    @Test
+    public void testTrackedObjectIsAskedWhetherItHasChanged() {
+
+        ClassInfo classInfo = new MetaData("org.neo4j.ogm.domain.tracking").classInfo(Singer.class.getName());
+        Singer singer = new Singer("Cilla Black");
+
+        assertFalse(objectMemo.remembered(singer, classInfo));
+
+        objectMemo.remember(singer, classInfo);
+        assertFalse(singer.isDirty());
+        assertTrue(objectMemo.remembered(singer, classInfo));
+
+        singer.setName("Priscilla White");
+        assertFalse(objectMemo.remembered(singer, classInfo));
+    }
+
+    @Test
+    public void testTrackedObjectIsNotHashed() {
+
+        MetaData trackingMetaData = new MetaData("org.neo4j.ogm.domain.tracking");
+        ClassInfo classInfo = trackingMetaData.classInfo(Singer.class.getName());
+        Singer singer = new Singer("Cilla Black");
 
+        objectMemo.remember(singer, classInfo);
+        singer.rename("Priscilla White"); // a change the singer does not track is not seen
+
+        assertTrue(objectMemo.remembered(singer, classInfo));
+        assertEquals(1, classInfo.labels().size());
+    }
+
+    @Test
+    public void testCollectionChangedInPlaceIsSeenOnAnObjectThatTracksItsOwnChanges() {
+        ClassInfo classInfo = new MetaData("org.neo4j.ogm.domain.tracking").classInfo(Singer.class.getName());
+        Singer singer = new Singer("Cilla Black");
+
+        objectMemo.remember(singer, classInfo);
+        singer.getAliases().add("Priscilla White");
+
+        assertFalse(singer.isDirty());
+        assertFalse(objectMemo.remembered(singer, classInfo));
+
+        objectMemo.remember(singer, classInfo);
+        assertTrue(objectMemo.remembered(singer, classInfo));
+    }
 
 }
@@ -0,0 +1,149 @@
+/*
+ * Copyright (c) 2002-2015 "Neo Technology,"
+ * Network Engine for Objects in Lund AB [http://neotechnology.com]
+ *
+ * This product is licensed to you under the Apache License, Version 2.0 (the "License").
+ * You may not use this product except in compliance with the License.
+ *
+ * This product may include a number of subcomponents with
+ * separate copyright notices and license terms. Your use of the source
+ * code for these subcomponents is subject to the terms and
+ * conditions of the subcomponent's license, as noted in the LICENSE file.
+ *
+ */
+package org.neo4j.ogm.unit.mapper;
+
+import static org.junit.Assert.*;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.Test;
+import org.neo4j.ogm.domain.music.Album;
+import org.neo4j.ogm.domain.music.Artist;
+import org.neo4j.ogm.mapper.GraphEntityMapper;
+import org.neo4j.ogm.mapper.MappingContext;
+import org.neo4j.ogm.mapper.ParallelHydration;
+import org.neo4j.ogm.metadata.MetaData;
+import org.neo4j.ogm.model.GraphModel;
+import org.neo4j.ogm.model.NodeModel;
+import org.neo4j.ogm.model.RelationshipModel;
+import org.neo4j.ogm.session.Utils;
+
+public class ParallelHydrationTest {
+
+    private static final int ARTISTS = 40;
+    private static final int ALBUMS_PER_ARTIST = 25;
+
+    private final MetaData metaData = new MetaData("org.neo4j.ogm.domain.music");
+
+    @Test
+    public void shouldMapTheSameEntitiesAsSequentialMapping() {
+        MappingContext sequentialContext = new MappingContext(metaData);
+        MappingContext parallelContext = new MappingContext(metaData);
+
+        List<Artist> sequential = new GraphEntityMapper(metaData, sequentialContext).mapAll(Artist.class, paths());
+        List<Artist> parallel = new GraphEntityMapper(metaData, parallelContext, new ParallelHydration(4, 16)).mapAll(Artist.class, paths());
+
+        assertEquals(ARTISTS * ALBUMS_PER_ARTIST, parallel.size());
+        assertEquals(sequential.size(), parallel.size());
+        for (int i = 0; i < sequential.size(); i++) {
+            assertEquals(sequential.get(i).getId(), parallel.get(i).getId());
+            assertEquals(sequential.get(i).getName(), parallel.get(i).getName());
+        }
+
+        assertEquals(ARTISTS, parallelContext.getAll(Artist.class).size());
+        assertEquals(ARTISTS * ALBUMS_PER_ARTIST, parallelContext.getAll(Album.class).size());
+        for (Object entity : parallelContext.getAll(Artist.class)) {
+            Artist artist = (Artist) entity;
+            assertEquals(ALBUMS_PER_ARTIST, artist.getAlbums().size());
+            for (Album album : artist.getAlbums()) {
+                assertSame(artist, album.getArtist());
+                assertEquals("album " + album.getId(), album.getName());
+            }
+            assertFalse(parallelContext.isDirty(artist));
+        }
+    }
+
+    @Test
+    public void shouldMapSmallResponsesOnTheCallingThread() {
+        MappingContext context = new MappingContext(metaData);
+        List<GraphModel> models = new ArrayList<>();
+        models.add(path(1L, 2L, 3L));
+
+        List<Album> albums = new GraphEntityMapper(metaData, context, new ParallelHydration(4, 16)).mapAll(Album.class, models);
+
+        assertEquals(1, albums.size());
+        assertEquals("artist 1", albums.get(0).getArtist().getName());
+    }
+
+    @Test
+    public void shouldNotRewriteNodesPresentedMoreThanOnce() {
+        MappingContext context = new MappingContext(metaData);
+        List<GraphModel> models = paths();
+        models.get(1).node(0L).setProperties(Utils.map("name", "renamed"));
+
+        new GraphEntityMapper(metaData, context, new ParallelHydration(4, 16)).mapAll(Artist.class, models);
+
+        assertEquals("artist 0", ((Artist) context.getNodeEntity(0L)).getName());
+    }
+
+    @Test
+    public void shouldRevertTheMemosOfNodesHydratedInParallelWhenTheTransactionRollsBack() {
+        MappingContext context = new MappingContext(metaData);
+        new GraphEntityMapper(metaData, context, new ParallelHydration(4, 16)).mapAll(Artist.class, paths());
+
+        context.beginUndoLog();
+        List<GraphModel> models = paths();
+        for (GraphModel model : models) {
+            for (NodeModel node : model.getNodes()) {
+                node.setProperties(Utils.map("name", "renamed"));
+            }
+        }
+        new GraphEntityMapper(metaData, context, new ParallelHydration(4, 16)).mapAll(Artist.class, models);
+        context.undo();
+
+        // the entities keep the names they were given, which no longer match what they are remembered to be
+        for (Object entity : context.getAll(Artist.class)) {
+            assertEquals("renamed", ((Artist) entity).getName());
+            assertTrue(context.isDirty(entity));
+        }
+    }
+
+    // one path per album, from its artist, as a load by paths would return them
+    private static List<GraphModel> paths() {
+        List<GraphModel> models = new ArrayList<>();
+        long id = 0;
+        for (int i = 0; i < ARTISTS; i++) {
+            long artistId = id++;
+            for (int j = 0; j < ALBUMS_PER_ARTIST; j++) {
+                long albumId = id++;
+                models.add(path(artistId, albumId, albumId));
+            }
+        }
+        return models;
+    }
+
+    private static GraphModel path(Long artistId, Long albumId, Long relationshipId) {
+        NodeModel artist = new NodeModel();
+        artist.setId(artistId);
+        artist.setLabels(new String[] { "l'artiste" });
+        artist.setProperties(Utils.map("name", "artist " + artistId));
+
+        NodeModel album = new NodeModel();
+        album.setId(albumId);
+        album.setLabels(new String[] { "l'album" });
+        album.setProperties(Utils.map("name", "album " + albumId));
+
+        RelationshipModel hasAlbum = new RelationshipModel();
+        hasAlbum.setId(relationshipId);
+        hasAlbum.setType("HAS-ALBUM");
+        hasAlbum.setStartNode(artistId);
+        hasAlbum.setEndNode(albumId);
+
+        GraphModel graphModel = new GraphModel();
+        graphModel.setNodes(new NodeModel[] { artist, album });
+        graphModel.setRelationships(new RelationshipModel[] { hasAlbum });
+        return graphModel;
+    }
+}
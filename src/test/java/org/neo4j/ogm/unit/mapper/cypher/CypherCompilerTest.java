@@ -36,6 +36,7 @@ import org.neo4j.ogm.domain.forum.ForumTopicLink;
 import org.neo4j.ogm.domain.forum.Topic;
 import org.neo4j.ogm.domain.music.Album;
 import org.neo4j.ogm.domain.music.Artist;
+import org.neo4j.ogm.domain.registry.Citizen;
 import org.neo4j.ogm.domain.social.Individual;
 import org.neo4j.ogm.domain.social.Mortal;
 import org.neo4j.ogm.mapper.EntityGraphMapper;
@@ -56,7 +57,7 @@ public class CypherCompilerTest {
 
     @BeforeClass
     public static void setUpTestDatabase() {
-        mappingMetadata = new MetaData("org.neo4j.ogm.domain.education", "org.neo4j.ogm.domain.forum", "org.neo4j.ogm.domain.social", "org.neo4j.domain.policy","org.neo4j.ogm.domain.music");
+        mappingMetadata = new MetaData("org.neo4j.ogm.domain.education", "org.neo4j.ogm.domain.forum", "org.neo4j.ogm.domain.social", "org.neo4j.domain.policy","org.neo4j.ogm.domain.music", "org.neo4j.ogm.domain.registry");
         mappingContext = new MappingContext(mappingMetadata);
     }
 
@@ -129,8 +130,8 @@ public class CypherCompilerTest {
 
         String cypher=
                 "CREATE (_0:`School`:`DomainObject`{_0_props}), (_2:`Teacher`{_2_props}) " +
-                "WITH _0,_2 MERGE (_0)-[_1:`TEACHERS`]->(_2) " +
-                "WITH _0,_1,_2 MERGE (_2)-[_3:`SCHOOL`]->(_0) " +
+                "WITH _0,_2 CREATE (_0)-[_1:`TEACHERS`]->(_2) " +
+                "WITH _0,_1,_2 CREATE (_2)-[_3:`SCHOOL`]->(_0) " +
                 "RETURN id(_0) AS _0, id(_1) AS _1, id(_2) AS _2, id(_3) AS _3";
         // we expect 2 outgoing relationships, as there are no directions
         expectOnSave(waller, cypher);
@@ -211,35 +212,35 @@ public class CypherCompilerTest {
 
         expectOnSave(jim,
                 "CREATE (_0:`Teacher`{_0_props}) " +
-                "WITH _0 MATCH ($0) WHERE id($0)={$0} MERGE (_0)-[_1:`SCHOOL`]->($0) " +
-                "WITH $0,_0,_1 MERGE ($0)-[_2:`TEACHERS`]->(_0) " +
+                "WITH _0 MATCH ($0) WHERE id($0)={$0} CREATE (_0)-[_1:`SCHOOL`]->($0) " +
+                "WITH $0,_0,_1 CREATE ($0)-[_2:`TEACHERS`]->(_0) " +
                 "RETURN id(_0) AS _0, id(_1) AS _1, id(_2) AS _2",
                 // or
                 "CREATE (_0:`Teacher`{_0_props}) " +
-                "WITH _0 MATCH ($0) WHERE id($0)={$0} MERGE (_0)-[_1:`SCHOOL`]->($0) " +
-                "WITH $0,_0,_1 MERGE ($0)-[_4:`TEACHERS`]->(_0) " +
+                "WITH _0 MATCH ($0) WHERE id($0)={$0} CREATE (_0)-[_1:`SCHOOL`]->($0) " +
+                "WITH $0,_0,_1 CREATE ($0)-[_4:`TEACHERS`]->(_0) " +
                 "RETURN id(_0) AS _0, id(_1) AS _1, id(_4) AS _4");
 
         expectOnSave(waller,
                 "CREATE (_1:`Teacher`{_1_props}) " +
-                "WITH _1 MATCH ($0) WHERE id($0)={$0} MERGE ($0)-[_0:`TEACHERS`]->(_1) " +
-                "WITH $0,_0,_1 MERGE (_1)-[_2:`SCHOOL`]->($0) " +
+                "WITH _1 MATCH ($0) WHERE id($0)={$0} CREATE ($0)-[_0:`TEACHERS`]->(_1) " +
+                "WITH $0,_0,_1 CREATE (_1)-[_2:`SCHOOL`]->($0) " +
                 "RETURN id(_0) AS _0, id(_1) AS _1, id(_2) AS _2",
                 // or
                 "CREATE (_3:`Teacher`{_3_props}) " +
-                "WITH _3 MATCH ($0) WHERE id($0)={$0} MERGE ($0)-[_2:`TEACHERS`]->(_3) " +
-                "WITH $0,_2,_3 MERGE (_3)-[_4:`SCHOOL`]->($0) " +
+                "WITH _3 MATCH ($0) WHERE id($0)={$0} CREATE ($0)-[_2:`TEACHERS`]->(_3) " +
+                "WITH $0,_2,_3 CREATE (_3)-[_4:`SCHOOL`]->($0) " +
                 "RETURN id(_2) AS _2, id(_3) AS _3, id(_4) AS _4");
 
         expectOnSave(mary,
                 "CREATE (_2:`Teacher`{_2_props}) " +
-                "WITH _2 MATCH ($0) WHERE id($0)={$0} MERGE ($0)-[_1:`TEACHERS`]->(_2) " +
-                "WITH $0,_1,_2 MERGE (_2)-[_3:`SCHOOL`]->($0) " +
+                "WITH _2 MATCH ($0) WHERE id($0)={$0} CREATE ($0)-[_1:`TEACHERS`]->(_2) " +
+                "WITH $0,_1,_2 CREATE (_2)-[_3:`SCHOOL`]->($0) " +
                 "RETURN id(_1) AS _1, id(_2) AS _2, id(_3) AS _3",
                 // or
                 "CREATE (_3:`Teacher`{_3_props}) " +
-                "WITH _3 MATCH ($0) WHERE id($0)={$0} MERGE ($0)-[_2:`TEACHERS`]->(_3) " +
-                "WITH $0,_2,_3 MERGE (_3)-[_4:`SCHOOL`]->($0) " +
+                "WITH _3 MATCH ($0) WHERE id($0)={$0} CREATE ($0)-[_2:`TEACHERS`]->(_3) " +
+                "WITH $0,_2,_3 CREATE (_3)-[_4:`SCHOOL`]->($0) " +
                 "RETURN id(_2) AS _2, id(_3) AS _3, id(_4) AS _4");
 
     }
@@ -273,12 +274,12 @@ public class CypherCompilerTest {
                         "(_11:`Student`:`DomainObject`{_11_props}), " +
                         "(_2:`Course`{_2_props}), (_4:`Student`:`DomainObject`{_4_props}), " +
                         "(_6:`Student`:`DomainObject`{_6_props}), (_8:`Course`{_8_props}) " +
-                "WITH _0,_11,_2,_4,_6,_8 MERGE (_0)-[_1:`COURSES`]->(_2) " +
-                "WITH _0,_1,_11,_2,_4,_6,_8 MERGE (_8)-[_10:`STUDENTS`]->(_11) " +
-                "WITH _0,_1,_10,_11,_2,_4,_6,_8 MERGE (_2)-[_3:`STUDENTS`]->(_4) " +
-                "WITH _0,_1,_10,_11,_2,_3,_4,_6,_8 MERGE (_2)-[_5:`STUDENTS`]->(_6) " +
-                "WITH _0,_1,_10,_11,_2,_3,_4,_5,_6,_8 MERGE (_0)-[_7:`COURSES`]->(_8) " +
-                "WITH _0,_1,_10,_11,_2,_3,_4,_5,_6,_7,_8 MERGE (_8)-[_9:`STUDENTS`]->(_6) " +
+                "WITH _0,_11,_2,_4,_6,_8 CREATE (_0)-[_1:`COURSES`]->(_2) " +
+                "WITH _0,_1,_11,_2,_4,_6,_8 CREATE (_8)-[_10:`STUDENTS`]->(_11) " +
+                "WITH _0,_1,_10,_11,_2,_4,_6,_8 CREATE (_2)-[_3:`STUDENTS`]->(_4) " +
+                "WITH _0,_1,_10,_11,_2,_3,_4,_6,_8 CREATE (_2)-[_5:`STUDENTS`]->(_6) " +
+                "WITH _0,_1,_10,_11,_2,_3,_4,_5,_6,_8 CREATE (_0)-[_7:`COURSES`]->(_8) " +
+                "WITH _0,_1,_10,_11,_2,_3,_4,_5,_6,_7,_8 CREATE (_8)-[_9:`STUDENTS`]->(_6) " +
                 "RETURN id(_0) AS _0, id(_1) AS _1, id(_10) AS _10, id(_11) AS _11, id(_2) AS _2, id(_3) AS _3, id(_4) AS _4, id(_5) AS _5, id(_6) AS _6, id(_7) AS _7, id(_8) AS _8, id(_9) AS _9";
 
         expectOnSave(teacher, cypher);
@@ -480,13 +481,13 @@ public class CypherCompilerTest {
         // because it has an annotation, so we should not create an inverse relationship.
         expectOnSave(forum,
                 "CREATE (_0:`Forum`{_0_props}), (_2:`Topic`) " +
-                "WITH _0,_2 MERGE (_0)-[_1:`HAS_TOPIC`{timestamp:{_1_props}.timestamp}]->(_2) " +
+                "WITH _0,_2 CREATE (_0)-[_1:`HAS_TOPIC`{timestamp:{_1_props}.timestamp}]->(_2) " +
                 "RETURN id(_0) AS _0, id(_1) AS _1, id(_2) AS _2");
 
         // the entire object tree is accessible from the link
         expectOnSave(link,
                 "CREATE (_0:`Forum`{_0_props}), (_2:`Topic`) " +
-                "WITH _0,_2 MERGE (_0)-[_1:`HAS_TOPIC`{timestamp:{_1_props}.timestamp}]->(_2) " +
+                "WITH _0,_2 CREATE (_0)-[_1:`HAS_TOPIC`{timestamp:{_1_props}.timestamp}]->(_2) " +
                 "RETURN id(_0) AS _0, id(_1) AS _1, id(_2) AS _2");
 
 
@@ -593,7 +594,7 @@ public class CypherCompilerTest {
 
         String cypher =
                 "CREATE (_0:`l'artiste`{_0_props}), (_2:`l'album`{_2_props}) " +
-                        "WITH _0,_2 MERGE (_0)-[_3:`HAS-ALBUM`]->(_2) " +
+                        "WITH _0,_2 CREATE (_0)-[_3:`HAS-ALBUM`]->(_2) " +
                         "RETURN id(_0) AS _0, id(_2) AS _2, id(_3) AS _3";
         expectOnSave(theBeatles, cypher);
     }
@@ -614,7 +615,7 @@ public class CypherCompilerTest {
 
         String cypher =
                 "CREATE (_0:`Individual`{_0_props}), (_2:`Individual`{_2_props}) " +
-                        "WITH _0,_2 MERGE (_0)-[_1:`FRIENDS`]->(_2) " +
+                        "WITH _0,_2 CREATE (_0)-[_1:`FRIENDS`]->(_2) " +
                         "RETURN id(_0) AS _0, id(_1) AS _1, id(_2) AS _2";
         expectOnSave(adam, cypher);
     }
@@ -631,13 +632,88 @@ public class CypherCompilerTest {
 
         String cypher =
                 "CREATE (_0:`Mortal`{_0_props}), (_2:`Mortal`{_2_props}) " +
-                        "WITH _0,_2 MERGE (_2)-[_1:`KNOWN_BY`]->(_0) " +
+                        "WITH _0,_2 CREATE (_2)-[_1:`KNOWN_BY`]->(_0) " +
                         "RETURN id(_0) AS _0, id(_1) AS _1, id(_2) AS _2";
         expectOnSave(adam, cypher);
 
     }
 
 
+    @Test
+    public void mergeNewObjectOnItsUniqueKey() {
+
+        Citizen citizen = new Citizen("P1", "Smith", null);
+
+        expectOnSave(citizen,
+                "MERGE (_0:`Citizen` {`passport_no`:{_0_key}}) SET _0+={_0_props} " +
+                        "RETURN id(_0) AS _0");
+    }
+
+    @Test
+    public void mergeSeveralNewObjectsInOneStatement() {
+
+        ParameterisedStatements statements = new ParameterisedStatements(this.mapper.map(
+                Arrays.asList(new Citizen("P1", "Smith", null), new Citizen("P2", "Brown", null)), -1).getStatements());
+
+        assertEquals("MERGE (_0:`Citizen` {`passport_no`:{_0_key}}) SET _0+={_0_props} " +
+                        "MERGE (_1:`Citizen` {`passport_no`:{_1_key}}) SET _1+={_1_props} " +
+                        "RETURN id(_0) AS _0, id(_1) AS _1",
+                statements.getStatements().get(0).getStatement());
+    }
+
+    @Test
+    public void createNewObjectWhoseUniqueKeyIsNull() {
+
+        Citizen citizen = new Citizen(null, "Smith", "Jo");
+
+        expectOnSave(citizen,
+                "CREATE (_0:`Citizen`{_0_props}) " +
+                        "RETURN id(_0) AS _0");
+    }
+
+    @Test
+    public void mergeRelationshipBetweenExistingNodes() {
+
+        // another transaction may have related the nodes since they were loaded, as loading them took no locks
+        Course designTech = enrol(2L, 3L);
+
+        expectOnSave(designTech,
+                "MATCH ($2) WHERE id($2)={$2} " +
+                "MATCH ($3) WHERE id($3)={$3} " +
+                "MERGE ($2)-[_0:`STUDENTS`]->($3) " +
+                "RETURN id(_0) AS _0");
+    }
+
+    @Test
+    public void deleteRelationshipsNotSavedFromANodeWhoseNeighbourWasEvicted() {
+
+        Course designTech = enrol(2L, 3L);
+        mappingContext.registerRelationship(new MappedRelationship(2L, "STUDENTS", 3L, Course.class, Student.class));
+
+        // the context no longer knows the course is related to the student
+        mappingContext.evict(Arrays.asList(3L));
+        designTech.setStudents(new ArrayList<Student>());
+
+        expectOnSave(designTech,
+                "MATCH ($2) WHERE id($2)={$2} " +
+                "OPTIONAL MATCH ($2)-[_0:`STUDENTS`]->(_1:`Student`) WHERE NOT id(_1) IN {_0_nodes} AND NOT id(_0) IN {_0_rels} " +
+                "WITH $2, collect(_0) AS _0_all FOREACH (_0_r IN _0_all | DELETE _0_r)");
+        assertFalse(mappingContext.hasForgottenRelationships(2L));
+    }
+
+    private Course enrol(Long courseId, Long studentId) {
+        Course course = new Course("GCSE Design & Technology");
+        course.setId(courseId);
+        Student student = new Student("Shivani");
+        student.setId(studentId);
+        mappingContext.registerNodeEntity(course, courseId);
+        mappingContext.registerNodeEntity(student, studentId);
+        mappingContext.remember(course);
+        mappingContext.remember(student);
+        course.setStudents(Arrays.asList(student));
+        return course;
+    }
+
     private void expectOnSave(Object object, String... cypher) {
         ParameterisedStatements statements = new ParameterisedStatements(this.mapper.map(object).getStatements());
         for (String s : cypher) {
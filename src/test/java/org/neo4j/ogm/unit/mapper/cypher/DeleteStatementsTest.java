@@ -53,6 +53,12 @@ public class DeleteStatementsTest {
         assertEquals("MATCH (n:`TRAFFIC_WARDENS`) OPTIONAL MATCH (n)-[r]-() DELETE r, n", deleteNodeStatements.deleteByType("TRAFFIC_WARDENS").getStatement());
     }
 
+    @Test
+    public void testDeleteByLabelInBatches() {
+        assertEquals("MATCH (n:`TRAFFIC_WARDENS`) WITH n LIMIT { limit } OPTIONAL MATCH (n)-[r]-() DELETE r, n", deleteNodeStatements.deleteByType("TRAFFIC_WARDENS", 100).getStatement());
+        assertEquals(100, deleteNodeStatements.deleteByType("TRAFFIC_WARDENS", 100).getParameters().get("limit"));
+    }
+
     @Test
     public void testDeleteOneRel() {
         assertEquals("MATCH (n)-[r]->() WHERE ID(r) = { id } DELETE r", deleteRelStatements.delete(0L).getStatement());
@@ -68,4 +74,9 @@ public class DeleteStatementsTest {
     public void testDeleteByType() {
         assertEquals("MATCH (n)-[r:`TRAFFIC_WARDEN`]-() DELETE r", deleteRelStatements.deleteByType("TRAFFIC_WARDEN").getStatement());
     }
+
+    @Test
+    public void testDeleteByTypeInBatches() {
+        assertEquals("MATCH (n)-[r:`TRAFFIC_WARDEN`]->() WITH r LIMIT { limit } DELETE r", deleteRelStatements.deleteByType("TRAFFIC_WARDEN", 100).getStatement());
+    }
 }
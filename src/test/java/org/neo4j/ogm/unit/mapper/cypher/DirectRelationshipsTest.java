@@ -73,7 +73,7 @@ public class DirectRelationshipsTest {
                 "CREATE " +
                         "(_0:`Folder`), " +
                         "(_2:`Document`) " +
-                        "WITH _0,_2 MERGE " +
+                        "WITH _0,_2 CREATE " +
                         "(_0)-[_3:`CONTAINS`]->(_2) " +
                         "RETURN id(_0) AS _0, id(_2) AS _2, id(_3) AS _3");
 
@@ -82,7 +82,7 @@ public class DirectRelationshipsTest {
                         "(_0:`Document`), " +
                         "(_2:`Folder`) " +
                         "WITH _0,_2 " +
-                        "MERGE (_2)-[_3:`CONTAINS`]->(_0) " +
+                        "CREATE (_2)-[_3:`CONTAINS`]->(_0) " +
                         "RETURN id(_0) AS _0, id(_2) AS _2, id(_3) AS _3");
 
     }
@@ -105,8 +105,8 @@ public class DirectRelationshipsTest {
                         "(_0:`Folder`), " +
                         "(_2:`Document`), " +
                         "(_5:`Document`) " +
-                        "WITH _0,_2,_5 MERGE (_0)-[_3:`CONTAINS`]->(_2) " +
-                        "WITH _0,_2,_3,_5 MERGE (_0)-[_6:`CONTAINS`]->(_5) " +
+                        "WITH _0,_2,_5 CREATE (_0)-[_3:`CONTAINS`]->(_2) " +
+                        "WITH _0,_2,_3,_5 CREATE (_0)-[_6:`CONTAINS`]->(_5) " +
                         "RETURN id(_0) AS _0, id(_2) AS _2, id(_3) AS _3, id(_5) AS _5, id(_6) AS _6");
 
 
@@ -115,8 +115,8 @@ public class DirectRelationshipsTest {
                         "(_0:`Document`), " +
                         "(_2:`Folder`), " +
                         "(_5:`Document`) " +
-                        "WITH _0,_2,_5 MERGE (_2)-[_3:`CONTAINS`]->(_0) " +
-                        "WITH _0,_2,_3,_5 MERGE (_2)-[_6:`CONTAINS`]->(_5) " +
+                        "WITH _0,_2,_5 CREATE (_2)-[_3:`CONTAINS`]->(_0) " +
+                        "WITH _0,_2,_3,_5 CREATE (_2)-[_6:`CONTAINS`]->(_5) " +
                         "RETURN id(_0) AS _0, id(_2) AS _2, id(_3) AS _3, id(_5) AS _5, id(_6) AS _6");
 
         expectOnSave(doc2,
@@ -124,8 +124,8 @@ public class DirectRelationshipsTest {
                         "(_0:`Document`), " +
                         "(_2:`Folder`), " +
                         "(_4:`Document`) " +
-                        "WITH _0,_2,_4 MERGE (_2)-[_5:`CONTAINS`]->(_4) " +
-                        "WITH _0,_2,_4,_5 MERGE (_2)-[_6:`CONTAINS`]->(_0) " +
+                        "WITH _0,_2,_4 CREATE (_2)-[_5:`CONTAINS`]->(_4) " +
+                        "WITH _0,_2,_4,_5 CREATE (_2)-[_6:`CONTAINS`]->(_0) " +
                         "RETURN id(_0) AS _0, id(_2) AS _2, id(_4) AS _4, id(_5) AS _5, id(_6) AS _6");
 
     }
@@ -152,7 +152,7 @@ public class DirectRelationshipsTest {
                 "CREATE " +
                         "(_0:`Folder`), " +
                         "(_2:`Document`) " +
-                        "WITH _0,_2 MERGE " +
+                        "WITH _0,_2 CREATE " +
                         "(_0)-[_3:`CONTAINS`]->(_2) " +
                         "RETURN id(_0) AS _0, id(_2) AS _2, id(_3) AS _3");
 
@@ -161,7 +161,7 @@ public class DirectRelationshipsTest {
                         "(_0:`Document`), " +
                         "(_2:`Folder`) " +
                         "WITH _0,_2 " +
-                        "MERGE (_2)-[_3:`CONTAINS`]->(_0) " +
+                        "CREATE (_2)-[_3:`CONTAINS`]->(_0) " +
                         "RETURN id(_0) AS _0, id(_2) AS _2, id(_3) AS _3");
     }
 
@@ -181,16 +181,16 @@ public class DirectRelationshipsTest {
                 "CREATE " +
                         "(_0:`Folder`), " +
                         "(_2:`Document`) " +
-                        "WITH _0,_2 MERGE (_0)-[_1:`ARCHIVED`]->(_2) " +
-                        "WITH _0,_1,_2 MERGE (_0)-[_3:`CONTAINS`]->(_2) " +
+                        "WITH _0,_2 CREATE (_0)-[_1:`ARCHIVED`]->(_2) " +
+                        "WITH _0,_1,_2 CREATE (_0)-[_3:`CONTAINS`]->(_2) " +
                         "RETURN id(_0) AS _0, id(_1) AS _1, id(_2) AS _2, id(_3) AS _3",
 
                 // or
                 "CREATE " +
                         "(_0:`Folder`), " +
                         "(_2:`Document`) " +
-                        "WITH _0,_2 MERGE (_0)-[_3:`CONTAINS`]->(_2) " +
-                        "WITH _0,_2,_3 MERGE (_0)-[_4:`ARCHIVED`]->(_2) " +
+                        "WITH _0,_2 CREATE (_0)-[_3:`CONTAINS`]->(_2) " +
+                        "WITH _0,_2,_3 CREATE (_0)-[_4:`ARCHIVED`]->(_2) " +
                         "RETURN id(_0) AS _0, id(_2) AS _2, id(_3) AS _3, id(_4) AS _4");
 
         expectOnSave(document,
@@ -198,15 +198,15 @@ public class DirectRelationshipsTest {
                 "CREATE " +
                         "(_0:`Document`), " +
                         "(_2:`Folder`) " +
-                        "WITH _0,_2 MERGE (_2)-[_3:`ARCHIVED`]->(_0) " +
-                        "WITH _0,_2,_3 MERGE (_2)-[_4:`CONTAINS`]->(_0) " +
+                        "WITH _0,_2 CREATE (_2)-[_3:`ARCHIVED`]->(_0) " +
+                        "WITH _0,_2,_3 CREATE (_2)-[_4:`CONTAINS`]->(_0) " +
                         "RETURN id(_0) AS _0, id(_2) AS _2, id(_3) AS _3, id(_4) AS _4",
                 // or
                 "CREATE " +
                         "(_0:`Document`), " +
                         "(_2:`Folder`) " +
-                        "WITH _0,_2 MERGE (_2)-[_3:`CONTAINS`]->(_0) " +
-                        "WITH _0,_2,_3 MERGE (_2)-[_4:`ARCHIVED`]->(_0) " +
+                        "WITH _0,_2 CREATE (_2)-[_3:`CONTAINS`]->(_0) " +
+                        "WITH _0,_2,_3 CREATE (_2)-[_4:`ARCHIVED`]->(_0) " +
                         "RETURN id(_0) AS _0, id(_2) AS _2, id(_3) AS _3, id(_4) AS _4"
                 );
     }
@@ -0,0 +1,73 @@
+/*
+ * Copyright (c) 2002-2015 "Neo Technology,"
+ * Network Engine for Objects in Lund AB [http://neotechnology.com]
+ *
+ * This product is licensed to you under the Apache License, Version 2.0 (the "License").
+ * You may not use this product except in compliance with the License.
+ *
+ * This product may include a number of subcomponents with
+ * separate copyright notices and license terms. Your use of the source
+ * code for these subcomponents is subject to the terms and
+ * conditions of the subcomponent's license, as noted in the LICENSE file.
+ *
+ */
+
+package org.neo4j.ogm.unit.mapper.cypher;
+
+import org.junit.Test;
+import org.neo4j.ogm.cypher.Filter;
+import org.neo4j.ogm.cypher.Filters;
+import org.neo4j.ogm.cypher.query.Pagination;
+import org.neo4j.ogm.cypher.query.Query;
+import org.neo4j.ogm.session.request.strategy.DistinctPathQuery;
+import org.neo4j.ogm.session.request.strategy.QueryStatements;
+
+import java.util.Arrays;
+
+import static org.junit.Assert.assertEquals;
+
+public class DistinctPathQueryTest {
+
+    private final QueryStatements queryStatements = new DistinctPathQuery();
+
+    @Test
+    public void testFindOne() throws Exception {
+        assertEquals("MATCH (n) WHERE id(n) = { id } WITH n MATCH p=(n)-[*0..2]-(m) RETURN collect(DISTINCT m), collect(DISTINCT last(relationships(p)))", queryStatements.findOne(0L, 2).getStatement());
+    }
+
+    @Test
+    public void testFindOneInfiniteDepth() throws Exception {
+        assertEquals("MATCH (n) WHERE id(n) = { id } WITH n MATCH p=(n)-[*0..]-(m) RETURN collect(DISTINCT m), collect(DISTINCT last(relationships(p)))", queryStatements.findOne(0L, -1).getStatement());
+    }
+
+    @Test
+    public void testFindOneDepthZero() throws Exception {
+        assertEquals("MATCH (n) WHERE id(n) = { id } RETURN n", queryStatements.findOne(0L, 0).getStatement());
+    }
+
+    @Test
+    public void testFindAllCollection() throws Exception {
+        assertEquals("MATCH (n) WHERE id(n) in { ids } WITH n MATCH p=(n)-[*0..1]-(m) RETURN collect(DISTINCT m), collect(DISTINCT last(relationships(p)))", queryStatements.findAll(Arrays.asList(1L, 2L, 3L), 1).getStatement());
+    }
+
+    @Test
+    public void testFindByLabel() throws Exception {
+        assertEquals("MATCH (n:`Orbit`) WITH n MATCH p=(n)-[*0..3]-(m) RETURN collect(DISTINCT m), collect(DISTINCT last(relationships(p)))", queryStatements.findByType("Orbit", 3).getStatement());
+    }
+
+    @Test
+    public void testFindByLabelWithPaging() throws Exception {
+        checkPage("MATCH (n:`Orbit`) WITH n SKIP { _skip } LIMIT { _limit } MATCH p=(n)-[*0..1]-(m) RETURN collect(DISTINCT m), collect(DISTINCT last(relationships(p)))", 20, 10, queryStatements.findByType("Orbit", 1).setPagination(new Pagination(2, 10)));
+    }
+
+    @Test
+    public void testFindByProperty() throws Exception {
+        assertEquals("MATCH (n:`Asteroid`) WHERE n.`diameter` = { `diameter` } WITH n MATCH p=(n)-[*0..2]-(m) RETURN collect(DISTINCT m), collect(DISTINCT last(relationships(p))), ID(n)", queryStatements.findByProperties("Asteroid", new Filters().add(new Filter("diameter", 60.2)), 2).getStatement());
+    }
+
+    private void checkPage(String expected, int skip, int limit, Query query) {
+        assertEquals(expected, query.getStatement());
+        assertEquals(skip, query.getParameters().get(Pagination.SKIP));
+        assertEquals(limit, query.getParameters().get(Pagination.LIMIT));
+    }
+}
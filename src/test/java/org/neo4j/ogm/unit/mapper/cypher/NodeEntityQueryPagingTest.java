@@ -17,6 +17,7 @@ import org.junit.Test;
 import org.neo4j.ogm.cypher.Filter;
 import org.neo4j.ogm.cypher.Filters;
 import org.neo4j.ogm.cypher.query.Pagination;
+import org.neo4j.ogm.cypher.query.Query;
 import org.neo4j.ogm.session.request.strategy.VariableDepthQuery;
 
 import java.util.Arrays;
@@ -32,55 +33,57 @@ public class NodeEntityQueryPagingTest {
 
     @Test
     public void testFindAll() {
-        check("MATCH p=()-->() WITH p SKIP 2 LIMIT 2 RETURN p", query.findAll().setPagination(new Pagination(1, 2)).getStatement());
+        checkPage("MATCH p=()-->() WITH p SKIP { _skip } LIMIT { _limit } RETURN p", 2, 2, query.findAll().setPagination(new Pagination(1, 2)));
     }
 
     @Test
     public void testFindById() {
-        check("MATCH (n) WHERE id(n) in { ids } WITH n SKIP 2 LIMIT 2 MATCH p=(n)-[*0..1]-(m) RETURN p", query.findAll(Arrays.asList(23L, 24L), 1).setPagination(new Pagination(1, 2)).getStatement());
+        checkPage("MATCH (n) WHERE id(n) in { ids } WITH n SKIP { _skip } LIMIT { _limit } MATCH p=(n)-[*0..1]-(m) RETURN p", 2, 2, query.findAll(Arrays.asList(23L, 24L), 1).setPagination(new Pagination(1, 2)));
     }
 
     @Test
     public void testFindByType() {
-        check("MATCH (n:`Raptor`) WITH n SKIP 4 LIMIT 2 MATCH p=(n)-[*0..1]-(m) RETURN p", query.findByType("Raptor", 1).setPagination(new Pagination(2, 2)).getStatement());
+        checkPage("MATCH (n:`Raptor`) WITH n SKIP { _skip } LIMIT { _limit } MATCH p=(n)-[*0..1]-(m) RETURN p", 4, 2, query.findByType("Raptor", 1).setPagination(new Pagination(2, 2)));
     }
 
     @Test
     public void testFindByProperty() {
-        check("MATCH (n:`Raptor`) WHERE n.`name` = { `name` } WITH n SKIP 0 LIMIT 2 MATCH p=(n)-[*0..2]-(m) RETURN p, ID(n)", query.findByProperties("Raptor", new Filters().add(new Filter("name", "velociraptor")), 2).setPagination(new Pagination(0, 2)).getStatement());
+        checkPage("MATCH (n:`Raptor`) WHERE n.`name` = { `name` } WITH n SKIP { _skip } LIMIT { _limit } MATCH p=(n)-[*0..2]-(m) RETURN p, ID(n)", 0, 2, query.findByProperties("Raptor", new Filters().add(new Filter("name", "velociraptor")), 2).setPagination(new Pagination(0, 2)));
     }
 
     @Test
     public void testFindByIdDepthZero() {
-        check("MATCH (n) WHERE id(n) in { ids } WITH n SKIP 1 LIMIT 1 RETURN n", query.findAll(Arrays.asList(23L, 24L), 0).setPagination(new Pagination(1, 1)).getStatement());
+        checkPage("MATCH (n) WHERE id(n) in { ids } WITH n SKIP { _skip } LIMIT { _limit } RETURN n", 1, 1, query.findAll(Arrays.asList(23L, 24L), 0).setPagination(new Pagination(1, 1)));
     }
 
     @Test
     public void testFindByTypeDepthZero() {
-        check("MATCH (n:`Raptor`) WITH n SKIP 4 LIMIT 2 RETURN n", query.findByType("Raptor", 0).setPagination(new Pagination(2, 2)).getStatement());
+        checkPage("MATCH (n:`Raptor`) WITH n SKIP { _skip } LIMIT { _limit } RETURN n", 4, 2, query.findByType("Raptor", 0).setPagination(new Pagination(2, 2)));
     }
 
     @Test
     public void testByPropertyDepthZero() {
-        check("MATCH (n:`Raptor`) WHERE n.`name` = { `name` } WITH n SKIP 0 LIMIT 2 RETURN n", query.findByProperties("Raptor", new Filters().add(new Filter("name", "velociraptor")), 0).setPagination(new Pagination(0, 2)).getStatement());
+        checkPage("MATCH (n:`Raptor`) WHERE n.`name` = { `name` } WITH n SKIP { _skip } LIMIT { _limit } RETURN n", 0, 2, query.findByProperties("Raptor", new Filters().add(new Filter("name", "velociraptor")), 0).setPagination(new Pagination(0, 2)));
     }
 
     @Test
     public void testFindByIdDepthInfinite() {
-        check("MATCH (n) WHERE id(n) in { ids } WITH n SKIP 2 LIMIT 2 MATCH p=(n)-[*0..]-(m) RETURN p", query.findAll(Arrays.asList(23L, 24L), -1).setPagination(new Pagination(1, 2)).getStatement());
+        checkPage("MATCH (n) WHERE id(n) in { ids } WITH n SKIP { _skip } LIMIT { _limit } MATCH p=(n)-[*0..]-(m) RETURN p", 2, 2, query.findAll(Arrays.asList(23L, 24L), -1).setPagination(new Pagination(1, 2)));
     }
 
     @Test
     public void testFindByTypeDepthInfinite() {
-        check("MATCH (n:`Raptor`) WITH n SKIP 6 LIMIT 2 MATCH p=(n)-[*0..]-(m) RETURN p", query.findByType("Raptor", -1).setPagination(new Pagination(3, 2)).getStatement());
+        checkPage("MATCH (n:`Raptor`) WITH n SKIP { _skip } LIMIT { _limit } MATCH p=(n)-[*0..]-(m) RETURN p", 6, 2, query.findByType("Raptor", -1).setPagination(new Pagination(3, 2)));
     }
 
     @Test
     public void testFindByPropertyDepthInfinite() {
-        check("MATCH (n:`Raptor`) WHERE n.`name` = { `name` }  WITH n SKIP 0 LIMIT 2 MATCH p=(n)-[*0..]-(m) RETURN p, ID(n)", query.findByProperties("Raptor", new Filters().add(new Filter("name", "velociraptor")), -1).setPagination(new Pagination(0, 2)).getStatement());
+        checkPage("MATCH (n:`Raptor`) WHERE n.`name` = { `name` }  WITH n SKIP { _skip } LIMIT { _limit } MATCH p=(n)-[*0..]-(m) RETURN p, ID(n)", 0, 2, query.findByProperties("Raptor", new Filters().add(new Filter("name", "velociraptor")), -1).setPagination(new Pagination(0, 2)));
     }
 
-    private void check(String expected, String actual) {
-        assertEquals(expected, actual);
+    private void checkPage(String expected, int skip, int limit, Query query) {
+        assertEquals(expected, query.getStatement());
+        assertEquals(skip, query.getParameters().get(Pagination.SKIP));
+        assertEquals(limit, query.getParameters().get(Pagination.LIMIT));
     }
 }
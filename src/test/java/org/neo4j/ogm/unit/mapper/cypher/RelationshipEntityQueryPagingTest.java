@@ -20,6 +20,7 @@ import org.junit.Test;
 import org.neo4j.ogm.cypher.Filter;
 import org.neo4j.ogm.cypher.Filters;
 import org.neo4j.ogm.cypher.query.Pagination;
+import org.neo4j.ogm.cypher.query.Query;
 import org.neo4j.ogm.session.request.strategy.QueryStatements;
 import org.neo4j.ogm.session.request.strategy.VariableDepthRelationshipQuery;
 
@@ -34,22 +35,27 @@ public class RelationshipEntityQueryPagingTest {
 
     @Test
     public void testFindAllCollection() throws Exception {
-        assertEquals("MATCH (n)-[r]->() WHERE ID(r) IN { ids } WITH n,r SKIP 30 LIMIT 10 MATCH p=(n)-[*0..1]-(m) RETURN p", query.findAll(Arrays.asList(1L, 2L, 3L), 1).setPagination(new Pagination(3, 10)).getStatement());
+        checkPage("MATCH (n)-[r]->() WHERE ID(r) IN { ids } WITH n,r SKIP { _skip } LIMIT { _limit } MATCH p=(n)-[*0..1]-(m) RETURN p", 30, 10, query.findAll(Arrays.asList(1L, 2L, 3L), 1).setPagination(new Pagination(3, 10)));
     }
 
     @Test
     public void testFindAll() throws Exception {
-        assertEquals("MATCH p=()-->() WITH p SKIP 2 LIMIT 2 RETURN p", query.findAll().setPagination(new Pagination(1, 2)).getStatement());
+        checkPage("MATCH p=()-->() WITH p SKIP { _skip } LIMIT { _limit } RETURN p", 2, 2, query.findAll().setPagination(new Pagination(1, 2)));
     }
 
     @Test
     public void testFindByLabel() throws Exception {
-        assertEquals("MATCH p=()-[r:`ORBITS`*..3]-() WITH p,r SKIP 10 LIMIT 10 RETURN p", query.findByType("ORBITS", 3).setPagination(new Pagination(1, 10)).getStatement());
+        checkPage("MATCH p=()-[r:`ORBITS`*..3]-() WITH p,r SKIP { _skip } LIMIT { _limit } RETURN p", 10, 10, query.findByType("ORBITS", 3).setPagination(new Pagination(1, 10)));
     }
 
     @Test
     public void testFindByProperty() throws Exception {
-        assertEquals("MATCH (n)-[r:`ORBITS`]->(m) WHERE r.`distance` = { `distance` } WITH n,r SKIP 0 LIMIT 4 MATCH p=(n)-[*0..1]-() RETURN p, ID(r)", query.findByProperties("ORBITS", new Filters().add(new Filter("distance", 60.2)), 1).setPagination(new Pagination(0, 4)).getStatement());
+        checkPage("MATCH (n)-[r:`ORBITS`]->(m) WHERE r.`distance` = { `distance` } WITH n,r SKIP { _skip } LIMIT { _limit } MATCH p=(n)-[*0..1]-() RETURN p, ID(r)", 0, 4, query.findByProperties("ORBITS", new Filters().add(new Filter("distance", 60.2)), 1).setPagination(new Pagination(0, 4)));
     }
 
+    private void checkPage(String expected, int skip, int limit, Query query) {
+        assertEquals(expected, query.getStatement());
+        assertEquals(skip, query.getParameters().get(Pagination.SKIP));
+        assertEquals(limit, query.getParameters().get(Pagination.LIMIT));
+    }
 }
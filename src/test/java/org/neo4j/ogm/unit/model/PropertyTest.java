@@ -0,0 +1,71 @@
+/*
+ * Copyright (c) 2002-2015 "Neo Technology,"
+ * Network Engine for Objects in Lund AB [http://neotechnology.com]
+ *
+ * This product is licensed to you under the Apache License, Version 2.0 (the "License").
+ * You may not use this product except in compliance with the License.
+ *
+ * This product may include a number of subcomponents with
+ * separate copyright notices and license terms. Your use of the source
+ * code for these subcomponents is subject to the terms and
+ * conditions of the subcomponent's license, as noted in the LICENSE file.
+ *
+ */
+
+package org.neo4j.ogm.unit.model;
+
+import static org.junit.Assert.*;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.Test;
+import org.neo4j.ogm.model.Property;
+import org.neo4j.ogm.session.Utils;
+
+public class PropertyTest {
+
+    @Test
+    public void shouldPreserveTheTypesOfNumbersAndBooleans() {
+        assertEquals(42, Property.with("i", 42).asParameter());
+        assertEquals(42L, Property.with("l", 42L).asParameter());
+        assertEquals(1.1f, Property.with("f", 1.1f).asParameter());
+        assertEquals(2.5d, Property.with("d", 2.5d).asParameter());
+        assertEquals(Boolean.TRUE, Property.with("b", true).asParameter());
+    }
+
+    @Test
+    public void shouldNotParseNumericStrings() {
+        assertEquals("42", Property.with("s", "42").asParameter());
+        assertEquals("5", Property.with("c", '5').asParameter());
+    }
+
+    @Test
+    public void shouldPassArraysAndCollectionsThrough() {
+        int[] array = {1, 2, 3};
+        List<String> list = Arrays.asList("a", "b");
+        assertSame(array, Property.with("a", array).asParameter());
+        assertSame(list, Property.with("l", list).asParameter());
+    }
+
+    @Test
+    public void shouldConvertOtherValuesToStrings() {
+        assertEquals("SECONDS", Property.with("e", java.util.concurrent.TimeUnit.SECONDS).asParameter());
+        assertNull(Property.with("n", null).asParameter());
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    public void shouldMapCollectionsOfPropertiesToTypedParameters() {
+        Map<String, Object> parameters = Utils.mapCollection("props", Arrays.<Property<String, Object>>asList(
+                Property.<String, Object>with("age", 42),
+                Property.<String, Object>with("score", 0.5),
+                Property.<String, Object>with("missing", null)));
+
+        Map<String, Object> props = (Map<String, Object>) parameters.get("props");
+        assertEquals(2, props.size());
+        assertEquals(42, props.get("age"));
+        assertEquals(0.5, props.get("score"));
+    }
+}
@@ -0,0 +1,168 @@
+/*
+ * Copyright (c) 2002-2015 "Neo Technology,"
+ * Network Engine for Objects in Lund AB [http://neotechnology.com]
+ *
+ * This product is licensed to you under the Apache License, Version 2.0 (the "License").
+ * You may not use this product except in compliance with the License.
+ *
+ * This product may include a number of subcomponents with
+ * separate copyright notices and license terms. Your use of the source
+ * code for these subcomponents is subject to the terms and
+ * conditions of the subcomponent's license, as noted in the LICENSE file.
+ *
+ */
+
+package org.neo4j.ogm.unit.session.capability;
+
+import static org.junit.Assert.*;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.apache.http.impl.client.HttpClients;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.ClassRule;
+import org.junit.Test;
+import org.neo4j.ogm.domain.music.Album;
+import org.neo4j.ogm.domain.music.Artist;
+import org.neo4j.ogm.session.Neo4jSession;
+import org.neo4j.ogm.session.SessionFactory;
+import org.neo4j.ogm.session.request.DefaultRequest;
+import org.neo4j.ogm.session.request.Neo4jRequest;
+import org.neo4j.ogm.session.response.Neo4jResponse;
+import org.neo4j.ogm.session.transaction.Transaction;
+import org.neo4j.ogm.testutil.Neo4jIntegrationTestRule;
+
+public class BatchedLoadCapabilityTest {
+
+    @ClassRule
+    public static Neo4jIntegrationTestRule databaseServerRule = new Neo4jIntegrationTestRule();
+
+    private static final int ARTISTS = 10;
+
+    private SessionFactory sessionFactory;
+    private List<Long> artistIds;
+    private final AtomicInteger requests = new AtomicInteger();
+
+    @Before
+    public void init() {
+        sessionFactory = new SessionFactory("org.neo4j.ogm.domain.music");
+        databaseServerRule.getGraphDatabaseService().execute("FOREACH (i IN range(1, " + ARTISTS + ") | " +
+                "CREATE (:`l'artiste` {name: 'Artist ' + i})-[:`HAS-ALBUM`]->(:`l'album` {name: 'Album ' + i}))");
+
+        artistIds = new ArrayList<>();
+        for (int i = 1; i <= ARTISTS; i++) {
+            artistIds.add(sessionFactory.openSession(databaseServerRule.url()).queryForObject(Integer.class,
+                    "MATCH (a:`l'artiste` {name: 'Artist " + i + "'}) RETURN id(a)", Collections.<String, Object>emptyMap()).longValue());
+        }
+    }
+
+    @After
+    public void clearDatabase() {
+        databaseServerRule.clearDatabase();
+    }
+
+    @Test
+    public void shouldCoalesceConcurrentLoadsIntoOneRequest() throws Exception {
+        sessionFactory.setLoadBatching(5, TimeUnit.SECONDS, ARTISTS);
+        Neo4jSession session = countingSession();
+
+        List<Artist> artists = loadConcurrently(session, artistIds);
+
+        assertEquals(1, requests.get());
+        for (int i = 0; i < ARTISTS; i++) {
+            Artist artist = artists.get(i);
+            assertEquals("Artist " + (i + 1), artist.getName());
+            assertEquals(1, artist.getAlbums().size());
+            Album album = artist.getAlbums().iterator().next();
+            assertEquals("Album " + (i + 1), album.getName());
+            assertSame(artist, album.getArtist());
+        }
+    }
+
+    @Test
+    public void shouldLoadABatchAsSoonAsItIsFull() throws Exception {
+        sessionFactory.setLoadBatching(5, TimeUnit.SECONDS, ARTISTS / 2);
+        Neo4jSession session = countingSession();
+
+        long start = System.currentTimeMillis();
+        List<Artist> artists = loadConcurrently(session, artistIds);
+
+        assertTrue(System.currentTimeMillis() - start < 5000);
+        assertEquals(2, requests.get());
+        for (int i = 0; i < ARTISTS; i++) {
+            assertEquals("Artist " + (i + 1), artists.get(i).getName());
+        }
+    }
+
+    @Test
+    public void shouldReturnNullForIdsOfOtherTypesOrMissingIds() throws Exception {
+        sessionFactory.setLoadBatching(10, TimeUnit.MILLISECONDS, ARTISTS);
+        Neo4jSession session = countingSession();
+
+        Long albumId = session.load(Artist.class, artistIds.get(0)).getAlbums().iterator().next().getId();
+        assertNull(session.load(Artist.class, albumId));
+        assertNull(session.load(Artist.class, Long.MAX_VALUE));
+    }
+
+    @Test
+    public void shouldNotBatchLoadsInsideATransaction() {
+        sessionFactory.setLoadBatching(5, TimeUnit.SECONDS, ARTISTS);
+        Neo4jSession session = countingSession();
+
+        long start = System.currentTimeMillis();
+        try (Transaction tx = session.beginTransaction()) {
+            assertEquals("Artist 1", session.load(Artist.class, artistIds.get(0)).getName());
+            tx.commit();
+        }
+        assertTrue(System.currentTimeMillis() - start < 5000);
+    }
+
+    private Neo4jSession countingSession() {
+        Neo4jSession session = (Neo4jSession) sessionFactory.openSession(databaseServerRule.url());
+        final Neo4jRequest<String> request = new DefaultRequest(HttpClients.createDefault());
+        session.setRequest(new Neo4jRequest<String>() {
+            @Override
+            public Neo4jResponse<String> execute(String url, String jsonStatements) {
+                requests.incrementAndGet();
+                return request.execute(url, jsonStatements);
+            }
+        });
+        return session;
+    }
+
+    private List<Artist> loadConcurrently(final Neo4jSession session, List<Long> ids) throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(ids.size());
+        final CountDownLatch start = new CountDownLatch(1);
+        try {
+            List<Future<Artist>> futures = new ArrayList<>();
+            for (final Long id : ids) {
+                futures.add(executor.submit(new Callable<Artist>() {
+                    @Override
+                    public Artist call() throws Exception {
+                        start.await();
+                        return session.load(Artist.class, id);
+                    }
+                }));
+            }
+            start.countDown();
+
+            List<Artist> artists = new ArrayList<>();
+            for (Future<Artist> future : futures) {
+                artists.add(future.get(30, TimeUnit.SECONDS));
+            }
+            return artists;
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+}
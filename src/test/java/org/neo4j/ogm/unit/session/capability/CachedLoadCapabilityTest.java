@@ -0,0 +1,134 @@
+/*
+ * Copyright (c) 2002-2015 "Neo Technology,"
+ * Network Engine for Objects in Lund AB [http://neotechnology.com]
+ *
+ * This product is licensed to you under the Apache License, Version 2.0 (the "License").
+ * You may not use this product except in compliance with the License.
+ *
+ * This product may include a number of subcomponents with
+ * separate copyright notices and license terms. Your use of the source
+ * code for these subcomponents is subject to the terms and
+ * conditions of the subcomponent's license, as noted in the LICENSE file.
+ *
+ */
+
+package org.neo4j.ogm.unit.session.capability;
+
+import static org.junit.Assert.*;
+
+import java.util.Collections;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.apache.http.impl.client.HttpClients;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.ClassRule;
+import org.junit.Test;
+import org.neo4j.ogm.domain.music.Album;
+import org.neo4j.ogm.domain.music.Artist;
+import org.neo4j.ogm.session.Neo4jSession;
+import org.neo4j.ogm.session.ReadPolicy;
+import org.neo4j.ogm.session.SessionFactory;
+import org.neo4j.ogm.session.request.DefaultRequest;
+import org.neo4j.ogm.session.request.Neo4jRequest;
+import org.neo4j.ogm.session.response.Neo4jResponse;
+import org.neo4j.ogm.testutil.Neo4jIntegrationTestRule;
+
+public class CachedLoadCapabilityTest {
+
+    @ClassRule
+    public static Neo4jIntegrationTestRule databaseServerRule = new Neo4jIntegrationTestRule();
+
+    private SessionFactory sessionFactory;
+    private Neo4jSession session;
+    private Long artistId;
+    private Long albumId;
+    private final AtomicInteger requests = new AtomicInteger();
+
+    @Before
+    public void init() {
+        sessionFactory = new SessionFactory("org.neo4j.ogm.domain.music");
+        databaseServerRule.getGraphDatabaseService().execute("CREATE (:`l'artiste` {name: 'Artist'})-[:`HAS-ALBUM`]->(:`l'album` {name: 'Album'})");
+        session = countingSession();
+        artistId = session.queryForObject(Integer.class, "MATCH (a:`l'artiste`) RETURN id(a)", Collections.<String, Object>emptyMap()).longValue();
+        albumId = session.queryForObject(Integer.class, "MATCH (b:`l'album`) RETURN id(b)", Collections.<String, Object>emptyMap()).longValue();
+        requests.set(0);
+    }
+
+    @After
+    public void clearDatabase() {
+        databaseServerRule.clearDatabase();
+    }
+
+    @Test
+    public void shouldAlwaysFetchByDefault() {
+        Artist artist = session.load(Artist.class, artistId);
+        assertSame(artist, session.load(Artist.class, artistId));
+        assertEquals(2, requests.get());
+    }
+
+    @Test
+    public void shouldReturnCachedInstanceLoadedToSufficientDepth() {
+        Artist artist = session.load(Artist.class, artistId, 2);
+
+        assertSame(artist, session.load(Artist.class, artistId, 2, ReadPolicy.PREFER_CACHED));
+        assertSame(artist, session.load(Artist.class, artistId, 1, ReadPolicy.PREFER_CACHED));
+        assertEquals(1, requests.get());
+
+        assertSame(artist, session.load(Artist.class, artistId, 3, ReadPolicy.PREFER_CACHED));
+        assertSame(artist, session.load(Artist.class, artistId, -1, ReadPolicy.PREFER_CACHED));
+        assertEquals(3, requests.get());
+    }
+
+    @Test
+    public void shouldNotServeEntitiesOnlyLoadedAsNeighboursFromCache() {
+        Artist artist = session.load(Artist.class, artistId);
+        Album album = session.load(Album.class, albumId, 0, ReadPolicy.PREFER_CACHED);
+
+        assertSame(artist.getAlbums().iterator().next(), album);
+        assertEquals(2, requests.get());
+    }
+
+    @Test
+    public void shouldFetchAgainOnceCachedInstanceIsTooStale() throws InterruptedException {
+        session.load(Artist.class, artistId);
+        session.load(Artist.class, artistId, 1, ReadPolicy.maxStaleness(1, TimeUnit.MINUTES));
+        assertEquals(1, requests.get());
+
+        Thread.sleep(50);
+        session.load(Artist.class, artistId, 1, ReadPolicy.maxStaleness(10, TimeUnit.MILLISECONDS));
+        assertEquals(2, requests.get());
+    }
+
+    @Test
+    public void shouldFetchAgainAfterSessionIsCleared() {
+        session.load(Artist.class, artistId);
+        session.clear();
+        assertNotNull(session.load(Artist.class, artistId, 1, ReadPolicy.PREFER_CACHED));
+        assertEquals(2, requests.get());
+    }
+
+    @Test
+    public void shouldUseTheSessionReadPolicy() {
+        sessionFactory.setReadPolicy(ReadPolicy.PREFER_CACHED);
+        session = countingSession();
+
+        Artist artist = session.load(Artist.class, artistId);
+        assertSame(artist, session.load(Artist.class, artistId));
+        assertEquals(1, requests.get());
+    }
+
+    private Neo4jSession countingSession() {
+        Neo4jSession session = (Neo4jSession) sessionFactory.openSession(databaseServerRule.url());
+        final Neo4jRequest<String> request = new DefaultRequest(HttpClients.createDefault());
+        session.setRequest(new Neo4jRequest<String>() {
+            @Override
+            public Neo4jResponse<String> execute(String url, String jsonStatements) {
+                requests.incrementAndGet();
+                return request.execute(url, jsonStatements);
+            }
+        });
+        return session;
+    }
+}
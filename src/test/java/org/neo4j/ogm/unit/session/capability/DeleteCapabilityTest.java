@@ -0,0 +1,140 @@
+/*
+ * Copyright (c) 2002-2015 "Neo Technology,"
+ * Network Engine for Objects in Lund AB [http://neotechnology.com]
+ *
+ * This product is licensed to you under the Apache License, Version 2.0 (the "License").
+ * You may not use this product except in compliance with the License.
+ *
+ * This product may include a number of subcomponents with
+ * separate copyright notices and license terms. Your use of the source
+ * code for these subcomponents is subject to the terms and
+ * conditions of the subcomponent's license, as noted in the LICENSE file.
+ *
+ */
+
+package org.neo4j.ogm.unit.session.capability;
+
+import static org.junit.Assert.*;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.apache.http.impl.client.HttpClients;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.ClassRule;
+import org.junit.Test;
+import org.neo4j.ogm.domain.music.Album;
+import org.neo4j.ogm.domain.music.Artist;
+import org.neo4j.ogm.domain.music.Recording;
+import org.neo4j.ogm.domain.music.Studio;
+import org.neo4j.ogm.session.DeleteProgress;
+import org.neo4j.ogm.session.Neo4jSession;
+import org.neo4j.ogm.session.SessionFactory;
+import org.neo4j.ogm.session.request.DefaultRequest;
+import org.neo4j.ogm.session.request.Neo4jRequest;
+import org.neo4j.ogm.session.response.Neo4jResponse;
+import org.neo4j.ogm.testutil.Neo4jIntegrationTestRule;
+
+public class DeleteCapabilityTest {
+
+    @ClassRule
+    public static Neo4jIntegrationTestRule databaseServerRule = new Neo4jIntegrationTestRule();
+
+    private Neo4jSession session;
+    private final AtomicInteger requests = new AtomicInteger();
+
+    @Before
+    public void init() {
+        session = (Neo4jSession) new SessionFactory("org.neo4j.ogm.domain.music").openSession(databaseServerRule.url());
+        final Neo4jRequest<String> request = new DefaultRequest(HttpClients.createDefault());
+        session.setRequest(new Neo4jRequest<String>() {
+            @Override
+            public Neo4jResponse<String> execute(String url, String jsonStatements) {
+                requests.incrementAndGet();
+                return request.execute(url, jsonStatements);
+            }
+        });
+    }
+
+    @After
+    public void clearDatabase() {
+        databaseServerRule.clearDatabase();
+    }
+
+    @Test
+    public void shouldDeleteACollectionInOneRequest() {
+        List<Artist> artists = new ArrayList<>();
+        for (int i = 1; i <= 5; i++) {
+            Artist artist = new Artist("Artist " + i);
+            session.save(artist);
+            artists.add(artist);
+        }
+        requests.set(0);
+
+        session.delete(artists);
+
+        assertEquals(1, requests.get());
+        assertEquals(0, session.countEntitiesOfType(Artist.class));
+        assertEquals(0, session.context().getAll(Artist.class).size());
+        for (Artist artist : artists) {
+            assertNull(session.context().getNodeEntity(artist.getId()));
+        }
+    }
+
+    @Test
+    public void shouldDeleteNodesAndRelationshipEntitiesTogether() {
+        Album please = new Album("Please Please Me");
+        Album help = new Album("Help!");
+        Studio studio = new Studio("EMI Studios, London");
+        Recording recording = new Recording(please, studio, 1963);
+        please.setRecording(recording);
+        session.save(recording);
+        session.save(help);
+        requests.set(0);
+
+        session.delete(new Object[] {recording, help});
+
+        assertEquals(1, requests.get());
+        assertEquals(0, count("MATCH ()-[r:`RECORDED-AT`]->() RETURN count(r)"));
+        assertEquals(1, session.countEntitiesOfType(Album.class));
+        assertNull(session.context().getRelationshipEntity(recording.getId()));
+    }
+
+    @Test
+    public void shouldDeleteAllOfATypeInBatches() {
+        databaseServerRule.getGraphDatabaseService().execute("FOREACH (i IN range(1, 5) | " +
+                "CREATE (:`l'artiste` {name: 'Artist ' + i})-[:`HAS-ALBUM`]->(:`l'album` {name: 'Album ' + i}))");
+        final List<Long> batches = new ArrayList<>();
+
+        long deleted = session.deleteAll(Artist.class, 2, new DeleteProgress() {
+            @Override
+            public void deleted(long deleted, long total) {
+                batches.add(deleted);
+            }
+        });
+
+        assertEquals(5, deleted);
+        assertEquals(Arrays.asList(2L, 2L, 1L), batches);
+        assertEquals(0, session.countEntitiesOfType(Artist.class));
+        assertEquals(5, session.countEntitiesOfType(Album.class));
+    }
+
+    @Test
+    public void shouldDeleteAllRelationshipEntitiesOfATypeInBatches() {
+        databaseServerRule.getGraphDatabaseService().execute("CREATE (s:Studio {name: 'Abbey Road'}) " +
+                "FOREACH (i IN range(1, 3) | CREATE (:`l'album` {name: 'Album ' + i})-[:`RECORDED-AT` {year: 1960 + i}]->(s))");
+
+        assertEquals(3, session.deleteAll(Recording.class, 2));
+        assertEquals(0, count("MATCH ()-[r:`RECORDED-AT`]->() RETURN count(r)"));
+        assertEquals(3, session.countEntitiesOfType(Album.class));
+    }
+
+    private int count(String cypher) {
+        return session.queryForObject(Integer.class, cypher, Collections.<String, Object>emptyMap());
+    }
+}
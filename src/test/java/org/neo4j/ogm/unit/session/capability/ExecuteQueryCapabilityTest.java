@@ -24,9 +24,11 @@ import org.junit.Before;
 import org.junit.ClassRule;
 import org.junit.Test;
 import org.neo4j.helpers.collection.MapUtil;
+import org.neo4j.ogm.cypher.query.QueryBatch;
 import org.neo4j.ogm.domain.cineasts.annotated.Actor;
 import org.neo4j.ogm.session.Session;
 import org.neo4j.ogm.session.SessionFactory;
+import org.neo4j.ogm.session.result.BatchResult;
 import org.neo4j.ogm.session.result.Result;
 import org.neo4j.ogm.testutil.Neo4jIntegrationTestRule;
 
@@ -216,4 +218,59 @@ public class ExecuteQueryCapabilityTest {
 		assertTrue(names.contains("Colin"));
 	}
 
+	@Test
+	public void shouldExecuteSeveralQueriesInOneBatch() {
+		session.save(new Actor("Jeff"));
+		session.save(new Actor("John"));
+		Actor colin = new Actor("Colin");
+		session.save(colin);
+
+		BatchResult results = session.queryBatch(new QueryBatch()
+				.add(Actor.class, "MATCH (a:Actor) WHERE a.name IN {names} RETURN a", MapUtil.map("names", Arrays.asList("Jeff", "Colin")))
+				.add(Integer.class, "MATCH (a:Actor) RETURN count(a)", Collections.<String, Object>emptyMap())
+				.add("MATCH (a:Actor) RETURN a.name AS name ORDER BY name", Collections.<String, Object>emptyMap()));
+
+		assertEquals(3, results.size());
+
+		List<String> names = new ArrayList<>();
+		for (Actor actor : results.get(0, Actor.class)) {
+			names.add(actor.getName());
+		}
+		assertEquals(2, names.size());
+		assertTrue(names.contains("Jeff"));
+		assertTrue(names.contains("Colin"));
+
+		// entities are mapped into the session's mapping context
+		for (Actor actor : results.get(0, Actor.class)) {
+			if (actor.getName().equals("Colin")) {
+				assertSame(colin, actor);
+			}
+		}
+
+		assertEquals(Integer.valueOf(3), results.get(1, Integer.class).iterator().next());
+
+		List<Object> rows = new ArrayList<>();
+		for (Map<String, Object> row : results.get(2)) {
+			rows.add(row.get("name"));
+		}
+		assertEquals(Arrays.<Object>asList("Colin", "Jeff", "John"), rows);
+	}
+
+	@Test
+	public void shouldReturnEmptyResultsForAnEmptyBatch() {
+		assertEquals(0, session.queryBatch(new QueryBatch()).size());
+	}
+
+	@Test(expected = RuntimeException.class)
+	public void rowQueriesInABatchMustBeReadOnly() {
+		session.queryBatch(new QueryBatch().add("MATCH (a:Actor) SET a.age={age}", MapUtil.map("age", 5)));
+	}
+
+	@Test(expected = RuntimeException.class)
+	public void shouldReportErrorsForAnyQueryInTheBatch() {
+		session.queryBatch(new QueryBatch()
+				.add("MATCH (a:Actor) RETURN a.name", Collections.<String, Object>emptyMap())
+				.add("MATCH (a:Actor) RETURN a.name AS", Collections.<String, Object>emptyMap()));
+	}
+
 }
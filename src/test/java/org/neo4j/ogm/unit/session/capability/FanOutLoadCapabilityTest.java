@@ -0,0 +1,116 @@
+/*
+ * Copyright (c) 2002-2015 "Neo Technology,"
+ * Network Engine for Objects in Lund AB [http://neotechnology.com]
+ *
+ * This product is licensed to you under the Apache License, Version 2.0 (the "License").
+ * You may not use this product except in compliance with the License.
+ *
+ * This product may include a number of subcomponents with
+ * separate copyright notices and license terms. Your use of the source
+ * code for these subcomponents is subject to the terms and
+ * conditions of the subcomponent's license, as noted in the LICENSE file.
+ *
+ */
+
+package org.neo4j.ogm.unit.session.capability;
+
+import static org.junit.Assert.*;
+
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.Set;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.ClassRule;
+import org.junit.Test;
+import org.neo4j.ogm.cypher.query.FanOutLimit;
+import org.neo4j.ogm.cypher.query.SortOrder;
+import org.neo4j.ogm.domain.music.Album;
+import org.neo4j.ogm.domain.music.Artist;
+import org.neo4j.ogm.session.Session;
+import org.neo4j.ogm.session.SessionFactory;
+import org.neo4j.ogm.testutil.Neo4jIntegrationTestRule;
+
+public class FanOutLoadCapabilityTest {
+
+    @ClassRule
+    public static Neo4jIntegrationTestRule databaseServerRule = new Neo4jIntegrationTestRule();
+
+    private Session session;
+    private Long hubId;
+
+    @Before
+    public void init() {
+        session = new SessionFactory("org.neo4j.ogm.domain.music").openSession(databaseServerRule.url());
+        session.query("CREATE (a:`l'artiste` {name:'Hub'}) " +
+                "FOREACH (i IN range(1, 5) | CREATE (a)-[:`HAS-ALBUM` {rank: i}]->(:`l'album` {name: 'Album ' + i}))",
+                Collections.<String, Object>emptyMap());
+        hubId = session.queryForObject(Integer.class, "MATCH (a:`l'artiste`) RETURN id(a)", Collections.<String, Object>emptyMap()).longValue();
+    }
+
+    @After
+    public void clearDatabase() {
+        databaseServerRule.clearDatabase();
+    }
+
+    @Test
+    public void shouldCapRelationshipsPerTypeAndFlagTruncation() {
+        Artist hub = session.load(Artist.class, hubId, 1, new FanOutLimit(2));
+
+        assertEquals("Hub", hub.getName());
+        assertEquals(2, hub.getAlbums().size());
+        for (Album album : hub.getAlbums()) {
+            assertSame(hub, album.getArtist());
+        }
+        assertTrue(session.isTruncated(hub, "HAS-ALBUM"));
+        assertFalse(session.isTruncated(hub, "GUEST_ALBUM"));
+    }
+
+    @Test
+    public void shouldNotFlagTruncationWhenLimitIsNotReached() {
+        Artist hub = session.load(Artist.class, hubId, 1, new FanOutLimit(5));
+
+        assertEquals(5, hub.getAlbums().size());
+        assertFalse(session.isTruncated(hub, "HAS-ALBUM"));
+    }
+
+    @Test
+    public void shouldKeepRelationshipsInTheRequestedOrder() {
+        Artist hub = session.load(Artist.class, hubId, 1, new FanOutLimit(2, "rank", SortOrder.Direction.DESC));
+
+        Set<String> names = new HashSet<>();
+        for (Album album : hub.getAlbums()) {
+            names.add(album.getName());
+        }
+        assertEquals(new HashSet<>(Arrays.asList("Album 5", "Album 4")), names);
+    }
+
+    @Test
+    public void shouldApplyTheLimitAtEveryHop() {
+        Long albumId = session.queryForObject(Integer.class, "MATCH (b:`l'album` {name:'Album 1'}) RETURN id(b)", Collections.<String, Object>emptyMap()).longValue();
+
+        Collection<Album> albums = session.loadAll(Album.class, Collections.singletonList(albumId), 2, new FanOutLimit(3));
+
+        assertEquals(1, albums.size());
+        Artist hub = albums.iterator().next().getArtist();
+        assertNotNull(hub);
+        assertEquals(3, hub.getAlbums().size());
+        assertTrue(session.isTruncated(hub, "HAS-ALBUM"));
+    }
+
+    @Test
+    public void shouldNotDeleteUnloadedRelationshipsOnSave() {
+        Artist hub = session.load(Artist.class, hubId, 1, new FanOutLimit(2));
+        hub.setName("Renamed Hub");
+        session.save(hub);
+
+        session.clear();
+        Artist reloaded = session.load(Artist.class, hubId);
+        assertEquals("Renamed Hub", reloaded.getName());
+        assertEquals(5, reloaded.getAlbums().size());
+    }
+
+}
@@ -0,0 +1,183 @@
+/*
+ * Copyright (c) 2002-2015 "Neo Technology,"
+ * Network Engine for Objects in Lund AB [http://neotechnology.com]
+ *
+ * This product is licensed to you under the Apache License, Version 2.0 (the "License").
+ * You may not use this product except in compliance with the License.
+ *
+ * This product may include a number of subcomponents with
+ * separate copyright notices and license terms. Your use of the source
+ * code for these subcomponents is subject to the terms and
+ * conditions of the subcomponent's license, as noted in the LICENSE file.
+ *
+ */
+package org.neo4j.ogm.unit.session.capability;
+
+import static org.junit.Assert.*;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import org.junit.After;
+import org.junit.ClassRule;
+import org.junit.Test;
+import org.neo4j.ogm.domain.music.Album;
+import org.neo4j.ogm.domain.music.Artist;
+import org.neo4j.ogm.domain.music.Recording;
+import org.neo4j.ogm.domain.music.Studio;
+import org.neo4j.ogm.domain.registry.Citizen;
+import org.neo4j.ogm.session.ImportProgress;
+import org.neo4j.ogm.session.Neo4jSession;
+import org.neo4j.ogm.session.Session;
+import org.neo4j.ogm.session.SessionFactory;
+import org.neo4j.ogm.session.result.ImportStatistics;
+import org.neo4j.ogm.testutil.Neo4jIntegrationTestRule;
+
+public class ImportCapabilityTest {
+
+    @ClassRule
+    public static Neo4jIntegrationTestRule databaseServerRule = new Neo4jIntegrationTestRule();
+
+    private final SessionFactory sessionFactory = new SessionFactory("org.neo4j.ogm.domain.music");
+
+    @After
+    public void clearDatabase() {
+        databaseServerRule.clearDatabase();
+    }
+
+    @Test
+    public void shouldImportNodesInBatchesWithoutHoldingThemInTheSession() {
+        List<Artist> artists = new ArrayList<>();
+        for (int i = 1; i <= 25; i++) {
+            artists.add(new Artist("Artist " + i));
+        }
+
+        Neo4jSession session = (Neo4jSession) sessionFactory.openSession(databaseServerRule.url());
+        ImportStatistics statistics = session.importAll(artists.iterator(), 10);
+
+        assertEquals(25, statistics.getNodes());
+        assertEquals(0, statistics.getRelationships());
+        assertEquals(3, statistics.getBatches());
+        assertTrue(statistics.getRowsPerSecond() > 0);
+
+        for (Artist artist : artists) {
+            assertNotNull(artist.getId());
+            assertNull(session.context().getNodeEntity(artist.getId()));
+        }
+        assertEquals(25, session.countEntitiesOfType(Artist.class));
+        assertEquals("Artist 7", sessionFactory.openSession(databaseServerRule.url()).load(Artist.class, artists.get(6).getId()).getName());
+    }
+
+    @Test
+    public void shouldImportRelationshipEntitiesOnceTheirNodesHaveBeenImported() {
+        Album album = new Album("Please Please Me");
+        Studio studio = new Studio("EMI Studios, London");
+        Recording recording = new Recording(album, studio, 1963);
+
+        final List<Long> totals = new ArrayList<>();
+        Session session = sessionFactory.openSession(databaseServerRule.url());
+        ImportStatistics statistics = session.importAll(Arrays.<Object>asList(album, recording, studio).iterator(), 10, new ImportProgress() {
+            @Override
+            public void imported(long imported, long total, double rowsPerSecond) {
+                totals.add(total);
+            }
+        });
+
+        assertEquals(2, statistics.getNodes());
+        assertEquals(1, statistics.getRelationships());
+        assertEquals(Arrays.asList(1L, 2L, 3L), totals);
+        assertNotNull(recording.getId());
+        assertEquals(1963, session.queryForObject(Integer.class,
+                "MATCH (:`l'album` {name: 'Please Please Me'})-[r:`RECORDED-AT`]->(s:Studio {`studio-name`: 'EMI Studios, London'}) RETURN r.year",
+                Collections.<String, Object>emptyMap()).intValue());
+    }
+
+    @Test
+    public void shouldImportTheRelationshipsOfNodeEntitiesOnceBothOfTheirEndsHaveBeenImported() {
+        Artist artist = new Artist("The Beatles");
+        Album album = new Album("Please Please Me");
+        Album guestAlbum = new Album("With The Beatles");
+        artist.getAlbums().add(album);
+        album.setArtist(artist);
+        guestAlbum.setGuestArtist(artist);
+
+        Session session = sessionFactory.openSession(databaseServerRule.url());
+        ImportStatistics statistics = session.importAll(Arrays.<Object>asList(album, artist, guestAlbum).iterator(), 10);
+
+        assertEquals(3, statistics.getNodes());
+        assertEquals(2, statistics.getRelationships());
+        assertEquals(1, session.queryForObject(Integer.class,
+                "MATCH (:`l'artiste` {name: 'The Beatles'})-[r:`HAS-ALBUM`]->(:`l'album` {name: 'Please Please Me'}) RETURN count(r)",
+                Collections.<String, Object>emptyMap()).intValue());
+        assertEquals(1, session.queryForObject(Integer.class,
+                "MATCH (:`l'artiste` {name: 'The Beatles'})-[r:GUEST_ALBUM]->(:`l'album` {name: 'With The Beatles'}) RETURN count(r)",
+                Collections.<String, Object>emptyMap()).intValue());
+    }
+
+    @Test
+    public void shouldImportARelationshipAsSoonAsTheNodeAtItsOtherEndHasBeenImported() {
+        Artist artist = new Artist("The Beatles");
+        Album album = new Album("Please Please Me");
+        artist.getAlbums().add(album);
+
+        final List<Long> relationships = new ArrayList<>();
+        Session session = sessionFactory.openSession(databaseServerRule.url());
+        session.importAll(Arrays.<Object>asList(artist, album, new Artist("The Rolling Stones")).iterator(), 1, new ImportProgress() {
+            @Override
+            public void imported(long imported, long total, double rowsPerSecond) {
+                relationships.add((Long) databaseServerRule.getGraphDatabaseService()
+                        .execute("MATCH ()-[r:`HAS-ALBUM`]->() RETURN count(r) AS relationships").next().get("relationships"));
+            }
+        });
+
+        assertEquals(Arrays.asList(0L, 0L, 1L, 1L), relationships);
+    }
+
+    @Test(expected = RuntimeException.class)
+    public void shouldNotImportARelationshipToANodeThatIsNeitherImportedNorSaved() {
+        Artist artist = new Artist("The Beatles");
+        artist.getAlbums().add(new Album("Please Please Me"));
+        sessionFactory.openSession(databaseServerRule.url()).importAll(Collections.singletonList(artist).iterator(), 10);
+    }
+
+    @Test
+    public void shouldMergeEntitiesWithAUniqueKey() {
+        databaseServerRule.getGraphDatabaseService().execute("CREATE (:Citizen {passport_no: 'P1', surname: 'Smith', forename: 'Jo'})");
+
+        Session session = new SessionFactory("org.neo4j.ogm.domain.registry").openSession(databaseServerRule.url());
+        Long existing = session.queryForObject(Integer.class, "MATCH (n:Citizen) RETURN id(n)", Collections.<String, Object>emptyMap()).longValue();
+
+        Citizen smith = new Citizen("P1", "Smith-Jones", null);
+        Citizen brown = new Citizen("P2", "Brown", "Sam");
+        session.importAll(Arrays.asList(smith, brown).iterator(), 10);
+
+        assertEquals(existing, smith.getId());
+        assertNotNull(brown.getId());
+        assertEquals(2, session.queryForObject(Integer.class, "MATCH (n:Citizen) RETURN count(n)", Collections.<String, Object>emptyMap()).intValue());
+        assertEquals("Jo", session.queryForObject(String.class, "MATCH (n:Citizen {passport_no: 'P1'}) RETURN n.forename", Collections.<String, Object>emptyMap()));
+    }
+
+    @Test
+    public void shouldNotDuplicateTheRelationshipsOfMergedNodesWhenImportingTheSameDataAgain() {
+        Session session = new SessionFactory("org.neo4j.ogm.domain.registry").openSession(databaseServerRule.url());
+        for (int i = 0; i < 2; i++) {
+            Citizen smith = new Citizen("P1", "Smith", "Jo");
+            Citizen brown = new Citizen("P2", "Brown", "Sam");
+            smith.setSpouse(brown);
+            session.importAll(Arrays.asList(smith, brown).iterator(), 10);
+        }
+
+        assertEquals(2, session.queryForObject(Integer.class, "MATCH (n:Citizen) RETURN count(n)", Collections.<String, Object>emptyMap()).intValue());
+        assertEquals(1, session.queryForObject(Integer.class, "MATCH (:Citizen)-[r:SPOUSE]->(:Citizen) RETURN count(r)", Collections.<String, Object>emptyMap()).intValue());
+    }
+
+    @Test(expected = RuntimeException.class)
+    public void shouldNotImportAnEntityThatAlreadyHasAnId() {
+        Session session = sessionFactory.openSession(databaseServerRule.url());
+        Artist artist = new Artist("The Beatles");
+        session.save(artist);
+        session.importAll(Collections.singletonList(artist).iterator(), 10);
+    }
+}
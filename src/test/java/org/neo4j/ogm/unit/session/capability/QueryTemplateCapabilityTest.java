@@ -0,0 +1,126 @@
+/*
+ * Copyright (c) 2002-2015 "Neo Technology,"
+ * Network Engine for Objects in Lund AB [http://neotechnology.com]
+ *
+ * This product is licensed to you under the Apache License, Version 2.0 (the "License").
+ * You may not use this product except in compliance with the License.
+ *
+ * This product may include a number of subcomponents with
+ * separate copyright notices and license terms. Your use of the source
+ * code for these subcomponents is subject to the terms and
+ * conditions of the subcomponent's license, as noted in the LICENSE file.
+ *
+ */
+package org.neo4j.ogm.unit.session.capability;
+
+import static org.junit.Assert.*;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.apache.http.impl.client.HttpClients;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.ClassRule;
+import org.junit.Test;
+import org.neo4j.ogm.cypher.ComparisonOperator;
+import org.neo4j.ogm.cypher.Filter;
+import org.neo4j.ogm.cypher.query.Pagination;
+import org.neo4j.ogm.cypher.query.SortOrder;
+import org.neo4j.ogm.domain.music.Artist;
+import org.neo4j.ogm.domain.registry.Citizen;
+import org.neo4j.ogm.session.Neo4jSession;
+import org.neo4j.ogm.session.SessionFactory;
+import org.neo4j.ogm.session.request.DefaultRequest;
+import org.neo4j.ogm.session.request.Neo4jRequest;
+import org.neo4j.ogm.session.response.Neo4jResponse;
+import org.neo4j.ogm.testutil.Neo4jIntegrationTestRule;
+
+public class QueryTemplateCapabilityTest {
+
+    @ClassRule
+    public static Neo4jIntegrationTestRule databaseServerRule = new Neo4jIntegrationTestRule();
+
+    private final ObjectMapper mapper = new ObjectMapper();
+    private final List<String> statements = new ArrayList<>();
+
+    private SessionFactory sessionFactory;
+
+    @Before
+    public void init() {
+        sessionFactory = new SessionFactory("org.neo4j.ogm.domain.music", "org.neo4j.ogm.domain.registry");
+        databaseServerRule.getGraphDatabaseService().execute("FOREACH (i IN range(1, 4) | CREATE (:`l'artiste` {name: 'Artist ' + i}))");
+        databaseServerRule.getGraphDatabaseService().execute("CREATE (:Citizen {passport_no: 'P1', surname: 'Smith'}), (:Citizen {passport_no: 'P2', surname: 'Brown'})");
+    }
+
+    @After
+    public void clearDatabase() {
+        databaseServerRule.clearDatabase();
+    }
+
+    @Test
+    public void shouldCompileEachShapeOfFilteredLoadOnce() throws Exception {
+        Neo4jSession session = recordingSession();
+
+        assertEquals("Artist 1", session.loadAll(Artist.class, new Filter("name", "Artist 1")).iterator().next().getName());
+        assertEquals("Artist 2", session.loadAll(Artist.class, new Filter("name", "Artist 2")).iterator().next().getName());
+
+        assertEquals(1, session.queryTemplateCache().misses());
+        assertEquals(1, session.queryTemplateCache().hits());
+        assertEquals(2, statements.size());
+        assertEquals(statements.get(0), statements.get(1));
+    }
+
+    @Test
+    public void shouldShareTemplatesBetweenSessions() {
+        recordingSession().loadAll(Artist.class, new Filter("name", "Artist 1"), 0);
+        Neo4jSession session = recordingSession();
+
+        assertEquals(1, session.loadAll(Artist.class, new Filter("name", "Artist 3"), 0).size());
+        assertEquals(1, session.queryTemplateCache().hits());
+    }
+
+    @Test
+    public void shouldBindEachPageToTheSameStatement() throws Exception {
+        Neo4jSession session = recordingSession();
+        Filter named = new Filter("name", "Artist");
+        named.setComparisonOperator(ComparisonOperator.GREATER_THAN);
+
+        Collection<Artist> first = session.loadAll(Artist.class, named, new SortOrder().add("name"), new Pagination(0, 2), 0);
+        Collection<Artist> second = session.loadAll(Artist.class, named, new SortOrder().add("name"), new Pagination(1, 2), 0);
+
+        assertEquals("Artist 1", first.iterator().next().getName());
+        assertEquals("Artist 3", second.iterator().next().getName());
+        assertEquals(2, second.size());
+        assertEquals(statements.get(0), statements.get(1));
+    }
+
+    @Test
+    public void shouldBindFiltersOnRenamedPropertiesFromCachedTemplates() {
+        Neo4jSession session = recordingSession();
+
+        assertEquals("Smith", session.loadAll(Citizen.class, new Filter("passport", "P1")).iterator().next().getSurname());
+        assertEquals("Brown", session.loadAll(Citizen.class, new Filter("passport", "P2")).iterator().next().getSurname());
+        assertEquals(1, session.queryTemplateCache().hits());
+    }
+
+    private Neo4jSession recordingSession() {
+        Neo4jSession session = (Neo4jSession) sessionFactory.openSession(databaseServerRule.url());
+        session.setRequest(new Neo4jRequest<String>() {
+            private final DefaultRequest request = new DefaultRequest(HttpClients.createDefault());
+
+            @Override
+            public Neo4jResponse<String> execute(String url, String jsonStatements) {
+                try {
+                    statements.add(mapper.readTree(jsonStatements).path("statements").get(0).path("statement").asText());
+                } catch (Exception e) {
+                    throw new RuntimeException(e);
+                }
+                return request.execute(url, jsonStatements);
+            }
+        });
+        return session;
+    }
+}
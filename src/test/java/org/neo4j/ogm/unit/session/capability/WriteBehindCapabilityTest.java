@@ -0,0 +1,416 @@
+/*
+ * Copyright (c) 2002-2015 "Neo Technology,"
+ * Network Engine for Objects in Lund AB [http://neotechnology.com]
+ *
+ * This product is licensed to you under the Apache License, Version 2.0 (the "License").
+ * You may not use this product except in compliance with the License.
+ *
+ * This product may include a number of subcomponents with
+ * separate copyright notices and license terms. Your use of the source
+ * code for these subcomponents is subject to the terms and
+ * conditions of the subcomponent's license, as noted in the LICENSE file.
+ *
+ */
+package org.neo4j.ogm.unit.session.capability;
+
+import static org.junit.Assert.*;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.apache.http.impl.client.HttpClients;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.ClassRule;
+import org.junit.Test;
+import org.neo4j.ogm.domain.music.Album;
+import org.neo4j.ogm.domain.music.Artist;
+import org.neo4j.ogm.domain.tracking.Singer;
+import org.neo4j.ogm.session.Neo4jSession;
+import org.neo4j.ogm.session.Session;
+import org.neo4j.ogm.session.SessionFactory;
+import org.neo4j.ogm.session.WriteFailureHandler;
+import org.neo4j.ogm.session.request.DefaultRequest;
+import org.neo4j.ogm.session.request.Neo4jRequest;
+import org.neo4j.ogm.session.response.Neo4jResponse;
+import org.neo4j.ogm.session.transaction.Transaction;
+import org.neo4j.ogm.testutil.Neo4jIntegrationTestRule;
+
+public class WriteBehindCapabilityTest {
+
+    @ClassRule
+    public static Neo4jIntegrationTestRule databaseServerRule = new Neo4jIntegrationTestRule();
+
+    private SessionFactory sessionFactory;
+    private final AtomicInteger requests = new AtomicInteger();
+
+    @Before
+    public void init() {
+        sessionFactory = new SessionFactory("org.neo4j.ogm.domain.music");
+    }
+
+    @After
+    public void clearDatabase() {
+        sessionFactory.close();
+        databaseServerRule.clearDatabase();
+    }
+
+    @Test
+    public void shouldWriteRepeatedSavesOfAnEntityOnceWhenFlushed() {
+        sessionFactory.setWriteBehind(1, TimeUnit.MINUTES, 10);
+        Neo4jSession session = countingSession();
+
+        Artist artist = new Artist("The Quarrymen");
+        session.save(artist);
+        artist.setName("Johnny and the Moondogs");
+        session.save(artist);
+        artist.setName("The Beatles");
+        session.save(artist);
+
+        assertEquals(0, requests.get());
+        assertNull(artist.getId());
+
+        session.flush();
+
+        assertEquals(1, requests.get());
+        assertNotNull(artist.getId());
+        assertEquals("The Beatles", sessionFactory.openSession(databaseServerRule.url()).load(Artist.class, artist.getId()).getName());
+    }
+
+    @Test
+    public void shouldCreateANewEntityReachableFromSeveralQueuedSavesOnce() {
+        sessionFactory.setWriteBehind(1, TimeUnit.MINUTES, 10);
+        Neo4jSession session = countingSession();
+
+        Artist artist = new Artist("The Beatles");
+        Album album = new Album("Please Please Me");
+        artist.getAlbums().add(album);
+        album.setArtist(artist);
+        session.save(album);
+        session.save(artist);
+        session.flush();
+
+        assertEquals(1, requests.get());
+        Session reader = sessionFactory.openSession(databaseServerRule.url());
+        assertEquals(1, reader.countEntitiesOfType(Artist.class));
+        assertEquals(1, reader.countEntitiesOfType(Album.class));
+        assertEquals(1, reader.queryForObject(Integer.class, "MATCH (:`l'artiste`)-[r:`HAS-ALBUM`]->(:`l'album`) RETURN count(r)", Collections.<String, Object>emptyMap()).intValue());
+    }
+
+    @Test
+    public void shouldKeepTheRelationshipsOfEntitiesSavedEarlierInTheBatch() {
+        sessionFactory.setWriteBehind(1, TimeUnit.MINUTES, 10);
+        Neo4jSession session = countingSession();
+
+        Artist artist = new Artist("The Beatles");
+        Album album = new Album("Please Please Me");
+        artist.getAlbums().add(album);
+        album.setArtist(artist);
+        session.save(artist);
+        session.flush();
+
+        session.save(album);
+        session.save(new Artist("The Kinks"));
+        session.flush();
+
+        Session reader = sessionFactory.openSession(databaseServerRule.url());
+        assertEquals(2, reader.countEntitiesOfType(Artist.class));
+        assertEquals(1, reader.queryForObject(Integer.class, "MATCH (:`l'artiste`)-[r:`HAS-ALBUM`]->(:`l'album`) RETURN count(r)", Collections.<String, Object>emptyMap()).intValue());
+    }
+
+    @Test
+    public void shouldWriteAFullBatchWithoutWaitingForTheFlushInterval() throws InterruptedException {
+        sessionFactory.setWriteBehind(1, TimeUnit.MINUTES, 3);
+        Neo4jSession session = countingSession();
+
+        session.save(new Artist("The Beatles"));
+        session.save(new Artist("The Kinks"));
+        session.save(new Artist("The Who"));
+
+        Session reader = sessionFactory.openSession(databaseServerRule.url());
+        long deadline = System.currentTimeMillis() + 10000;
+        while (reader.countEntitiesOfType(Artist.class) < 3 && System.currentTimeMillis() < deadline) {
+            Thread.sleep(50);
+        }
+        assertEquals(3, reader.countEntitiesOfType(Artist.class));
+        assertEquals(1, requests.get());
+    }
+
+    @Test(timeout = 30000)
+    public void shouldWaitForAnEarlierBatchToBeWrittenBeforeQueueingASave() throws InterruptedException {
+        sessionFactory.setWriteBehind(1, TimeUnit.MINUTES, 1);
+        final CountDownLatch sending = new CountDownLatch(1);
+        final CountDownLatch release = new CountDownLatch(1);
+        final Neo4jSession session = (Neo4jSession) sessionFactory.openSession(databaseServerRule.url());
+        final Neo4jRequest<String> request = new DefaultRequest(HttpClients.createDefault());
+        session.setRequest(new Neo4jRequest<String>() {
+            @Override
+            public Neo4jResponse<String> execute(String url, String jsonStatements) {
+                sending.countDown();
+                try {
+                    release.await();
+                } catch (InterruptedException e) {
+                    throw new RuntimeException(e);
+                }
+                return request.execute(url, jsonStatements);
+            }
+        });
+
+        Artist artist = new Artist("The Beatles");
+        session.save(artist);
+        assertTrue(sending.await(10, TimeUnit.SECONDS));
+
+        // the album reaches the artist, which is still being created, so its save waits for the artist's id
+        final Album album = new Album("Please Please Me");
+        artist.getAlbums().add(album);
+        album.setArtist(artist);
+        Thread saving = new Thread(new Runnable() {
+            @Override
+            public void run() {
+                session.save(album);
+            }
+        });
+        saving.start();
+        saving.join(500);
+        assertTrue(saving.isAlive());
+
+        release.countDown();
+        saving.join();
+        assertNotNull(artist.getId());
+        session.flush();
+
+        assertNotNull(album.getId());
+        Session reader = sessionFactory.openSession(databaseServerRule.url());
+        assertEquals(1, reader.countEntitiesOfType(Artist.class));
+        assertEquals(1, reader.countEntitiesOfType(Album.class));
+        assertEquals(1, reader.queryForObject(Integer.class, "MATCH (:`l'artiste`)-[r:`HAS-ALBUM`]->(:`l'album`) RETURN count(r)", Collections.<String, Object>emptyMap()).intValue());
+    }
+
+    @Test
+    public void shouldWriteAnEntityAsItWasWhenItWasSaved() {
+        sessionFactory.setWriteBehind(1, TimeUnit.MINUTES, 10);
+        Neo4jSession session = countingSession();
+
+        Artist artist = new Artist("The Beatles");
+        session.save(artist);
+        artist.setName("The Rolling Stones");
+        session.flush();
+
+        assertNotNull(artist.getId());
+        assertEquals("The Beatles", sessionFactory.openSession(databaseServerRule.url()).load(Artist.class, artist.getId()).getName());
+
+        // the change made after the save has not been written, so saving again writes it
+        session.save(artist);
+        session.flush();
+
+        assertEquals(2, requests.get());
+        assertEquals("The Rolling Stones", sessionFactory.openSession(databaseServerRule.url()).load(Artist.class, artist.getId()).getName());
+    }
+
+    @Test
+    public void shouldWriteAnEntityWhoseRelationshipsChangedSinceItWasQueuedInTheNextBatch() {
+        sessionFactory.setWriteBehind(1, TimeUnit.MINUTES, 10);
+        Neo4jSession session = countingSession();
+
+        Artist artist = new Artist("The Beatles");
+        session.save(artist);
+        Album album = new Album("Please Please Me");
+        artist.getAlbums().add(album);
+        album.setArtist(artist);
+        artist.setName("The Fab Four");
+        session.save(artist);
+        session.flush();
+
+        assertEquals(2, requests.get());
+        Session reader = sessionFactory.openSession(databaseServerRule.url());
+        assertEquals(1, reader.countEntitiesOfType(Artist.class));
+        assertEquals("The Fab Four", reader.load(Artist.class, artist.getId()).getName());
+        assertEquals(1, reader.queryForObject(Integer.class, "MATCH (:`l'artiste`)-[r:`HAS-ALBUM`]->(:`l'album`) RETURN count(r)", Collections.<String, Object>emptyMap()).intValue());
+    }
+
+    @Test
+    public void shouldSendNothingWhenAnUnchangedEntityThatTracksItsOwnChangesIsSavedAgain() {
+        sessionFactory.close();
+        sessionFactory = new SessionFactory("org.neo4j.ogm.domain.tracking");
+        sessionFactory.setWriteBehind(1, TimeUnit.MINUTES, 10);
+        Neo4jSession session = countingSession();
+
+        Singer singer = new Singer("Cilla Black");
+        session.save(singer);
+        session.flush();
+        assertFalse(singer.isDirty());
+
+        session.save(singer);
+        session.flush();
+        assertEquals(1, requests.get());
+
+        // a change made after the save is not written, so the singer is still dirty once it has been
+        singer.setName("Priscilla White");
+        session.save(singer);
+        singer.setName("Cilla White");
+        session.flush();
+        assertEquals(2, requests.get());
+        assertTrue(singer.isDirty());
+
+        session.save(singer);
+        session.flush();
+        assertEquals(3, requests.get());
+        assertEquals("Cilla White", sessionFactory.openSession(databaseServerRule.url()).load(Singer.class, singer.getId()).getName());
+    }
+
+    @Test
+    public void shouldGiveWrittenEntitiesTheirIdsOnTheSessionsNextOperation() throws InterruptedException {
+        sessionFactory.setWriteBehind(1, TimeUnit.MINUTES, 1);
+        Neo4jSession session = countingSession();
+
+        Artist artist = new Artist("The Beatles");
+        session.save(artist);
+
+        Session reader = sessionFactory.openSession(databaseServerRule.url());
+        long deadline = System.currentTimeMillis() + 10000;
+        while (reader.countEntitiesOfType(Artist.class) < 1 && System.currentTimeMillis() < deadline) {
+            Thread.sleep(50);
+        }
+        assertNull(artist.getId());
+
+        assertEquals(1, session.countEntitiesOfType(Artist.class));
+        assertNotNull(artist.getId());
+        assertSame(artist, session.load(Artist.class, artist.getId(), 0));
+    }
+
+    @Test
+    public void shouldSaveStraightAwayInsideATransaction() {
+        sessionFactory.setWriteBehind(1, TimeUnit.MINUTES, 10);
+        Neo4jSession session = countingSession();
+
+        Artist artist = new Artist("The Beatles");
+        try (Transaction tx = session.beginTransaction()) {
+            session.save(artist);
+            assertNotNull(artist.getId());
+            tx.commit();
+        }
+        assertEquals(1, sessionFactory.openSession(databaseServerRule.url()).countEntitiesOfType(Artist.class));
+    }
+
+    @Test
+    public void shouldHandFailedSavesToTheFailureHandler() {
+        final List<Object> failed = new ArrayList<>();
+        sessionFactory.setWriteBehind(1, TimeUnit.MINUTES, 10);
+        sessionFactory.setWriteFailureHandler(new WriteFailureHandler() {
+            @Override
+            public void failed(List<Object> entities, int depth, RuntimeException cause) {
+                failed.addAll(entities);
+            }
+        });
+        Neo4jSession session = (Neo4jSession) sessionFactory.openSession(databaseServerRule.url());
+        session.setRequest(new Neo4jRequest<String>() {
+            @Override
+            public Neo4jResponse<String> execute(String url, String jsonStatements) {
+                throw new RuntimeException("The database is unavailable");
+            }
+        });
+
+        Artist artist = new Artist("The Beatles");
+        session.save(artist);
+        session.flush();
+
+        assertEquals(1, failed.size());
+        assertSame(artist, failed.get(0));
+        assertNull(artist.getId());
+    }
+
+    @Test
+    public void shouldNotWriteADeletedEntity() {
+        sessionFactory.setWriteBehind(1, TimeUnit.MINUTES, 10);
+        Neo4jSession session = countingSession();
+
+        Artist artist = new Artist("The Beatles");
+        session.save(artist);
+        session.delete(artist);
+        session.flush();
+
+        assertEquals(0, requests.get());
+        assertEquals(0, sessionFactory.openSession(databaseServerRule.url()).countEntitiesOfType(Artist.class));
+    }
+
+    @Test
+    public void shouldNotWriteTheDeletedEntitiesOfACollection() {
+        sessionFactory.setWriteBehind(1, TimeUnit.MINUTES, 10);
+        Neo4jSession session = countingSession();
+
+        Artist beatles = new Artist("The Beatles");
+        Artist kinks = new Artist("The Kinks");
+        session.save(beatles);
+        session.save(kinks);
+        session.delete(Arrays.asList(beatles, kinks));
+        session.flush();
+
+        assertEquals(0, requests.get());
+        assertEquals(0, sessionFactory.openSession(databaseServerRule.url()).countEntitiesOfType(Artist.class));
+    }
+
+    @Test
+    public void shouldDeleteQueuedEntitiesOfADeletedType() {
+        sessionFactory.setWriteBehind(1, TimeUnit.MINUTES, 10);
+        Neo4jSession session = countingSession();
+
+        session.save(new Artist("The Beatles"));
+        session.deleteAll(Artist.class);
+        session.save(new Artist("The Kinks"));
+        session.deleteAll(Artist.class, 10);
+        session.flush();
+
+        assertEquals(0, sessionFactory.openSession(databaseServerRule.url()).countEntitiesOfType(Artist.class));
+    }
+
+    @Test
+    public void shouldWriteQueuedSavesWhenTheFactoryIsClosed() {
+        sessionFactory.setWriteBehind(100, TimeUnit.MILLISECONDS, 10);
+        Neo4jSession session = countingSession();
+
+        session.save(new Artist("The Beatles"));
+        sessionFactory.close();
+
+        assertEquals(1, sessionFactory.openSession(databaseServerRule.url()).countEntitiesOfType(Artist.class));
+        try {
+            session.save(new Artist("The Kinks"));
+            fail("Saves should no longer be queued once the factory is closed");
+        } catch (RuntimeException e) {
+            assertEquals(1, requests.get());
+        }
+    }
+
+    @Test
+    public void shouldWriteTheSavesOfADroppedSessionWhenTheFactoryIsClosed() {
+        sessionFactory.setWriteBehind(1, TimeUnit.MINUTES, 2);
+        Neo4jSession session = countingSession();
+
+        session.save(new Artist("The Beatles"));
+        session.save(new Artist("The Kinks"));
+        session.save(new Artist("The Who"));
+        session = null;
+        System.gc();
+        sessionFactory.close();
+
+        assertEquals(3, sessionFactory.openSession(databaseServerRule.url()).countEntitiesOfType(Artist.class));
+        assertEquals(2, requests.get());
+    }
+
+    private Neo4jSession countingSession() {
+        Neo4jSession session = (Neo4jSession) sessionFactory.openSession(databaseServerRule.url());
+        final Neo4jRequest<String> request = new DefaultRequest(HttpClients.createDefault());
+        session.setRequest(new Neo4jRequest<String>() {
+            @Override
+            public Neo4jResponse<String> execute(String url, String jsonStatements) {
+                requests.incrementAndGet();
+                return request.execute(url, jsonStatements);
+            }
+        });
+        return session;
+    }
+}
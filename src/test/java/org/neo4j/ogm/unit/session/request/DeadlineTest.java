@@ -0,0 +1,126 @@
+/*
+ * Copyright (c) 2002-2015 "Neo Technology,"
+ * Network Engine for Objects in Lund AB [http://neotechnology.com]
+ *
+ * This product is licensed to you under the Apache License, Version 2.0 (the "License").
+ * You may not use this product except in compliance with the License.
+ *
+ * This product may include a number of subcomponents with
+ * separate copyright notices and license terms. Your use of the source
+ * code for these subcomponents is subject to the terms and
+ * conditions of the subcomponent's license, as noted in the LICENSE file.
+ *
+ */
+package org.neo4j.ogm.unit.session.request;
+
+import static org.junit.Assert.*;
+
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.apache.http.client.methods.HttpPost;
+import org.junit.After;
+import org.junit.Test;
+import org.neo4j.ogm.exception.DeadlineExceededException;
+import org.neo4j.ogm.session.request.Deadline;
+
+public class DeadlineTest {
+
+    private final AtomicLong exceeded = new AtomicLong();
+
+    @After
+    public void noDeadlineIsLeftCurrent() {
+        assertNull(Deadline.current());
+    }
+
+    @Test
+    public void shouldRefuseRequestsOnceTheDeadlineHasPassed() throws InterruptedException {
+        try (Deadline deadline = Deadline.start(10, TimeUnit.MILLISECONDS, exceeded)) {
+            Thread.sleep(50);
+            assertTrue(deadline.isExpired());
+            try {
+                deadline.register(new HttpPost("http://localhost"));
+                fail("the request should have been refused");
+            } catch (DeadlineExceededException e) {
+                assertEquals(1, exceeded.get());
+            }
+            deadline.failure(null);
+            assertEquals("a deadline is only counted once", 1, exceeded.get());
+        }
+    }
+
+    @Test
+    public void shouldAbortRequestsInFlightWhenCancelled() {
+        HttpPost request = new HttpPost("http://localhost");
+        try (Deadline deadline = Deadline.start(0, TimeUnit.MILLISECONDS, exceeded)) {
+            deadline.register(request);
+            deadline.cancel();
+
+            assertTrue(request.isAborted());
+            assertTrue(deadline.failure(new RuntimeException()) instanceof CancellationException);
+            assertEquals(0, exceeded.get());
+        }
+    }
+
+    @Test
+    public void shouldAbortRequestsInFlightWhenTheDeadlinePasses() throws InterruptedException {
+        final CountDownLatch aborted = new CountDownLatch(1);
+        HttpPost request = new HttpPost("http://localhost") {
+            @Override
+            public void abort() {
+                super.abort();
+                aborted.countDown();
+            }
+        };
+        // long enough that the request is registered well before the deadline passes, however slow the machine
+        try (Deadline deadline = Deadline.start(1, TimeUnit.SECONDS, exceeded)) {
+            deadline.register(request);
+            assertFalse(request.isAborted());
+            assertTrue(request.getConfig().getSocketTimeout() <= 1000);
+
+            assertTrue("the request was not aborted", aborted.await(30, TimeUnit.SECONDS));
+            assertTrue(deadline.isExpired());
+            assertFalse(deadline.isCancelled());
+        }
+    }
+
+    @Test
+    public void shouldNotAbortRequestsThatHaveBeenReleased() throws InterruptedException {
+        HttpPost request = new HttpPost("http://localhost");
+        try (Deadline deadline = Deadline.start(0, TimeUnit.MILLISECONDS, exceeded)) {
+            deadline.register(request);
+            deadline.release(request);
+            deadline.cancel();
+
+            assertFalse(request.isAborted());
+        }
+    }
+
+    @Test
+    public void shouldNotOutliveTheDeadlineItWasStartedWithin() {
+        try (Deadline outer = Deadline.start(1, TimeUnit.SECONDS, exceeded)) {
+            try (Deadline inner = Deadline.start(1, TimeUnit.HOURS, exceeded)) {
+                assertSame(inner, Deadline.current());
+                assertTrue(inner.remainingMillis() <= 1000);
+
+                outer.cancel();
+                assertTrue(inner.isCancelled());
+            }
+            assertSame(outer, Deadline.current());
+        }
+    }
+
+    @Test
+    public void shouldUseTheCurrentDeadlineForRequestsButNotForRollbacks() {
+        assertNull(Deadline.forRequest(0, exceeded));
+        assertNotNull(Deadline.forRequest(1000, exceeded));
+
+        try (Deadline deadline = Deadline.start(1, TimeUnit.SECONDS, exceeded)) {
+            deadline.cancel();
+            assertSame(deadline, Deadline.forRequest(0, exceeded));
+            assertNull(Deadline.forRollback(0, exceeded));
+        }
+    }
+}
@@ -0,0 +1,183 @@
+/*
+ * Copyright (c) 2002-2015 "Neo Technology,"
+ * Network Engine for Objects in Lund AB [http://neotechnology.com]
+ *
+ * This product is licensed to you under the Apache License, Version 2.0 (the "License").
+ * You may not use this product except in compliance with the License.
+ *
+ * This product may include a number of subcomponents with
+ * separate copyright notices and license terms. Your use of the source
+ * code for these subcomponents is subject to the terms and
+ * conditions of the subcomponent's license, as noted in the LICENSE file.
+ *
+ */
+package org.neo4j.ogm.unit.session.request;
+
+import static org.junit.Assert.*;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.Test;
+import org.neo4j.ogm.cypher.statement.ParameterisedStatement;
+import org.neo4j.ogm.session.SlowQueryListener;
+import org.neo4j.ogm.session.Utils;
+import org.neo4j.ogm.session.request.Neo4jRequest;
+import org.neo4j.ogm.session.request.SessionRequestHandler;
+import org.neo4j.ogm.session.request.SlowQuery;
+import org.neo4j.ogm.session.request.SlowQueryLog;
+import org.neo4j.ogm.session.response.Neo4jResponse;
+import org.neo4j.ogm.session.result.ResultProcessingException;
+
+public class SlowQueryLogTest {
+
+    private final ObjectMapper mapper = new ObjectMapper();
+    private final List<SlowQuery> reported = new ArrayList<>();
+
+    private final SlowQueryListener listener = new SlowQueryListener() {
+        @Override
+        public void slowQuery(SlowQuery query) {
+            reported.add(query);
+        }
+    };
+
+    @Test
+    public void shouldReplaceLiteralsInFingerprints() {
+        assertEquals("MATCH (n:`Person`) WHERE n.name = ? AND n.age > ? RETURN n SKIP ? LIMIT ?",
+                SlowQueryLog.fingerprint("MATCH (n:`Person`)\n  WHERE n.name = 'Bob' AND n.age >  42\nRETURN n SKIP 10 LIMIT 20"));
+        assertEquals("MATCH (n) WHERE n.name = ? RETURN n",
+                SlowQueryLog.fingerprint("MATCH (n) WHERE n.name = \"it's \\\"quoted\\\"\" RETURN n"));
+        assertEquals("MATCH (n) WHERE id(n) IN [?] RETURN n",
+                SlowQueryLog.fingerprint("MATCH (n) WHERE id(n) IN [1, 2, 3] RETURN n"));
+    }
+
+    @Test
+    public void shouldKeepQuotedIdentifiersAndParameterNamesInFingerprints() {
+        assertEquals("MATCH ($0:`l'artiste`)-[_1:`HAS-ALBUM`]->(n1) WHERE id($0)={$0} RETURN n1",
+                SlowQueryLog.fingerprint("MATCH ($0:`l'artiste`)-[_1:`HAS-ALBUM`]->(n1) WHERE id($0)={$0} RETURN n1"));
+    }
+
+    @Test
+    public void shouldReportRequestsOverTheThresholdWithTheirRows() {
+        SlowQueryLog log = new SlowQueryLog(0, TimeUnit.MILLISECONDS, 1.0, 3, listener);
+
+        try (Neo4jResponse<String> response = execute(log, new ParameterisedStatement("MATCH (n) WHERE n.name = 'Bob' RETURN n", Utils.map("name", "Roberto")))) {
+            while (response.next() != null) {
+            }
+        }
+
+        assertEquals(1, reported.size());
+        SlowQuery query = reported.get(0);
+        assertEquals("MATCH (n) WHERE n.name = ? RETURN n", query.getFingerprint());
+        assertEquals("Rob...", query.getParameters().get(0).get("name"));
+        assertEquals(2, query.getRows());
+        assertEquals("url", query.getUrl());
+        assertFalse(query.isFailed());
+        assertEquals(query.getWaitMillis() + query.getParseMillis() + query.getMapMillis(), query.getTotalMillis());
+    }
+
+    @Test
+    public void shouldReportOnlyOnceTheResponseIsClosed() {
+        SlowQueryLog log = new SlowQueryLog(0, TimeUnit.MILLISECONDS, 1.0, 0, listener);
+
+        Neo4jResponse<String> response = execute(log, new ParameterisedStatement("RETURN 1", Collections.<String, Object>emptyMap()));
+        assertTrue(reported.isEmpty());
+
+        response.close();
+        response.close();
+        assertEquals(1, reported.size());
+    }
+
+    @Test
+    public void shouldOmitParameterValuesIfAskedTo() {
+        SlowQueryLog log = new SlowQueryLog(0, TimeUnit.MILLISECONDS, 1.0, 0, listener);
+
+        execute(log, new ParameterisedStatement("RETURN {secret}", Utils.map("secret", "hunter2"))).close();
+
+        assertEquals("?", reported.get(0).getParameters().get(0).get("secret"));
+    }
+
+    @Test
+    public void shouldNotReportRequestsUnderTheThreshold() {
+        SlowQueryLog log = new SlowQueryLog(1, TimeUnit.HOURS, 1.0, 10, listener);
+
+        execute(log, new ParameterisedStatement("RETURN 1", Collections.<String, Object>emptyMap())).close();
+
+        assertTrue(reported.isEmpty());
+    }
+
+    @Test
+    public void shouldNotReportRequestsThatAreNotSampled() {
+        SlowQueryLog log = new SlowQueryLog(0, TimeUnit.MILLISECONDS, 0.0, 10, listener);
+
+        execute(log, new ParameterisedStatement("RETURN 1", Collections.<String, Object>emptyMap())).close();
+
+        assertTrue(reported.isEmpty());
+    }
+
+    @Test
+    public void shouldReportFailedRequests() {
+        SlowQueryLog log = new SlowQueryLog(0, TimeUnit.MILLISECONDS, 1.0, 10, listener);
+        Neo4jRequest<String> failing = new Neo4jRequest<String>() {
+            @Override
+            public Neo4jResponse<String> execute(String url, String request) {
+                throw new ResultProcessingException("Failed to execute request: " + request, null);
+            }
+        };
+
+        try {
+            new SessionRequestHandler(mapper, failing, null, log).execute(new ParameterisedStatement("RETURN 1", Collections.<String, Object>emptyMap()), "url");
+            fail("the request should have failed");
+        } catch (ResultProcessingException e) {
+            assertEquals(1, reported.size());
+            assertTrue(reported.get(0).isFailed());
+            assertEquals("RETURN ?", reported.get(0).getFingerprint());
+        }
+    }
+
+    private Neo4jResponse<String> execute(SlowQueryLog log, ParameterisedStatement statement) {
+        Neo4jRequest<String> request = new Neo4jRequest<String>() {
+            @Override
+            public Neo4jResponse<String> execute(String url, String request) {
+                return new RowsResponse("{\"row\":[1]}", "{\"row\":[2]}");
+            }
+        };
+        return new SessionRequestHandler(mapper, request, null, log).execute(statement, "url");
+    }
+
+    private static class RowsResponse implements Neo4jResponse<String> {
+
+        private final String[] rows;
+        private int next;
+
+        RowsResponse(String... rows) {
+            this.rows = rows;
+        }
+
+        @Override
+        public String next() {
+            return next < rows.length ? rows[next++] : null;
+        }
+
+        @Override
+        public void close() {
+        }
+
+        @Override
+        public void initialiseScan(ResponseRecord record) {
+        }
+
+        @Override
+        public String[] columns() {
+            return new String[] { "n" };
+        }
+
+        @Override
+        public int rowId() {
+            return next - 1;
+        }
+    }
+}
@@ -0,0 +1,109 @@
+/*
+ * Copyright (c) 2002-2015 "Neo Technology,"
+ * Network Engine for Objects in Lund AB [http://neotechnology.com]
+ *
+ * This product is licensed to you under the Apache License, Version 2.0 (the "License").
+ * You may not use this product except in compliance with the License.
+ *
+ * This product may include a number of subcomponents with
+ * separate copyright notices and license terms. Your use of the source
+ * code for these subcomponents is subject to the terms and
+ * conditions of the subcomponent's license, as noted in the LICENSE file.
+ *
+ */
+
+package org.neo4j.ogm.unit.session.request;
+
+import static org.junit.Assert.*;
+
+import java.io.ByteArrayOutputStream;
+import java.util.Arrays;
+import java.util.Collections;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.Test;
+import org.neo4j.ogm.cypher.statement.ParameterisedStatement;
+import org.neo4j.ogm.cypher.statement.ParameterisedStatements;
+import org.neo4j.ogm.session.Utils;
+import org.neo4j.ogm.session.request.Neo4jRequest;
+import org.neo4j.ogm.session.request.SessionRequestHandler;
+import org.neo4j.ogm.session.request.StatementsEntity;
+import org.neo4j.ogm.session.request.StreamingRequest;
+import org.neo4j.ogm.session.response.EmptyResponse;
+import org.neo4j.ogm.session.response.Neo4jResponse;
+
+public class StreamingRequestTest {
+
+    private final ObjectMapper mapper = new ObjectMapper();
+
+    @Test
+    public void shouldWriteTheSameJsonAsTheStringSerialisation() throws Exception {
+        ParameterisedStatements statements = new ParameterisedStatements(Arrays.asList(
+                new ParameterisedStatement("MATCH (n) WHERE id(n) = { id } RETURN n", Utils.map("id", 1L)),
+                new ParameterisedStatement("CREATE (n { props })", Utils.map("props", Utils.map("name", "café", "score", 0.5)))));
+
+        StatementsEntity entity = new StatementsEntity(mapper, statements);
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        entity.writeTo(out);
+
+        assertEquals(mapper.writeValueAsString(statements), out.toString("UTF-8"));
+        assertTrue(entity.isChunked());
+        assertTrue(entity.isRepeatable());
+    }
+
+    @Test
+    public void shouldDescribeTheStatementsWithoutSerialisingThem() {
+        ParameterisedStatements statements = new ParameterisedStatements(Arrays.asList(
+                new ParameterisedStatement("RETURN 1", Collections.<String, Object>emptyMap()),
+                new ParameterisedStatement("RETURN 2", Collections.<String, Object>emptyMap())));
+
+        assertEquals("2 statements", new StatementsEntity(mapper, statements).toString());
+    }
+
+    @Test
+    public void shouldStreamStatementsToStreamingRequests() {
+        StreamingStub request = new StreamingStub();
+        new SessionRequestHandler(mapper, request).execute(new ParameterisedStatement("RETURN 1", Collections.<String, Object>emptyMap()), "url");
+
+        assertNotNull(request.streamed);
+        assertNull(request.json);
+    }
+
+    @Test
+    public void shouldNotSendEmptyStatements() {
+        StreamingStub request = new StreamingStub();
+        Neo4jResponse<String> response = new SessionRequestHandler(mapper, request).execute(
+                Arrays.asList(new ParameterisedStatement("RETURN 1", Collections.<String, Object>emptyMap()),
+                        new ParameterisedStatement("", Collections.<String, Object>emptyMap())), "url");
+
+        assertTrue(response instanceof EmptyResponse);
+        assertNull(request.streamed);
+        assertNull(request.json);
+    }
+
+    @Test
+    public void shouldNotTreatEmptyParametersAsEmptyStatements() {
+        StreamingStub request = new StreamingStub();
+        new SessionRequestHandler(mapper, request).execute(new ParameterisedStatement("RETURN { statement }", Utils.map("statement", "")), "url");
+
+        assertNotNull(request.streamed);
+    }
+
+    private static class StreamingStub implements Neo4jRequest<String>, StreamingRequest {
+
+        private String json;
+        private StatementsEntity streamed;
+
+        @Override
+        public Neo4jResponse<String> execute(String url, String jsonStatements) {
+            json = jsonStatements;
+            return new EmptyResponse();
+        }
+
+        @Override
+        public Neo4jResponse<String> execute(String url, StatementsEntity statements) {
+            streamed = statements;
+            return new EmptyResponse();
+        }
+    }
+}
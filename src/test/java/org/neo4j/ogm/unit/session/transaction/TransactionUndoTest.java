@@ -0,0 +1,145 @@
+/*
+ * Copyright (c) 2002-2015 "Neo Technology,"
+ * Network Engine for Objects in Lund AB [http://neotechnology.com]
+ *
+ * This product is licensed to you under the Apache License, Version 2.0 (the "License").
+ * You may not use this product except in compliance with the License.
+ *
+ * This product may include a number of subcomponents with
+ * separate copyright notices and license terms. Your use of the source
+ * code for these subcomponents is subject to the terms and
+ * conditions of the subcomponent's license, as noted in the LICENSE file.
+ *
+ */
+package org.neo4j.ogm.unit.session.transaction;
+
+import static org.junit.Assert.*;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.neo4j.ogm.cypher.compiler.CypherContext;
+import org.neo4j.ogm.domain.education.Course;
+import org.neo4j.ogm.domain.education.Teacher;
+import org.neo4j.ogm.domain.tracking.Singer;
+import org.neo4j.ogm.mapper.MappedRelationship;
+import org.neo4j.ogm.mapper.MappingContext;
+import org.neo4j.ogm.metadata.MetaData;
+import org.neo4j.ogm.session.transaction.SimpleTransaction;
+import org.neo4j.ogm.session.transaction.Transaction;
+
+public class TransactionUndoTest {
+
+    private static final MetaData metaData = new MetaData("org.neo4j.ogm.domain.education");
+
+    private MappingContext mappingContext;
+    private Teacher teacher;
+    private MappedRelationship teaches;
+
+    @Before
+    public void setUp() {
+        mappingContext = new MappingContext(metaData);
+
+        teacher = new Teacher("Ms Thompson");
+        teacher.setId(1L);
+        mappingContext.registerNodeEntity(teacher, 1L);
+        mappingContext.remember(teacher);
+
+        Course course = new Course("GCSE Design & Technology");
+        course.setId(2L);
+        mappingContext.registerNodeEntity(course, 2L);
+        mappingContext.remember(course);
+
+        teaches = new MappedRelationship(1L, "COURSES", 2L, Teacher.class, Course.class);
+        mappingContext.registerRelationship(teaches);
+    }
+
+    @Test
+    public void shouldForgetEntitiesCreatedInARolledBackTransaction() {
+        Course course = new Course("GNVQ Business Studies");
+        MappedRelationship newlyTaught = new MappedRelationship(1L, "COURSES", 3L, Teacher.class, Course.class);
+
+        Transaction tx = new SimpleTransaction(mappingContext, "");
+        create(course, 3L);
+        mappingContext.mappedRelationships().add(newlyTaught);
+        tx.rollback();
+
+        assertNull(course.getId());
+        assertNull(mappingContext.getNodeEntity(3L));
+        assertFalse(mappingContext.getAll(Course.class).contains(course));
+        assertTrue(mappingContext.isDirty(course));
+        assertFalse(mappingContext.isRegisteredRelationship(newlyTaught));
+        assertTrue(mappingContext.isRegisteredRelationship(teaches));
+    }
+
+    @Test
+    public void shouldTakeATrackedEntitySavedInARolledBackTransactionToHaveChanged() {
+        MappingContext context = new MappingContext(new MetaData("org.neo4j.ogm.domain.tracking"));
+        Singer singer = new Singer("Cilla Black");
+        context.remember(singer);
+
+        Transaction tx = new SimpleTransaction(context, "");
+        singer.setName("Priscilla White");
+        context.remember(singer); // as the transaction does when it saves the singer
+        assertFalse(context.isDirty(singer));
+        tx.rollback();
+
+        assertTrue(context.isDirty(singer));
+    }
+
+    @Test
+    public void shouldRestoreEntitiesPurgedInARolledBackTransaction() {
+        Transaction tx = new SimpleTransaction(mappingContext, "");
+        mappingContext.clear(teacher);
+        assertNull(mappingContext.getNodeEntity(1L));
+        assertFalse(mappingContext.isRegisteredRelationship(teaches));
+        tx.close();
+
+        assertSame(teacher, mappingContext.getNodeEntity(1L));
+        assertTrue(mappingContext.getAll(Teacher.class).contains(teacher));
+        assertFalse(mappingContext.isDirty(teacher));
+        assertTrue(mappingContext.isRegisteredRelationship(teaches));
+    }
+
+    @Test
+    public void shouldRestoreTheMemosOfEntitiesRememberedInARolledBackTransaction() {
+        Transaction tx = new SimpleTransaction(mappingContext, "");
+        teacher.setName("Mrs Thompson");
+        mappingContext.remember(teacher);
+        tx.rollback();
+
+        assertTrue(mappingContext.isDirty(teacher));
+    }
+
+    @Test
+    public void shouldKeepChangesMadeInACommittedTransaction() {
+        Course course = new Course("GNVQ Business Studies");
+
+        Transaction tx = new SimpleTransaction(mappingContext, "");
+        create(course, 3L);
+        tx.append(new CypherContext());
+        tx.commit();
+        tx.close();
+
+        assertEquals(Long.valueOf(3L), course.getId());
+        assertSame(course, mappingContext.getNodeEntity(3L));
+        assertFalse(mappingContext.isDirty(course));
+    }
+
+    @Test
+    public void shouldNotRestoreAnythingOnceTheContextHasBeenCleared() {
+        Transaction tx = new SimpleTransaction(mappingContext, "");
+        mappingContext.clear(teacher);
+        mappingContext.clear();
+        tx.rollback();
+
+        assertNull(mappingContext.getNodeEntity(1L));
+        assertTrue(mappingContext.mappedRelationships().isEmpty());
+    }
+
+    // as the response to a save does for a newly created entity
+    private void create(Object entity, Long id) {
+        mappingContext.setIdentity(entity, id);
+        mappingContext.registerNodeEntity(entity, id);
+        mappingContext.remember(entity);
+    }
+}